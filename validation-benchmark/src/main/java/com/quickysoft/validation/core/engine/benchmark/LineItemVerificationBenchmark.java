@@ -15,7 +15,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * JMH benchmark for line item verification expression evaluation across SpEL, MVEL, and JEXL.
+ * JMH benchmark for line item verification expression evaluation across SpEL, MVEL, JEXL and the built-in DSL.
  * 
  * Line item verification case: Calculate sum of line items and compare with cart total
  * Expression: Sum of (quantity * product.price) == cartTotalAmount
@@ -31,6 +31,7 @@ public class LineItemVerificationBenchmark {
     private ExpressionEvaluator spelEvaluator;
     private ExpressionEvaluator mvelEvaluator;
     private ExpressionEvaluator jexlEvaluator;
+    private ExpressionEvaluator nativeEvaluator;
     
     private ValidationContext<Object> context;
     
@@ -62,12 +63,32 @@ public class LineItemVerificationBenchmark {
             "} " +
             "context.shoppingCart.cartTotalAmount.compareTo(sum) == 0";
     
+    // Built-in DSL expression - sum() with a lambda over the line items
+    private String nativeExpression =
+            "context.shoppingCart.cartTotalAmount == " +
+            "sum(context.shoppingCart.lineItems, li -> li.product.price * li.quantity)";
+    
+    // Same check through the shared function library (#fn / fn)
+    private String spelFunctionExpression =
+            "#fn.eq(#context.shoppingCart.cartTotalAmount, " +
+            "#fn.sumProduct(#context.shoppingCart.lineItems, 'product.price', 'quantity'))";
+    
+    private String mvelFunctionExpression =
+            "fn.eq(context.shoppingCart.cartTotalAmount, " +
+            "fn.sumProduct(context.shoppingCart.lineItems, 'product.price', 'quantity'))";
+    
+    // JEXL's default permissions hide application bean properties, so paths are read through fn.get
+    private String jexlFunctionExpression =
+            "fn.eq(fn.get(context.shoppingCart, 'cartTotalAmount'), " +
+            "fn.sumProduct(fn.get(context.shoppingCart, 'lineItems'), 'product.price', 'quantity'))";
+    
     @Setup
     public void setup() {
         ExpressionEvaluatorFactory factory = ExpressionEvaluatorFactory.getInstance();
         spelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.SPEL);
         mvelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.MVEL);
         jexlEvaluator = factory.getEvaluator(ExpressionEvaluatorType.JEXL);
+        nativeEvaluator = factory.getEvaluator(ExpressionEvaluatorType.NATIVE);
         
         // Create shopping cart with test data
         ShoppingCart cart = createShoppingCart();
@@ -133,5 +154,25 @@ public class LineItemVerificationBenchmark {
     public boolean benchmarkJEXL() throws Exception {
         return jexlEvaluator.evaluate(jexlExpression, context);
     }
+    
+    @Benchmark
+    public boolean benchmarkSpELFunctions() throws Exception {
+        return spelEvaluator.evaluate(spelFunctionExpression, context);
+    }
+    
+    @Benchmark
+    public boolean benchmarkMVELFunctions() throws Exception {
+        return mvelEvaluator.evaluate(mvelFunctionExpression, context);
+    }
+    
+    @Benchmark
+    public boolean benchmarkJEXLFunctions() throws Exception {
+        return jexlEvaluator.evaluate(jexlFunctionExpression, context);
+    }
+    
+    @Benchmark
+    public boolean benchmarkNative() throws Exception {
+        return nativeEvaluator.evaluate(nativeExpression, context);
+    }
 }
 
@@ -10,7 +10,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * JMH benchmark for medium complexity expression evaluation across SpEL, MVEL, and JEXL.
+ * JMH benchmark for medium complexity expression evaluation across SpEL, MVEL, JEXL and the built-in DSL.
  * 
  * Medium complex case: Multiple conditions with payload and context variables
  * Expression: payload.age >= 18 && context.channel == 'WEB' && context.country == 'US'
@@ -29,6 +29,7 @@ public class MediumComplexExpressionBenchmark {
     private ExpressionEvaluator spelEvaluator;
     private ExpressionEvaluator mvelEvaluator;
     private ExpressionEvaluator jexlEvaluator;
+    private ExpressionEvaluator nativeEvaluator;
     
     private ValidationContext<Customer> context;
     
@@ -41,12 +42,16 @@ public class MediumComplexExpressionBenchmark {
     // JEXL expression
     private String jexlExpression = "payload.age >= 18 && context.channel == 'WEB' && context.country == 'US'";
     
+    // Built-in DSL expression
+    private String nativeExpression = "payload.age >= 18 && context.channel == 'WEB' && context.country == 'US'";
+    
     @Setup
     public void setup() {
         ExpressionEvaluatorFactory factory = ExpressionEvaluatorFactory.getInstance();
         spelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.SPEL);
         mvelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.MVEL);
         jexlEvaluator = factory.getEvaluator(ExpressionEvaluatorType.JEXL);
+        nativeEvaluator = factory.getEvaluator(ExpressionEvaluatorType.NATIVE);
         
         // Create customer payload
         Customer customer = new Customer("John", 25, "john@example.com");
@@ -70,5 +75,10 @@ public class MediumComplexExpressionBenchmark {
     public boolean benchmarkJEXL() throws Exception {
         return jexlEvaluator.evaluate(jexlExpression, context);
     }
+    
+    @Benchmark
+    public boolean benchmarkNative() throws Exception {
+        return nativeEvaluator.evaluate(nativeExpression, context);
+    }
 }
 
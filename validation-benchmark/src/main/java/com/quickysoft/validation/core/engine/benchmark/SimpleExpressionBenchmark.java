@@ -10,7 +10,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * JMH benchmark for simple expression evaluation across SpEL, MVEL, and JEXL.
+ * JMH benchmark for simple expression evaluation across SpEL, MVEL, JEXL and the built-in DSL.
  * 
  * Simple case: Basic context variable comparison
  * Expression: context.channel == 'WEB'
@@ -26,6 +26,7 @@ public class SimpleExpressionBenchmark {
     private ExpressionEvaluator spelEvaluator;
     private ExpressionEvaluator mvelEvaluator;
     private ExpressionEvaluator jexlEvaluator;
+    private ExpressionEvaluator nativeEvaluator;
     
     private ValidationContext<Object> context;
     
@@ -38,12 +39,16 @@ public class SimpleExpressionBenchmark {
     // JEXL expression
     private String jexlExpression = "context.channel == 'WEB'";
     
+    // Built-in DSL expression
+    private String nativeExpression = "context.channel == 'WEB'";
+    
     @Setup
     public void setup() {
         ExpressionEvaluatorFactory factory = ExpressionEvaluatorFactory.getInstance();
         spelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.SPEL);
         mvelEvaluator = factory.getEvaluator(ExpressionEvaluatorType.MVEL);
         jexlEvaluator = factory.getEvaluator(ExpressionEvaluatorType.JEXL);
+        nativeEvaluator = factory.getEvaluator(ExpressionEvaluatorType.NATIVE);
         
         // Create validation context with test data
         Map<String, Object> contextAttributes = Map.of("channel", "WEB", "country", "US");
@@ -64,5 +69,10 @@ public class SimpleExpressionBenchmark {
     public boolean benchmarkJEXL() throws Exception {
         return jexlEvaluator.evaluate(jexlExpression, context);
     }
+    
+    @Benchmark
+    public boolean benchmarkNative() throws Exception {
+        return nativeEvaluator.evaluate(nativeExpression, context);
+    }
 }
 
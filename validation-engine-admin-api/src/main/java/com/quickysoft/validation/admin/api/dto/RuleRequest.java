@@ -1,5 +1,7 @@
 package com.quickysoft.validation.admin.api.dto;
 
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
 import com.quickysoft.validation.core.model.ScriptLocationType;
 import com.quickysoft.validation.core.model.Severity;
 import jakarta.validation.constraints.NotBlank;
@@ -31,10 +33,12 @@ public record RuleRequest(
         
         // Expression rule fields
         String expression,
+        ExpressionEvaluatorType evaluatorType,
         
         // Groovy script rule fields
         ScriptLocationType scriptLocationType,
         String scriptReference,
+        ScriptCompilationMode compilationMode,
         
         // Common fields
         String failureMessageTemplate,
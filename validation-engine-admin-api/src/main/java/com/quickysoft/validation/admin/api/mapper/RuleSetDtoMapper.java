@@ -1,7 +1,9 @@
 package com.quickysoft.validation.admin.api.mapper;
 
 import com.quickysoft.validation.admin.api.dto.*;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
 import com.quickysoft.validation.core.model.*;
+import com.quickysoft.validation.starter.ValidationEngineProperties;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -13,6 +15,12 @@ import java.util.stream.Collectors;
 @Component
 public class RuleSetDtoMapper {
     
+    private final ValidationEngineProperties properties;
+    
+    public RuleSetDtoMapper(ValidationEngineProperties properties) {
+        this.properties = properties;
+    }
+    
     /**
      * Converts RuleSetRequest to RuleSet domain model.
      */
@@ -39,6 +47,7 @@ public class RuleSetDtoMapper {
      */
     public Rule toDomain(String tenantId, String ruleSetCode, RuleRequest request) {
         if (request.ruleType() == RuleRequest.RuleType.EXPRESSION) {
+            requireEnabledEvaluator(request.evaluatorType());
             return ExpressionRule.builder()
                     .tenantId(tenantId)
                     .ruleCode(request.ruleCode())
@@ -51,6 +60,7 @@ public class RuleSetDtoMapper {
                     .metadata(request.metadata())
                     .failureMessageTemplate(request.failureMessageTemplate())
                     .expression(request.expression())
+                    .evaluatorType(request.evaluatorType())
                     .build();
         } else if (request.ruleType() == RuleRequest.RuleType.GROOVY) {
             return GroovyScriptRule.builder()
@@ -66,12 +76,26 @@ public class RuleSetDtoMapper {
                     .failureMessageTemplate(request.failureMessageTemplate())
                     .scriptLocationType(request.scriptLocationType())
                     .scriptReference(request.scriptReference())
+                    .compilationMode(request.compilationMode())
                     .build();
         } else {
             throw new IllegalArgumentException("Unknown rule type: " + request.ruleType());
         }
     }
     
+    /**
+     * Rejects evaluator types that are disabled in this deployment (JAVA unless
+     * {@code quickysoft.validation.expression.java-enabled} is set).
+     * 
+     * @throws IllegalArgumentException if the evaluator type is not enabled
+     */
+    public void requireEnabledEvaluator(ExpressionEvaluatorType evaluatorType) {
+        if (evaluatorType == ExpressionEvaluatorType.JAVA && !properties.getExpression().isJavaEnabled()) {
+            throw new IllegalArgumentException("Evaluator type JAVA is not enabled "
+                    + "(set quickysoft.validation.expression.java-enabled=true)");
+        }
+    }
+    
     /**
      * Converts RuleSet domain model to RuleSetResponse.
      */
@@ -108,6 +132,10 @@ public class RuleSetDtoMapper {
                 ? ((ExpressionRule) domain).expression() 
                 : null;
         
+        ExpressionEvaluatorType evaluatorType = domain instanceof ExpressionRule 
+                ? ((ExpressionRule) domain).evaluatorType() 
+                : null;
+        
         ScriptLocationType scriptLocationType = domain instanceof GroovyScriptRule 
                 ? ((GroovyScriptRule) domain).scriptLocationType() 
                 : null;
@@ -116,6 +144,10 @@ public class RuleSetDtoMapper {
                 ? ((GroovyScriptRule) domain).scriptReference() 
                 : null;
         
+        ScriptCompilationMode compilationMode = domain instanceof GroovyScriptRule 
+                ? ((GroovyScriptRule) domain).compilationMode() 
+                : null;
+        
         return new RuleResponse(
                 domain.id(),
                 domain.tenantId(),
@@ -127,8 +159,10 @@ public class RuleSetDtoMapper {
                 domain.severity(),
                 ruleType,
                 expression,
+                evaluatorType,
                 scriptLocationType,
                 scriptReference,
+                compilationMode,
                 domain.failureMessageTemplate(),
                 domain.applicableContexts(),
                 domain.metadata(),
@@ -5,7 +5,7 @@ import com.quickysoft.validation.admin.api.exception.ResourceNotFoundException;
 import com.quickysoft.validation.admin.api.mapper.RuleSetDtoMapper;
 import com.quickysoft.validation.core.model.Rule;
 import com.quickysoft.validation.core.model.RuleSet;
-import com.quickysoft.validation.persistence.cache.RuleSetCache;
+import com.quickysoft.validation.core.provider.RuleSetProvider;
 import com.quickysoft.validation.persistence.entity.RuleEntity;
 import com.quickysoft.validation.persistence.entity.RuleSetEntity;
 import com.quickysoft.validation.persistence.mapper.RuleSetMapper;
@@ -30,20 +30,20 @@ public class RuleAdminService {
     private final RuleRepository ruleRepository;
     private final RuleSetMapper persistenceMapper;
     private final RuleSetDtoMapper dtoMapper;
-    private final RuleSetCache cache;
+    private final RuleSetProvider ruleSetProvider;
     
     public RuleAdminService(
             RuleSetRepository ruleSetRepository,
             RuleRepository ruleRepository,
             RuleSetMapper persistenceMapper,
             RuleSetDtoMapper dtoMapper,
-            RuleSetCache cache
+            RuleSetProvider ruleSetProvider
     ) {
         this.ruleSetRepository = ruleSetRepository;
         this.ruleRepository = ruleRepository;
         this.persistenceMapper = persistenceMapper;
         this.dtoMapper = dtoMapper;
-        this.cache = cache;
+        this.ruleSetProvider = ruleSetProvider;
     }
     
     /**
@@ -75,7 +75,10 @@ public class RuleAdminService {
         // Convert to entity and add to rule set
         RuleEntity entity = persistenceMapper.toEntity(domain, ruleSetEntity);
         ruleSetEntity.getRules().add(entity);
-        ruleSetEntity = ruleSetRepository.save(ruleSetEntity);
+        // Rule changes do not dirty the rule set row, so bump its version stamp explicitly; flush so
+        // the cached copy carries the stamp the database ends up with
+        ruleSetEntity.touch();
+        ruleSetEntity = ruleSetRepository.saveAndFlush(ruleSetEntity);
         
         // Convert back to domain model
         RuleSet ruleSet = persistenceMapper.toDomain(ruleSetEntity);
@@ -85,8 +88,8 @@ public class RuleAdminService {
                 .orElseThrow();
         
         // Write-through cache
-        cache.evictRuleSet(tenantId, ruleSetCode, version);
-        cache.putRuleSet(ruleSet);
+        ruleSetProvider.evictRuleSet(tenantId, ruleSetCode, version);
+        ruleSetProvider.cacheRuleSet(ruleSet);
         logger.info("Added rule: tenantId={}, ruleSetCode={}, ruleCode={}", tenantId, ruleSetCode, request.ruleCode());
         
         return saved;
@@ -97,6 +100,7 @@ public class RuleAdminService {
      */
     @Transactional
     public Rule updateRule(String tenantId, String ruleSetCode, String version, String ruleCode, RuleRequest request) {
+        dtoMapper.requireEnabledEvaluator(request.evaluatorType());
         RuleSetEntity ruleSetEntity = ruleSetRepository.findByTenantIdAndCodeAndVersion(
                 tenantId, ruleSetCode, version
         ).orElseThrow(() -> new ResourceNotFoundException(
@@ -129,12 +133,15 @@ public class RuleAdminService {
         
         if (request.ruleType() == com.quickysoft.validation.admin.api.dto.RuleRequest.RuleType.EXPRESSION) {
             existing.setExpression(request.expression());
+            existing.setEvaluatorType(request.evaluatorType());
         } else if (request.ruleType() == com.quickysoft.validation.admin.api.dto.RuleRequest.RuleType.GROOVY) {
             existing.setScriptLocationType(request.scriptLocationType());
             existing.setScriptReference(request.scriptReference());
+            existing.setScriptCompilationMode(request.compilationMode());
         }
         
-        ruleSetEntity = ruleSetRepository.save(ruleSetEntity);
+        ruleSetEntity.touch();
+        ruleSetEntity = ruleSetRepository.saveAndFlush(ruleSetEntity);
         
         // Convert back to domain model
         RuleSet ruleSet = persistenceMapper.toDomain(ruleSetEntity);
@@ -144,8 +151,8 @@ public class RuleAdminService {
                 .orElseThrow();
         
         // Write-through cache
-        cache.evictRuleSet(tenantId, ruleSetCode, version);
-        cache.putRuleSet(ruleSet);
+        ruleSetProvider.evictRuleSet(tenantId, ruleSetCode, version);
+        ruleSetProvider.cacheRuleSet(ruleSet);
         logger.info("Updated rule: tenantId={}, ruleSetCode={}, ruleCode={}", tenantId, ruleSetCode, ruleCode);
         
         return updated;
@@ -174,12 +181,13 @@ public class RuleAdminService {
         
         // Soft delete: set enabled to false
         rule.setEnabled(false);
-        ruleSetEntity = ruleSetRepository.save(ruleSetEntity);
+        ruleSetEntity.touch();
+        ruleSetEntity = ruleSetRepository.saveAndFlush(ruleSetEntity);
         
         // Write-through cache
         RuleSet ruleSet = persistenceMapper.toDomain(ruleSetEntity);
-        cache.evictRuleSet(tenantId, ruleSetCode, version);
-        cache.putRuleSet(ruleSet);
+        ruleSetProvider.evictRuleSet(tenantId, ruleSetCode, version);
+        ruleSetProvider.cacheRuleSet(ruleSet);
         logger.info("Deactivated rule: tenantId={}, ruleSetCode={}, ruleCode={}", tenantId, ruleSetCode, ruleCode);
     }
 }
@@ -5,7 +5,7 @@ import com.quickysoft.validation.admin.api.exception.ResourceConflictException;
 import com.quickysoft.validation.admin.api.exception.ResourceNotFoundException;
 import com.quickysoft.validation.admin.api.mapper.RuleSetDtoMapper;
 import com.quickysoft.validation.core.model.RuleSet;
-import com.quickysoft.validation.persistence.cache.RuleSetCache;
+import com.quickysoft.validation.core.provider.RuleSetProvider;
 import com.quickysoft.validation.persistence.entity.RuleSetEntity;
 import com.quickysoft.validation.persistence.mapper.RuleSetMapper;
 import com.quickysoft.validation.persistence.repository.RuleSetRepository;
@@ -30,18 +30,18 @@ public class RuleSetAdminService {
     private final RuleSetRepository repository;
     private final RuleSetMapper persistenceMapper;
     private final RuleSetDtoMapper dtoMapper;
-    private final RuleSetCache cache;
+    private final RuleSetProvider ruleSetProvider;
     
     public RuleSetAdminService(
             RuleSetRepository repository,
             RuleSetMapper persistenceMapper,
             RuleSetDtoMapper dtoMapper,
-            RuleSetCache cache
+            RuleSetProvider ruleSetProvider
     ) {
         this.repository = repository;
         this.persistenceMapper = persistenceMapper;
         this.dtoMapper = dtoMapper;
-        this.cache = cache;
+        this.ruleSetProvider = ruleSetProvider;
     }
     
     /**
@@ -67,8 +67,8 @@ public class RuleSetAdminService {
         // Convert back to domain model
         RuleSet saved = persistenceMapper.toDomain(entity);
         
-        // Write-through cache
-        cache.putRuleSet(saved);
+        // Write-through cache, via the provider so it also forgets any earlier "not found"
+        ruleSetProvider.cacheRuleSet(saved);
         logger.info("Created rule set: tenantId={}, code={}, version={}", tenantId, request.code(), request.version());
         
         return saved;
@@ -130,12 +130,14 @@ public class RuleSetAdminService {
             entity.getRules().add(persistenceMapper.toEntity(rule, entity));
         });
 
-        RuleSetEntity entity1 = repository.save(entity);
+        // Bump the version stamp even if only the rules changed, and flush so the cached copy carries it
+        entity.touch();
+        RuleSetEntity entity1 = repository.saveAndFlush(entity);
         RuleSet updated = persistenceMapper.toDomain(entity1);
         
         // Write-through cache
-        cache.evictRuleSet(tenantId, code, version);
-        cache.putRuleSet(updated);
+        ruleSetProvider.evictRuleSet(tenantId, code, version);
+        ruleSetProvider.cacheRuleSet(updated);
         logger.info("Updated rule set: tenantId={}, code={}, version={}", tenantId, code, version);
         
         return updated;
@@ -157,7 +159,7 @@ public class RuleSetAdminService {
         repository.save(entity);
         
         // Evict from cache
-        cache.evictRuleSet(tenantId, code, version);
+        ruleSetProvider.evictRuleSet(tenantId, code, version);
         logger.info("Deactivated rule set: tenantId={}, code={}, version={}", tenantId, code, version);
     }
     
@@ -175,7 +177,7 @@ public class RuleSetAdminService {
         repository.delete(entity);
         
         // Evict from cache
-        cache.evictRuleSet(tenantId, code, version);
+        ruleSetProvider.evictRuleSet(tenantId, code, version);
         logger.info("Hard deleted rule set: tenantId={}, code={}, version={}", tenantId, code, version);
     }
 }
@@ -83,6 +83,8 @@ class RuleSetControllerTest {
                                 null,
                                 null,
                                 null,
+                                null,
+                                null,
                                 Set.of(),
                                 null
                         )
@@ -0,0 +1,142 @@
+package com.quickysoft.validation.core.engine;
+
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
+import groovy.lang.GroovySystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * On-disk store of compiled Groovy script bytecode, so restarts load classes instead of
+ * recompiling them.
+ * 
+ * Entries are keyed by the content digest and compilation mode of a script, under a directory
+ * per Groovy version (bytecode from another compiler version is never reused). Each entry is one
+ * file holding the script class followed by its closure classes. Files are written to a temporary
+ * file and atomically moved into place, so readers never see a partial entry; unreadable entries
+ * are deleted and the script is recompiled.
+ */
+public class CompiledScriptStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompiledScriptStore.class);
+    
+    private static final int FORMAT = 0x56534331; // "VSC1"
+    
+    private final Path directory;
+    
+    /**
+     * Creates a store under the given base directory.
+     * 
+     * @param baseDirectory the base directory (created if missing)
+     */
+    public CompiledScriptStore(Path baseDirectory) {
+        this.directory = baseDirectory.resolve("groovy-" + GroovySystem.getVersion());
+    }
+    
+    /**
+     * Gets the directory holding entries for the running Groovy version.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Loads the classes stored for a script, script class first.
+     * 
+     * @return the stored classes, or an empty list if there is no usable entry
+     */
+    List<StoredClass> load(String digest, ScriptCompilationMode mode) {
+        Path file = file(digest, mode);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT) {
+                throw new IOException("Unknown format");
+            }
+            int count = in.readInt();
+            List<StoredClass> classes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytecode = new byte[in.readInt()];
+                in.readFully(bytecode);
+                classes.add(new StoredClass(name, bytecode));
+            }
+            return classes;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Discarding unreadable compiled script {}: {}", file, e.getMessage());
+            discard(digest, mode);
+            return List.of();
+        }
+    }
+    
+    /**
+     * Stores the classes compiled for a script, script class first. Failures are logged, since
+     * the store only saves compile time.
+     */
+    void save(String digest, ScriptCompilationMode mode, List<StoredClass> classes) {
+        Path file = file(digest, mode);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), digest, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT);
+                out.writeInt(classes.size());
+                for (StoredClass storedClass : classes) {
+                    out.writeUTF(storedClass.name());
+                    out.writeInt(storedClass.bytecode().length);
+                    out.write(storedClass.bytecode());
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Stored compiled script {} ({} classes)", file, classes.size());
+        } catch (IOException e) {
+            logger.warn("Failed to store compiled script {}: {}", file, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+    
+    /**
+     * Deletes the entry of a script, for example after its classes failed to load.
+     */
+    void discard(String digest, ScriptCompilationMode mode) {
+        try {
+            Files.deleteIfExists(file(digest, mode));
+        } catch (IOException e) {
+            logger.warn("Failed to delete compiled script {}: {}", file(digest, mode), e.getMessage());
+        }
+    }
+    
+    private Path file(String digest, ScriptCompilationMode mode) {
+        return directory.resolve(mode.name().toLowerCase(Locale.ROOT)).resolve(digest + ".classes");
+    }
+    
+    /**
+     * Bytecode of one compiled class.
+     */
+    record StoredClass(String name, byte[] bytecode) {
+    }
+}
@@ -3,43 +3,244 @@ package com.quickysoft.validation.core.engine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Composite script loader that delegates to multiple script loaders.
  * 
  * Tries each loader in order until one supports the location.
+ * 
+ * Failed loads are remembered for a short time (negative caching), so a missing or unreadable
+ * script fails fast instead of being reloaded and logged on every request. Each delegate also
+ * has a circuit breaker: after a number of consecutive source failures (not counting missing
+ * scripts) the delegate is skipped for a while, and all its loads fail fast, until a single
+ * trial load succeeds again.
  */
-public class CompositeScriptLoader implements ScriptLoader {
+public class CompositeScriptLoader implements ScriptLoader, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(CompositeScriptLoader.class);
     
+    private static final int NEGATIVE_CACHE_PURGE_SIZE = 10_000;
+    
     private final List<ScriptLoader> loaders = new ArrayList<>();
     
+    private final Map<ScriptLoader, CircuitBreaker> breakers = new IdentityHashMap<>();
+    
+    // tenantId:location -> recent failure
+    private final Map<String, CachedFailure> failures = new ConcurrentHashMap<>();
+    
+    private volatile long negativeCacheTtlNanos = Duration.ofSeconds(5).toNanos();
+    private volatile int failureThreshold = 5;
+    private volatile long openNanos = Duration.ofSeconds(30).toNanos();
+    
     /**
      * Adds a script loader to the composite.
      */
     public void addLoader(ScriptLoader loader) {
         if (loader != null) {
             loaders.add(loader);
+            breakers.put(loader, new CircuitBreaker());
         }
     }
     
+    /**
+     * Sets how long a failed load is remembered (default 5s); zero disables negative caching.
+     */
+    public void setNegativeCacheTtl(Duration negativeCacheTtl) {
+        this.negativeCacheTtlNanos = negativeCacheTtl.toNanos();
+    }
+    
+    /**
+     * Configures the per-loader circuit breaker (default: open for 30s after 5 consecutive
+     * failures). A threshold of zero disables it.
+     */
+    public void setCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+    
     @Override
     public String loadScript(String tenantId, String location) throws ScriptLoadException {
         for (ScriptLoader loader : loaders) {
             if (loader.supports(location)) {
-                logger.debug("Loading script with {}: {}", loader.getClass().getSimpleName(), location);
-                return loader.loadScript(tenantId, location);
+                return load(loader, tenantId, location);
             }
         }
         throw new ScriptLoadException("No script loader supports location: " + location);
     }
     
+    private String load(ScriptLoader loader, String tenantId, String location) throws ScriptLoadException {
+        String failureKey = tenantId + ":" + location;
+        CachedFailure failure = failures.get(failureKey);
+        if (failure != null) {
+            if (System.nanoTime() - failure.failedAt() < negativeCacheTtlNanos) {
+                throw new ScriptLoadException(failure.error().getMessage(), failure.error(),
+                        failure.error().isNotFound(), true);
+            }
+            failures.remove(failureKey, failure);
+        }
+        
+        CircuitBreaker breaker = breakers.get(loader);
+        boolean trial = false;
+        if (failureThreshold > 0 && breaker.isOpen()) {
+            trial = breaker.tryTrial(openNanos);
+            if (!trial) {
+                throw new ScriptLoadException(String.format("Script source %s unavailable (circuit open): %s",
+                        loader.getClass().getSimpleName(), location), null, false, true);
+            }
+        }
+        
+        logger.debug("Loading script with {}: {}", loader.getClass().getSimpleName(), location);
+        try {
+            String content = loader.loadScript(tenantId, location);
+            breaker.recordSuccess();
+            return content;
+        } catch (ScriptLoadException e) {
+            if (e.isNotFound()) {
+                // The source answered; only the script is missing
+                breaker.recordSuccess();
+            } else {
+                recordFailure(loader, breaker, trial, e);
+            }
+            if (negativeCacheTtlNanos > 0) {
+                if (failures.size() >= NEGATIVE_CACHE_PURGE_SIZE) {
+                    long now = System.nanoTime();
+                    failures.values().removeIf(cached -> now - cached.failedAt() >= negativeCacheTtlNanos);
+                }
+                if (failures.put(failureKey, new CachedFailure(e, System.nanoTime())) == null) {
+                    logger.warn("Failed to load script {} for tenant {}: {}", location, tenantId, e.getMessage());
+                }
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            // A loader bug or an unexpected client error still counts against the source
+            recordFailure(loader, breaker, trial, e);
+            throw e;
+        } finally {
+            if (trial) {
+                breaker.endTrial();
+            }
+        }
+    }
+    
+    private void recordFailure(ScriptLoader loader, CircuitBreaker breaker, boolean trial, Exception e) {
+        if (failureThreshold > 0 && breaker.recordFailure(failureThreshold, trial)) {
+            logger.warn("Opening circuit for script source {} after {} consecutive failure(s): {}",
+                    loader.getClass().getSimpleName(), failureThreshold, e.getMessage());
+        }
+    }
+    
     @Override
     public boolean supports(String location) {
         return loaders.stream().anyMatch(loader -> loader.supports(location));
     }
+    
+    /**
+     * Hands each location to the first loader that supports it and prefetches per loader.
+     */
+    @Override
+    public void prefetch(String tenantId, Collection<String> locations) {
+        Map<ScriptLoader, List<String>> byLoader = new IdentityHashMap<>();
+        for (String location : locations) {
+            loaders.stream()
+                    .filter(loader -> loader.supports(location))
+                    .findFirst()
+                    .ifPresent(loader -> byLoader.computeIfAbsent(loader, l -> new ArrayList<>()).add(location));
+        }
+        byLoader.forEach((loader, batch) -> {
+            if (failureThreshold <= 0 || !breakers.get(loader).isOpen()) {
+                loader.prefetch(tenantId, batch);
+            }
+        });
+    }
+    
+    /**
+     * Forgets a remembered failure, e.g. after the script has been uploaded.
+     */
+    public void evictFailure(String tenantId, String location) {
+        failures.remove(tenantId + ":" + location);
+    }
+    
+    /**
+     * Forgets all remembered failures.
+     */
+    public void clearFailures() {
+        failures.clear();
+    }
+    
+    /**
+     * Closes the delegate loaders that hold resources (such as file watchers).
+     */
+    @Override
+    public void close() throws Exception {
+        for (ScriptLoader loader : loaders) {
+            if (loader instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    /**
+     * A failed load and when it happened.
+     */
+    private record CachedFailure(ScriptLoadException error, long failedAt) {
+    }
+    
+    /**
+     * Consecutive-failure circuit breaker. While open, one caller at a time is let through as a
+     * trial once the open period has elapsed; the trial ends however its load completes.
+     */
+    private static final class CircuitBreaker {
+        
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicBoolean trialRunning = new AtomicBoolean();
+        private volatile long openedAt;
+        private volatile boolean open;
+        
+        boolean isOpen() {
+            return open;
+        }
+        
+        boolean tryTrial(long openNanos) {
+            return System.nanoTime() - openedAt >= openNanos && trialRunning.compareAndSet(false, true);
+        }
+        
+        void recordSuccess() {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            if (open) {
+                open = false;
+            }
+        }
+        
+        void endTrial() {
+            trialRunning.set(false);
+        }
+        
+        /**
+         * Records a failure; returns true if this failure opened the circuit.
+         */
+        boolean recordFailure(int threshold, boolean trial) {
+            if (trial) {
+                // Failed trial: stay open for another period
+                openedAt = System.nanoTime();
+                return false;
+            }
+            if (consecutiveFailures.incrementAndGet() >= threshold && !open) {
+                openedAt = System.nanoTime();
+                open = true;
+                return true;
+            }
+            return false;
+        }
+    }
 }
-
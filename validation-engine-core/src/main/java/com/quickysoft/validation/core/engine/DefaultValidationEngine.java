@@ -1,17 +1,32 @@
 package com.quickysoft.validation.core.engine;
 
+import com.quickysoft.validation.core.engine.expression.impl.CompiledExpressionCache;
 import com.quickysoft.validation.core.model.Rule;
 import com.quickysoft.validation.core.model.RuleSet;
 import com.quickysoft.validation.core.model.RuleSetResult;
 import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validation.core.provider.RuleSetKey;
 import com.quickysoft.validation.core.provider.RuleSetProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -27,18 +42,71 @@ public class DefaultValidationEngine implements ValidationEngine {
     
     private static final Logger logger = LoggerFactory.getLogger(DefaultValidationEngine.class);
     
+    private static final int PREPARATION_QUEUE_CAPACITY = 1_000;
+    
     private final RuleSetProvider ruleSetProvider;
     private final List<RuleExecutor> ruleExecutors;
     private final RuleSetResultCalculator resultCalculator;
+    private final Executor preparationExecutor;
+    
+    /**
+     * How often prepared rule set handles check the version stamp of their rule set.
+     */
+    private volatile Duration preparedRefreshInterval = Duration.ofSeconds(1);
+    
+    /**
+     * Last-modified stamp of each loaded rule set whose rules have been prepared. Bounded: a rule
+     * set whose entry was evicted is prepared again, which only hits the executors' compile caches.
+     */
+    private final CompiledExpressionCache<String, AtomicReference<Optional<Instant>>> preparedRuleSets =
+            new CompiledExpressionCache<>();
+    
+    /**
+     * Preparations started by requests, so concurrent first requests share one. Entries are removed
+     * as soon as their preparation finishes, so this only holds the rule sets being prepared.
+     */
+    private final Map<String, CompletableFuture<Void>> preparing = new ConcurrentHashMap<>();
     
     public DefaultValidationEngine(
             RuleSetProvider ruleSetProvider,
             List<RuleExecutor> ruleExecutors,
             RuleSetResultCalculator resultCalculator
+    ) {
+        this(ruleSetProvider, ruleExecutors, resultCalculator, null);
+    }
+    
+    /**
+     * Creates an engine that compiles rules on the given executor when preparing rule sets
+     * (defaults to a dedicated pool sized to the available processors).
+     */
+    public DefaultValidationEngine(
+            RuleSetProvider ruleSetProvider,
+            List<RuleExecutor> ruleExecutors,
+            RuleSetResultCalculator resultCalculator,
+            Executor preparationExecutor
     ) {
         this.ruleSetProvider = ruleSetProvider;
         this.ruleExecutors = ruleExecutors != null ? new ArrayList<>(ruleExecutors) : new ArrayList<>();
         this.resultCalculator = resultCalculator != null ? resultCalculator : new RuleSetResultCalculator();
+        this.preparationExecutor = preparationExecutor != null ? preparationExecutor : defaultPreparationExecutor();
+    }
+    
+    /**
+     * Bounded pool for compiling rules. Compilation can block (e.g. on script loads), so it must not
+     * run on the common fork-join pool; when the queue is full the preparing thread compiles the rule
+     * itself. Its daemon threads exit when idle, so it needs no shutdown.
+     */
+    private static ThreadPoolExecutor defaultPreparationExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(PREPARATION_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "ruleset-prepare-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
     
     @Override
@@ -81,6 +149,9 @@ public class DefaultValidationEngine implements ValidationEngine {
             );
         }
         
+        // Compile expressions once per loaded rule set version rather than per request
+        prepareIfChanged(ruleSet);
+        
         // Evaluate with the loaded rule set
         return evaluate(ruleSet, payload, contextAttributes);
     }
@@ -163,6 +234,149 @@ public class DefaultValidationEngine implements ValidationEngine {
         );
     }
     
+    @Override
+    public PreparedRuleSet prepare(String tenantId, String ruleSetCode, String version) throws RuleExecutionException {
+        RuleSet ruleSet = ruleSetProvider.getRuleSet(tenantId, ruleSetCode, version);
+        if (ruleSet == null) {
+            throw new RuleExecutionException(
+                    String.format("Rule set not found: tenantId=%s, code=%s, version=%s",
+                            tenantId, ruleSetCode, version)
+            );
+        }
+        return new PreparedRuleSet(this, ruleSetProvider, ruleSet, prepare(ruleSet), preparedRefreshInterval);
+    }
+    
+    @Override
+    public Map<RuleSetKey, PreparedRuleSet> prepare(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, PreparedRuleSet> prepared = new LinkedHashMap<>();
+        ruleSetProvider.getRuleSets(keys).forEach((key, ruleSet) -> prepared.put(key,
+                new PreparedRuleSet(this, ruleSetProvider, ruleSet, prepare(ruleSet), preparedRefreshInterval)));
+        return prepared;
+    }
+    
+    /**
+     * Sets how often prepared rule set handles check whether their rule set changed.
+     * Applies to handles created afterwards.
+     */
+    public void setPreparedRefreshInterval(Duration preparedRefreshInterval) {
+        this.preparedRefreshInterval = preparedRefreshInterval;
+    }
+    
+    @Override
+    public PreparationReport prepare(RuleSet ruleSet) {
+        return prepare(ruleSet, null, null, 0);
+    }
+    
+    @Override
+    public <T> PreparationReport prepare(
+            RuleSet ruleSet,
+            T samplePayload,
+            Map<String, Object> sampleContext,
+            int warmUpIterations
+    ) {
+        long start = System.nanoTime();
+        
+        // Batch-fetch what the rules need (e.g. remote scripts) before compiling them
+        Map<RuleExecutor, List<Rule>> rulesByExecutor = new LinkedHashMap<>();
+        for (Rule rule : ruleSet.rules()) {
+            RuleExecutor executor = rule.enabled() ? findExecutor(rule) : null;
+            if (executor != null) {
+                rulesByExecutor.computeIfAbsent(executor, e -> new ArrayList<>()).add(rule);
+            }
+        }
+        rulesByExecutor.forEach((executor, rules) -> {
+            try {
+                executor.prefetch(rules);
+            } catch (RuntimeException e) {
+                logger.warn("Prefetch for rule set {} failed: {}", ruleSet.code(), e.getMessage());
+            }
+        });
+        
+        // Compile every enabled rule in parallel
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> compilations = new ArrayList<>();
+        for (Map.Entry<RuleExecutor, List<Rule>> entry : rulesByExecutor.entrySet()) {
+            RuleExecutor executor = entry.getKey();
+            for (Rule rule : entry.getValue()) {
+                compilations.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        executor.prepare(rule);
+                    } catch (RuleExecutionException | RuntimeException e) {
+                        failures.put(rule.ruleCode(), String.valueOf(e.getMessage()));
+                    }
+                }, preparationExecutor));
+            }
+        }
+        CompletableFuture.allOf(compilations.toArray(CompletableFuture[]::new)).join();
+        preparedStamp(ruleSet).set(Optional.ofNullable(ruleSet.updatedAt()));
+        
+        // Synthetic evaluations so the compiled paths get JIT-compiled before real traffic
+        Map<String, Object> warmUpContext = sampleContext != null ? sampleContext : Map.of();
+        for (int i = 0; i < warmUpIterations; i++) {
+            try {
+                evaluate(ruleSet, samplePayload, warmUpContext);
+            } catch (RuleExecutionException | RuntimeException e) {
+                logger.debug("Warm-up evaluation of rule set {} failed: {}", ruleSet.code(), e.getMessage());
+                break;
+            }
+        }
+        
+        PreparationReport report = new PreparationReport(
+                ruleSet.tenantId(),
+                ruleSet.code(),
+                ruleSet.version(),
+                compilations.size() - failures.size(),
+                failures,
+                Duration.ofNanos(System.nanoTime() - start)
+        );
+        if (!report.isSuccessful()) {
+            failures.forEach((ruleCode, message) -> logger.warn("Failed to prepare rule {} of rule set {}: {}",
+                    ruleCode, ruleSet.code(), message));
+        }
+        logger.debug("Prepared rule set {} for tenant {}: {} rule(s) in {} ms, {} failure(s)", ruleSet.code(),
+                ruleSet.tenantId(), report.preparedRules(), report.duration().toMillis(), failures.size());
+        return report;
+    }
+    
+    /**
+     * Prepares the rules of a freshly loaded rule set (e.g. compiles their expressions).
+     * 
+     * A rule set is prepared again only when its last-modified stamp changes, and only by one
+     * request at a time: concurrent requests for the same rule set wait for that preparation.
+     * Preparation failures are logged; the affected rule reports the error when it is executed.
+     */
+    private void prepareIfChanged(RuleSet ruleSet) {
+        String key = preparedKey(ruleSet);
+        Optional<Instant> stamp = Optional.ofNullable(ruleSet.updatedAt());
+        AtomicReference<Optional<Instant>> prepared = preparedStamp(ruleSet);
+        if (stamp.equals(prepared.get())) {
+            return;
+        }
+        CompletableFuture<Void> preparation = new CompletableFuture<>();
+        CompletableFuture<Void> existing = preparing.putIfAbsent(key, preparation);
+        if (existing != null) {
+            existing.join();
+            return;
+        }
+        try {
+            // Another request may have finished preparing this version in the meantime
+            if (!stamp.equals(prepared.get())) {
+                prepare(ruleSet);
+            }
+        } finally {
+            preparing.remove(key, preparation);
+            preparation.complete(null);
+        }
+    }
+    
+    private AtomicReference<Optional<Instant>> preparedStamp(RuleSet ruleSet) {
+        return preparedRuleSets.get(preparedKey(ruleSet), key -> new AtomicReference<>());
+    }
+    
+    private static String preparedKey(RuleSet ruleSet) {
+        return ruleSet.tenantId() + ":" + ruleSet.code() + ":" + ruleSet.version();
+    }
+    
     /**
      * Checks if a rule is applicable to the given context.
      * 
@@ -4,30 +4,93 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Script loader for local file system paths.
+ * 
+ * Script content is cached in memory with the file's modification time. Without watching, a cached
+ * script costs one {@code stat} per load and is re-read only when its modification time changes.
+ * With watching enabled, a {@link WatchService} evicts changed or deleted files, so cached loads
+ * touch the file system not at all; the next load re-reads the file, and since compiled scripts are
+ * keyed by content only the changed scripts are recompiled. Watch services can miss changes (network
+ * file systems, replaced mounts, lost registrations), so a cached script is still checked by
+ * modification time at most once per backstop interval.
  */
-public class FileSystemScriptLoader implements ScriptLoader {
+public class FileSystemScriptLoader implements ScriptLoader, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(FileSystemScriptLoader.class);
     
+    // location -> content and the modification time it was read at
+    private final Map<String, CachedScript> scriptCache = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    // Bumped by the watcher before each eviction, so loads can tell that a change raced their read
+    private final AtomicLong watchGeneration = new AtomicLong();
+    private final WatchService watchService;
+    private volatile long backstopIntervalNanos = Duration.ofSeconds(30).toNanos();
+    
+    /**
+     * Creates a loader that revalidates cached scripts by modification time.
+     */
+    public FileSystemScriptLoader() {
+        this(false);
+    }
+    
+    /**
+     * Creates a loader, optionally watching script directories for changes.
+     * 
+     * @param watch whether to invalidate cached scripts through a {@link WatchService}; falls back
+     *              to modification time checks if the file system cannot be watched
+     */
+    public FileSystemScriptLoader(boolean watch) {
+        this.watchService = watch ? startWatching() : null;
+    }
+    
     @Override
     public String loadScript(String tenantId, String location) throws ScriptLoadException {
         try {
+            CachedScript cached = scriptCache.get(location);
+            if (cached != null && isFresh(location, cached)) {
+                return cached.content();
+            }
+            
             Path path = Paths.get(location);
             if (!Files.exists(path)) {
-                throw new ScriptLoadException("Script file not found: " + location);
+                throw new ScriptLoadException("Script file not found: " + location, null, true);
             }
             if (!Files.isReadable(path)) {
                 throw new ScriptLoadException("Script file is not readable: " + location);
             }
             logger.debug("Loading script from file system for tenant {}: {}", tenantId, location);
-            return Files.readString(path);
+            // Watch first and stat before reading, so a change during the read is never missed
+            watch(path);
+            long generation = watchGeneration.get();
+            FileTime modified = Files.getLastModifiedTime(path);
+            String content = Files.readString(path);
+            CachedScript loaded = new CachedScript(path.toAbsolutePath().normalize(), modified, content,
+                    System.nanoTime());
+            scriptCache.put(location, loaded);
+            if (watchService != null && watchGeneration.get() != generation) {
+                // An event handled between the read and the put found nothing to evict yet
+                scriptCache.remove(location, loaded);
+            }
+            return content;
         } catch (IOException e) {
+            scriptCache.remove(location);
             throw new ScriptLoadException("Failed to load script from file system: " + location, e);
         }
     }
@@ -41,5 +104,140 @@ public class FileSystemScriptLoader implements ScriptLoader {
                 location.contains("/") || 
                 location.contains("\\"));
     }
+    
+    /**
+     * Evicts a cached script so the next load re-reads it.
+     */
+    public void evict(String location) {
+        scriptCache.remove(location);
+    }
+    
+    /**
+     * Clears all cached scripts.
+     */
+    public void clearCache() {
+        scriptCache.clear();
+    }
+    
+    /**
+     * Sets how often a watched script is still checked by modification time, in case the watch
+     * service missed a change (default 30 seconds).
+     */
+    public void setWatchBackstopInterval(Duration interval) {
+        this.backstopIntervalNanos = interval.toNanos();
+    }
+    
+    /**
+     * Checks whether directories are being watched for changes.
+     */
+    public boolean isWatching() {
+        return watchService != null;
+    }
+    
+    /**
+     * Stops watching for changes.
+     */
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close script file watcher: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a cached script can be served: always by modification time without a watcher,
+     * and once per backstop interval with one.
+     */
+    private boolean isFresh(String location, CachedScript cached) throws IOException {
+        if (watchService == null) {
+            return isCurrent(cached);
+        }
+        long now = System.nanoTime();
+        if (now - cached.verifiedAt() < backstopIntervalNanos) {
+            return true;
+        }
+        if (!isCurrent(cached)) {
+            logger.debug("Script file changed without a watch event: {}", cached.path());
+            return false;
+        }
+        scriptCache.replace(location, cached, cached.verifiedAt(now));
+        return true;
+    }
+    
+    private boolean isCurrent(CachedScript cached) throws IOException {
+        try {
+            return cached.modified().equals(Files.getLastModifiedTime(cached.path()));
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+    
+    private WatchService startWatching() {
+        try {
+            WatchService service = Paths.get("").getFileSystem().newWatchService();
+            Thread watcher = new Thread(() -> processEvents(service), "script-file-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.warn("Cannot watch script files, falling back to modification time checks: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private void watch(Path path) throws IOException {
+        if (watchService == null) {
+            return;
+        }
+        Path directory = path.toAbsolutePath().normalize().getParent();
+        // Recorded only once registered, so a failed registration is retried by the next load
+        if (directory != null && !watchedDirectories.contains(directory)) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.add(directory);
+        }
+    }
+    
+    private void processEvents(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    watchGeneration.incrementAndGet();
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost: drop everything cached from this directory
+                        scriptCache.values().removeIf(cached -> directory.equals(cached.path().getParent()));
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    if (scriptCache.values().removeIf(cached -> cached.path().equals(changed))) {
+                        logger.debug("Script file changed, evicted from cache: {}", changed);
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Loader closed
+        }
+    }
+    
+    /**
+     * Script content, the modification time of the file it was read from, and when
+     * ({@link System#nanoTime()}) that time was last confirmed.
+     */
+    private record CachedScript(Path path, FileTime modified, String content, long verifiedAt) {
+        
+        CachedScript verifiedAt(long time) {
+            return new CachedScript(path, modified, content, time);
+        }
+    }
 }
-
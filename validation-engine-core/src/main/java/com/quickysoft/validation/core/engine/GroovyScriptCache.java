@@ -1,28 +1,111 @@
 package com.quickysoft.validation.core.engine;
 
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.Script;
+import groovy.transform.CompileStatic;
+import groovy.transform.TypeChecked;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tenant-aware cache for compiled Groovy scripts.
  * 
- * Caches compiled Groovy script classes per tenant and script location.
- * This is independent of Redis and provides fast access to compiled scripts.
+ * Compiled classes are keyed by the SHA-256 digest of the script content (and the compilation
+ * mode), and each tenant maps its script locations to digests. Identical scripts compile once and
+ * share one class across tenants, and a script whose content changes at the same location gets a
+ * new digest and is recompiled. The digest is only recomputed when the content a location resolves
+ * to differs from the content seen last time.
+ * 
+ * Scripts are compiled against the {@link TypedValidationScript} base class, so every compiled
+ * class is a {@link ValidationScript}, in a {@link ScriptCompilationMode}: plain dynamic Groovy,
+ * type-checked or statically compiled. Scripts that fail static checking are rejected at compile time.
+ * 
+ * The cache holds at most {@code maxScripts} compiled classes, evicting the least recently used when
+ * full; a class is also dropped as soon as no tenant maps to it any more. Each compiled class is
+ * defined by its own inner class loader, so a dropped class can be unloaded from metaspace.
+ * 
+ * Compilation is single-flight: concurrent callers asking for the same content wait on one
+ * in-flight compilation instead of each compiling their own copy. {@link #compileAsync} hands
+ * back that compilation as a future, for callers that would rather not wait for it.
+ * 
+ * With a {@link CompiledScriptStore} set, compiled bytecode is also written to disk and loaded
+ * from there before compiling, so a restart does not recompile unchanged scripts.
  */
 public class GroovyScriptCache {
     
     private static final Logger logger = LoggerFactory.getLogger(GroovyScriptCache.class);
     
-    private final Map<String, Class<? extends Script>> scriptClassCache = new ConcurrentHashMap<>();
-    private final GroovyClassLoader groovyClassLoader;
+    /**
+     * Default upper bound on cached script classes.
+     */
+    public static final int DEFAULT_MAX_SCRIPTS = 10_000;
+    
+    private final Map<ScriptKey, CompiledScript> compiledScripts = new ConcurrentHashMap<>();
+    private final Map<ScriptKey, AtomicInteger> references = new ConcurrentHashMap<>();
+    private final Map<ScriptKey, CompletableFuture<CompiledScript>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, TenantScripts> tenants = new ConcurrentHashMap<>();
+    private final Map<ScriptCompilationMode, ScriptClassLoader> classLoaders = new EnumMap<>(ScriptCompilationMode.class);
+    private final ScriptCompilationMode defaultMode;
+    private final int maxScripts;
+    private volatile CompiledScriptStore compiledScriptStore;
     
     public GroovyScriptCache() {
-        this.groovyClassLoader = new GroovyClassLoader(Thread.currentThread().getContextClassLoader());
+        this(ScriptCompilationMode.DYNAMIC);
+    }
+    
+    /**
+     * Creates a cache that compiles scripts in the given mode unless a rule asks for another.
+     */
+    public GroovyScriptCache(ScriptCompilationMode defaultMode) {
+        this(defaultMode, DEFAULT_MAX_SCRIPTS);
+    }
+    
+    /**
+     * Creates a cache holding at most {@code maxScripts} compiled scripts.
+     */
+    public GroovyScriptCache(ScriptCompilationMode defaultMode, int maxScripts) {
+        if (maxScripts <= 0) {
+            throw new IllegalArgumentException("maxScripts must be positive");
+        }
+        this.defaultMode = defaultMode != null ? defaultMode : ScriptCompilationMode.DYNAMIC;
+        this.maxScripts = maxScripts;
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        for (ScriptCompilationMode mode : ScriptCompilationMode.values()) {
+            classLoaders.put(mode, new ScriptClassLoader(parent, compilerConfiguration(mode)));
+        }
+    }
+    
+    /**
+     * Sets the on-disk store checked before compiling and written after compiling.
+     * 
+     * @param compiledScriptStore the store, or null to compile from source only (default)
+     */
+    public void setCompiledScriptStore(CompiledScriptStore compiledScriptStore) {
+        this.compiledScriptStore = compiledScriptStore;
     }
     
     /**
@@ -34,22 +117,163 @@ public class GroovyScriptCache {
      * @return the compiled script class
      * @throws RuleExecutionException if compilation fails
      */
-    @SuppressWarnings("unchecked")
     public Class<? extends Script> getOrCompile(String tenantId, String scriptLocation, String scriptContent) 
             throws RuleExecutionException {
-        String cacheKey = generateCacheKey(tenantId, scriptLocation);
+        return getOrCompile(tenantId, scriptLocation, scriptContent, null);
+    }
+    
+    /**
+     * Gets a cached compiled script class, or compiles and caches it in the given mode if not found.
+     * 
+     * @param tenantId the tenant identifier
+     * @param scriptLocation the script location (for cache key)
+     * @param scriptContent the script content to compile
+     * @param mode the compilation mode, or null for the default mode
+     * @return the compiled script class
+     * @throws RuleExecutionException if compilation (including static type checking) fails
+     */
+    public Class<? extends Script> getOrCompile(
+            String tenantId,
+            String scriptLocation,
+            String scriptContent,
+            ScriptCompilationMode mode
+    ) throws RuleExecutionException {
+        ScriptKey key = resolve(tenantId, scriptLocation, scriptContent, mode);
         
         // Check cache first
-        Class<? extends Script> cached = scriptClassCache.get(cacheKey);
+        CompiledScript cached = compiledScripts.get(key);
+        if (cached != null) {
+            cached.lastAccess = System.nanoTime();
+            return cached.scriptClass();
+        }
+        try {
+            return compilation(key, tenantId, scriptLocation, scriptContent, null).join().scriptClass();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuleExecutionException cause) {
+                throw cause;
+            }
+            throw new RuleExecutionException("Failed to compile Groovy script: " + scriptLocation, e.getCause());
+        }
+    }
+    
+    /**
+     * Gets a cached compiled script class, or starts compiling it on the given executor.
+     * 
+     * The returned future is already complete when the script is cached. Otherwise it completes
+     * when the (possibly already in-flight) compilation does, exceptionally with a
+     * {@link RuleExecutionException} if compilation fails.
+     * 
+     * @param tenantId the tenant identifier
+     * @param scriptLocation the script location (for cache key)
+     * @param scriptContent the script content to compile
+     * @param mode the compilation mode, or null for the default mode
+     * @param executor the executor to compile on
+     * @return the compiled script class, now or later
+     */
+    public CompletableFuture<Class<? extends Script>> compileAsync(
+            String tenantId,
+            String scriptLocation,
+            String scriptContent,
+            ScriptCompilationMode mode,
+            Executor executor
+    ) {
+        ScriptKey key = resolve(tenantId, scriptLocation, scriptContent, mode);
+        CompiledScript cached = compiledScripts.get(key);
         if (cached != null) {
-            return cached;
+            cached.lastAccess = System.nanoTime();
+            return CompletableFuture.completedFuture(cached.scriptClass());
         }
+        return compilation(key, tenantId, scriptLocation, scriptContent, executor)
+                .thenApply(CompiledScript::scriptClass);
+    }
+    
+    /**
+     * Resolves a tenant's script location to its content key, hashing only when the content has
+     * changed since the last call.
+     */
+    private ScriptKey resolve(String tenantId, String scriptLocation, String scriptContent, ScriptCompilationMode mode) {
+        ScriptCompilationMode resolvedMode = mode != null ? mode : defaultMode;
+        TenantScripts tenant = tenants.computeIfAbsent(tenantId, TenantScripts::new);
+        String locationKey = resolvedMode == ScriptCompilationMode.DYNAMIC
+                ? scriptLocation : scriptLocation + "#" + resolvedMode;
         
-        // Compile and cache
+        ScriptRef ref = tenant.locations.get(locationKey);
+        if (ref == null || !ref.matches(scriptContent)) {
+            ref = new ScriptRef(scriptContent, new ScriptKey(digest(scriptContent), resolvedMode));
+            ScriptRef previous = tenant.locations.put(locationKey, ref);
+            if (previous == null || !previous.key().equals(ref.key())) {
+                retain(ref.key());
+                if (previous != null) {
+                    logger.debug("Script content changed for tenant {}: {}", tenantId, scriptLocation);
+                    release(previous.key());
+                }
+            }
+        }
+        return ref.key();
+    }
+    
+    /**
+     * Joins the in-flight compilation of a key, or starts one (on the calling thread when
+     * {@code executor} is null).
+     */
+    private CompletableFuture<CompiledScript> compilation(
+            ScriptKey key,
+            String tenantId,
+            String scriptLocation,
+            String scriptContent,
+            Executor executor
+    ) {
+        CompletableFuture<CompiledScript> future = new CompletableFuture<>();
+        CompletableFuture<CompiledScript> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        Runnable task = () -> {
+            try {
+                future.complete(compile(tenantId, scriptLocation, scriptContent, key));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, future);
+            }
+        };
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, future);
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+    
+    private CompiledScript compile(String tenantId, String scriptLocation, String scriptContent, ScriptKey key)
+            throws RuleExecutionException {
+        // A compilation that finished just before this one was registered
+        CompiledScript existing = compiledScripts.get(key);
+        if (existing != null) {
+            return existing;
+        }
         try {
-            logger.debug("Compiling Groovy script for tenant {}: {}", tenantId, scriptLocation);
-            Class<? extends Script> compiled = (Class<? extends Script>) groovyClassLoader.parseClass(scriptContent);
-            scriptClassCache.put(cacheKey, compiled);
+            ScriptClassLoader loader = classLoaders.get(key.mode());
+            CompiledScriptStore store = compiledScriptStore;
+            ScriptClassLoader.Compilation compilation = store != null ? loadStored(store, loader, key) : null;
+            if (compilation == null) {
+                logger.debug("Compiling Groovy script for tenant {} ({}): {}", tenantId, key.mode(), scriptLocation);
+                compilation = loader.compile(scriptContent);
+                if (store != null) {
+                    store.save(key.digest(), key.mode(), compilation.classes());
+                }
+            }
+            CompiledScript compiled = new CompiledScript(compilation.scriptClass().asSubclass(Script.class),
+                    compilation.classNames(), compilation.bytecodeBytes());
+            compiledScripts.put(key, compiled);
+            if (compiledScripts.size() > maxScripts) {
+                evictLeastRecentlyUsed();
+            }
             return compiled;
         } catch (Exception e) {
             logger.error("Failed to compile Groovy script for tenant {}: {}", tenantId, scriptLocation, e);
@@ -59,6 +283,46 @@ public class GroovyScriptCache {
         }
     }
     
+    /**
+     * Defines a script's classes from the on-disk store, or returns null if it has no usable entry.
+     */
+    private ScriptClassLoader.Compilation loadStored(CompiledScriptStore store, ScriptClassLoader loader, ScriptKey key) {
+        List<CompiledScriptStore.StoredClass> stored = store.load(key.digest(), key.mode());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        try {
+            ScriptClassLoader.Compilation compilation = loader.define(stored);
+            logger.debug("Loaded compiled Groovy script {} from {}", key.digest(), store.getDirectory());
+            return compilation;
+        } catch (LinkageError e) {
+            logger.warn("Discarding stored Groovy script {}: {}", key.digest(), e.toString());
+            store.discard(key.digest(), key.mode());
+            return null;
+        }
+    }
+    
+    /**
+     * Gets the mode used for rules that do not specify one.
+     */
+    public ScriptCompilationMode getDefaultMode() {
+        return defaultMode;
+    }
+    
+    /**
+     * Creates the compiler configuration for a mode.
+     */
+    private static CompilerConfiguration compilerConfiguration(ScriptCompilationMode mode) {
+        CompilerConfiguration configuration = new CompilerConfiguration();
+        configuration.setScriptBaseClass(TypedValidationScript.class.getName());
+        if (mode == ScriptCompilationMode.DYNAMIC) {
+            return configuration;
+        }
+        configuration.addCompilationCustomizers(new ASTTransformationCustomizer(
+                mode == ScriptCompilationMode.STATIC ? CompileStatic.class : TypeChecked.class));
+        return configuration;
+    }
+    
     /**
      * Evicts a script from the cache.
      * 
@@ -66,18 +330,30 @@ public class GroovyScriptCache {
      * @param scriptLocation the script location
      */
     public void evict(String tenantId, String scriptLocation) {
-        String cacheKey = generateCacheKey(tenantId, scriptLocation);
-        scriptClassCache.remove(cacheKey);
-        logger.debug("Evicted script from cache: {}", cacheKey);
+        TenantScripts tenant = tenants.get(tenantId);
+        if (tenant != null) {
+            for (ScriptCompilationMode mode : ScriptCompilationMode.values()) {
+                ScriptRef removed = tenant.locations.remove(
+                        mode == ScriptCompilationMode.DYNAMIC ? scriptLocation : scriptLocation + "#" + mode);
+                if (removed != null) {
+                    release(removed.key());
+                }
+            }
+        }
+        logger.debug("Evicted script from cache: {}", generateCacheKey(tenantId, scriptLocation));
     }
     
     /**
-     * Clears all cached scripts for a tenant.
+     * Clears all cached scripts for a tenant; classes no other tenant uses are dropped.
      * 
      * @param tenantId the tenant identifier
      */
     public void evictTenant(String tenantId) {
-        scriptClassCache.entrySet().removeIf(entry -> entry.getKey().startsWith(tenantId + ":"));
+        TenantScripts tenant = tenants.remove(tenantId);
+        if (tenant != null) {
+            tenant.locations.values().forEach(ref -> release(ref.key()));
+            tenant.locations.clear();
+        }
         logger.debug("Evicted all scripts for tenant: {}", tenantId);
     }
     
@@ -85,7 +361,10 @@ public class GroovyScriptCache {
      * Clears the entire cache.
      */
     public void clear() {
-        scriptClassCache.clear();
+        tenants.clear();
+        references.clear();
+        compiledScripts.clear();
+        classLoaders.values().forEach(GroovyClassLoader::clearCache);
         logger.debug("Cleared all script cache");
     }
     
@@ -97,10 +376,272 @@ public class GroovyScriptCache {
     }
     
     /**
-     * Gets the current cache size.
+     * Gets the current cache size (distinct compiled scripts).
      */
     public int getCacheSize() {
-        return scriptClassCache.size();
+        return compiledScripts.size();
+    }
+    
+    /**
+     * Gets the maximum number of cached scripts.
+     */
+    public int getMaxScripts() {
+        return maxScripts;
+    }
+    
+    /**
+     * Gets the compiled-script footprint of each tenant, by tenant. Classes shared by several
+     * tenants count towards each of them.
+     */
+    public Map<String, TenantScriptStats> getTenantStats() {
+        Map<String, TenantScriptStats> stats = new TreeMap<>();
+        for (TenantScripts tenant : tenants.values()) {
+            int scripts = 0;
+            long classes = 0;
+            long bytes = 0;
+            for (ScriptRef ref : tenant.locations.values()) {
+                CompiledScript compiled = compiledScripts.get(ref.key());
+                if (compiled != null) {
+                    scripts++;
+                    classes += compiled.classes();
+                    bytes += compiled.bytecodeBytes();
+                }
+            }
+            stats.put(tenant.tenantId, new TenantScriptStats(tenant.tenantId, scripts, classes, bytes));
+        }
+        return stats;
+    }
+    
+    /**
+     * Gets the JVM-wide metaspace usage in bytes, or -1 if the JVM does not report it.
+     */
+    public static long getMetaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Counts a tenant location referring to a digest.
+     */
+    private void retain(ScriptKey key) {
+        references.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    /**
+     * Drops a tenant location's reference; the compiled class goes once nothing refers to it.
+     */
+    private void release(ScriptKey key) {
+        AtomicInteger count = references.get(key);
+        if (count != null && count.decrementAndGet() <= 0) {
+            references.remove(key, count);
+            remove(key);
+        }
+    }
+    
+    /**
+     * Evicts the least recently used scripts, down to 90% of the bound so that a full cache
+     * does not scan on every compile.
+     */
+    private synchronized void evictLeastRecentlyUsed() {
+        int excess = compiledScripts.size() - (maxScripts - maxScripts / 10);
+        if (compiledScripts.size() <= maxScripts || excess <= 0) {
+            return;
+        }
+        List<Map.Entry<ScriptKey, CompiledScript>> entries = new ArrayList<>(compiledScripts.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (int i = 0; i < excess && i < entries.size(); i++) {
+            remove(entries.get(i).getKey());
+        }
+        logger.debug("Evicted {} least recently used scripts (max {})", excess, maxScripts);
+    }
+    
+    private void remove(ScriptKey key) {
+        CompiledScript removed = compiledScripts.remove(key);
+        if (removed != null) {
+            // Let the loader forget the classes so they can be unloaded once no longer referenced
+            classLoaders.get(key.mode()).forget(removed.classNames());
+        }
+    }
+    
+    private static String digest(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Identity of a compiled class: content digest and compilation mode.
+     */
+    private record ScriptKey(String digest, ScriptCompilationMode mode) {
+    }
+    
+    /**
+     * What a tenant's script location last resolved to.
+     */
+    private record ScriptRef(String content, ScriptKey key) {
+        
+        boolean matches(String scriptContent) {
+            // Loaders usually hand back the same cached string, so this is rarely a full comparison
+            return content == scriptContent || content.equals(scriptContent);
+        }
+    }
+    
+    /**
+     * Script locations of one tenant.
+     */
+    private static final class TenantScripts {
+        
+        private final String tenantId;
+        private final Map<String, ScriptRef> locations = new ConcurrentHashMap<>();
+        
+        TenantScripts(String tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+    
+    /**
+     * A compiled script class, the names of all classes compiled with it, and its footprint.
+     */
+    private static final class CompiledScript {
+        
+        private final Class<? extends Script> scriptClass;
+        private final List<String> classNames;
+        private final long bytecodeBytes;
+        private volatile long lastAccess = System.nanoTime();
+        
+        CompiledScript(Class<? extends Script> scriptClass, List<String> classNames, long bytecodeBytes) {
+            this.scriptClass = scriptClass;
+            this.classNames = classNames;
+            this.bytecodeBytes = bytecodeBytes;
+        }
+        
+        Class<? extends Script> scriptClass() {
+            return scriptClass;
+        }
+        
+        List<String> classNames() {
+            return classNames;
+        }
+        
+        int classes() {
+            return classNames.size();
+        }
+        
+        long bytecodeBytes() {
+            return bytecodeBytes;
+        }
+    }
+    
+    /**
+     * Groovy class loader of one compilation mode; measures the classes each compilation defines.
+     */
+    private static final class ScriptClassLoader extends GroovyClassLoader {
+        
+        private final ThreadLocal<Compilation> current = new ThreadLocal<>();
+        
+        ScriptClassLoader(ClassLoader parent, CompilerConfiguration configuration) {
+            super(parent, configuration);
+        }
+        
+        Compilation compile(String scriptContent) {
+            Compilation compilation = new Compilation();
+            current.set(compilation);
+            try {
+                compilation.scriptClass = parseClass(scriptContent);
+                return compilation;
+            } finally {
+                current.remove();
+            }
+        }
+        
+        /**
+         * Defines previously compiled classes (script class first) in a fresh inner loader, so
+         * they resolve each other and can be unloaded together like a compiled script.
+         */
+        Compilation define(List<CompiledScriptStore.StoredClass> stored) {
+            InnerLoader inner = new InnerLoader(this);
+            Compilation compilation = new Compilation();
+            for (CompiledScriptStore.StoredClass storedClass : stored) {
+                Class<?> definedClass = inner.defineClass(storedClass.name(), storedClass.bytecode());
+                if (compilation.scriptClass == null) {
+                    compilation.scriptClass = definedClass;
+                }
+                compilation.add(storedClass);
+            }
+            return compilation;
+        }
+        
+        /**
+         * Removes a compilation's classes from the class cache. Groovy caches every class it
+         * defines, closures and inner classes included, and any one of them keeps the whole
+         * inner loader alive.
+         */
+        void forget(List<String> classNames) {
+            classNames.forEach(this::removeClassCacheEntry);
+        }
+        
+        @Override
+        protected ClassCollector createCollector(CompilationUnit unit, SourceUnit su) {
+            Compilation compilation = current.get();
+            return new ClassCollector(new InnerLoader(this), unit, su) {
+                @Override
+                protected Class<?> createClass(byte[] code, ClassNode classNode) {
+                    Class<?> createdClass = super.createClass(code, classNode);
+                    if (compilation != null) {
+                        compilation.add(new CompiledScriptStore.StoredClass(createdClass.getName(), code));
+                    }
+                    return createdClass;
+                }
+            };
+        }
+        
+        /**
+         * Result of compiling one script: its class and the bytecode of every class it defined.
+         */
+        static final class Compilation {
+            
+            private Class<?> scriptClass;
+            private final List<CompiledScriptStore.StoredClass> classes = new ArrayList<>();
+            private long bytecodeBytes;
+            
+            void add(CompiledScriptStore.StoredClass storedClass) {
+                classes.add(storedClass);
+                bytecodeBytes += storedClass.bytecode().length;
+            }
+            
+            Class<?> scriptClass() {
+                return scriptClass;
+            }
+            
+            /**
+             * Gets the defined classes, script class first.
+             */
+            List<CompiledScriptStore.StoredClass> classes() {
+                if (scriptClass != null) {
+                    for (int i = 1; i < classes.size(); i++) {
+                        if (classes.get(i).name().equals(scriptClass.getName())) {
+                            classes.add(0, classes.remove(i));
+                            break;
+                        }
+                    }
+                }
+                return classes;
+            }
+            
+            List<String> classNames() {
+                return classes.stream().map(CompiledScriptStore.StoredClass::name).toList();
+            }
+            
+            long bytecodeBytes() {
+                return bytecodeBytes;
+            }
+        }
     }
 }
-
@@ -6,17 +6,36 @@ import com.quickysoft.validation.core.model.RuleResult;
 import com.quickysoft.validation.core.model.RuleStatus;
 import com.quickysoft.validation.core.model.ScriptLocationType;
 import com.quickysoft.validation.core.model.ValidationContext;
+import groovy.lang.Binding;
 import groovy.lang.Script;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Executor for Groovy script-based rules.
  * 
  * Loads and executes Groovy scripts with tenant-aware caching of compiled scripts.
+ * 
+ * Each rule gets an execution plan holding its precomputed {@link RuleExecutionContext}, rebuilt
+ * only when the rule or its compiled class changes. Script instances are pooled per compiled class
+ * and reused. Plans and pools hang off the script class itself, so they never keep a class (and its
+ * tenant's class loader) alive after {@link GroovyScriptCache} has evicted it.
+ * 
+ * With {@link #setAsyncCompilation(Executor) async compilation} enabled, a rule whose script is
+ * not compiled yet is reported as SKIPPED while compilation runs in the background, instead of
+ * holding up the request.
  */
 public class GroovyScriptRuleExecutor implements RuleExecutor {
     
@@ -24,12 +43,29 @@ public class GroovyScriptRuleExecutor implements RuleExecutor {
     
     private final ScriptLoader scriptLoader;
     private final GroovyScriptCache scriptCache;
+    private final ClassValue<ScriptPlans> scriptPlans = new ClassValue<>() {
+        @Override
+        protected ScriptPlans computeValue(Class<?> type) {
+            return new ScriptPlans(type.asSubclass(Script.class));
+        }
+    };
+    
+    private volatile Executor asyncCompilationExecutor;
     
     public GroovyScriptRuleExecutor(ScriptLoader scriptLoader, GroovyScriptCache scriptCache) {
         this.scriptLoader = scriptLoader;
         this.scriptCache = scriptCache;
     }
     
+    /**
+     * Compiles uncached scripts on the given executor and skips their rules until compiled.
+     * 
+     * @param executor the executor to compile on, or null to compile on the calling thread (default)
+     */
+    public void setAsyncCompilation(Executor executor) {
+        this.asyncCompilationExecutor = executor;
+    }
+    
     @Override
     public RuleResult execute(Rule rule, ValidationContext<?> context) throws RuleExecutionException {
         return execute(rule, context, null);
@@ -48,37 +84,63 @@ public class GroovyScriptRuleExecutor implements RuleExecutor {
             String scriptContent = loadScriptContent(groovyRule);
             
             // Get or compile script class (with caching)
-            Class<? extends Script> scriptClass = scriptCache.getOrCompile(
-                    rule.tenantId(),
-                    groovyRule.scriptReference(),
-                    scriptContent
-            );
-            
-            // Create script instance
-            Script script = scriptClass.getDeclaredConstructor().newInstance();
-            
-            // Create execution context
-            RuleExecutionContext executionContext = new RuleExecutionContext(
-                    rule.id(),
-                    rule.tenantId(),
-                    ruleSetCode != null ? ruleSetCode : "unknown",
-                    rule.ruleCode(),
-                    rule.name(),
-                    rule.metadata()
-            );
+            Class<? extends Script> scriptClass;
+            Executor asyncExecutor = asyncCompilationExecutor;
+            if (asyncExecutor == null) {
+                scriptClass = scriptCache.getOrCompile(
+                        rule.tenantId(),
+                        groovyRule.scriptReference(),
+                        scriptContent,
+                        groovyRule.compilationMode()
+                );
+            } else {
+                CompletableFuture<Class<? extends Script>> compilation = scriptCache.compileAsync(
+                        rule.tenantId(),
+                        groovyRule.scriptReference(),
+                        scriptContent,
+                        groovyRule.compilationMode(),
+                        asyncExecutor
+                );
+                if (!compilation.isDone()) {
+                    return RuleResult.skipped(rule.id(), rule.tenantId(), rule.ruleCode(), rule.name(),
+                            "Script compilation pending: " + groovyRule.scriptReference());
+                }
+                scriptClass = joinCompilation(compilation);
+            }
             
-            // Bind context variables
-            bindContextVariables(script, context, executionContext);
+            // Reuse the rule's plan (execution context) and a pooled script instance
+            ScriptPlans plans = scriptPlans.get(scriptClass);
+            RuleExecutionContext executionContext = plans.plan(groovyRule, ruleSetCode).executionContext();
+            int slot = ScriptPlans.slot();
+            Script script = plans.acquire(slot);
             
             // Execute script
-            Object result = script.run();
+            Object result;
+            try {
+                if (script instanceof ValidationScript validationScript) {
+                    result = validationScript.validate(context.payload(), context.contextAttributes(), executionContext);
+                } else {
+                    // Scripts that declare their own base class still go through the binding
+                    script.setBinding(new Binding());
+                    bindContextVariables(script, context, executionContext);
+                    result = script.run();
+                }
+            } finally {
+                plans.release(slot, script);
+            }
             
             // Evaluate result (script can return boolean or map)
             return evaluateResult(rule, result, groovyRule, context);
         } catch (ScriptLoadException e) {
-            logger.error("Failed to load Groovy script for rule {} (tenantId: {}, ruleSetCode: {}, scriptReference: {}): {}", 
-                    rule.ruleCode(), rule.tenantId(), ruleSetCode != null ? ruleSetCode : "unknown", 
-                    groovyRule.scriptReference(), e.getMessage(), e);
+            if (e.isRepeated()) {
+                // Already reported by the loader; logging it again on every request floods the log
+                logger.debug("Groovy script for rule {} (tenantId: {}, scriptReference: {}) still unavailable: {}",
+                        rule.ruleCode(), rule.tenantId(), groovyRule.scriptReference(), e.getMessage());
+            } else {
+                logger.error("Failed to load Groovy script for rule {} (tenantId: {}, ruleSetCode: {}, scriptReference: {}): {}", 
+                        rule.ruleCode(), rule.tenantId(), ruleSetCode != null ? ruleSetCode : "unknown", 
+                        groovyRule.scriptReference(), e.getMessage(), e);
+            }
             return RuleResult.error(
                     rule.id(),
                     rule.tenantId(),
@@ -105,6 +167,53 @@ public class GroovyScriptRuleExecutor implements RuleExecutor {
         return rule instanceof GroovyScriptRule;
     }
     
+    /**
+     * Loads and compiles the rule's script into the script cache.
+     */
+    @Override
+    public void prepare(Rule rule) throws RuleExecutionException {
+        if (!(rule instanceof GroovyScriptRule groovyRule)) {
+            return;
+        }
+        try {
+            // Type-checked scripts that fail static checking are rejected here
+            scriptCache.getOrCompile(rule.tenantId(), groovyRule.scriptReference(), loadScriptContent(groovyRule),
+                    groovyRule.compilationMode());
+        } catch (ScriptLoadException e) {
+            throw new RuleExecutionException("Failed to load Groovy script: " + groovyRule.scriptReference(), e);
+        }
+    }
+    
+    /**
+     * Bulk-loads the external scripts of the given rules through the script loader, so that
+     * {@link #prepare(Rule)} compiles them without a round-trip per script.
+     */
+    @Override
+    public void prefetch(List<Rule> rules) {
+        Map<String, Set<String>> locationsByTenant = new HashMap<>();
+        for (Rule rule : rules) {
+            if (rule instanceof GroovyScriptRule groovyRule
+                    && groovyRule.scriptLocationType() != ScriptLocationType.INLINE
+                    && scriptLoader.supports(groovyRule.scriptReference())) {
+                locationsByTenant.computeIfAbsent(rule.tenantId(), tenantId -> new LinkedHashSet<>())
+                        .add(groovyRule.scriptReference());
+            }
+        }
+        locationsByTenant.forEach(scriptLoader::prefetch);
+    }
+    
+    private static Class<? extends Script> joinCompilation(CompletableFuture<Class<? extends Script>> compilation)
+            throws RuleExecutionException {
+        try {
+            return compilation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuleExecutionException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
     /**
      * Loads script content based on the script location type.
      */
@@ -131,6 +240,8 @@ public class GroovyScriptRuleExecutor implements RuleExecutor {
      * - context: the context attributes map
      * - executionContext: the rule execution context (includes tenantId, ruleSetCode, etc.)
      * - tenantId: the tenant identifier (for convenience)
+     * 
+     * Scripts compiled against {@link TypedValidationScript} receive them as fields instead.
      */
     private void bindContextVariables(Script script, ValidationContext<?> context, RuleExecutionContext executionContext) {
         script.setProperty("payload", context.payload());
@@ -276,5 +387,67 @@ public class GroovyScriptRuleExecutor implements RuleExecutor {
         }
         return String.format("Rule '%s' failed", rule.name());
     }
+    
+    private record PlanKey(String tenantId, String ruleSetCode, String ruleCode) {
+    }
+    
+    /**
+     * A rule's precomputed execution context.
+     */
+    private record ScriptPlan(GroovyScriptRule rule, RuleExecutionContext executionContext) {
+    }
+    
+    /**
+     * Rule plans and idle instances of one compiled script class.
+     * 
+     * Idle instances sit in a small array of slots picked by thread id, so a thread usually gets
+     * back the instance it used last; a busy slot just means a fresh instance for that call.
+     */
+    private static final class ScriptPlans {
+        
+        private static final int SLOTS = Math.max(2, Runtime.getRuntime().availableProcessors());
+        
+        private final Class<? extends Script> scriptClass;
+        private final Map<PlanKey, ScriptPlan> plans = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<Script> idle = new AtomicReferenceArray<>(SLOTS);
+        
+        ScriptPlans(Class<? extends Script> scriptClass) {
+            this.scriptClass = scriptClass;
+        }
+        
+        static int slot() {
+            return (int) (Thread.currentThread().getId() % SLOTS);
+        }
+        
+        /**
+         * Gets the plan for a rule, rebuilding it when the rule instance has changed.
+         */
+        ScriptPlan plan(GroovyScriptRule rule, String ruleSetCode) {
+            String resolvedRuleSetCode = ruleSetCode != null ? ruleSetCode : "unknown";
+            PlanKey key = new PlanKey(rule.tenantId(), resolvedRuleSetCode, rule.ruleCode());
+            ScriptPlan plan = plans.get(key);
+            if (plan != null && plan.rule() == rule) {
+                return plan;
+            }
+            plan = new ScriptPlan(rule, new RuleExecutionContext(
+                    rule.id(),
+                    rule.tenantId(),
+                    resolvedRuleSetCode,
+                    rule.ruleCode(),
+                    rule.name(),
+                    rule.metadata()
+            ));
+            plans.put(key, plan);
+            return plan;
+        }
+        
+        Script acquire(int slot) {
+            Script script = idle.getAndSet(slot, null);
+            return script != null ? script : InvokerHelper.createScript(scriptClass, new Binding());
+        }
+        
+        void release(int slot, Script script) {
+            idle.compareAndSet(slot, null, script);
+        }
+    }
 }
-
@@ -0,0 +1,47 @@
+package com.quickysoft.validation.core.engine;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of eagerly preparing (compiling) the rules of a rule set.
+ * 
+ * @param tenantId the tenant identifier
+ * @param ruleSetCode the rule set code
+ * @param version the rule set version
+ * @param preparedRules number of enabled rules that were prepared successfully
+ * @param failures compile failures, keyed by rule code
+ * @param duration time spent preparing (including any warm-up evaluations)
+ */
+public record PreparationReport(
+        String tenantId,
+        String ruleSetCode,
+        String version,
+        int preparedRules,
+        Map<String, String> failures,
+        Duration duration
+) {
+    public PreparationReport {
+        failures = failures != null ? Map.copyOf(failures) : Map.of();
+    }
+    
+    /**
+     * Checks whether every rule compiled.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+    
+    /**
+     * Throws if any rule failed to compile.
+     * 
+     * @throws RuleExecutionException listing the failed rules
+     */
+    public void throwIfFailed() throws RuleExecutionException {
+        if (!failures.isEmpty()) {
+            throw new RuleExecutionException(String.format(
+                    "Failed to prepare %d rule(s) of rule set %s (tenantId=%s, version=%s): %s",
+                    failures.size(), ruleSetCode, tenantId, version, failures));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.quickysoft.validation.core.engine;
+
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.model.RuleSetResult;
+import com.quickysoft.validation.core.provider.RuleSetProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle to a loaded and compiled rule set that callers can hold and evaluate repeatedly.
+ * 
+ * Evaluating through the handle skips the provider lookup. At most once per refresh interval,
+ * one caller checks the provider's version stamp for the rule set; if it changed, the rule set is
+ * reloaded and prepared again. Other callers keep using the current rule set meanwhile.
+ * 
+ * Obtain handles from {@link ValidationEngine#prepare(String, String, String)}.
+ */
+public final class PreparedRuleSet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PreparedRuleSet.class);
+    
+    private final ValidationEngine engine;
+    private final RuleSetProvider ruleSetProvider;
+    private final String tenantId;
+    private final String ruleSetCode;
+    private final String version;
+    private final long refreshIntervalNanos;
+    
+    private final AtomicLong nextCheck;
+    private volatile RuleSet ruleSet;
+    private volatile Optional<Instant> stamp;
+    private volatile PreparationReport report;
+    
+    PreparedRuleSet(
+            ValidationEngine engine,
+            RuleSetProvider ruleSetProvider,
+            RuleSet ruleSet,
+            PreparationReport report,
+            Duration refreshInterval
+    ) {
+        this.engine = engine;
+        this.ruleSetProvider = ruleSetProvider;
+        this.tenantId = ruleSet.tenantId();
+        this.ruleSetCode = ruleSet.code();
+        this.version = ruleSet.version();
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.ruleSet = ruleSet;
+        this.stamp = Optional.ofNullable(ruleSet.updatedAt());
+        this.report = report;
+        this.nextCheck = new AtomicLong(System.nanoTime() + refreshIntervalNanos);
+    }
+    
+    /**
+     * Evaluates the rule set against a payload and context attributes.
+     * 
+     * @param payload the object being validated
+     * @param contextAttributes additional context attributes
+     * @param <T> the type of the payload
+     * @return the evaluation result
+     * @throws RuleExecutionException if the rule set is no longer active, or evaluation fails
+     */
+    public <T> RuleSetResult evaluate(T payload, Map<String, Object> contextAttributes) throws RuleExecutionException {
+        long now = System.nanoTime();
+        long due = nextCheck.get();
+        if (now - due >= 0 && nextCheck.compareAndSet(due, now + refreshIntervalNanos)) {
+            refreshIfChanged();
+        }
+        RuleSet current = ruleSet;
+        if (!current.active()) {
+            throw new RuleExecutionException(
+                    String.format("Rule set is not active: tenantId=%s, code=%s, version=%s",
+                            tenantId, ruleSetCode, version)
+            );
+        }
+        return engine.evaluate(current, payload, contextAttributes);
+    }
+    
+    /**
+     * Checks the version stamp now and reloads the rule set if it changed.
+     * 
+     * @return true if the rule set was reloaded
+     */
+    public synchronized boolean refreshIfChanged() {
+        try {
+            Optional<Instant> latest = ruleSetProvider.getVersionStamp(tenantId, ruleSetCode, version);
+            if (latest.isPresent() && latest.equals(stamp)) {
+                return false;
+            }
+            RuleSet reloaded = ruleSetProvider.getRuleSet(tenantId, ruleSetCode, version);
+            if (reloaded == null) {
+                logger.warn("Prepared rule set disappeared, keeping last loaded copy: tenantId={}, code={}, version={}",
+                        tenantId, ruleSetCode, version);
+                return false;
+            }
+            Optional<Instant> reloadedStamp = Optional.ofNullable(reloaded.updatedAt());
+            // Without a stamp, fall back to comparing content
+            boolean unchanged = reloadedStamp.isPresent() ? reloadedStamp.equals(stamp) : reloaded.equals(ruleSet);
+            if (unchanged) {
+                return false;
+            }
+            report = engine.prepare(reloaded);
+            ruleSet = reloaded;
+            stamp = reloadedStamp;
+            logger.debug("Refreshed prepared rule set: tenantId={}, code={}, version={}", tenantId, ruleSetCode, version);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh prepared rule set {} for tenant {}: {}", ruleSetCode, tenantId, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Gets the currently loaded rule set.
+     */
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+    
+    /**
+     * Gets the preparation report of the currently loaded rule set.
+     */
+    public PreparationReport getReport() {
+        return report;
+    }
+}
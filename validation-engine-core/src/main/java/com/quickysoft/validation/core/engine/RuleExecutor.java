@@ -4,6 +4,8 @@ import com.quickysoft.validation.core.model.Rule;
 import com.quickysoft.validation.core.model.RuleResult;
 import com.quickysoft.validation.core.model.ValidationContext;
 
+import java.util.List;
+
 /**
  * Executes a single rule against a validation context.
  */
@@ -26,5 +28,24 @@ public interface RuleExecutor {
      * @return true if this executor can handle the rule
      */
     boolean supports(Rule rule);
+    
+    /**
+     * Prepares a rule ahead of execution (e.g. compiles its expression).
+     * Called once when a rule set is loaded; the default implementation does nothing.
+     *
+     * @param rule the rule to prepare
+     * @throws RuleExecutionException if the rule cannot be prepared
+     */
+    default void prepare(Rule rule) throws RuleExecutionException {
+    }
+    
+    /**
+     * Fetches what a batch of rules needs (e.g. remote scripts) in one go, before the rules are
+     * prepared one by one. Called when a rule set is loaded; the default implementation does nothing.
+     *
+     * @param rules the enabled rules of a rule set supported by this executor
+     */
+    default void prefetch(List<Rule> rules) {
+    }
 }
 
@@ -2,44 +2,108 @@ package com.quickysoft.validation.core.engine;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Script loader for S3 object keys.
  * 
- * Supports tenant-scoped script paths and in-memory caching of script content.
- * Uses AWS SDK v2 for S3 operations.
+ * Supports tenant-scoped script paths and uses the AWS SDK v2 async client. Loaded scripts are
+ * cached in memory (and optionally on local disk) together with their ETag:
+ * <ul>
+ *   <li>A cached script younger than the revalidation interval is served without any request.</li>
+ *   <li>An older one is still served immediately, while a conditional GET ({@code If-None-Match})
+ *       revalidates it in the background; S3 answers {@code 304 Not Modified} unless the script
+ *       changed. Scripts therefore update within the revalidation interval plus one fetch.</li>
+ *   <li>On a memory miss the disk tier is used (and revalidated) before fetching from S3, so
+ *       restarts do not re-download every script.</li>
+ * </ul>
+ * Concurrent misses for the same script share one fetch, and at most {@code maxConcurrentFetches}
+ * requests are in flight; background revalidations are skipped rather than queued when at the limit.
+ * {@link #prefetch} downloads a rule set's scripts in parallel when it is loaded.
  */
-public class S3ScriptLoader implements ScriptLoader {
+public class S3ScriptLoader implements ScriptLoader, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(S3ScriptLoader.class);
     
-    // In-memory cache: tenantId:scriptReference -> script content
-    private final Map<String, String> scriptCache = new ConcurrentHashMap<>();
+    private static final int DISK_FORMAT = 0x53334331; // "S3C1"
     
-    // AWS S3 client (would be injected in production)
-    private Object s3Client; // Placeholder - would be S3Client or S3AsyncClient
+    // In-memory cache: tenantId:scriptReference -> script content
+    private final Map<String, CachedScript> scriptCache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedScript>> inFlight = new ConcurrentHashMap<>();
     
+    private final S3AsyncClient s3Client;
     private final String bucketName;
     private final String basePrefix;
     private final boolean tenantScoped;
     
+    private volatile Semaphore fetchPermits = new Semaphore(16);
+    private volatile long revalidateAfterNanos = Duration.ofSeconds(60).toNanos();
+    private volatile Duration fetchTimeout = Duration.ofSeconds(10);
+    private volatile Path diskCacheDirectory;
+    
     /**
      * Creates an S3 script loader.
      * 
+     * @param s3Client the S3 async client (closed with the loader)
      * @param bucketName the S3 bucket name
      * @param basePrefix the base prefix for script keys (e.g., "scripts/")
      * @param tenantScoped whether to use tenant-scoped paths
      */
-    public S3ScriptLoader(String bucketName, String basePrefix, boolean tenantScoped) {
+    public S3ScriptLoader(S3AsyncClient s3Client, String bucketName, String basePrefix, boolean tenantScoped) {
+        this.s3Client = s3Client;
         this.bucketName = bucketName;
         this.basePrefix = basePrefix != null ? basePrefix : "";
         this.tenantScoped = tenantScoped;
     }
     
+    /**
+     * Creates an S3 script loader without a client; loading fails until one is configured.
+     * 
+     * @param bucketName the S3 bucket name
+     * @param basePrefix the base prefix for script keys (e.g., "scripts/")
+     * @param tenantScoped whether to use tenant-scoped paths
+     */
+    public S3ScriptLoader(String bucketName, String basePrefix, boolean tenantScoped) {
+        this(null, bucketName, basePrefix, tenantScoped);
+    }
+    
     /**
      * Creates an S3 script loader with default settings.
      */
@@ -47,34 +111,68 @@ public class S3ScriptLoader implements ScriptLoader {
         this(null, null, false);
     }
     
+    /**
+     * Sets how long a cached script is served before it is revalidated against S3 (default 60s).
+     */
+    public void setRevalidateAfter(Duration revalidateAfter) {
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+    }
+    
+    /**
+     * Sets the maximum number of concurrent S3 requests (default 16).
+     */
+    public void setMaxConcurrentFetches(int maxConcurrentFetches) {
+        this.fetchPermits = new Semaphore(maxConcurrentFetches);
+    }
+    
+    /**
+     * Sets how long a blocking load waits for S3 (default 10s).
+     */
+    public void setFetchTimeout(Duration fetchTimeout) {
+        this.fetchTimeout = fetchTimeout;
+    }
+    
+    /**
+     * Sets the local directory used as a second cache tier, or null to disable it (default).
+     */
+    public void setDiskCacheDirectory(Path diskCacheDirectory) {
+        this.diskCacheDirectory = diskCacheDirectory;
+    }
+    
     @Override
     public String loadScript(String tenantId, String location) throws ScriptLoadException {
         try {
             // Check cache first
             String cacheKey = generateCacheKey(tenantId, location);
-            String cached = scriptCache.get(cacheKey);
+            CachedScript cached = scriptCache.get(cacheKey);
             if (cached != null) {
-                logger.debug("Script found in cache for tenant {}: {}", tenantId, location);
-                return cached;
+                if (System.nanoTime() - cached.fetchedAt() > revalidateAfterNanos) {
+                    revalidate(cacheKey, generateS3Key(tenantId, location), cached);
+                }
+                return cached.content();
             }
             
             // Generate S3 key
             String s3Key = generateS3Key(tenantId, location);
             logger.debug("Loading script from S3 for tenant {}: bucket={}, key={}", tenantId, bucketName, s3Key);
             
-            // Load from S3
-            String scriptContent = loadFromS3(s3Key);
-            
-            // Cache the content
-            scriptCache.put(cacheKey, scriptContent);
+            // Disk tier, revalidated right away
+            CachedScript stored = readFromDisk(s3Key);
+            if (stored != null) {
+                scriptCache.put(cacheKey, stored);
+                revalidate(cacheKey, s3Key, stored);
+                return stored.content();
+            }
             
-            return scriptContent;
+            // Load from S3
+            return loadFromS3(cacheKey, s3Key).content();
         } catch (Exception e) {
-            logger.error("Failed to load script from S3 for tenant {}: {}", tenantId, location, e);
+            logger.debug("Failed to load script from S3 for tenant {}: {}", tenantId, location, e);
             throw new ScriptLoadException(
                     String.format("Failed to load script from S3: tenantId=%s, location=%s, error=%s",
                             tenantId, location, e.getMessage()),
-                    e
+                    e,
+                    e instanceof ScriptLoadException loadException && loadException.isNotFound()
             );
         }
     }
@@ -125,39 +223,287 @@ public class S3ScriptLoader implements ScriptLoader {
     }
     
     /**
-     * Loads script content from S3.
-     * 
-     * This is a placeholder implementation. In production, this would use AWS SDK v2:
-     * 
-     * <pre>{@code
-     * S3Client s3Client = S3Client.builder()
-     *     .region(Region.of(region))
-     *     .build();
-     * 
-     * GetObjectRequest request = GetObjectRequest.builder()
-     *     .bucket(bucketName)
-     *     .key(s3Key)
-     *     .build();
-     * 
-     * try (ResponseInputStream<GetObjectResponse> response = s3Client.getObject(request)) {
-     *     return new String(response.readAllBytes(), StandardCharsets.UTF_8);
-     * } catch (NoSuchKeyException e) {
-     *     throw new ScriptLoadException("Script not found in S3: " + s3Key, e);
-     * }
-     * }</pre>
-     */
-    private String loadFromS3(String s3Key) throws ScriptLoadException {
+     * Loads script content from S3, waiting for the fetch (shared with concurrent callers).
+     */
+    private CachedScript loadFromS3(String cacheKey, String s3Key) throws ScriptLoadException {
         if (bucketName == null) {
             throw new ScriptLoadException("S3 bucket name not configured");
         }
+        if (s3Client == null) {
+            throw new ScriptLoadException("S3 client not configured (bucket: " + bucketName + ", key: " + s3Key + ")");
+        }
+        CompletableFuture<CachedScript> fetch = startFetch(cacheKey, s3Key);
+        try {
+            return fetch.get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptLoadException("Interrupted fetching S3 key: " + s3Key, e);
+        } catch (TimeoutException e) {
+            throw new ScriptLoadException("Timed out fetching S3 key: " + s3Key, e);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ScriptLoadException loadException) {
+                throw loadException;
+            }
+            if (cause instanceof NoSuchKeyException) {
+                throw new ScriptLoadException("Script not found in S3: " + s3Key, cause, true);
+            }
+            throw new ScriptLoadException("Failed to fetch S3 key " + s3Key + ": " + cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * Starts fetching a script into the memory and disk tiers, or joins the fetch already in
+     * flight for it. Blocks while the maximum number of fetches is in flight.
+     */
+    private CompletableFuture<CachedScript> startFetch(String cacheKey, String s3Key) {
+        CompletableFuture<CachedScript> future = new CompletableFuture<>();
+        CompletableFuture<CachedScript> existing = inFlight.putIfAbsent(cacheKey, future);
+        if (existing != null) {
+            return existing;
+        }
+        Semaphore permits = fetchPermits;
+        try {
+            if (!permits.tryAcquire(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ScriptLoadException("Too many concurrent S3 fetches, gave up on key: " + s3Key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(new ScriptLoadException("Interrupted waiting to fetch S3 key: " + s3Key, e));
+            inFlight.remove(cacheKey, future);
+            return future;
+        } catch (ScriptLoadException e) {
+            future.completeExceptionally(e);
+            inFlight.remove(cacheKey, future);
+            return future;
+        }
+        fetch(s3Key, null, permits).whenComplete((fetched, error) -> {
+            if (error == null) {
+                scriptCache.put(cacheKey, fetched);
+                writeToDisk(s3Key, fetched);
+                future.complete(fetched);
+            } else {
+                future.completeExceptionally(error);
+            }
+            inFlight.remove(cacheKey, future);
+        });
+        return future;
+    }
+    
+    /**
+     * Downloads the given scripts in parallel (bounded by the maximum number of concurrent
+     * fetches); scripts already in memory are skipped.
+     * 
+     * With tenant-scoped paths the tenant's prefix is listed once: keys missing from the listing
+     * are left to fail on load, and disk copies whose ETag matches the listing are used without
+     * downloading them. Otherwise the base prefix holds the scripts of every rule set, so it is
+     * not listed; disk copies are used and revalidated with a conditional GET, like on load.
+     */
+    @Override
+    public void prefetch(String tenantId, Collection<String> locations) {
+        if (s3Client == null || bucketName == null) {
+            return;
+        }
+        Map<String, String> cacheKeysByS3Key = new HashMap<>();
+        for (String location : locations) {
+            String cacheKey = generateCacheKey(tenantId, location);
+            if (!scriptCache.containsKey(cacheKey)) {
+                cacheKeysByS3Key.put(generateS3Key(tenantId, location), cacheKey);
+            }
+        }
+        if (cacheKeysByS3Key.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, String> listedETags = tenantScoped ? listETags(generateS3Key(tenantId, "")) : null;
         
-        // Placeholder - would use AWS SDK v2
-        // For now, throw an exception indicating S3 is not fully implemented
-        throw new ScriptLoadException(
-                String.format("S3 script loading not fully implemented. " +
-                        "Please configure AWS SDK v2 S3Client. " +
-                        "Bucket: %s, Key: %s", bucketName, s3Key)
-        );
+        List<CompletableFuture<CachedScript>> fetches = new ArrayList<>();
+        cacheKeysByS3Key.forEach((s3Key, cacheKey) -> {
+            if (listedETags != null && !listedETags.containsKey(s3Key)) {
+                return;
+            }
+            CachedScript stored = readFromDisk(s3Key);
+            if (stored != null && listedETags == null) {
+                if (scriptCache.putIfAbsent(cacheKey, stored) == null) {
+                    revalidate(cacheKey, s3Key, stored);
+                }
+                return;
+            }
+            if (stored != null && Objects.equals(stored.etag(), listedETags.get(s3Key))) {
+                scriptCache.putIfAbsent(cacheKey, stored.revalidated());
+                return;
+            }
+            fetches.add(startFetch(cacheKey, s3Key));
+        });
+        try {
+            CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new))
+                    .get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Some scripts of tenant {} were not prefetched: {}", tenantId, e.getMessage());
+        }
+        logger.debug("Prefetched {} of {} script(s) for tenant {} in {} ms", fetches.size(), cacheKeysByS3Key.size(),
+                tenantId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    /**
+     * Lists the ETags of all objects under a prefix, or returns null if listing fails.
+     */
+    private Map<String, String> listETags(String prefix) {
+        Map<String, String> etags = new ConcurrentHashMap<>();
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+        try {
+            s3Client.listObjectsV2Paginator(request)
+                    .contents()
+                    .subscribe(object -> etags.put(object.key(), object.eTag()))
+                    .get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return etags;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            logger.warn("Failed to list S3 prefix {}, fetching scripts individually: {}", prefix, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Revalidates a cached script in the background with a conditional GET, unless a revalidation
+     * is already running or the fetch limit is reached.
+     */
+    private void revalidate(String cacheKey, String s3Key, CachedScript cached) {
+        if (s3Client == null || bucketName == null || !cached.revalidating().compareAndSet(false, true)) {
+            return;
+        }
+        Semaphore permits = fetchPermits;
+        if (!permits.tryAcquire()) {
+            cached.revalidating().set(false);
+            return;
+        }
+        fetch(s3Key, cached.etag(), permits).whenComplete((fetched, error) -> {
+            if (error == null) {
+                if (!fetched.content().equals(cached.content())) {
+                    logger.debug("Script changed in S3: {}", s3Key);
+                    writeToDisk(s3Key, fetched);
+                }
+                scriptCache.replace(cacheKey, cached, fetched);
+            } else if (notModified(error)) {
+                scriptCache.replace(cacheKey, cached, cached.revalidated());
+            } else {
+                // Keep serving the cached copy; the next load tries again
+                logger.warn("Failed to revalidate S3 key {}: {}", s3Key, error.getMessage());
+                cached.revalidating().set(false);
+            }
+        });
+    }
+    
+    /**
+     * Issues a (conditional) GET; completes exceptionally with a 304 {@link S3Exception} when the
+     * object still matches {@code etag}. Releases the fetch permit the caller acquired from {@code permits},
+     * which may no longer be the current semaphore if the fetch limit was changed meanwhile.
+     */
+    private CompletableFuture<CachedScript> fetch(String s3Key, String etag, Semaphore permits) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key);
+        if (etag != null) {
+            request.ifNoneMatch(etag);
+        }
+        CompletableFuture<ResponseBytes<GetObjectResponse>> response;
+        try {
+            response = s3Client.getObject(request.build(), AsyncResponseTransformer.toBytes());
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return response
+                .whenComplete((bytes, error) -> permits.release())
+                .thenApply(bytes -> new CachedScript(
+                        bytes.asString(StandardCharsets.UTF_8), bytes.response().eTag(), System.nanoTime()));
+    }
+    
+    private static boolean notModified(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof S3Exception s3Exception && s3Exception.statusCode() == 304;
+    }
+    
+    /**
+     * Reads a script from the disk tier; the entry is marked stale so it gets revalidated.
+     */
+    private CachedScript readFromDisk(String s3Key) {
+        Path file = diskFile(s3Key);
+        if (file == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != DISK_FORMAT) {
+                throw new IOException("Unknown format");
+            }
+            String etag = in.readUTF();
+            byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+            return new CachedScript(new String(content, StandardCharsets.UTF_8), etag.isEmpty() ? null : etag,
+                    System.nanoTime() - revalidateAfterNanos - 1);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable cached script {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Writes a script and its ETag to the disk tier, atomically replacing any previous copy.
+     */
+    private void writeToDisk(String s3Key, CachedScript script) {
+        Path file = diskFile(s3Key);
+        if (file == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            byte[] content = script.content().getBytes(StandardCharsets.UTF_8);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(DISK_FORMAT);
+                out.writeUTF(script.etag() != null ? script.etag() : "");
+                out.writeInt(content.length);
+                out.write(content);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to cache script {} on disk: {}", s3Key, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+    
+    private Path diskFile(String s3Key) {
+        Path directory = diskCacheDirectory;
+        return directory != null ? directory.resolve(hash(bucketName + "/" + s3Key) + ".script") : null;
+    }
+    
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
     /**
@@ -191,4 +537,28 @@ public class S3ScriptLoader implements ScriptLoader {
         scriptCache.clear();
         logger.debug("Cleared S3 script cache");
     }
+    
+    /**
+     * Closes the S3 client.
+     */
+    @Override
+    public void close() {
+        if (s3Client != null) {
+            s3Client.close();
+        }
+    }
+    
+    /**
+     * Cached script content, its ETag and when it was last fetched or revalidated.
+     */
+    private record CachedScript(String content, String etag, long fetchedAt, AtomicBoolean revalidating) {
+        
+        CachedScript(String content, String etag, long fetchedAt) {
+            this(content, etag, fetchedAt, new AtomicBoolean());
+        }
+        
+        CachedScript revalidated() {
+            return new CachedScript(content, etag, System.nanoTime());
+        }
+    }
 }
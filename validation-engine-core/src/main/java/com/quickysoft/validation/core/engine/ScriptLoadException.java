@@ -5,12 +5,48 @@ package com.quickysoft.validation.core.engine;
  */
 public class ScriptLoadException extends Exception {
     
+    private final boolean notFound;
+    private final boolean repeated;
+    
     public ScriptLoadException(String message) {
-        super(message);
+        this(message, null, false);
     }
     
     public ScriptLoadException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+    
+    /**
+     * @param notFound whether the source answered that the script does not exist (as opposed
+     *                 to the source itself failing)
+     */
+    public ScriptLoadException(String message, Throwable cause, boolean notFound) {
+        this(message, cause, notFound, false);
+    }
+    
+    /**
+     * @param notFound whether the source answered that the script does not exist
+     * @param repeated whether the load failed fast on a failure that was already reported
+     */
+    public ScriptLoadException(String message, Throwable cause, boolean notFound, boolean repeated) {
         super(message, cause);
+        this.notFound = notFound;
+        this.repeated = repeated;
+    }
+    
+    /**
+     * Returns whether the script does not exist at its location.
+     */
+    public boolean isNotFound() {
+        return notFound;
+    }
+    
+    /**
+     * Returns whether the source was not asked because of a failure already reported, i.e. the
+     * failure was remembered or the source's circuit is open.
+     */
+    public boolean isRepeated() {
+        return repeated;
     }
 }
 
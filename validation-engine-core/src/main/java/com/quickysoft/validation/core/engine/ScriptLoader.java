@@ -1,5 +1,7 @@
 package com.quickysoft.validation.core.engine;
 
+import java.util.Collection;
+
 /**
  * Loads script content from external sources (file system, S3, etc.).
  */
@@ -22,5 +24,16 @@ public interface ScriptLoader {
      * @return true if this loader can handle the location
      */
     boolean supports(String location);
+    
+    /**
+     * Loads a batch of a tenant's scripts ahead of use, so later {@link #loadScript} calls are
+     * served from the loader's cache. Failures are not reported here; they surface when the
+     * script is loaded. The default implementation does nothing (scripts load lazily).
+     *
+     * @param tenantId the tenant identifier
+     * @param locations the script locations supported by this loader
+     */
+    default void prefetch(String tenantId, Collection<String> locations) {
+    }
 }
 
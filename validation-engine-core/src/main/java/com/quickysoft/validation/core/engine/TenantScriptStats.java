@@ -0,0 +1,21 @@
+package com.quickysoft.validation.core.engine;
+
+/**
+ * Compiled-script footprint of one tenant in the {@link GroovyScriptCache}.
+ * 
+ * The JVM does not report metaspace per class loader, so {@code bytecodeBytes} (the size of the
+ * class files compiled for the tenant's scripts) is the per-tenant proxy for metaspace usage.
+ * Classes shared with other tenants count towards each of them.
+ * 
+ * @param tenantId the tenant identifier
+ * @param cachedScripts number of compiled scripts currently cached
+ * @param loadedClasses number of classes compiled for those scripts (scripts plus closures)
+ * @param bytecodeBytes total size of those classes' bytecode
+ */
+public record TenantScriptStats(
+        String tenantId,
+        int cachedScripts,
+        long loadedClasses,
+        long bytecodeBytes
+) {
+}
@@ -0,0 +1,59 @@
+package com.quickysoft.validation.core.engine;
+
+import groovy.lang.Script;
+
+import java.util.Map;
+
+/**
+ * Base class for compiled Groovy validation scripts.
+ * 
+ * The script variables are declared fields rather than binding entries, so scripts access them
+ * directly and statically compiled scripts can type check them. An instance holds the variables
+ * of the call in progress, so it can be reused by one thread at a time. The payload is declared
+ * as {@code Object}; typed scripts cast it once to the payload type:
+ * <pre>{@code
+ * Customer customer = (Customer) payload
+ * return customer.age >= 18 && tenantId == 'tenant-a'
+ * }</pre>
+ */
+public abstract class TypedValidationScript extends Script implements ValidationScript {
+    
+    /**
+     * The validation payload.
+     */
+    protected Object payload;
+    
+    /**
+     * The context attributes.
+     */
+    protected Map<String, Object> context;
+    
+    /**
+     * The rule execution context.
+     */
+    protected RuleExecutionContext executionContext;
+    
+    /**
+     * The tenant identifier.
+     */
+    protected String tenantId;
+    
+    @Override
+    public Object validate(Object payload, Map<String, Object> context, RuleExecutionContext executionContext) {
+        // Undeclared variables assigned by the previous run must not leak into this one
+        Map<?, ?> variables = getBinding().getVariables();
+        if (!variables.isEmpty()) {
+            variables.clear();
+        }
+        this.payload = payload;
+        this.context = context;
+        this.executionContext = executionContext;
+        this.tenantId = executionContext.tenantId();
+        try {
+            return run();
+        } finally {
+            this.payload = null;
+            this.context = null;
+        }
+    }
+}
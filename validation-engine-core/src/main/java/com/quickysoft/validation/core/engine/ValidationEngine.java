@@ -3,7 +3,11 @@ package com.quickysoft.validation.core.engine;
 import com.quickysoft.validation.core.model.RuleSet;
 import com.quickysoft.validation.core.model.RuleSetResult;
 import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validation.core.provider.RuleSetKey;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -68,5 +72,89 @@ public interface ValidationEngine {
             T payload,
             Map<String, Object> contextAttributes
     ) throws RuleExecutionException;
+    
+    /**
+     * Eagerly prepares a rule set: compiles every enabled rule's expression or script in parallel,
+     * so that compile errors surface immediately and the first request does not pay for compilation.
+     * 
+     * @param ruleSet the rule set to prepare
+     * @return the preparation report, listing any rules that failed to compile
+     */
+    default PreparationReport prepare(RuleSet ruleSet) {
+        return prepare(ruleSet, null, null, 0);
+    }
+    
+    /**
+     * Prepares a rule set and then evaluates it against a sample payload a number of times,
+     * so that the JIT compiles the hot paths before real traffic arrives. Results of the
+     * warm-up evaluations are discarded.
+     * 
+     * The default implementation compiles nothing ahead of time (rules compile on first use) and
+     * only runs the warm-up evaluations, stopping at the first failure.
+     * 
+     * @param ruleSet the rule set to prepare
+     * @param samplePayload a representative payload
+     * @param sampleContext representative context attributes
+     * @param warmUpIterations number of synthetic evaluations to run
+     * @param <T> the type of the payload
+     * @return the preparation report
+     */
+    default <T> PreparationReport prepare(
+            RuleSet ruleSet,
+            T samplePayload,
+            Map<String, Object> sampleContext,
+            int warmUpIterations
+    ) {
+        long start = System.nanoTime();
+        Map<String, Object> warmUpContext = sampleContext != null ? sampleContext : Map.of();
+        for (int i = 0; i < warmUpIterations; i++) {
+            try {
+                evaluate(ruleSet, samplePayload, warmUpContext);
+            } catch (RuleExecutionException | RuntimeException e) {
+                break;
+            }
+        }
+        return new PreparationReport(ruleSet.tenantId(), ruleSet.code(), ruleSet.version(), 0, Map.of(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+    
+    /**
+     * Loads and prepares a rule set, returning a handle that callers can hold and evaluate
+     * repeatedly without a provider lookup per request. The handle reloads the rule set when
+     * its version stamp changes.
+     * 
+     * The default implementation does not support handles; engines backed by a
+     * {@link com.quickysoft.validation.core.provider.RuleSetProvider} override it.
+     * 
+     * @param tenantId the tenant identifier
+     * @param ruleSetCode the rule set code
+     * @param version the rule set version
+     * @return the prepared rule set handle
+     * @throws RuleExecutionException if the rule set does not exist
+     * @throws UnsupportedOperationException if the engine does not support prepared handles
+     */
+    default PreparedRuleSet prepare(String tenantId, String ruleSetCode, String version)
+            throws RuleExecutionException {
+        throw new UnsupportedOperationException("Prepared rule set handles are not supported by "
+                + getClass().getName());
+    }
+    
+    /**
+     * Loads several rule sets in one batch (e.g. at startup) and prepares each of them.
+     * The default implementation prepares them one by one.
+     * 
+     * @param keys the rule sets to prepare
+     * @return the prepared rule set handles, by key (rule sets that do not exist are absent)
+     */
+    default Map<RuleSetKey, PreparedRuleSet> prepare(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, PreparedRuleSet> prepared = new LinkedHashMap<>();
+        for (RuleSetKey key : keys) {
+            try {
+                prepared.put(key, prepare(key.tenantId(), key.ruleSetCode(), key.version()));
+            } catch (RuleExecutionException e) {
+                // Rule set does not exist
+            }
+        }
+        return prepared;
+    }
 }
-
@@ -1,9 +1,8 @@
 package com.quickysoft.validation.core.engine;
 
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorRegistry;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
 import com.quickysoft.validation.core.engine.expression.ExpressionRuleExecutor;
-import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
-import com.quickysoft.validation.core.engine.expression.impl.SpELExpressionEvaluator;
 import com.quickysoft.validation.core.provider.RuleSetProvider;
 
 import java.util.ArrayList;
@@ -21,7 +20,7 @@ public class ValidationEngineFactory {
      * Creates a ValidationEngine with default configuration.
      * 
      * Includes:
-     * - ExpressionRuleExecutor
+     * - ExpressionRuleExecutor with all built-in evaluators (SpEL default, per-rule override)
      * - GroovyScriptRuleExecutor with file system and S3 script loaders
      * - Tenant-aware Groovy script caching
      * 
@@ -39,7 +38,8 @@ public class ValidationEngineFactory {
         
         // Create rule executors
         List<RuleExecutor> executors = new ArrayList<>();
-        executors.add(new ExpressionRuleExecutor(ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.SPEL)));
+        executors.add(new ExpressionRuleExecutor(
+                ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL)));
         executors.add(new GroovyScriptRuleExecutor(scriptLoader, scriptCache));
         
         // Create result calculator
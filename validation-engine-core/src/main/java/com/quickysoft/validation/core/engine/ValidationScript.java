@@ -0,0 +1,22 @@
+package com.quickysoft.validation.core.engine;
+
+import java.util.Map;
+
+/**
+ * A compiled Groovy validation script.
+ * 
+ * Scripts compiled by {@link GroovyScriptCache} implement this interface, so executors call
+ * them directly instead of filling a fresh {@code Binding} for each run.
+ */
+public interface ValidationScript {
+    
+    /**
+     * Runs the script against a payload.
+     * 
+     * @param payload the validation payload
+     * @param context the context attributes
+     * @param executionContext the rule execution context
+     * @return the script result (a boolean or a result map)
+     */
+    Object validate(Object payload, Map<String, Object> context, RuleExecutionContext executionContext);
+}
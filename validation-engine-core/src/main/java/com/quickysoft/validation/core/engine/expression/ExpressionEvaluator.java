@@ -20,6 +20,36 @@ public interface ExpressionEvaluator {
      */
     boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException;
     
+    /**
+     * Evaluates a boolean expression owned by a tenant.
+     * 
+     * Evaluators that keep per-tenant state (such as compiled classes) use the tenant to find
+     * what {@link #prepare(String, String)} built. The default implementation ignores it.
+     * 
+     * @param expression the expression to evaluate
+     * @param tenantId the tenant owning the expression (may be null)
+     * @param context the validation context
+     * @return true if the expression evaluates to true, false otherwise
+     * @throws ExpressionEvaluationException if evaluation fails
+     */
+    default boolean evaluate(String expression, String tenantId, ValidationContext<?> context)
+            throws ExpressionEvaluationException {
+        return evaluate(expression, context);
+    }
+    
+    /**
+     * Prepares an expression ahead of its first evaluation, e.g. by compiling it.
+     * 
+     * Called when a rule set is loaded so that compilation cost and compile errors surface
+     * before any request is evaluated. The default implementation does nothing.
+     * 
+     * @param expression the expression to prepare
+     * @param tenantId the tenant owning the expression (may be null)
+     * @throws ExpressionEvaluationException if the expression is invalid
+     */
+    default void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+    }
+    
     /**
      * Gets the name of this evaluator (e.g., "SPEL", "MVEL", "JEXL").
      */
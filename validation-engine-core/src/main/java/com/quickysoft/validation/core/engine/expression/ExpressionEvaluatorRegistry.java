@@ -0,0 +1,127 @@
+package com.quickysoft.validation.core.engine.expression;
+
+import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of shared expression evaluator instances, keyed by evaluator type.
+ * 
+ * Allows a single rule set to mix expression languages: each rule may name its
+ * evaluator type, and rules without one use the registry's default evaluator.
+ * Evaluators are stateless (or thread-confined internally), so one instance per
+ * type is shared by all rules.
+ */
+public class ExpressionEvaluatorRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExpressionEvaluatorRegistry.class);
+    
+    private final Map<ExpressionEvaluatorType, ExpressionEvaluator> evaluators =
+            new EnumMap<>(ExpressionEvaluatorType.class);
+    private final ExpressionEvaluator defaultEvaluator;
+    
+    /**
+     * Creates a registry from the given evaluators.
+     * 
+     * Evaluators are registered under the type matching {@link ExpressionEvaluator#getName()};
+     * evaluators whose name does not match a known type are only usable as the default.
+     * 
+     * @param defaultEvaluator the evaluator used for rules without an explicit type
+     * @param evaluators the evaluators available for per-rule selection
+     */
+    public ExpressionEvaluatorRegistry(ExpressionEvaluator defaultEvaluator, Collection<ExpressionEvaluator> evaluators) {
+        if (defaultEvaluator == null) {
+            throw new IllegalArgumentException("defaultEvaluator cannot be null");
+        }
+        this.defaultEvaluator = defaultEvaluator;
+        register(defaultEvaluator);
+        if (evaluators != null) {
+            evaluators.forEach(this::register);
+        }
+        logger.info("Initialized ExpressionEvaluatorRegistry (default: {}, registered: {})",
+                defaultEvaluator.getName(), this.evaluators.keySet());
+    }
+    
+    /**
+     * Creates a registry containing only the given evaluator.
+     */
+    public static ExpressionEvaluatorRegistry of(ExpressionEvaluator evaluator) {
+        return new ExpressionEvaluatorRegistry(evaluator, List.of());
+    }
+    
+    /**
+     * Creates a registry with one shared instance of every built-in evaluator.
+     * 
+     * JAVA expressions run arbitrary code in-process, so the JAVA evaluator is only included
+     * when it is the default type; otherwise register it explicitly.
+     * 
+     * @param defaultType the evaluator type used for rules without an explicit type
+     */
+    public static ExpressionEvaluatorRegistry withBuiltInEvaluators(ExpressionEvaluatorType defaultType) {
+        ExpressionEvaluatorFactory factory = ExpressionEvaluatorFactory.getInstance();
+        ExpressionEvaluatorType resolvedDefault = defaultType != null ? defaultType : ExpressionEvaluatorType.SPEL;
+        Map<ExpressionEvaluatorType, ExpressionEvaluator> builtIn = new EnumMap<>(ExpressionEvaluatorType.class);
+        for (ExpressionEvaluatorType type : ExpressionEvaluatorType.values()) {
+            if (type != ExpressionEvaluatorType.JAVA || type == resolvedDefault) {
+                builtIn.put(type, factory.getEvaluator(type));
+            }
+        }
+        return new ExpressionEvaluatorRegistry(builtIn.get(resolvedDefault), builtIn.values());
+    }
+    
+    /**
+     * Gets the evaluator for a rule's evaluator type.
+     * 
+     * @param type the requested evaluator type, or null for the default evaluator
+     * @return the shared evaluator instance
+     * @throws ExpressionEvaluationException if no evaluator is registered for the type
+     */
+    public ExpressionEvaluator getEvaluator(ExpressionEvaluatorType type) throws ExpressionEvaluationException {
+        if (type == null) {
+            return defaultEvaluator;
+        }
+        ExpressionEvaluator evaluator = evaluators.get(type);
+        if (evaluator == null) {
+            throw new ExpressionEvaluationException(
+                    "No expression evaluator registered for type: " + type + " (registered: " + evaluators.keySet() + ")"
+            );
+        }
+        return evaluator;
+    }
+    
+    /**
+     * Gets the default evaluator.
+     */
+    public ExpressionEvaluator getDefaultEvaluator() {
+        return defaultEvaluator;
+    }
+    
+    /**
+     * Gets the evaluator types available for per-rule selection.
+     */
+    public Set<ExpressionEvaluatorType> getRegisteredTypes() {
+        return Set.copyOf(evaluators.keySet());
+    }
+    
+    /**
+     * Registers an evaluator under the type matching its name (first registration wins).
+     */
+    private void register(ExpressionEvaluator evaluator) {
+        if (evaluator == null || evaluator.getName() == null) {
+            return;
+        }
+        try {
+            ExpressionEvaluatorType type = ExpressionEvaluatorType.valueOf(evaluator.getName().trim().toUpperCase());
+            evaluators.putIfAbsent(type, evaluator);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Evaluator {} does not match a known evaluator type; not registered for per-rule selection",
+                    evaluator.getName());
+        }
+    }
+}
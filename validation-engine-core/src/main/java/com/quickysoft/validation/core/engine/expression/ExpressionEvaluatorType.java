@@ -17,7 +17,17 @@ public enum ExpressionEvaluatorType {
     /**
      * Java Expression Language (JEXL).
      */
-    JEXL;
+    JEXL,
+    
+    /**
+     * Built-in validation DSL, compiled once and evaluated without an interpreter.
+     */
+    NATIVE,
+    
+    /**
+     * Plain Java boolean expressions compiled in-process with the JDK compiler (requires a JDK).
+     */
+    JAVA;
     
     /**
      * Returns the ExpressionEvaluatorType enum value based on a string.
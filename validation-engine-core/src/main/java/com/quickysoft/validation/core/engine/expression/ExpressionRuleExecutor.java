@@ -2,6 +2,15 @@ package com.quickysoft.validation.core.engine.expression;
 
 import com.quickysoft.validation.core.engine.RuleExecutionException;
 import com.quickysoft.validation.core.engine.RuleExecutor;
+import com.quickysoft.validation.core.engine.expression.dsl.CompiledDslExpression;
+import com.quickysoft.validation.core.engine.expression.dsl.DslCompiler;
+import com.quickysoft.validation.core.engine.expression.dsl.DslSyntaxException;
+import com.quickysoft.validation.core.engine.expression.dsl.FastPathExpression;
+import com.quickysoft.validation.core.engine.expression.impl.CompiledExpressionCache;
+import com.quickysoft.validation.core.engine.expression.impl.JEXLExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.impl.MVELExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.impl.NativeExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.impl.SpELExpressionEvaluator;
 import com.quickysoft.validation.core.model.ExpressionRule;
 import com.quickysoft.validation.core.model.Rule;
 import com.quickysoft.validation.core.model.RuleResult;
@@ -9,6 +18,14 @@ import com.quickysoft.validation.core.model.ValidationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
 /**
  * Executor for expression-based rules.
  * 
@@ -16,26 +33,77 @@ import org.slf4j.LoggerFactory;
  * - SpEL (Spring Expression Language)
  * - MVEL (MVFLEX Expression Language)
  * - JEXL (Java Expression Language)
+ * - NATIVE (built-in validation DSL)
+ * - JAVA (Java expressions compiled in-process)
+ * 
+ * The evaluator is selected per rule: rules that declare an evaluator type are routed to
+ * the matching shared evaluator in the {@link ExpressionEvaluatorRegistry}, all other rules
+ * use the registry's default evaluator (selected based on configuration).
+ * 
+ * Trivial SpEL/MVEL/JEXL comparisons (e.g. {@code #payload.age >= 18}) are pre-classified and
+ * answered by {@link FastPathExpression} without setting up the engine's evaluation context;
+ * anything the fast path cannot decide falls through to the selected evaluator.
  * 
- * The evaluator is selected based on configuration.
+ * When {@link TenantConstants} are declared for a tenant, rules are partially evaluated against
+ * them at rule set load time ({@link #prepare(Rule)}): constant comparisons are decided, dead
+ * branches dropped, and the residual expression is cached per tenant. The residual is used only
+ * for requests whose context carries the declared values.
  */
 public class ExpressionRuleExecutor implements RuleExecutor {
     
     private static final Logger logger = LoggerFactory.getLogger(ExpressionRuleExecutor.class);
     
-    private final ExpressionEvaluator expressionEvaluator;
+    private final ExpressionEvaluatorRegistry evaluatorRegistry;
+    
+    /**
+     * Fast-path classification per syntax and expression (empty if not a simple comparison).
+     */
+    private final Map<ExpressionEvaluatorType, CompiledExpressionCache<String, Optional<FastPathExpression>>>
+            fastPaths = new EnumMap<>(ExpressionEvaluatorType.class);
+    
+    /**
+     * Residual expressions specialised against tenant constants, per tenant, syntax and expression.
+     * Each slot is re-specialised in place when its tenant's constants change.
+     */
+    private volatile CompiledExpressionCache<ResidualKey, AtomicReference<Residual>> residuals =
+            new CompiledExpressionCache<>();
+    
+    private volatile boolean fastPathEnabled = true;
+    
+    private volatile TenantConstants tenantConstants = new TenantConstants();
     
     /**
      * Creates an ExpressionRuleExecutor with the specified evaluator.
+     * Only rules without an evaluator type (or with the same type) can be executed.
      */
     public ExpressionRuleExecutor(ExpressionEvaluator expressionEvaluator) {
         if (expressionEvaluator == null) {
             throw new IllegalArgumentException("expressionEvaluator cannot be null");
         }
-        this.expressionEvaluator = expressionEvaluator;
+        this.evaluatorRegistry = ExpressionEvaluatorRegistry.of(expressionEvaluator);
+        initFastPaths();
         logger.info("Initialized ExpressionRuleExecutor with {} evaluator", expressionEvaluator.getName());
     }
     
+    /**
+     * Creates an ExpressionRuleExecutor that selects the evaluator per rule from the registry.
+     */
+    public ExpressionRuleExecutor(ExpressionEvaluatorRegistry evaluatorRegistry) {
+        if (evaluatorRegistry == null) {
+            throw new IllegalArgumentException("evaluatorRegistry cannot be null");
+        }
+        this.evaluatorRegistry = evaluatorRegistry;
+        initFastPaths();
+        logger.info("Initialized ExpressionRuleExecutor with evaluators {} (default: {})",
+                evaluatorRegistry.getRegisteredTypes(), evaluatorRegistry.getDefaultEvaluator().getName());
+    }
+    
+    private void initFastPaths() {
+        for (ExpressionEvaluatorType syntax : ExpressionEvaluatorType.values()) {
+            fastPaths.put(syntax, new CompiledExpressionCache<>());
+        }
+    }
+    
     @Override
     public RuleResult execute(Rule rule, ValidationContext<?> context) throws RuleExecutionException {
         if (!(rule instanceof ExpressionRule expressionRule)) {
@@ -43,7 +111,14 @@ public class ExpressionRuleExecutor implements RuleExecutor {
         }
         
         try {
-            boolean result = expressionEvaluator.evaluate(expressionRule.expression(), context);
+            ExpressionEvaluator evaluator = evaluatorRegistry.getEvaluator(expressionRule.evaluatorType());
+            Boolean fastResult = evaluateResidual(expressionRule, evaluator, context);
+            if (fastResult == null) {
+                fastResult = evaluateFastPath(expressionRule.expression(), evaluator, context);
+            }
+            boolean result = fastResult != null
+                    ? fastResult
+                    : evaluator.evaluate(expressionRule.expression(), rule.tenantId(), context);
             
             if (result) {
                 return RuleResult.passed(
@@ -66,7 +141,7 @@ public class ExpressionRuleExecutor implements RuleExecutor {
             }
         } catch (ExpressionEvaluationException e) {
             logger.error("Error evaluating expression rule {} (evaluator: {}): {}", 
-                    rule.ruleCode(), expressionEvaluator.getName(), e.getMessage(), e);
+                    rule.ruleCode(), evaluatorName(expressionRule), e.getMessage(), e);
             return RuleResult.error(
                     rule.id(),
                     rule.tenantId(),
@@ -91,6 +166,179 @@ public class ExpressionRuleExecutor implements RuleExecutor {
         return rule instanceof ExpressionRule;
     }
     
+    @Override
+    public void prepare(Rule rule) throws RuleExecutionException {
+        if (!(rule instanceof ExpressionRule expressionRule)) {
+            throw new IllegalArgumentException("Rule must be an ExpressionRule");
+        }
+        try {
+            ExpressionEvaluator evaluator = evaluatorRegistry.getEvaluator(expressionRule.evaluatorType());
+            residual(expressionRule, evaluator);
+            fastPath(expressionRule.expression(), evaluator);
+            // Always compile with the engine, so expressions it rejects are reported at load time
+            // even when the fast path would answer them
+            evaluator.prepare(expressionRule.expression(), rule.tenantId());
+        } catch (ExpressionEvaluationException e) {
+            throw new RuleExecutionException(
+                    "Failed to prepare expression rule " + rule.ruleCode() + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Gets the evaluator registry used by this executor.
+     */
+    public ExpressionEvaluatorRegistry getEvaluatorRegistry() {
+        return evaluatorRegistry;
+    }
+    
+    /**
+     * Enables or disables the fast path for trivial comparisons (enabled by default).
+     */
+    public void setFastPathEnabled(boolean fastPathEnabled) {
+        this.fastPathEnabled = fastPathEnabled;
+    }
+    
+    /**
+     * Sets the declared tenant-scoped constants used for partial evaluation.
+     */
+    public void setTenantConstants(TenantConstants tenantConstants) {
+        this.tenantConstants = tenantConstants != null ? tenantConstants : new TenantConstants();
+        residuals = new CompiledExpressionCache<>();
+    }
+    
+    /**
+     * Gets the declared tenant-scoped constants.
+     */
+    public TenantConstants getTenantConstants() {
+        return tenantConstants;
+    }
+    
+    /**
+     * Evaluates a rule's residual expression specialised against its tenant's constants.
+     * 
+     * @return the result, or null if there is no residual or the context does not carry the
+     *         constant values the residual was specialised for
+     */
+    private Boolean evaluateResidual(ExpressionRule rule, ExpressionEvaluator evaluator, ValidationContext<?> context) {
+        Residual residual = residual(rule, evaluator);
+        if (residual == null) {
+            return null;
+        }
+        for (String attribute : residual.foldedAttributes()) {
+            if (!Objects.equals(context.contextAttributes().get(attribute), residual.constants().get(attribute))) {
+                return null;
+            }
+        }
+        try {
+            return residual.evaluation().apply(context);
+        } catch (RuntimeException e) {
+            // Let the evaluator report the failure
+            return null;
+        }
+    }
+    
+    /**
+     * Gets (specialising on first use) the residual of a rule for its tenant's current constants.
+     */
+    private Residual residual(ExpressionRule rule, ExpressionEvaluator evaluator) {
+        Map<String, Object> constants = tenantConstants.get(rule.tenantId());
+        ExpressionEvaluatorType syntax = syntaxOf(evaluator);
+        if (constants.isEmpty() || syntax == null || rule.expression() == null) {
+            return null;
+        }
+        AtomicReference<Residual> slot = residuals.get(
+                new ResidualKey(rule.tenantId(), syntax, rule.expression()), key -> new AtomicReference<>());
+        Residual residual = slot.get();
+        if (residual == null || residual.constants() != constants) {
+            residual = specialise(rule.expression(), syntax, constants);
+            slot.set(residual);
+        }
+        return residual.evaluation() != null ? residual : null;
+    }
+    
+    /**
+     * Partially evaluates an expression against constant context attributes.
+     */
+    private Residual specialise(String expression, ExpressionEvaluatorType syntax, Map<String, Object> constants) {
+        if (syntax == ExpressionEvaluatorType.NATIVE) {
+            try {
+                CompiledDslExpression compiled = DslCompiler.compile(expression, constants);
+                return new Residual(constants, compiled.getFoldedAttributes(), compiled::test);
+            } catch (DslSyntaxException e) {
+                return new Residual(constants, Set.of(), null);
+            }
+        }
+        FastPathExpression fastPath = fastPathEnabled ? FastPathExpression.classify(expression, syntax, constants) : null;
+        if (fastPath == null || fastPath.getFoldedAttributes().isEmpty()) {
+            return new Residual(constants, Set.of(), null);
+        }
+        return new Residual(constants, fastPath.getFoldedAttributes(), fastPath::evaluate);
+    }
+    
+    /**
+     * Evaluates an expression on the fast path.
+     * 
+     * @return the result, or null if the expression must be evaluated by the evaluator
+     */
+    private Boolean evaluateFastPath(String expression, ExpressionEvaluator evaluator, ValidationContext<?> context) {
+        FastPathExpression fastPath = fastPath(expression, evaluator);
+        return fastPath != null ? fastPath.evaluate(context) : null;
+    }
+    
+    /**
+     * Gets the (cached) fast-path form of an expression for the evaluator's syntax, if any.
+     * Only the built-in interpreted evaluators are eligible; custom evaluators are never bypassed.
+     */
+    private FastPathExpression fastPath(String expression, ExpressionEvaluator evaluator) {
+        ExpressionEvaluatorType syntax = syntaxOf(evaluator);
+        if (!fastPathEnabled || expression == null || syntax == null || syntax == ExpressionEvaluatorType.NATIVE) {
+            return null;
+        }
+        return fastPaths.get(syntax)
+                .get(expression, source -> Optional.ofNullable(FastPathExpression.classify(source, syntax)))
+                .orElse(null);
+    }
+    
+    /**
+     * Gets the syntax of a built-in evaluator whose expressions the executor can analyse.
+     * Custom evaluators are never bypassed, so they yield null.
+     */
+    private static ExpressionEvaluatorType syntaxOf(ExpressionEvaluator evaluator) {
+        if (evaluator instanceof SpELExpressionEvaluator) {
+            return ExpressionEvaluatorType.SPEL;
+        } else if (evaluator instanceof MVELExpressionEvaluator) {
+            return ExpressionEvaluatorType.MVEL;
+        } else if (evaluator instanceof JEXLExpressionEvaluator) {
+            return ExpressionEvaluatorType.JEXL;
+        } else if (evaluator instanceof NativeExpressionEvaluator) {
+            return ExpressionEvaluatorType.NATIVE;
+        }
+        return null;
+    }
+    
+    private record ResidualKey(String tenantId, ExpressionEvaluatorType syntax, String expression) {
+    }
+    
+    /**
+     * Residual of an expression after partial evaluation.
+     * 
+     * @param constants the tenant constants it was specialised against
+     * @param foldedAttributes the attributes that were substituted (must match at evaluation time)
+     * @param evaluation evaluates the residual (returns null when undecided); null if not specialisable
+     */
+    private record Residual(Map<String, Object> constants, Set<String> foldedAttributes,
+                            Function<ValidationContext<?>, Boolean> evaluation) {
+    }
+    
+    /**
+     * Gets the name of the evaluator a rule is routed to (for logging).
+     */
+    private String evaluatorName(ExpressionRule rule) {
+        return rule.evaluatorType() != null
+                ? rule.evaluatorType().name()
+                : evaluatorRegistry.getDefaultEvaluator().getName();
+    }
+    
     /**
      * Formats the failure message, replacing placeholders if a template is provided.
      */
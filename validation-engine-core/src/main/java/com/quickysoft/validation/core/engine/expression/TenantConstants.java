@@ -0,0 +1,53 @@
+package com.quickysoft.validation.core.engine.expression;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Declared tenant-scoped constant context attributes (e.g. region or tier).
+ * 
+ * Attributes declared here have the same value on every request of a tenant, which lets
+ * {@link ExpressionRuleExecutor} partially evaluate expression rules against them when a
+ * rule set is loaded. A specialised expression is only used for requests whose context
+ * actually carries the declared values; any other request is evaluated in full.
+ */
+public class TenantConstants {
+    
+    private final Map<String, Map<String, Object>> constantsByTenant = new ConcurrentHashMap<>();
+    
+    /**
+     * Declares the constant attributes of a tenant, replacing any previous declaration.
+     * 
+     * @param tenantId the tenant
+     * @param constants attribute name to value (keys may use dot notation, e.g. "tenant.tier")
+     */
+    public void declare(String tenantId, Map<String, Object> constants) {
+        if (tenantId == null) {
+            throw new IllegalArgumentException("tenantId cannot be null");
+        }
+        if (constants == null || constants.isEmpty()) {
+            constantsByTenant.remove(tenantId);
+        } else {
+            constantsByTenant.put(tenantId, Map.copyOf(constants));
+        }
+    }
+    
+    /**
+     * Gets the constant attributes of a tenant.
+     * 
+     * @return the declared constants, or an empty map if none are declared
+     */
+    public Map<String, Object> get(String tenantId) {
+        if (tenantId == null) {
+            return Map.of();
+        }
+        return constantsByTenant.getOrDefault(tenantId, Map.of());
+    }
+    
+    /**
+     * Removes the declaration of a tenant.
+     */
+    public void remove(String tenantId) {
+        constantsByTenant.remove(tenantId);
+    }
+}
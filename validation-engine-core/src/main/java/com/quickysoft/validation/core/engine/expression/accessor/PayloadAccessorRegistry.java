@@ -0,0 +1,63 @@
+package com.quickysoft.validation.core.engine.expression.accessor;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Shared registry of generated property accessors for payload objects.
+ * 
+ * For every (class, property) pair the getter is resolved once to a {@link MethodHandle} adapted to
+ * {@code (Object)Object} and cached; later reads are a direct handle invocation, so a deep path such
+ * as {@code payload.product.price} costs no reflective lookups after the first evaluation:
+ * <ul>
+ *   <li>SpEL through {@link PayloadPropertyAccessor}</li>
+ *   <li>JEXL through {@link PayloadUberspect}, for the classes JEXL's permissions allow</li>
+ * </ul>
+ * The built-in DSL and the function library read through the same cache. MVEL keeps its own
+ * reflective accessors: it only accepts property handlers through a JVM-wide, unsynchronized
+ * registry, which an embedded library should not write to.
+ */
+public final class PayloadAccessorRegistry {
+    
+    private static final PayloadAccessorRegistry INSTANCE = new PayloadAccessorRegistry();
+    
+    private PayloadAccessorRegistry() {
+    }
+    
+    public static PayloadAccessorRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the accessor for a property in any supported style: a record accessor or plain
+     * {@code name()} method, a JavaBean getter, or a public field.
+     * 
+     * @return the accessor, or {@code null} if the class does not expose the property
+     */
+    public MethodHandle getter(Class<?> type, String property) {
+        return PropertyAccessors.getter(type, property);
+    }
+    
+    /**
+     * Gets the JavaBean getter ({@code getName()}, or {@code isName()} for booleans) for a property.
+     * This is the accessor style every expression engine resolves first, so it can stand in for
+     * the engines' own reflective lookup without changing results.
+     * 
+     * @return the getter, or {@code null} if there is none
+     */
+    public MethodHandle beanGetter(Class<?> type, String property) {
+        return PropertyAccessors.beanGetter(type, property);
+    }
+    
+    /**
+     * Invokes an accessor obtained from this registry.
+     */
+    static Object invoke(MethodHandle getter, Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to read property of " + target.getClass().getName(), t);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.quickysoft.validation.core.engine.expression.accessor;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypedValue;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+
+/**
+ * SpEL {@link PropertyAccessor} that reads JavaBean properties through the {@link PayloadAccessorRegistry}.
+ * 
+ * Read-only; maps, classes (static access) and properties without a bean getter are left to the
+ * other accessors.
+ */
+public class PayloadPropertyAccessor implements PropertyAccessor {
+    
+    private final PayloadAccessorRegistry registry = PayloadAccessorRegistry.getInstance();
+    
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+        return null;
+    }
+    
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) {
+        return getter(target, name) != null;
+    }
+    
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+        MethodHandle getter = getter(target, name);
+        if (getter == null) {
+            throw new AccessException("No getter for property '" + name + "'");
+        }
+        try {
+            return new TypedValue(PayloadAccessorRegistry.invoke(getter, target));
+        } catch (RuntimeException e) {
+            throw new AccessException("Unable to read property '" + name + "'", e);
+        }
+    }
+    
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) {
+        return false;
+    }
+    
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue)
+            throws AccessException {
+        throw new AccessException("Property '" + name + "' is read-only");
+    }
+    
+    private MethodHandle getter(Object target, String name) {
+        if (target == null || target instanceof Map || target instanceof Class) {
+            return null;
+        }
+        return registry.beanGetter(target.getClass(), name);
+    }
+}
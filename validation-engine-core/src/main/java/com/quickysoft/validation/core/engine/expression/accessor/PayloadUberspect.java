@@ -0,0 +1,143 @@
+package com.quickysoft.validation.core.engine.expression.accessor;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.internal.introspection.Uberspect;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.introspection.JexlPropertyGet;
+import org.apache.commons.jexl3.introspection.JexlPropertySet;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JEXL {@link JexlUberspect} that serves JavaBean property reads from the {@link PayloadAccessorRegistry}.
+ * 
+ * Every lookup is resolved by the standard uberspect first, so permissions and resolution order are
+ * unchanged; when it resolves to a bean getter, the returned executor invokes the cached handle instead.
+ * 
+ * The handles therefore only serve classes the permissions allow. The JEXL evaluator keeps JEXL's
+ * restricted permissions, which deny application classes, so JEXL rules can read properties of
+ * map payloads and JDK types but not of application beans.
+ */
+public class PayloadUberspect implements JexlUberspect {
+    
+    private final JexlUberspect delegate;
+    private final PayloadAccessorRegistry registry = PayloadAccessorRegistry.getInstance();
+    
+    public PayloadUberspect(JexlPermissions permissions) {
+        this(new Uberspect(LogFactory.getLog(JexlEngine.class), JexlUberspect.JEXL_STRATEGY, permissions));
+    }
+    
+    public PayloadUberspect(JexlUberspect delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public JexlPropertyGet getPropertyGet(Object obj, Object identifier) {
+        return withRegistry(delegate.getPropertyGet(obj, identifier), obj, identifier);
+    }
+    
+    @Override
+    public JexlPropertyGet getPropertyGet(List<PropertyResolver> resolvers, Object obj, Object identifier) {
+        return withRegistry(delegate.getPropertyGet(resolvers, obj, identifier), obj, identifier);
+    }
+    
+    private JexlPropertyGet withRegistry(JexlPropertyGet resolved, Object obj, Object identifier) {
+        if (resolved == null || obj == null || obj instanceof Map || !(identifier instanceof String name)) {
+            return resolved;
+        }
+        MethodHandle getter = registry.beanGetter(obj.getClass(), name);
+        return getter != null ? new HandlePropertyGet(obj.getClass(), name, getter) : resolved;
+    }
+    
+    @Override
+    public List<PropertyResolver> getResolvers(JexlOperator operator, Object obj) {
+        return delegate.getResolvers(operator, obj);
+    }
+    
+    @Override
+    public void setClassLoader(ClassLoader loader) {
+        delegate.setClassLoader(loader);
+    }
+    
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+    
+    @Override
+    public int getVersion() {
+        return delegate.getVersion();
+    }
+    
+    @Override
+    public Class<?> getClassByName(String className) {
+        return delegate.getClassByName(className);
+    }
+    
+    @Override
+    public JexlMethod getConstructor(Object ctorHandle, Object... args) {
+        return delegate.getConstructor(ctorHandle, args);
+    }
+    
+    @Override
+    public JexlMethod getMethod(Object obj, String method, Object... args) {
+        return delegate.getMethod(obj, method, args);
+    }
+    
+    @Override
+    public JexlPropertySet getPropertySet(Object obj, Object identifier, Object arg) {
+        return delegate.getPropertySet(obj, identifier, arg);
+    }
+    
+    @Override
+    public JexlPropertySet getPropertySet(List<PropertyResolver> resolvers, Object obj, Object identifier, Object arg) {
+        return delegate.getPropertySet(resolvers, obj, identifier, arg);
+    }
+    
+    @Override
+    public Iterator<?> getIterator(Object obj) {
+        return delegate.getIterator(obj);
+    }
+    
+    @Override
+    public JexlArithmetic.Uberspect getArithmetic(JexlArithmetic arithmetic) {
+        return delegate.getArithmetic(arithmetic);
+    }
+    
+    /**
+     * Property executor bound to one receiver class; JEXL caches it per expression node.
+     */
+    private record HandlePropertyGet(Class<?> type, String name, MethodHandle getter) implements JexlPropertyGet {
+        
+        @Override
+        public Object invoke(Object obj) {
+            return PayloadAccessorRegistry.invoke(getter, obj);
+        }
+        
+        @Override
+        public Object tryInvoke(Object obj, Object key) {
+            if (obj != null && obj.getClass() == type && name.equals(key)) {
+                return PayloadAccessorRegistry.invoke(getter, obj);
+            }
+            return JexlEngine.TRY_FAILED;
+        }
+        
+        @Override
+        public boolean tryFailed(Object rval) {
+            return rval == JexlEngine.TRY_FAILED;
+        }
+        
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+    }
+}
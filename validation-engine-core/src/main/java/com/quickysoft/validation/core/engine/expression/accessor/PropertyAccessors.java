@@ -0,0 +1,125 @@
+package com.quickysoft.validation.core.engine.expression.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves property getters to {@link MethodHandle}s, cached per class.
+ * 
+ * A property {@code name} resolves, in order, to a record accessor or plain {@code name()} method,
+ * a {@code getName()} / {@code isName()} JavaBean getter, or a public field. Every handle is adapted
+ * to {@code (Object)Object} so call sites can use {@code invokeExact}.
+ */
+final class PropertyAccessors {
+    
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    
+    private static final ClassValue<Map<String, Optional<MethodHandle>>> GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<MethodHandle>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    
+    private static final ClassValue<Map<String, Optional<MethodHandle>>> BEAN_GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<MethodHandle>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    
+    private PropertyAccessors() {
+    }
+    
+    /**
+     * Returns the getter for a property, or {@code null} if the class does not expose it.
+     */
+    static MethodHandle getter(Class<?> type, String name) {
+        return GETTERS.get(type)
+                .computeIfAbsent(name, property -> Optional.ofNullable(resolve(type, property)))
+                .orElse(null);
+    }
+    
+    /**
+     * Returns the JavaBean getter ({@code getName()}, or {@code isName()} for booleans) for a property,
+     * or {@code null} if there is none. This is the accessor style every expression engine understands.
+     */
+    static MethodHandle beanGetter(Class<?> type, String name) {
+        return BEAN_GETTERS.get(type)
+                .computeIfAbsent(name, property -> Optional.ofNullable(resolveBean(type, property)))
+                .orElse(null);
+    }
+    
+    private static MethodHandle resolveBean(Class<?> type, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Method getter = findMethod(type, "get" + capitalized);
+        if (getter == null) {
+            getter = findMethod(type, "is" + capitalized);
+            if (getter != null && getter.getReturnType() != boolean.class) {
+                getter = null;
+            }
+        }
+        return getter != null ? unreflect(getter) : null;
+    }
+    
+    private static MethodHandle resolve(Class<?> type, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] {name, "get" + capitalized, "is" + capitalized}) {
+            Method method = findMethod(type, candidate);
+            if (method != null) {
+                return unreflect(method);
+            }
+        }
+        try {
+            Field field = type.getField(name);
+            if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
+                return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            // Not exposed as a field either
+        }
+        return null;
+    }
+    
+    /**
+     * Finds a public no-arg instance method that can be invoked from here, preferring the
+     * declaration on a public supertype when the runtime class itself is not accessible.
+     */
+    private static Method findMethod(Class<?> type, String name) {
+        Method method;
+        try {
+            method = type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class) {
+            return null;
+        }
+        if (method.trySetAccessible()) {
+            return method;
+        }
+        for (Class<?> iface : type.getInterfaces()) {
+            Method inherited = findMethod(iface, name);
+            if (inherited != null) {
+                return inherited;
+            }
+        }
+        Class<?> superclass = type.getSuperclass();
+        return superclass != null ? findMethod(superclass, name) : null;
+    }
+    
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+}
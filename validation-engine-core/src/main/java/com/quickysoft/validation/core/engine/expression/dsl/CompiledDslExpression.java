@@ -0,0 +1,123 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.model.ValidationContext;
+
+import java.util.Set;
+
+/**
+ * A validation DSL expression compiled to bytecode.
+ * 
+ * The parsed tree is translated by {@link DslBytecodeGenerator} into a hidden class specialized
+ * for the payload class seen at run time. The last specialization is kept as a monomorphic inline
+ * cache; an expression that keeps seeing new payload classes settles on a program that is not
+ * bound to any of them. If a program cannot be generated the tree is evaluated instead.
+ * 
+ * Instances are safe to share between threads; each evaluation gets its own frame.
+ */
+public final class CompiledDslExpression {
+    
+    /** Payload classes an expression is specialized for before it stops binding to them. */
+    private static final int MAX_SPECIALIZATIONS = 8;
+    
+    private final String source;
+    private final DslNode root;
+    private final int slotCount;
+    private final Set<String> foldedAttributes;
+    private volatile Program program;
+    private volatile DslNode generic;
+    private int specializations;
+    
+    /**
+     * The program bound to one payload class.
+     */
+    private record Program(Class<?> payloadType, DslNode node) {
+    }
+    
+    CompiledDslExpression(String source, DslNode root, int slotCount, Set<String> foldedAttributes) {
+        this.source = source;
+        this.root = root;
+        this.slotCount = slotCount;
+        this.foldedAttributes = Set.copyOf(foldedAttributes);
+    }
+    
+    /**
+     * Evaluates the expression against a validation context.
+     * 
+     * @return the raw result of the expression
+     */
+    public Object evaluate(ValidationContext<?> context) {
+        Object payload = context.payload();
+        return program(payload).evaluate(new DslFrame(payload, context.contextAttributes(), slotCount));
+    }
+    
+    /**
+     * Returns the program to run for a payload, generating one when its class changes.
+     */
+    DslNode program(Object payload) {
+        Program current = program;
+        if (current != null && payload != null && current.payloadType() == payload.getClass()) {
+            return current.node();
+        }
+        return relink(payload);
+    }
+    
+    private synchronized DslNode relink(Object payload) {
+        if (root instanceof DslNode.Constant) {
+            return root;
+        }
+        if (payload == null) {
+            return generic();
+        }
+        Program current = program;
+        if (current != null && current.payloadType() == payload.getClass()) {
+            return current.node();
+        }
+        if (specializations >= MAX_SPECIALIZATIONS) {
+            return generic();
+        }
+        specializations++;
+        DslNode node = DslBytecodeGenerator.generate(root, payload.getClass());
+        program = new Program(payload.getClass(), node != null ? node : root);
+        return program.node();
+    }
+    
+    private DslNode generic() {
+        DslNode node = generic;
+        if (node == null) {
+            node = DslBytecodeGenerator.generate(root, null);
+            generic = node = node != null ? node : root;
+        }
+        return node;
+    }
+    
+    /**
+     * Evaluates the expression as a predicate; only {@code Boolean.TRUE} counts as passing.
+     */
+    public boolean test(ValidationContext<?> context) {
+        return Boolean.TRUE.equals(evaluate(context));
+    }
+    
+    /**
+     * Returns whether the whole expression was folded to a constant at compile time.
+     */
+    public boolean isConstant() {
+        return root instanceof DslNode.Constant;
+    }
+    
+    /**
+     * Returns the context attributes that were substituted as constants at compile time.
+     * The compiled form is only valid for contexts holding the same values for these attributes.
+     */
+    public Set<String> getFoldedAttributes() {
+        return foldedAttributes;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,104 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads {@code context.a.b.c} from the flat context attribute map.
+ * 
+ * Context attributes may be registered under dotted keys ({@code "order.currency"}) or hold
+ * objects that are navigated further. The longest dotted prefix present as a key wins and the
+ * remaining segments are read as properties, which matches the nested view the other evaluators
+ * build, without materializing that view on every evaluation.
+ */
+final class ContextPathNode implements DslNode {
+    
+    private final String[] prefixes;
+    private final PropertyReader[] readers;
+    
+    ContextPathNode(String[] segments) {
+        this(segments, PropertyReader.Access.ANY);
+    }
+    
+    ContextPathNode(String[] segments, PropertyReader.Access access) {
+        this.prefixes = new String[segments.length];
+        this.readers = new PropertyReader[segments.length];
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                prefix.append('.');
+            }
+            prefix.append(segments[i]);
+            prefixes[i] = prefix.toString();
+            readers[i] = new PropertyReader(segments[i], access);
+        }
+    }
+    
+    @Override
+    public Object evaluate(DslFrame frame) {
+        Map<String, Object> attributes = frame.contextAttributes;
+        for (int i = prefixes.length - 1; i >= 0; i--) {
+            Object value = attributes.get(prefixes[i]);
+            if (value != null || attributes.containsKey(prefixes[i])) {
+                return navigate(value, i + 1);
+            }
+        }
+        // Only deeper dotted keys exist (e.g. "order.currency" for context.order)
+        return navigate(nestedView(attributes, prefixes[0] + "."), 1);
+    }
+    
+    /**
+     * A context path resolved at compile time from a declared constant attribute.
+     * 
+     * @param attribute the attribute key the value was taken from
+     * @param value the resolved value
+     */
+    record Folded(String attribute, Object value) {
+    }
+    
+    /**
+     * Resolves this path against constant attributes, using the longest dotted prefix that is
+     * declared as a constant.
+     * 
+     * @return the folded value, or {@code null} if no constant covers the path or it cannot be navigated
+     */
+    Folded fold(Map<String, Object> constants) {
+        for (int i = prefixes.length - 1; i >= 0; i--) {
+            if (constants.containsKey(prefixes[i])) {
+                try {
+                    return new Folded(prefixes[i], navigate(constants.get(prefixes[i]), i + 1));
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private Object navigate(Object value, int from) {
+        for (int i = from; i < readers.length && value != null; i++) {
+            value = readers[i].read(value);
+        }
+        return value;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> nestedView(Map<String, Object> attributes, String prefix) {
+        Map<String, Object> nested = null;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                continue;
+            }
+            if (nested == null) {
+                nested = new HashMap<>();
+            }
+            String[] path = entry.getKey().substring(prefix.length()).split("\\.");
+            Map<String, Object> current = nested;
+            for (int i = 0; i < path.length - 1; i++) {
+                current = (Map<String, Object>) current.computeIfAbsent(path[i], k -> new HashMap<String, Object>());
+            }
+            current.put(path[path.length - 1], entry.getValue());
+        }
+        return nested;
+    }
+}
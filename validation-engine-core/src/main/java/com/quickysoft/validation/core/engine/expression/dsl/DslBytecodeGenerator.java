@@ -0,0 +1,625 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import groovyjarjarasm.asm.ClassWriter;
+import groovyjarjarasm.asm.Label;
+import groovyjarjarasm.asm.MethodVisitor;
+import groovyjarjarasm.asm.Opcodes;
+import groovyjarjarasm.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates a {@link DslNode} tree into a hidden class implementing {@link DslNode}.
+ * 
+ * The ASM copy bundled with Groovy emits one {@code evaluate} method for the whole expression:
+ * boolean operators become branches, collection functions become loops, and operators call the
+ * {@link DslOperators} helpers directly. When the payload class is known, property reads on it and
+ * on the values it returns are bound to their getters with {@code invokevirtual}; comparisons of an
+ * integral payload property against a literal are done on primitives. A read falls back to the
+ * node's {@link PropertyReader} when the receiver has another class at run time, is a map, or its
+ * class or getter cannot be linked from this class loader, so the generated code always computes
+ * the same result as the tree.
+ * 
+ * Generated classes are not strongly reachable from their loader and are unloaded together with
+ * the {@link CompiledDslExpression} that holds them.
+ */
+final class DslBytecodeGenerator implements Opcodes {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DslBytecodeGenerator.class);
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = Type.getInternalName(DslBytecodeGenerator.class)
+            .replace("DslBytecodeGenerator", "DslProgram");
+    
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String NODE = Type.getInternalName(DslNode.class);
+    private static final String FRAME = Type.getInternalName(DslFrame.class);
+    private static final String OPERATORS = Type.getInternalName(DslOperators.class);
+    private static final String FUNCTIONS = Type.getInternalName(DslFunctions.class);
+    private static final String READER = Type.getInternalName(PropertyReader.class);
+    private static final String BOOLEAN = Type.getInternalName(Boolean.class);
+    private static final String LIST = Type.getInternalName(List.class);
+    private static final String ITERATOR = Type.getInternalName(Iterator.class);
+    private static final String SET = Type.getInternalName(Set.class);
+    private static final String HASH_SET = Type.getInternalName(HashSet.class);
+    private static final String MAP = Type.getInternalName(Map.class);
+    
+    private static final String BINARY = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String PREDICATE = "(Ljava/lang/Object;Ljava/lang/Object;)Z";
+    
+    private static final int THIS = 0;
+    private static final int FRAME_LOCAL = 1;
+    private static final int PAYLOAD_LOCAL = 2;
+    
+    private final Class<?> payloadType;
+    private final List<Object> constants = new ArrayList<>();
+    private MethodVisitor method;
+    private int nextLocal;
+    
+    private DslBytecodeGenerator(Class<?> payloadType) {
+        this.payloadType = payloadType;
+    }
+    
+    /**
+     * Generates the program for an expression.
+     * 
+     * @param root the expression tree
+     * @param payloadType the payload class to bind property reads to, or {@code null} for a
+     *                    program that reads every property through its {@link PropertyReader}
+     * @return the generated program, or {@code null} if it could not be generated
+     */
+    static DslNode generate(DslNode root, Class<?> payloadType) {
+        DslBytecodeGenerator generator = new DslBytecodeGenerator(
+                payloadType != null && linkable(payloadType) ? payloadType : null);
+        try {
+            byte[] bytes = generator.emit(root);
+            MethodHandles.Lookup program = LOOKUP.defineHiddenClass(bytes, true);
+            MethodHandle constructor = program.findConstructor(program.lookupClass(),
+                    MethodType.methodType(void.class, Object[].class));
+            return (DslNode) constructor.invoke(generator.constants.toArray());
+        } catch (Throwable t) {
+            logger.debug("Falling back to the expression tree; bytecode generation failed for {}", root, t);
+            return null;
+        }
+    }
+    
+    private byte[] emit(DslNode root) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Merged values are only ever used as Object; avoids loading payload classes here
+                return OBJECT;
+            }
+        };
+        writer.visit(V17, ACC_FINAL | ACC_SUPER, CLASS_NAME, null, OBJECT, new String[] {NODE});
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, "constants", "[Ljava/lang/Object;", null, null).visitEnd();
+        
+        MethodVisitor constructor = writer.visitMethod(0, "<init>", "([Ljava/lang/Object;)V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, THIS);
+        constructor.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitVarInsn(ALOAD, THIS);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitFieldInsn(PUTFIELD, CLASS_NAME, "constants", "[Ljava/lang/Object;");
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        
+        method = writer.visitMethod(ACC_PUBLIC, "evaluate", "(L" + FRAME + ";)Ljava/lang/Object;", null, null);
+        method.visitCode();
+        nextLocal = PAYLOAD_LOCAL;
+        if (payloadType != null) {
+            method.visitVarInsn(ALOAD, FRAME_LOCAL);
+            method.visitFieldInsn(GETFIELD, FRAME, "payload", "Ljava/lang/Object;");
+            method.visitTypeInsn(CHECKCAST, Type.getInternalName(payloadType));
+            method.visitVarInsn(ASTORE, PAYLOAD_LOCAL);
+            nextLocal++;
+        }
+        value(root);
+        method.visitInsn(ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+    
+    /**
+     * Emits code leaving the node's value on the stack.
+     */
+    private void value(DslNode node) {
+        if (node instanceof DslNode.Constant constant) {
+            constant(constant.value());
+        } else if (node instanceof DslNode.Payload) {
+            if (payloadType != null) {
+                method.visitVarInsn(ALOAD, PAYLOAD_LOCAL);
+            } else {
+                method.visitVarInsn(ALOAD, FRAME_LOCAL);
+                method.visitFieldInsn(GETFIELD, FRAME, "payload", "Ljava/lang/Object;");
+            }
+        } else if (node instanceof DslNode.TenantId) {
+            method.visitVarInsn(ALOAD, FRAME_LOCAL);
+            method.visitFieldInsn(GETFIELD, FRAME, "contextAttributes", "L" + MAP + ";");
+            method.visitLdcInsn("tenantId");
+            method.visitMethodInsn(INVOKEINTERFACE, MAP, "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+        } else if (node instanceof DslNode.Slot slot) {
+            method.visitVarInsn(ALOAD, FRAME_LOCAL);
+            method.visitFieldInsn(GETFIELD, FRAME, "slots", "[Ljava/lang/Object;");
+            push(slot.index());
+            method.visitInsn(AALOAD);
+        } else if (node instanceof DslNode.Property property) {
+            property(property);
+        } else if (node instanceof DslNode.Logical || node instanceof DslNode.Truth
+                || node instanceof DslNode.Compare) {
+            Label whenFalse = new Label();
+            Label done = new Label();
+            condition(node, whenFalse);
+            method.visitFieldInsn(GETSTATIC, BOOLEAN, "TRUE", "Ljava/lang/Boolean;");
+            method.visitJumpInsn(GOTO, done);
+            method.visitLabel(whenFalse);
+            method.visitFieldInsn(GETSTATIC, BOOLEAN, "FALSE", "Ljava/lang/Boolean;");
+            method.visitLabel(done);
+        } else if (node instanceof DslNode.Binary binary) {
+            value(binary.left());
+            value(binary.right());
+            method.visitMethodInsn(INVOKESTATIC, OPERATORS, binary.operator().method, BINARY, false);
+        } else if (node instanceof DslNode.Negate negate) {
+            value(negate.operand());
+            method.visitMethodInsn(INVOKESTATIC, OPERATORS, "negate",
+                    "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+        } else if (node instanceof DslNode.Function function) {
+            function(function);
+        } else {
+            // Context paths and any other node evaluate themselves
+            loadConstant(node, NODE);
+            method.visitVarInsn(ALOAD, FRAME_LOCAL);
+            method.visitMethodInsn(INVOKEINTERFACE, NODE, "evaluate",
+                    "(L" + FRAME + ";)Ljava/lang/Object;", true);
+        }
+    }
+    
+    /**
+     * Emits code that falls through when the node is truthy and jumps to {@code whenFalse} otherwise.
+     */
+    private void condition(DslNode node, Label whenFalse) {
+        if (node instanceof DslNode.Constant constant) {
+            if (!DslOperators.truthy(constant.value())) {
+                method.visitJumpInsn(GOTO, whenFalse);
+            }
+        } else if (node instanceof DslNode.Logical logical) {
+            if (logical.operator() == DslNode.Logic.AND) {
+                condition(logical.left(), whenFalse);
+                condition(logical.right(), whenFalse);
+            } else {
+                Label right = new Label();
+                Label done = new Label();
+                condition(logical.left(), right);
+                method.visitJumpInsn(GOTO, done);
+                method.visitLabel(right);
+                condition(logical.right(), whenFalse);
+                method.visitLabel(done);
+            }
+        } else if (node instanceof DslNode.Truth truth) {
+            if (truth.negated()) {
+                Label operandFalse = new Label();
+                condition(truth.operand(), operandFalse);
+                method.visitJumpInsn(GOTO, whenFalse);
+                method.visitLabel(operandFalse);
+            } else {
+                condition(truth.operand(), whenFalse);
+            }
+        } else if (node instanceof DslNode.Compare compare) {
+            if (!primitiveComparison(compare, whenFalse)) {
+                value(compare.left());
+                value(compare.right());
+                method.visitMethodInsn(INVOKESTATIC, OPERATORS, compare.operator().method, PREDICATE, false);
+                method.visitJumpInsn(IFEQ, whenFalse);
+            }
+        } else {
+            value(node);
+            truthy(whenFalse);
+        }
+    }
+    
+    private void truthy(Label whenFalse) {
+        method.visitMethodInsn(INVOKESTATIC, OPERATORS, "truthy", "(Ljava/lang/Object;)Z", false);
+        method.visitJumpInsn(IFEQ, whenFalse);
+    }
+    
+    /**
+     * Compares an integral payload property with an integral literal without boxing, e.g.
+     * {@code payload.age >= 18}. The payload itself is never {@code null} in a specialized program.
+     */
+    private boolean primitiveComparison(DslNode.Compare compare, Label whenFalse) {
+        DslNode.Comparison operator = compare.operator();
+        DslNode.Property property;
+        Object literal;
+        if (compare.right() instanceof DslNode.Constant constant && isPayloadProperty(compare.left())) {
+            property = (DslNode.Property) compare.left();
+            literal = constant.value();
+        } else if (compare.left() instanceof DslNode.Constant constant && isPayloadProperty(compare.right())) {
+            property = (DslNode.Property) compare.right();
+            literal = constant.value();
+            operator = mirrored(operator);
+        } else {
+            return false;
+        }
+        Member accessor = accessor(payloadType, property.reader().name());
+        Class<?> type = accessor != null ? accessorType(accessor) : null;
+        if (!(literal instanceof Long)
+                || (type != int.class && type != long.class && type != short.class && type != byte.class)) {
+            return false;
+        }
+        method.visitVarInsn(ALOAD, PAYLOAD_LOCAL);
+        invoke(payloadType, accessor);
+        if (type != long.class) {
+            method.visitInsn(I2L);
+        }
+        method.visitLdcInsn(literal);
+        method.visitInsn(LCMP);
+        int jumpWhenFalse = switch (operator) {
+            case EQUAL -> IFNE;
+            case NOT_EQUAL -> IFEQ;
+            case LESS -> IFGE;
+            case LESS_OR_EQUAL -> IFGT;
+            case GREATER -> IFLE;
+            case GREATER_OR_EQUAL -> IFLT;
+        };
+        method.visitJumpInsn(jumpWhenFalse, whenFalse);
+        return true;
+    }
+    
+    private boolean isPayloadProperty(DslNode node) {
+        return payloadType != null && node instanceof DslNode.Property property
+                && property.receiver() instanceof DslNode.Payload;
+    }
+    
+    private static DslNode.Comparison mirrored(DslNode.Comparison operator) {
+        return switch (operator) {
+            case LESS -> DslNode.Comparison.GREATER;
+            case LESS_OR_EQUAL -> DslNode.Comparison.GREATER_OR_EQUAL;
+            case GREATER -> DslNode.Comparison.LESS;
+            case GREATER_OR_EQUAL -> DslNode.Comparison.LESS_OR_EQUAL;
+            default -> operator;
+        };
+    }
+    
+    /**
+     * Emits a property read, calling the getter directly when the receiver's class is known.
+     */
+    private void property(DslNode.Property property) {
+        boolean exact = property.receiver() instanceof DslNode.Payload && payloadType != null;
+        Class<?> receiverType = staticType(property.receiver());
+        Member accessor = receiverType != null && (exact || !Modifier.isAbstract(receiverType.getModifiers()))
+                ? accessor(receiverType, property.reader().name())
+                : null;
+        value(property.receiver());
+        if (accessor == null) {
+            read(property.reader());
+            return;
+        }
+        if (exact) {
+            invoke(receiverType, accessor);
+            box(accessorType(accessor));
+            return;
+        }
+        Label isNull = new Label();
+        Label otherClass = new Label();
+        Label done = new Label();
+        method.visitInsn(DUP);
+        method.visitJumpInsn(IFNULL, isNull);
+        if (!Modifier.isFinal(receiverType.getModifiers())) {
+            // A subclass may expose the property differently; only the exact class is bound
+            method.visitInsn(DUP);
+            method.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getClass", "()Ljava/lang/Class;", false);
+            method.visitLdcInsn(Type.getType(receiverType));
+            method.visitJumpInsn(IF_ACMPNE, otherClass);
+        }
+        method.visitTypeInsn(CHECKCAST, Type.getInternalName(receiverType));
+        invoke(receiverType, accessor);
+        box(accessorType(accessor));
+        method.visitJumpInsn(GOTO, done);
+        method.visitLabel(otherClass);
+        read(property.reader());
+        method.visitJumpInsn(GOTO, done);
+        method.visitLabel(isNull);
+        method.visitInsn(POP);
+        method.visitInsn(ACONST_NULL);
+        method.visitLabel(done);
+    }
+    
+    /**
+     * Reads the property of the receiver on top of the stack through its inline cache.
+     */
+    private void read(PropertyReader reader) {
+        loadConstant(reader, READER);
+        method.visitInsn(SWAP);
+        method.visitMethodInsn(INVOKEVIRTUAL, READER, "read", "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+    }
+    
+    /**
+     * Returns the class a node's value is known to have when it is not {@code null}, or
+     * {@code null} if only {@code Object} is known.
+     */
+    private Class<?> staticType(DslNode node) {
+        if (node instanceof DslNode.Payload) {
+            return payloadType;
+        }
+        if (node instanceof DslNode.Property property) {
+            Class<?> receiverType = staticType(property.receiver());
+            if (receiverType == null) {
+                return null;
+            }
+            Member accessor = accessor(receiverType, property.reader().name());
+            return accessor != null ? MethodType.methodType(accessorType(accessor)).wrap().returnType() : null;
+        }
+        return null;
+    }
+    
+    /**
+     * Resolves a property the way {@link PropertyReader} does ({@code name()}, {@code getName()},
+     * {@code isName()}, public field), returning {@code null} unless the result can be linked
+     * directly from generated code.
+     */
+    private static Member accessor(Class<?> type, String name) {
+        if (type.isPrimitive() || type.isArray() || Map.class.isAssignableFrom(type) || !linkable(type)) {
+            return null;
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] {name, "get" + capitalized, "is" + capitalized}) {
+            Method getter;
+            try {
+                getter = type.getMethod(candidate);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            if (Modifier.isStatic(getter.getModifiers()) || getter.getReturnType() == void.class) {
+                continue;
+            }
+            return linkable(getter.getReturnType()) ? getter : null;
+        }
+        try {
+            Field field = type.getField(name);
+            return !Modifier.isStatic(field.getModifiers()) && linkable(field.getType()) ? field : null;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+    
+    private static Class<?> accessorType(Member accessor) {
+        return accessor instanceof Method getter ? getter.getReturnType() : ((Field) accessor).getType();
+    }
+    
+    /**
+     * Returns whether generated code can refer to a class by name: it must be accessible from
+     * this package and resolve to the same class through this class loader.
+     */
+    private static boolean linkable(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (type.isArray()) {
+            return linkable(type.getComponentType());
+        }
+        try {
+            LOOKUP.accessClass(type);
+            return Class.forName(type.getName(), false, DslBytecodeGenerator.class.getClassLoader()) == type;
+        } catch (IllegalAccessException | ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+    
+    private void invoke(Class<?> receiverType, Member accessor) {
+        String owner = Type.getInternalName(receiverType);
+        if (accessor instanceof Method getter) {
+            boolean onInterface = receiverType.isInterface();
+            method.visitMethodInsn(onInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, owner, getter.getName(),
+                    Type.getMethodDescriptor(getter), onInterface);
+        } else {
+            Field field = (Field) accessor;
+            method.visitFieldInsn(GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+        }
+    }
+    
+    private void box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return;
+        }
+        Type wrapper = Type.getType(MethodType.methodType(type).wrap().returnType());
+        method.visitMethodInsn(INVOKESTATIC, wrapper.getInternalName(), "valueOf",
+                Type.getMethodDescriptor(wrapper, Type.getType(type)), false);
+    }
+    
+    /**
+     * Emits a collection function as a loop over {@link DslOperators#elements(Object)}.
+     */
+    private void function(DslNode.Function function) {
+        value(function.source());
+        method.visitMethodInsn(INVOKESTATIC, OPERATORS, "elements", "(Ljava/lang/Object;)L" + LIST + ";", false);
+        DslFunctions.Kind kind = function.kind();
+        if (kind == DslFunctions.Kind.COUNT && function.body() == null) {
+            method.visitMethodInsn(INVOKEINTERFACE, LIST, "size", "()I", true);
+            method.visitInsn(I2L);
+            box(long.class);
+            return;
+        }
+        method.visitMethodInsn(INVOKEINTERFACE, LIST, "iterator", "()L" + ITERATOR + ";", true);
+        int iterator = nextLocal++;
+        method.visitVarInsn(ASTORE, iterator);
+        int accumulator = nextLocal;
+        switch (kind) {
+            case COUNT:
+                method.visitInsn(LCONST_0);
+                method.visitVarInsn(LSTORE, accumulator);
+                nextLocal += 2;
+                break;
+            case SUM:
+                method.visitInsn(LCONST_0);
+                box(long.class);
+                method.visitVarInsn(ASTORE, accumulator);
+                nextLocal++;
+                break;
+            case DISTINCT_COUNT:
+                method.visitTypeInsn(NEW, HASH_SET);
+                method.visitInsn(DUP);
+                method.visitMethodInsn(INVOKESPECIAL, HASH_SET, "<init>", "()V", false);
+                method.visitVarInsn(ASTORE, accumulator);
+                nextLocal++;
+                break;
+            case MIN:
+            case MAX:
+                method.visitInsn(ACONST_NULL);
+                method.visitVarInsn(ASTORE, accumulator);
+                nextLocal++;
+                break;
+            default:
+                break;
+        }
+        
+        Label loop = new Label();
+        Label exhausted = new Label();
+        Label done = new Label();
+        method.visitLabel(loop);
+        method.visitVarInsn(ALOAD, iterator);
+        method.visitMethodInsn(INVOKEINTERFACE, ITERATOR, "hasNext", "()Z", true);
+        method.visitJumpInsn(IFEQ, exhausted);
+        method.visitVarInsn(ALOAD, iterator);
+        method.visitMethodInsn(INVOKEINTERFACE, ITERATOR, "next", "()Ljava/lang/Object;", true);
+        if (function.body() != null) {
+            // frame.slots[slot] = element
+            method.visitVarInsn(ALOAD, FRAME_LOCAL);
+            method.visitFieldInsn(GETFIELD, FRAME, "slots", "[Ljava/lang/Object;");
+            method.visitInsn(SWAP);
+            push(function.slot());
+            method.visitInsn(SWAP);
+            method.visitInsn(AASTORE);
+        }
+        switch (kind) {
+            case ANY:
+                elementCondition(function.body(), loop);
+                method.visitFieldInsn(GETSTATIC, BOOLEAN, "TRUE", "Ljava/lang/Boolean;");
+                method.visitJumpInsn(GOTO, done);
+                method.visitLabel(exhausted);
+                method.visitFieldInsn(GETSTATIC, BOOLEAN, "FALSE", "Ljava/lang/Boolean;");
+                break;
+            case ALL:
+                Label failed = new Label();
+                elementCondition(function.body(), failed);
+                method.visitJumpInsn(GOTO, loop);
+                method.visitLabel(failed);
+                method.visitFieldInsn(GETSTATIC, BOOLEAN, "FALSE", "Ljava/lang/Boolean;");
+                method.visitJumpInsn(GOTO, done);
+                method.visitLabel(exhausted);
+                method.visitFieldInsn(GETSTATIC, BOOLEAN, "TRUE", "Ljava/lang/Boolean;");
+                break;
+            case COUNT:
+                elementCondition(function.body(), loop);
+                method.visitVarInsn(LLOAD, accumulator);
+                method.visitInsn(LCONST_1);
+                method.visitInsn(LADD);
+                method.visitVarInsn(LSTORE, accumulator);
+                method.visitJumpInsn(GOTO, loop);
+                method.visitLabel(exhausted);
+                method.visitVarInsn(LLOAD, accumulator);
+                box(long.class);
+                break;
+            case SUM:
+                elementValue(function.body());
+                method.visitVarInsn(ALOAD, accumulator);
+                method.visitInsn(SWAP);
+                method.visitMethodInsn(INVOKESTATIC, FUNCTIONS, "sum", BINARY, false);
+                method.visitVarInsn(ASTORE, accumulator);
+                method.visitJumpInsn(GOTO, loop);
+                method.visitLabel(exhausted);
+                method.visitVarInsn(ALOAD, accumulator);
+                break;
+            case DISTINCT_COUNT:
+                elementValue(function.body());
+                method.visitVarInsn(ALOAD, accumulator);
+                method.visitInsn(SWAP);
+                method.visitMethodInsn(INVOKESTATIC, FUNCTIONS, "distinct",
+                        "(L" + SET + ";Ljava/lang/Object;)V", false);
+                method.visitJumpInsn(GOTO, loop);
+                method.visitLabel(exhausted);
+                method.visitVarInsn(ALOAD, accumulator);
+                method.visitMethodInsn(INVOKEINTERFACE, SET, "size", "()I", true);
+                method.visitInsn(I2L);
+                box(long.class);
+                break;
+            default:
+                elementValue(function.body());
+                method.visitVarInsn(ALOAD, accumulator);
+                method.visitInsn(SWAP);
+                push(kind == DslFunctions.Kind.MIN ? -1 : 1);
+                method.visitMethodInsn(INVOKESTATIC, FUNCTIONS, "extreme",
+                        "(Ljava/lang/Object;Ljava/lang/Object;I)Ljava/lang/Object;", false);
+                method.visitVarInsn(ASTORE, accumulator);
+                method.visitJumpInsn(GOTO, loop);
+                method.visitLabel(exhausted);
+                method.visitVarInsn(ALOAD, accumulator);
+                break;
+        }
+        method.visitLabel(done);
+    }
+    
+    /**
+     * Leaves the lambda's value on the stack; without a lambda the element already is.
+     */
+    private void elementValue(DslNode body) {
+        if (body != null) {
+            value(body);
+        }
+    }
+    
+    private void elementCondition(DslNode body, Label whenFalse) {
+        if (body != null) {
+            condition(body, whenFalse);
+        } else {
+            truthy(whenFalse);
+        }
+    }
+    
+    private void constant(Object value) {
+        if (value == null) {
+            method.visitInsn(ACONST_NULL);
+        } else if (value instanceof Boolean bool) {
+            method.visitFieldInsn(GETSTATIC, BOOLEAN, bool ? "TRUE" : "FALSE", "Ljava/lang/Boolean;");
+        } else if (value instanceof String string) {
+            method.visitLdcInsn(string);
+        } else {
+            loadConstant(value, null);
+        }
+    }
+    
+    private void loadConstant(Object value, String type) {
+        method.visitVarInsn(ALOAD, THIS);
+        method.visitFieldInsn(GETFIELD, CLASS_NAME, "constants", "[Ljava/lang/Object;");
+        push(constants.size());
+        method.visitInsn(AALOAD);
+        if (type != null) {
+            method.visitTypeInsn(CHECKCAST, type);
+        }
+        constants.add(value);
+    }
+    
+    private void push(int value) {
+        if (value >= -1 && value <= 5) {
+            method.visitInsn(ICONST_0 + value);
+        } else {
+            method.visitIntInsn(value <= Byte.MAX_VALUE ? BIPUSH : SIPUSH, value);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import java.util.Map;
+
+/**
+ * Compiles validation DSL expressions.
+ * 
+ * The DSL is a small, side-effect free expression language covering what validation rules need:
+ * {@code payload}, {@code context} and {@code tenantId} roots (optionally prefixed with {@code #}
+ * as in SpEL), null-safe property navigation, arithmetic, comparisons, boolean operators and the
+ * collection functions {@code any}, {@code all}, {@code count}, {@code sum}, {@code min} and
+ * {@code max}. Compilation produces a {@link CompiledDslExpression} that is evaluated without
+ * re-parsing, as generated bytecode specialized for the payload class.
+ */
+public final class DslCompiler {
+    
+    private DslCompiler() {
+    }
+    
+    /**
+     * Compiles an expression.
+     * 
+     * @param expression the DSL source
+     * @return the compiled expression
+     * @throws DslSyntaxException if the expression is not valid DSL
+     */
+    public static CompiledDslExpression compile(String expression) throws DslSyntaxException {
+        return compile(expression, Map.of());
+    }
+    
+    /**
+     * Compiles an expression, partially evaluating it against constant context attributes.
+     * 
+     * Paths such as {@code tenantId} or {@code context.tier} that resolve to one of the given
+     * constants are replaced by their value, constant sub-expressions are folded and dead
+     * {@code &&} / {@code ||} branches are dropped. The result is only valid for contexts whose
+     * attributes match the constants (see {@link CompiledDslExpression#getFoldedAttributes()}).
+     * 
+     * @param expression the DSL source
+     * @param constants context attributes whose values are fixed (e.g. per tenant)
+     * @return the compiled residual expression
+     * @throws DslSyntaxException if the expression is not valid DSL
+     */
+    public static CompiledDslExpression compile(String expression, Map<String, Object> constants)
+            throws DslSyntaxException {
+        if (expression == null || expression.isBlank()) {
+            throw new DslSyntaxException("Expression is empty", 0);
+        }
+        return DslParser.parse(expression, constants != null ? constants : Map.of());
+    }
+}
@@ -0,0 +1,21 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import java.util.Map;
+
+/**
+ * Per-evaluation state: the request roots plus the slots bound by lambda parameters.
+ */
+final class DslFrame {
+    
+    final Object payload;
+    final Map<String, Object> contextAttributes;
+    final Object[] slots;
+    
+    DslFrame(Object payload, Map<String, Object> contextAttributes, int slotCount) {
+        this.payload = payload;
+        this.contextAttributes = contextAttributes != null ? contextAttributes : Map.of();
+        this.slots = slotCount == 0 ? NO_SLOTS : new Object[slotCount];
+    }
+    
+    private static final Object[] NO_SLOTS = new Object[0];
+}
@@ -0,0 +1,119 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.dsl.DslLexer.Token;
+import com.quickysoft.validation.core.engine.expression.functions.Decimals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Built-in collection functions of the validation DSL.
+ * 
+ * Each function takes a collection and an optional lambda ({@code x -> expression}) that is
+ * applied to every element: {@code any}, {@code all}, {@code count}, {@code distinctCount}, {@code sum}, {@code min}
+ * and {@code max}. Without a lambda the elements themselves are used.
+ * 
+ * The per-element steps of {@code sum}, {@code distinctCount}, {@code min} and {@code max} are
+ * shared with the loops {@link DslBytecodeGenerator} emits, so both forms compute the same result.
+ */
+final class DslFunctions {
+    
+    enum Kind {
+        ANY, ALL, COUNT, SUM, DISTINCT_COUNT, MIN, MAX
+    }
+    
+    private DslFunctions() {
+    }
+    
+    static DslNode create(Token name, DslNode source, DslNode body, int slot) throws DslSyntaxException {
+        Kind kind = switch (name.text()) {
+            case "any" -> Kind.ANY;
+            case "all" -> Kind.ALL;
+            case "count" -> Kind.COUNT;
+            case "sum" -> Kind.SUM;
+            case "distinctCount" -> Kind.DISTINCT_COUNT;
+            case "min" -> Kind.MIN;
+            case "max" -> Kind.MAX;
+            default -> throw new DslSyntaxException("Unknown function '" + name.text() + "'", name.position());
+        };
+        return new DslNode.Function(kind, source, body, slot);
+    }
+    
+    static Object evaluate(DslNode.Function function, DslFrame frame) {
+        List<?> elements = DslOperators.elements(function.source().evaluate(frame));
+        DslNode body = function.body();
+        int slot = function.slot();
+        switch (function.kind()) {
+            case ANY:
+                for (Object element : elements) {
+                    if (DslOperators.truthy(apply(body, slot, frame, element))) {
+                        return true;
+                    }
+                }
+                return false;
+            case ALL:
+                for (Object element : elements) {
+                    if (!DslOperators.truthy(apply(body, slot, frame, element))) {
+                        return false;
+                    }
+                }
+                return true;
+            case COUNT:
+                if (body == null) {
+                    return (long) elements.size();
+                }
+                long count = 0;
+                for (Object element : elements) {
+                    if (DslOperators.truthy(apply(body, slot, frame, element))) {
+                        count++;
+                    }
+                }
+                return count;
+            case SUM:
+                Object total = 0L;
+                for (Object element : elements) {
+                    total = sum(total, apply(body, slot, frame, element));
+                }
+                return total;
+            case DISTINCT_COUNT:
+                Set<Object> distinct = new HashSet<>();
+                for (Object element : elements) {
+                    distinct(distinct, apply(body, slot, frame, element));
+                }
+                return (long) distinct.size();
+            default:
+                int direction = function.kind() == Kind.MIN ? -1 : 1;
+                Object best = null;
+                for (Object element : elements) {
+                    best = extreme(best, apply(body, slot, frame, element), direction);
+                }
+                return best;
+        }
+    }
+    
+    static Object sum(Object total, Object value) {
+        return value != null ? DslOperators.add(total, value) : total;
+    }
+    
+    static void distinct(Set<Object> distinct, Object value) {
+        if (value != null) {
+            distinct.add(value instanceof Number ? Decimals.of(value).stripTrailingZeros() : value);
+        }
+    }
+    
+    static Object extreme(Object best, Object value, int direction) {
+        if (value == null) {
+            return best;
+        }
+        return best == null || DslOperators.compare(value, best) * direction > 0 ? value : best;
+    }
+    
+    private static Object apply(DslNode body, int slot, DslFrame frame, Object element) {
+        if (body == null) {
+            return element;
+        }
+        frame.slots[slot] = element;
+        return body.evaluate(frame);
+    }
+}
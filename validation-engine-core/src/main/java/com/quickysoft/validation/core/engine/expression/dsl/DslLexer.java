@@ -0,0 +1,97 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokenizer for the validation DSL.
+ */
+final class DslLexer {
+    
+    enum TokenType {
+        IDENTIFIER,
+        NUMBER,
+        STRING,
+        SYMBOL,
+        EOF
+    }
+    
+    record Token(TokenType type, String text, int position) {
+        
+        boolean is(String symbol) {
+            return (type == TokenType.SYMBOL || type == TokenType.IDENTIFIER) && text.equals(symbol);
+        }
+    }
+    
+    private static final String[] SYMBOLS = {
+            "&&", "||", "==", "!=", "<=", ">=", "?.", "->",
+            "<", ">", "!", "+", "-", "*", "/", "%", "(", ")", ",", ".", "#"
+    };
+    
+    private DslLexer() {
+    }
+    
+    static List<Token> tokenize(String source) throws DslSyntaxException {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = source.length();
+        while (i < length) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, source.substring(start, i), start));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && Character.isDigit(source.charAt(i))) {
+                    i++;
+                }
+                if (i + 1 < length && source.charAt(i) == '.' && Character.isDigit(source.charAt(i + 1))) {
+                    i++;
+                    while (i < length && Character.isDigit(source.charAt(i))) {
+                        i++;
+                    }
+                }
+                tokens.add(new Token(TokenType.NUMBER, source.substring(start, i), start));
+            } else if (c == '\'' || c == '"') {
+                int start = i++;
+                StringBuilder text = new StringBuilder();
+                while (i < length && source.charAt(i) != c) {
+                    char ch = source.charAt(i);
+                    if (ch == '\\' && i + 1 < length) {
+                        ch = source.charAt(++i);
+                    }
+                    text.append(ch);
+                    i++;
+                }
+                if (i >= length) {
+                    throw new DslSyntaxException("Unterminated string literal", start);
+                }
+                i++;
+                tokens.add(new Token(TokenType.STRING, text.toString(), start));
+            } else {
+                String symbol = matchSymbol(source, i);
+                if (symbol == null) {
+                    throw new DslSyntaxException("Unexpected character '" + c + "'", i);
+                }
+                tokens.add(new Token(TokenType.SYMBOL, symbol, i));
+                i += symbol.length();
+            }
+        }
+        tokens.add(new Token(TokenType.EOF, "<end>", length));
+        return tokens;
+    }
+    
+    private static String matchSymbol(String source, int position) {
+        for (String symbol : SYMBOLS) {
+            if (source.startsWith(symbol, position)) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+}
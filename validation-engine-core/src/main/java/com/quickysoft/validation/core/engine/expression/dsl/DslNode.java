@@ -0,0 +1,181 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+/**
+ * Node of a compiled validation DSL expression.
+ * 
+ * The parser builds a tree of the records below. The tree can be evaluated directly against a
+ * frame, and it is the input {@link DslBytecodeGenerator} translates into a hidden class.
+ */
+@FunctionalInterface
+interface DslNode {
+    
+    Object evaluate(DslFrame frame);
+    
+    /**
+     * Node that always produces the same value; used for literals and folded sub-expressions.
+     */
+    record Constant(Object value) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return value;
+        }
+    }
+    
+    /**
+     * The request payload.
+     */
+    record Payload() implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return frame.payload;
+        }
+    }
+    
+    /**
+     * The {@code tenantId} context attribute, when it is not a compile-time constant.
+     */
+    record TenantId() implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return frame.contextAttributes.get("tenantId");
+        }
+    }
+    
+    /**
+     * The element currently bound to a lambda parameter.
+     */
+    record Slot(int index) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return frame.slots[index];
+        }
+    }
+    
+    /**
+     * Null-safe read of one property of the receiver.
+     */
+    record Property(DslNode receiver, PropertyReader reader) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return reader.read(receiver.evaluate(frame));
+        }
+    }
+    
+    /**
+     * Logical operators; operands are truthy only when they are {@code Boolean.TRUE}.
+     */
+    enum Logic {
+        AND, OR
+    }
+    
+    record Logical(Logic operator, DslNode left, DslNode right) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            boolean lhs = DslOperators.truthy(left.evaluate(frame));
+            if (operator == Logic.AND) {
+                return lhs && DslOperators.truthy(right.evaluate(frame));
+            }
+            return lhs || DslOperators.truthy(right.evaluate(frame));
+        }
+    }
+    
+    /**
+     * Truthiness of the operand, optionally negated ({@code !x}).
+     */
+    record Truth(DslNode operand, boolean negated) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return DslOperators.truthy(operand.evaluate(frame)) != negated;
+        }
+    }
+    
+    /**
+     * Comparison operators, named after the {@link DslOperators} method implementing each.
+     */
+    enum Comparison {
+        EQUAL("equal"), NOT_EQUAL("notEqual"), LESS("less"), LESS_OR_EQUAL("lessOrEqual"),
+        GREATER("greater"), GREATER_OR_EQUAL("greaterOrEqual");
+        
+        final String method;
+        
+        Comparison(String method) {
+            this.method = method;
+        }
+        
+        boolean test(Object left, Object right) {
+            return switch (this) {
+                case EQUAL -> DslOperators.equal(left, right);
+                case NOT_EQUAL -> DslOperators.notEqual(left, right);
+                case LESS -> DslOperators.less(left, right);
+                case LESS_OR_EQUAL -> DslOperators.lessOrEqual(left, right);
+                case GREATER -> DslOperators.greater(left, right);
+                case GREATER_OR_EQUAL -> DslOperators.greaterOrEqual(left, right);
+            };
+        }
+    }
+    
+    record Compare(Comparison operator, DslNode left, DslNode right) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return operator.test(left.evaluate(frame), right.evaluate(frame));
+        }
+    }
+    
+    /**
+     * Arithmetic operators, named after the {@link DslOperators} method implementing each.
+     */
+    enum Arithmetic {
+        ADD("add"), SUBTRACT("subtract"), MULTIPLY("multiply"), DIVIDE("divide"), REMAINDER("remainder");
+        
+        final String method;
+        
+        Arithmetic(String method) {
+            this.method = method;
+        }
+        
+        Object apply(Object left, Object right) {
+            return switch (this) {
+                case ADD -> DslOperators.add(left, right);
+                case SUBTRACT -> DslOperators.subtract(left, right);
+                case MULTIPLY -> DslOperators.multiply(left, right);
+                case DIVIDE -> DslOperators.divide(left, right);
+                case REMAINDER -> DslOperators.remainder(left, right);
+            };
+        }
+    }
+    
+    record Binary(Arithmetic operator, DslNode left, DslNode right) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return operator.apply(left.evaluate(frame), right.evaluate(frame));
+        }
+    }
+    
+    record Negate(DslNode operand) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return DslOperators.negate(operand.evaluate(frame));
+        }
+    }
+    
+    /**
+     * A collection function call; {@code body} is {@code null} when no lambda was given.
+     */
+    record Function(DslFunctions.Kind kind, DslNode source, DslNode body, int slot) implements DslNode {
+        
+        @Override
+        public Object evaluate(DslFrame frame) {
+            return DslFunctions.evaluate(this, frame);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.functions.Decimals;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Runtime semantics of the validation DSL operators.
+ * 
+ * Integral operands ({@code byte}, {@code short}, {@code int}, {@code long}) are computed as
+ * {@code long}; as soon as either side is a decimal the operation is carried out in
+ * {@link BigDecimal}, so monetary amounts never pass through {@code double}.
+ */
+final class DslOperators {
+    
+    private DslOperators() {
+    }
+    
+    static boolean truthy(Object value) {
+        return Boolean.TRUE.equals(value);
+    }
+    
+    static Object add(Object left, Object right) {
+        if (left instanceof String || right instanceof String) {
+            return String.valueOf(left) + right;
+        }
+        if (isIntegral(left) && isIntegral(right)) {
+            long a = ((Number) left).longValue();
+            long b = ((Number) right).longValue();
+            long result = a + b;
+            if (((a ^ result) & (b ^ result)) >= 0) {
+                return result;
+            }
+        }
+        return Decimals.of(left).add(Decimals.of(right));
+    }
+    
+    static Object subtract(Object left, Object right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            long a = ((Number) left).longValue();
+            long b = ((Number) right).longValue();
+            long result = a - b;
+            if (((a ^ b) & (a ^ result)) >= 0) {
+                return result;
+            }
+        }
+        return Decimals.of(left).subtract(Decimals.of(right));
+    }
+    
+    static Object multiply(Object left, Object right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            long a = ((Number) left).longValue();
+            long b = ((Number) right).longValue();
+            long high = Math.multiplyHigh(a, b);
+            long result = a * b;
+            if ((high == 0 && result >= 0) || (high == -1 && result < 0)) {
+                return result;
+            }
+        }
+        return Decimals.of(left).multiply(Decimals.of(right));
+    }
+    
+    static Object divide(Object left, Object right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return ((Number) left).longValue() / ((Number) right).longValue();
+        }
+        return Decimals.of(left).divide(Decimals.of(right), MathContext.DECIMAL128);
+    }
+    
+    static Object remainder(Object left, Object right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return ((Number) left).longValue() % ((Number) right).longValue();
+        }
+        return Decimals.of(left).remainder(Decimals.of(right));
+    }
+    
+    static Object negate(Object value) {
+        if (isIntegral(value)) {
+            long v = ((Number) value).longValue();
+            return v != Long.MIN_VALUE ? -v : BigDecimal.valueOf(v).negate();
+        }
+        return Decimals.of(value).negate();
+    }
+    
+    /**
+     * Equality that treats numbers by value ({@code 1 == 1.00}) and matches enums against their name.
+     */
+    static boolean equal(Object left, Object right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers(left, right) == 0;
+        }
+        if (left instanceof Enum<?> e && right instanceof String s) {
+            return e.name().equals(s);
+        }
+        if (right instanceof Enum<?> e && left instanceof String s) {
+            return e.name().equals(s);
+        }
+        return Objects.equals(left, right);
+    }
+    
+    static boolean notEqual(Object left, Object right) {
+        return !equal(left, right);
+    }
+    
+    /**
+     * Ordering comparisons; {@code null} or otherwise unordered operands compare as false.
+     */
+    static boolean less(Object left, Object right) {
+        Integer result = compare(left, right);
+        return result != null && result < 0;
+    }
+    
+    static boolean lessOrEqual(Object left, Object right) {
+        Integer result = compare(left, right);
+        return result != null && result <= 0;
+    }
+    
+    static boolean greater(Object left, Object right) {
+        Integer result = compare(left, right);
+        return result != null && result > 0;
+    }
+    
+    static boolean greaterOrEqual(Object left, Object right) {
+        Integer result = compare(left, right);
+        return result != null && result >= 0;
+    }
+    
+    /**
+     * Compares two values for ordering.
+     * 
+     * @return the comparison result, or {@code null} if the values are not comparable
+     *         (including when either side is {@code null})
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Integer compare(Object left, Object right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers(left, right);
+        }
+        if (left instanceof Comparable comparable && left.getClass().isInstance(right)) {
+            return comparable.compareTo(right);
+        }
+        throw new IllegalArgumentException("Cannot compare " + left.getClass().getName()
+                + " with " + right.getClass().getName());
+    }
+    
+    static List<?> elements(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        if (value instanceof Iterable<?> iterable) {
+            ArrayList<Object> copy = new ArrayList<>();
+            iterable.forEach(copy::add);
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return List.copyOf(map.values());
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object[] copy = new Object[length];
+            for (int i = 0; i < length; i++) {
+                copy[i] = Array.get(value, i);
+            }
+            return Arrays.asList(copy);
+        }
+        throw new IllegalArgumentException("Not a collection: " + value.getClass().getName());
+    }
+    
+    private static int compareNumbers(Object left, Object right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+        }
+        return Decimals.of(left).compareTo(Decimals.of(right));
+    }
+    
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte;
+    }
+}
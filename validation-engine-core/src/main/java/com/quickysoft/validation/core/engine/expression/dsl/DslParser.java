@@ -0,0 +1,311 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.dsl.DslLexer.Token;
+import com.quickysoft.validation.core.engine.expression.dsl.DslLexer.TokenType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recursive-descent parser that compiles DSL source into a tree of {@link DslNode} records.
+ * 
+ * Precedence, lowest first: {@code ||}/{@code or}, {@code &&}/{@code and}, {@code !}/{@code not},
+ * comparisons, {@code + -}, {@code * / %}, unary minus, primaries. Sub-expressions whose operands
+ * are all constants are folded while parsing. Context attributes declared as constants (for example
+ * tenant-scoped settings) are substituted first, so branches that depend on them fold away too.
+ */
+final class DslParser {
+    
+    private static final Set<String> COMPARISON_OPERATORS = Set.of("==", "!=", "<", "<=", ">", ">=");
+    
+    private final List<Token> tokens;
+    private final Map<String, Object> constants;
+    private final Set<String> foldedAttributes = new LinkedHashSet<>();
+    private final List<String> lambdaScope = new ArrayList<>();
+    private int position;
+    private int slotCount;
+    
+    private DslParser(List<Token> tokens, Map<String, Object> constants) {
+        this.tokens = tokens;
+        this.constants = constants;
+    }
+    
+    /**
+     * Compiles an expression, treating the given context attributes as compile-time constants.
+     */
+    static CompiledDslExpression parse(String source, Map<String, Object> constants) throws DslSyntaxException {
+        DslParser parser = new DslParser(DslLexer.tokenize(source), constants);
+        DslNode root = parser.parseOr();
+        Token trailing = parser.peek();
+        if (trailing.type() != TokenType.EOF) {
+            throw new DslSyntaxException("Unexpected token '" + trailing.text() + "'", trailing.position());
+        }
+        return new CompiledDslExpression(source, root, parser.slotCount, parser.foldedAttributes);
+    }
+    
+    private DslNode parseOr() throws DslSyntaxException {
+        DslNode left = parseAnd();
+        while (accept("||") || accept("or")) {
+            DslNode lhs = left;
+            DslNode rhs = parseAnd();
+            if (lhs instanceof DslNode.Constant constant) {
+                // Dead branch: a constant left side decides whether the right side matters
+                left = DslOperators.truthy(constant.value()) ? new DslNode.Constant(Boolean.TRUE) : asBoolean(rhs);
+                continue;
+            }
+            left = fold(new DslNode.Logical(DslNode.Logic.OR, lhs, rhs), lhs, rhs);
+        }
+        return left;
+    }
+    
+    private DslNode parseAnd() throws DslSyntaxException {
+        DslNode left = parseNot();
+        while (accept("&&") || accept("and")) {
+            DslNode lhs = left;
+            DslNode rhs = parseNot();
+            if (lhs instanceof DslNode.Constant constant) {
+                left = DslOperators.truthy(constant.value()) ? asBoolean(rhs) : new DslNode.Constant(Boolean.FALSE);
+                continue;
+            }
+            left = fold(new DslNode.Logical(DslNode.Logic.AND, lhs, rhs), lhs, rhs);
+        }
+        return left;
+    }
+    
+    private static DslNode asBoolean(DslNode node) {
+        return fold(new DslNode.Truth(node, false), node);
+    }
+    
+    private DslNode parseNot() throws DslSyntaxException {
+        if (accept("!") || accept("not")) {
+            DslNode operand = parseNot();
+            return fold(new DslNode.Truth(operand, true), operand);
+        }
+        return parseComparison();
+    }
+    
+    private DslNode parseComparison() throws DslSyntaxException {
+        DslNode lhs = parseAdditive();
+        Token operator = peek();
+        if (operator.type() != TokenType.SYMBOL || !COMPARISON_OPERATORS.contains(operator.text())) {
+            return lhs;
+        }
+        position++;
+        DslNode rhs = parseAdditive();
+        DslNode.Comparison comparison = switch (operator.text()) {
+            case "==" -> DslNode.Comparison.EQUAL;
+            case "!=" -> DslNode.Comparison.NOT_EQUAL;
+            case "<" -> DslNode.Comparison.LESS;
+            case "<=" -> DslNode.Comparison.LESS_OR_EQUAL;
+            case ">" -> DslNode.Comparison.GREATER;
+            default -> DslNode.Comparison.GREATER_OR_EQUAL;
+        };
+        return fold(new DslNode.Compare(comparison, lhs, rhs), lhs, rhs);
+    }
+    
+    private DslNode parseAdditive() throws DslSyntaxException {
+        DslNode left = parseMultiplicative();
+        while (true) {
+            if (accept("+")) {
+                left = binary(left, parseMultiplicative(), DslNode.Arithmetic.ADD);
+            } else if (accept("-")) {
+                left = binary(left, parseMultiplicative(), DslNode.Arithmetic.SUBTRACT);
+            } else {
+                return left;
+            }
+        }
+    }
+    
+    private DslNode parseMultiplicative() throws DslSyntaxException {
+        DslNode left = parseUnary();
+        while (true) {
+            if (accept("*")) {
+                left = binary(left, parseUnary(), DslNode.Arithmetic.MULTIPLY);
+            } else if (accept("/")) {
+                left = binary(left, parseUnary(), DslNode.Arithmetic.DIVIDE);
+            } else if (accept("%")) {
+                left = binary(left, parseUnary(), DslNode.Arithmetic.REMAINDER);
+            } else {
+                return left;
+            }
+        }
+    }
+    
+    private DslNode parseUnary() throws DslSyntaxException {
+        if (accept("-")) {
+            DslNode operand = parseUnary();
+            return fold(new DslNode.Negate(operand), operand);
+        }
+        return parsePrimary();
+    }
+    
+    private DslNode parsePrimary() throws DslSyntaxException {
+        Token token = next();
+        switch (token.type()) {
+            case NUMBER:
+                return new DslNode.Constant(token.text().indexOf('.') >= 0
+                        ? new BigDecimal(token.text())
+                        : (Object) Long.parseLong(token.text()));
+            case STRING:
+                return new DslNode.Constant(token.text());
+            case IDENTIFIER:
+                return parseIdentifier(token);
+            case SYMBOL:
+                if (token.is("(")) {
+                    DslNode inner = parseOr();
+                    expect(")");
+                    return inner;
+                }
+                if (token.is("#")) {
+                    Token root = next();
+                    if (root.type() != TokenType.IDENTIFIER) {
+                        throw new DslSyntaxException("Expected variable name after '#'", root.position());
+                    }
+                    return parseRoot(root);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new DslSyntaxException("Unexpected token '" + token.text() + "'", token.position());
+    }
+    
+    private DslNode parseIdentifier(Token token) throws DslSyntaxException {
+        switch (token.text()) {
+            case "true":
+                return new DslNode.Constant(Boolean.TRUE);
+            case "false":
+                return new DslNode.Constant(Boolean.FALSE);
+            case "null":
+                return new DslNode.Constant(null);
+            default:
+                break;
+        }
+        if (peek().is("(")) {
+            return parseFunction(token);
+        }
+        int slot = lambdaScope.lastIndexOf(token.text());
+        if (slot >= 0) {
+            return parseNavigation(new DslNode.Slot(slot));
+        }
+        return parseRoot(token);
+    }
+    
+    private DslNode parseRoot(Token root) throws DslSyntaxException {
+        switch (root.text()) {
+            case "payload":
+                return parseNavigation(new DslNode.Payload());
+            case "tenantId":
+                if (constants.containsKey("tenantId")) {
+                    foldedAttributes.add("tenantId");
+                    return new DslNode.Constant(constants.get("tenantId"));
+                }
+                return new DslNode.TenantId();
+            case "context":
+                List<String> segments = new ArrayList<>();
+                while (accept(".") || accept("?.")) {
+                    segments.add(expectIdentifier());
+                }
+                if (segments.isEmpty()) {
+                    throw new DslSyntaxException("'context' must be followed by an attribute name", root.position());
+                }
+                ContextPathNode path = new ContextPathNode(segments.toArray(new String[0]));
+                ContextPathNode.Folded folded = path.fold(constants);
+                if (folded != null) {
+                    foldedAttributes.add(folded.attribute());
+                    return new DslNode.Constant(folded.value());
+                }
+                return path;
+            default:
+                throw new DslSyntaxException("Unknown variable '" + root.text() + "'", root.position());
+        }
+    }
+    
+    private DslNode parseNavigation(DslNode target) throws DslSyntaxException {
+        DslNode node = target;
+        while (accept(".") || accept("?.")) {
+            node = new DslNode.Property(node, new PropertyReader(expectIdentifier()));
+        }
+        return node;
+    }
+    
+    private DslNode parseFunction(Token name) throws DslSyntaxException {
+        expect("(");
+        DslNode source = parseOr();
+        DslNode body = null;
+        int slot = -1;
+        if (accept(",")) {
+            Token parameter = next();
+            if (parameter.type() != TokenType.IDENTIFIER || !accept("->")) {
+                throw new DslSyntaxException("Expected lambda 'x -> expression'", parameter.position());
+            }
+            slot = lambdaScope.size();
+            lambdaScope.add(parameter.text());
+            slotCount = Math.max(slotCount, lambdaScope.size());
+            body = parseOr();
+            lambdaScope.remove(slot);
+        }
+        expect(")");
+        return DslFunctions.create(name, source, body, slot);
+    }
+    
+    private DslNode binary(DslNode lhs, DslNode rhs, DslNode.Arithmetic operator) {
+        return fold(new DslNode.Binary(operator, lhs, rhs), lhs, rhs);
+    }
+    
+    /**
+     * Evaluates a node at compile time when all of its operands are constants.
+     */
+    private static DslNode fold(DslNode node, DslNode... operands) {
+        for (DslNode operand : operands) {
+            if (!(operand instanceof DslNode.Constant)) {
+                return node;
+            }
+        }
+        try {
+            return new DslNode.Constant(node.evaluate(null));
+        } catch (RuntimeException e) {
+            // Leave the failure (e.g. division by zero) to surface at evaluation time
+            return node;
+        }
+    }
+    
+    private String expectIdentifier() throws DslSyntaxException {
+        Token token = next();
+        if (token.type() != TokenType.IDENTIFIER) {
+            throw new DslSyntaxException("Expected property name but found '" + token.text() + "'", token.position());
+        }
+        return token.text();
+    }
+    
+    private void expect(String symbol) throws DslSyntaxException {
+        Token token = next();
+        if (!token.is(symbol)) {
+            throw new DslSyntaxException("Expected '" + symbol + "' but found '" + token.text() + "'", token.position());
+        }
+    }
+    
+    private boolean accept(String symbol) {
+        if (peek().is(symbol)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+    
+    private Token peek() {
+        return tokens.get(position);
+    }
+    
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.type() != TokenType.EOF) {
+            position++;
+        }
+        return token;
+    }
+}
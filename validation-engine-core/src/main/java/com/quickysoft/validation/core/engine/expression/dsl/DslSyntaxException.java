@@ -0,0 +1,21 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+/**
+ * Exception thrown when a validation DSL expression cannot be compiled.
+ */
+public class DslSyntaxException extends Exception {
+    
+    private final int position;
+    
+    public DslSyntaxException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+    
+    /**
+     * Gets the character offset in the expression where the error was detected.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
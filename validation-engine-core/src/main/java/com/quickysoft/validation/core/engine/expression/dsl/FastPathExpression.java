@@ -0,0 +1,378 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.engine.expression.dsl.DslLexer.Token;
+import com.quickysoft.validation.core.engine.expression.dsl.DslLexer.TokenType;
+import com.quickysoft.validation.core.model.ValidationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Built-in evaluator for trivial SpEL, MVEL and JEXL expressions.
+ * 
+ * Recognises {@code path op literal} comparisons (e.g. {@code #payload.age >= 18} or
+ * {@code payload.status == 'ACTIVE'}), optionally combined with {@code &&} / {@code ||} and
+ * parentheses, and evaluates them with cached method handle accessors instead of setting up
+ * a full evaluation context in the configured engine.
+ * 
+ * The fast path only answers where it agrees with the target engine. Properties are read
+ * through JavaBean getters and map keys (map keys only for JEXL, whose default permissions deny
+ * access to application classes). Whenever an operand is {@code null}, cannot be resolved that
+ * way, or would be coerced differently by the engines (e.g. an enum compared with a string),
+ * {@link #evaluate} returns {@code null} and the caller falls back to the configured engine, so
+ * results are identical with or without the fast path.
+ */
+public final class FastPathExpression {
+    
+    private static final Set<String> COMPARISON_OPERATORS = Set.of("==", "!=", "<", "<=", ">", ">=");
+    
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNDECIDED = -1;
+    
+    /**
+     * Marker for operands the fast path cannot resolve.
+     */
+    private static final Object UNRESOLVED = new Object();
+    
+    private final Condition root;
+    private final Set<String> foldedAttributes;
+    
+    private FastPathExpression(Condition root, Set<String> foldedAttributes) {
+        this.root = root;
+        this.foldedAttributes = Set.copyOf(foldedAttributes);
+    }
+    
+    /**
+     * Classifies an expression written for one of the interpreted engines.
+     * 
+     * @param expression the expression source
+     * @param syntax the engine the expression is written for (SPEL, MVEL or JEXL)
+     * @return the fast-path form, or {@code null} if the expression is not a simple comparison
+     */
+    public static FastPathExpression classify(String expression, ExpressionEvaluatorType syntax) {
+        return classify(expression, syntax, Map.of());
+    }
+    
+    /**
+     * Classifies an expression and partially evaluates it against constant context attributes.
+     * 
+     * Paths resolving to one of the constants (e.g. {@code #tenantId} or {@code #context.tier}) are
+     * substituted, comparisons between constants are decided and dead {@code &&} / {@code ||}
+     * branches dropped. The result is only valid for contexts whose attributes match the
+     * constants (see {@link #getFoldedAttributes()}).
+     * 
+     * @param expression the expression source
+     * @param syntax the engine the expression is written for (SPEL, MVEL or JEXL)
+     * @param constants context attributes whose values are fixed (e.g. per tenant)
+     * @return the fast-path form, or {@code null} if the expression is not a simple comparison
+     */
+    public static FastPathExpression classify(String expression, ExpressionEvaluatorType syntax,
+                                              Map<String, Object> constants) {
+        if (expression == null || expression.indexOf('\\') >= 0 || syntax == null) {
+            return null;
+        }
+        if (syntax != ExpressionEvaluatorType.SPEL && syntax != ExpressionEvaluatorType.MVEL
+                && syntax != ExpressionEvaluatorType.JEXL) {
+            return null;
+        }
+        try {
+            Classifier classifier = new Classifier(DslLexer.tokenize(expression), syntax,
+                    constants != null ? constants : Map.of());
+            Condition condition = classifier.parseOr();
+            return classifier.atEnd() ? new FastPathExpression(condition, classifier.foldedAttributes) : null;
+        } catch (DslSyntaxException | NotSimpleException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Evaluates the expression.
+     * 
+     * @return the result, or {@code null} if the configured engine has to decide
+     */
+    public Boolean evaluate(ValidationContext<?> context) {
+        int result = root.test(new DslFrame(context.payload(), context.contextAttributes(), 0));
+        return result == UNDECIDED ? null : result == TRUE;
+    }
+    
+    /**
+     * Returns the context attributes that were substituted as constants.
+     */
+    public Set<String> getFoldedAttributes() {
+        return foldedAttributes;
+    }
+    
+    /**
+     * Returns whether the result was fully decided from constants.
+     */
+    public boolean isConstant() {
+        return root instanceof Decided;
+    }
+    
+    @FunctionalInterface
+    private interface Condition {
+        int test(DslFrame frame);
+    }
+    
+    /**
+     * Condition decided at classification time.
+     */
+    private record Decided(int result) implements Condition {
+        
+        @Override
+        public int test(DslFrame frame) {
+            return result;
+        }
+    }
+    
+    private static int compare(String operator, Object left, Object right) {
+        if (left == UNRESOLVED || right == UNRESOLVED || left == null || right == null) {
+            return UNDECIDED;
+        }
+        boolean numeric = left instanceof Number && right instanceof Number;
+        if (operator.equals("==") || operator.equals("!=")) {
+            boolean equal;
+            if (numeric) {
+                equal = DslOperators.compare(left, right) == 0;
+            } else if (left.getClass() == right.getClass()) {
+                equal = left.equals(right);
+            } else {
+                return UNDECIDED;
+            }
+            return equal == operator.equals("==") ? TRUE : FALSE;
+        }
+        if (!numeric && !(left instanceof String && right instanceof String)) {
+            return UNDECIDED;
+        }
+        int c = DslOperators.compare(left, right);
+        boolean result = switch (operator) {
+            case "<" -> c < 0;
+            case "<=" -> c <= 0;
+            case ">" -> c > 0;
+            default -> c >= 0;
+        };
+        return result ? TRUE : FALSE;
+    }
+    
+    /**
+     * Signals that the expression is outside the fast-path subset.
+     */
+    private static final class NotSimpleException extends RuntimeException {
+        
+        NotSimpleException() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * Parser for the fast-path subset of the given engine's syntax.
+     */
+    private static final class Classifier {
+        
+        private final List<Token> tokens;
+        private final boolean spel;
+        private final boolean keywordOperators;
+        private final PropertyReader.Access access;
+        private final Map<String, Object> constants;
+        private final Set<String> foldedAttributes = new LinkedHashSet<>();
+        private int position;
+        private int pathCount;
+        
+        Classifier(List<Token> tokens, ExpressionEvaluatorType syntax, Map<String, Object> constants) {
+            this.tokens = tokens;
+            this.constants = constants;
+            this.spel = syntax == ExpressionEvaluatorType.SPEL;
+            // MVEL has no 'and' / 'or' keywords
+            this.keywordOperators = syntax != ExpressionEvaluatorType.MVEL;
+            // JEXL's default permissions deny property access on application classes
+            this.access = syntax == ExpressionEvaluatorType.JEXL
+                    ? PropertyReader.Access.MAP_KEYS
+                    : PropertyReader.Access.BEAN_GETTERS;
+        }
+        
+        boolean atEnd() {
+            return tokens.get(position).type() == TokenType.EOF;
+        }
+        
+        Condition parseOr() {
+            Condition left = parseAnd();
+            while (accept("||") || (keywordOperators && accept("or"))) {
+                Condition lhs = left;
+                Condition rhs = parseAnd();
+                if (lhs instanceof Decided decided) {
+                    left = decided.result() == TRUE ? decided : rhs;
+                    continue;
+                }
+                left = frame -> {
+                    int l = lhs.test(frame);
+                    return l == FALSE ? rhs.test(frame) : l;
+                };
+            }
+            return left;
+        }
+        
+        Condition parseAnd() {
+            Condition left = parseComparison();
+            while (accept("&&") || (keywordOperators && accept("and"))) {
+                Condition lhs = left;
+                Condition rhs = parseComparison();
+                if (lhs instanceof Decided decided) {
+                    left = decided.result() == FALSE ? decided : rhs;
+                    continue;
+                }
+                left = frame -> {
+                    int l = lhs.test(frame);
+                    return l == TRUE ? rhs.test(frame) : l;
+                };
+            }
+            return left;
+        }
+        
+        Condition parseComparison() {
+            if (accept("(")) {
+                Condition inner = parseOr();
+                if (!accept(")")) {
+                    throw new NotSimpleException();
+                }
+                return inner;
+            }
+            int pathsBefore = pathCount;
+            DslNode left = parseOperand();
+            Token operator = next();
+            if (operator.type() != TokenType.SYMBOL || !COMPARISON_OPERATORS.contains(operator.text())) {
+                throw new NotSimpleException();
+            }
+            DslNode right = parseOperand();
+            if (pathCount == pathsBefore) {
+                // literal op literal is not something rule authors write; leave it to the engine
+                throw new NotSimpleException();
+            }
+            String op = operator.text();
+            if (left instanceof DslNode.Constant l && right instanceof DslNode.Constant r) {
+                int result = compare(op, l.value(), r.value());
+                if (result != UNDECIDED) {
+                    return new Decided(result);
+                }
+            }
+            return frame -> compare(op, left.evaluate(frame), right.evaluate(frame));
+        }
+        
+        DslNode parseOperand() {
+            Token token = next();
+            switch (token.type()) {
+                case NUMBER:
+                    return new DslNode.Constant(token.text().indexOf('.') >= 0
+                            ? new BigDecimal(token.text())
+                            : (Object) Long.parseLong(token.text()));
+                case STRING:
+                    return new DslNode.Constant(token.text());
+                case IDENTIFIER:
+                    if (token.text().equals("true") || token.text().equals("false")) {
+                        return new DslNode.Constant(Boolean.valueOf(token.text()));
+                    }
+                    if (spel) {
+                        throw new NotSimpleException();
+                    }
+                    return parsePath(token);
+                case SYMBOL:
+                    if (token.is("-") && peek().type() == TokenType.NUMBER) {
+                        Object value = ((DslNode.Constant) parseOperand()).value();
+                        return new DslNode.Constant(DslOperators.negate(value));
+                    }
+                    if (spel && token.is("#")) {
+                        Token root = next();
+                        if (root.type() == TokenType.IDENTIFIER) {
+                            return parsePath(root);
+                        }
+                    }
+                    throw new NotSimpleException();
+                default:
+                    throw new NotSimpleException();
+            }
+        }
+        
+        DslNode parsePath(Token root) {
+            List<String> segments = new ArrayList<>();
+            while (accept(".")) {
+                Token segment = next();
+                if (segment.type() != TokenType.IDENTIFIER) {
+                    throw new NotSimpleException();
+                }
+                segments.add(segment.text());
+            }
+            pathCount++;
+            switch (root.text()) {
+                case "payload":
+                    List<PropertyReader> readers = segments.stream().map(segment -> new PropertyReader(segment, access)).toList();
+                    return frame -> {
+                        Object value = frame.payload;
+                        try {
+                            for (PropertyReader reader : readers) {
+                                if (value == null) {
+                                    return UNRESOLVED;
+                                }
+                                value = reader.read(value);
+                            }
+                        } catch (RuntimeException e) {
+                            return UNRESOLVED;
+                        }
+                        return value;
+                    };
+                case "context":
+                    if (segments.isEmpty()) {
+                        throw new NotSimpleException();
+                    }
+                    ContextPathNode path = new ContextPathNode(segments.toArray(new String[0]), access);
+                    ContextPathNode.Folded folded = path.fold(constants);
+                    if (folded != null) {
+                        foldedAttributes.add(folded.attribute());
+                        return new DslNode.Constant(folded.value());
+                    }
+                    return frame -> {
+                        try {
+                            return path.evaluate(frame);
+                        } catch (RuntimeException e) {
+                            return UNRESOLVED;
+                        }
+                    };
+                case "tenantId":
+                    if (!segments.isEmpty()) {
+                        throw new NotSimpleException();
+                    }
+                    if (constants.containsKey("tenantId")) {
+                        foldedAttributes.add("tenantId");
+                        return new DslNode.Constant(constants.get("tenantId"));
+                    }
+                    return frame -> frame.contextAttributes.get("tenantId");
+                default:
+                    throw new NotSimpleException();
+            }
+        }
+        
+        private boolean accept(String symbol) {
+            if (peek().is(symbol)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+        
+        private Token peek() {
+            return tokens.get(position);
+        }
+        
+        private Token next() {
+            Token token = tokens.get(position);
+            if (token.type() != TokenType.EOF) {
+                position++;
+            }
+            return token;
+        }
+    }
+}
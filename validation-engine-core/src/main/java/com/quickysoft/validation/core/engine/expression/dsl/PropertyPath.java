@@ -0,0 +1,54 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.impl.CompiledExpressionCache;
+
+/**
+ * A dotted property path (e.g. {@code "product.price"}) bound to cached method handle readers.
+ * 
+ * Paths are interned, so every caller reading the same path shares the readers and their
+ * inline caches. Navigation is null-safe: a {@code null} anywhere along the path yields {@code null}.
+ * 
+ * The intern table is bounded: readers keep the last receiver class and its getter reachable,
+ * so an unbounded table would pin the classes of every payload ever read.
+ */
+public final class PropertyPath {
+    
+    private static final CompiledExpressionCache<String, PropertyPath> PATHS = new CompiledExpressionCache<>();
+    
+    private final String path;
+    private final PropertyReader[] readers;
+    
+    private PropertyPath(String path) {
+        this.path = path;
+        String[] segments = path.isEmpty() ? new String[0] : path.split("\\.");
+        this.readers = new PropertyReader[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            readers[i] = new PropertyReader(segments[i]);
+        }
+    }
+    
+    /**
+     * Gets the (shared) path for a dotted property expression; an empty path reads the value itself.
+     */
+    public static PropertyPath of(String path) {
+        return PATHS.get(path != null ? path.trim() : "", PropertyPath::new);
+    }
+    
+    /**
+     * Reads the path from a root object.
+     * 
+     * @throws IllegalArgumentException if a property along the path does not exist
+     */
+    public Object read(Object root) {
+        Object value = root;
+        for (int i = 0; i < readers.length && value != null; i++) {
+            value = readers[i].read(value);
+        }
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,84 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.engine.expression.accessor.PayloadAccessorRegistry;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+
+/**
+ * Monomorphic inline cache for reading one named property.
+ * 
+ * The reader remembers the getter for the last receiver class it saw; as long as the
+ * receiver class does not change, a read is a class check plus a direct handle invocation.
+ */
+final class PropertyReader {
+    
+    /**
+     * Which kinds of properties a reader resolves.
+     */
+    enum Access {
+        /** Record accessors, JavaBean getters, public fields and map keys. */
+        ANY,
+        /** JavaBean getters and map keys. */
+        BEAN_GETTERS,
+        /** Map keys only. */
+        MAP_KEYS
+    }
+    
+    private static final PayloadAccessorRegistry REGISTRY = PayloadAccessorRegistry.getInstance();
+    
+    private record Site(Class<?> type, MethodHandle getter) {
+    }
+    
+    private final String name;
+    private final Access access;
+    private volatile Site site;
+    
+    PropertyReader(String name) {
+        this(name, Access.ANY);
+    }
+    
+    PropertyReader(String name, Access access) {
+        this.name = name;
+        this.access = access;
+    }
+    
+    String name() {
+        return name;
+    }
+    
+    Object read(Object target) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof Map<?, ?> map) {
+            return map.get(name);
+        }
+        Site cached = site;
+        if (cached == null || cached.type() != target.getClass()) {
+            cached = relink(target.getClass());
+        }
+        try {
+            return (Object) cached.getter().invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to read property '" + name + "'", t);
+        }
+    }
+    
+    private Site relink(Class<?> type) {
+        MethodHandle getter = switch (access) {
+            case ANY -> REGISTRY.getter(type, name);
+            case BEAN_GETTERS -> REGISTRY.beanGetter(type, name);
+            case MAP_KEYS -> null;
+        };
+        if (getter == null) {
+            throw new IllegalArgumentException(
+                    "Unknown property '" + name + "' on type " + type.getName());
+        }
+        Site linked = new Site(type, getter);
+        site = linked;
+        return linked;
+    }
+}
@@ -0,0 +1,36 @@
+package com.quickysoft.validation.core.engine.expression.functions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Conversion of numbers to {@link BigDecimal}, shared by the function library and the DSL operators.
+ */
+public final class Decimals {
+    
+    private Decimals() {
+    }
+    
+    /**
+     * Converts a number to {@link BigDecimal}; {@code double} and {@code float} go through their
+     * shortest decimal representation, so {@code 0.1} becomes {@code 0.1} rather than its binary expansion.
+     * 
+     * @throws IllegalArgumentException if the value is not a {@link Number}
+     */
+    public static BigDecimal of(Object value) {
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        if (value instanceof BigInteger bigInteger) {
+            return new BigDecimal(bigInteger);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        }
+        if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        throw new IllegalArgumentException("Not a number: "
+                + (value == null ? "null" : value.getClass().getName()));
+    }
+}
@@ -0,0 +1,280 @@
+package com.quickysoft.validation.core.engine.expression.functions;
+
+import com.quickysoft.validation.core.engine.expression.dsl.PropertyPath;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Aggregate and collection functions shared by all expression evaluators.
+ * 
+ * The library is bound as {@code fn} in every engine: {@code #fn.sum(...)} in SpEL and
+ * {@code fn.sum(...)} in MVEL and JEXL. Element properties are given as dotted path strings
+ * (e.g. {@code 'product.price'}) and read through cached method handles, so aggregates run as
+ * plain Java loops instead of interpreted lambdas. All arithmetic is done in {@link BigDecimal}.
+ * 
+ * Collections may be any {@link Iterable}, array or {@link Map} (its values); {@code null} is
+ * treated as empty. Elements whose value at the path is {@code null} are skipped by aggregates.
+ */
+public final class ValidationFunctions {
+    
+    /**
+     * Name the library is bound to in every evaluator.
+     */
+    public static final String VARIABLE_NAME = "fn";
+    
+    private static final ValidationFunctions INSTANCE = new ValidationFunctions();
+    
+    private ValidationFunctions() {
+    }
+    
+    public static ValidationFunctions getInstance() {
+        return INSTANCE;
+    }
+    
+    // ---- property access ----
+    
+    /**
+     * Reads a dotted property path from an object, e.g. {@code get(cart, 'user.status')}.
+     */
+    public Object get(Object root, String path) {
+        return PropertyPath.of(path).read(root);
+    }
+    
+    // ---- aggregates ----
+    
+    /**
+     * Sums the elements of a collection.
+     */
+    public BigDecimal sum(Object collection) {
+        return sum(collection, "");
+    }
+    
+    /**
+     * Sums the value at {@code path} over the elements of a collection.
+     */
+    public BigDecimal sum(Object collection, String path) {
+        PropertyPath property = PropertyPath.of(path);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Object element : iterable(collection)) {
+            Object value = property.read(element);
+            if (value != null) {
+                total = total.add(decimal(value));
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Sums {@code left * right} over the elements of a collection,
+     * e.g. {@code sumProduct(lineItems, 'product.price', 'quantity')}.
+     */
+    public BigDecimal sumProduct(Object collection, String leftPath, String rightPath) {
+        PropertyPath left = PropertyPath.of(leftPath);
+        PropertyPath right = PropertyPath.of(rightPath);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Object element : iterable(collection)) {
+            Object l = left.read(element);
+            Object r = right.read(element);
+            if (l != null && r != null) {
+                total = total.add(decimal(l).multiply(decimal(r)));
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Counts the elements of a collection.
+     */
+    public long count(Object collection) {
+        if (collection instanceof Collection<?> c) {
+            return c.size();
+        }
+        long count = 0;
+        for (Object ignored : iterable(collection)) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the elements whose value at {@code path} equals {@code value}.
+     */
+    public long count(Object collection, String path, Object value) {
+        PropertyPath property = PropertyPath.of(path);
+        long count = 0;
+        for (Object element : iterable(collection)) {
+            if (eq(property.read(element), value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the distinct values at {@code path} (nulls excluded; numbers compared by value).
+     */
+    public long distinctCount(Object collection, String path) {
+        PropertyPath property = PropertyPath.of(path);
+        Set<Object> distinct = new HashSet<>();
+        for (Object element : iterable(collection)) {
+            Object value = property.read(element);
+            if (value != null) {
+                distinct.add(value instanceof Number ? decimal(value).stripTrailingZeros() : value);
+            }
+        }
+        return distinct.size();
+    }
+    
+    /**
+     * Checks whether any element's value at {@code path} is {@code true}.
+     */
+    public boolean anyMatch(Object collection, String path) {
+        return anyMatch(collection, path, Boolean.TRUE);
+    }
+    
+    /**
+     * Checks whether any element's value at {@code path} equals {@code value}.
+     */
+    public boolean anyMatch(Object collection, String path, Object value) {
+        PropertyPath property = PropertyPath.of(path);
+        for (Object element : iterable(collection)) {
+            if (eq(property.read(element), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether every element's value at {@code path} is {@code true} (true for empty collections).
+     */
+    public boolean allMatch(Object collection, String path) {
+        return allMatch(collection, path, Boolean.TRUE);
+    }
+    
+    /**
+     * Checks whether every element's value at {@code path} equals {@code value} (true for empty collections).
+     */
+    public boolean allMatch(Object collection, String path, Object value) {
+        PropertyPath property = PropertyPath.of(path);
+        for (Object element : iterable(collection)) {
+            if (!eq(property.read(element), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Gets the smallest value at {@code path}, or {@code null} for an empty collection.
+     */
+    public Object min(Object collection, String path) {
+        return extreme(collection, path, -1);
+    }
+    
+    /**
+     * Gets the largest value at {@code path}, or {@code null} for an empty collection.
+     */
+    public Object max(Object collection, String path) {
+        return extreme(collection, path, 1);
+    }
+    
+    // ---- BigDecimal-aware arithmetic ----
+    
+    public BigDecimal add(Object left, Object right) {
+        return decimal(left).add(decimal(right));
+    }
+    
+    public BigDecimal subtract(Object left, Object right) {
+        return decimal(left).subtract(decimal(right));
+    }
+    
+    public BigDecimal multiply(Object left, Object right) {
+        return decimal(left).multiply(decimal(right));
+    }
+    
+    public BigDecimal divide(Object left, Object right) {
+        return decimal(left).divide(decimal(right), MathContext.DECIMAL128);
+    }
+    
+    /**
+     * Compares two numbers by value, ignoring scale ({@code 1.0} equals {@code 1}).
+     */
+    public int compare(Object left, Object right) {
+        return decimal(left).compareTo(decimal(right));
+    }
+    
+    /**
+     * Equality that compares numbers by value and everything else with {@link Objects#equals}.
+     */
+    public boolean eq(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return decimal(left).compareTo(decimal(right)) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+    
+    /**
+     * Converts a number (or numeric string) to {@link BigDecimal}.
+     */
+    public BigDecimal decimal(Object value) {
+        if (value instanceof CharSequence text) {
+            return new BigDecimal(text.toString().trim());
+        }
+        return Decimals.of(value);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object extreme(Object collection, String path, int direction) {
+        PropertyPath property = PropertyPath.of(path);
+        Object best = null;
+        for (Object element : iterable(collection)) {
+            Object value = property.read(element);
+            if (value == null) {
+                continue;
+            }
+            int c;
+            if (best == null) {
+                c = direction;
+            } else if (value instanceof Number && best instanceof Number) {
+                c = compare(value, best);
+            } else {
+                c = ((Comparable) value).compareTo(best);
+            }
+            if (c * direction > 0) {
+                best = value;
+            }
+        }
+        return best;
+    }
+    
+    private static Iterable<?> iterable(Object collection) {
+        if (collection == null) {
+            return Collections.emptyList();
+        }
+        if (collection instanceof Iterable<?> iterable) {
+            return iterable;
+        }
+        if (collection instanceof Map<?, ?> map) {
+            return map.values();
+        }
+        if (collection.getClass().isArray()) {
+            int length = Array.getLength(collection);
+            Object[] elements = new Object[length];
+            for (int i = 0; i < length; i++) {
+                elements[i] = Array.get(collection, i);
+            }
+            return Arrays.asList(elements);
+        }
+        throw new IllegalArgumentException("Not a collection: " + collection.getClass().getName());
+    }
+}
@@ -0,0 +1,76 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Compiled expressions of one evaluator, keyed by source (or by source plus whatever else the
+ * compiled form depends on).
+ *
+ * Editing a rule changes its expression text, so the compiled form of the old text is never used
+ * again. The cache is bounded and evicts the least recently used expressions, down to 90% of the
+ * bound so that a full cache does not scan on every compile.
+ *
+ * @param <K> the key
+ * @param <V> the compiled form
+ */
+public final class CompiledExpressionCache<K, V> {
+
+    public static final int DEFAULT_MAX_EXPRESSIONS = 10_000;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxExpressions;
+
+    public CompiledExpressionCache() {
+        this(DEFAULT_MAX_EXPRESSIONS);
+    }
+
+    public CompiledExpressionCache(int maxExpressions) {
+        this.maxExpressions = maxExpressions;
+    }
+
+    /**
+     * Returns the compiled form of an expression, compiling and caching it on first use.
+     */
+    public V get(K expression, Function<? super K, ? extends V> compiler) {
+        Entry<V> entry = entries.get(expression);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(expression, source -> new Entry<>(compiler.apply(source)));
+            if (entries.size() > maxExpressions) {
+                evictLeastRecentlyUsed();
+            }
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.compiled;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized void evictLeastRecentlyUsed() {
+        int excess = entries.size() - (maxExpressions - maxExpressions / 10);
+        if (entries.size() <= maxExpressions || excess <= 0) {
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+        for (int i = 0; i < excess && i < candidates.size(); i++) {
+            entries.remove(candidates.get(i).getKey(), candidates.get(i).getValue());
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final V compiled;
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(V compiled) {
+            this.compiled = compiled;
+        }
+    }
+}
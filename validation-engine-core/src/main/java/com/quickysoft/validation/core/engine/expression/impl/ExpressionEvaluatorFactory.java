@@ -19,7 +19,7 @@ public class ExpressionEvaluatorFactory {
     /**
      * Creates an ExpressionEvaluator based on the evaluator type string.
      * 
-     * @param evaluatorType the evaluator type string (e.g., "SPEL", "MVEL", "JEXL")
+     * @param evaluatorType the evaluator type string (e.g., "SPEL", "MVEL", "JEXL", "NATIVE", "JAVA")
      * @return the corresponding ExpressionEvaluator instance
      * @throws IllegalArgumentException if the evaluator type is not recognized
      */
@@ -30,6 +30,8 @@ public class ExpressionEvaluatorFactory {
             case SPEL -> new SpELExpressionEvaluator();
             case MVEL -> new MVELExpressionEvaluator();
             case JEXL -> new JEXLExpressionEvaluator();
+            case NATIVE -> new NativeExpressionEvaluator();
+            case JAVA -> new JavaExpressionEvaluator();
         };
     }
     
@@ -48,6 +50,8 @@ public class ExpressionEvaluatorFactory {
             case SPEL -> new SpELExpressionEvaluator();
             case MVEL -> new MVELExpressionEvaluator();
             case JEXL -> new JEXLExpressionEvaluator();
+            case NATIVE -> new NativeExpressionEvaluator();
+            case JAVA -> new JavaExpressionEvaluator();
         };
     }
 }
@@ -3,19 +3,26 @@ package com.quickysoft.validation.core.engine.expression.impl;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
 import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validation.core.engine.expression.accessor.PayloadUberspect;
+import com.quickysoft.validation.core.engine.expression.functions.ValidationFunctions;
+import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.MapContext;
-import org.apache.commons.jexl3.internal.Engine;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * JEXL (Java Expression Language) implementation of ExpressionEvaluator.
+ * 
+ * Each thread reuses one {@link MapContext} backed by a plain map; variables are
+ * cleared after every evaluation instead of allocating a new context per call.
  */
 public class JEXLExpressionEvaluator extends AbstractExpressionEvaluator {
     
@@ -23,17 +30,34 @@ public class JEXLExpressionEvaluator extends AbstractExpressionEvaluator {
     
     private final JexlEngine jexlEngine;
     
+    /**
+     * Compiled scripts and expressions, keyed by source.
+     */
+    private final CompiledExpressionCache<String, Compiled> compiledExpressions = new CompiledExpressionCache<>();
+    
+    private final ThreadLocal<ReusableContext<Map<String, Object>>> contextVariables =
+            ThreadLocal.withInitial(() -> new ReusableContext<>(new HashMap<>()));
+    
     JEXLExpressionEvaluator() {
-        this.jexlEngine = new Engine();
+        // Default (restricted) permissions, plus the shared function library
+        JexlPermissions permissions = JexlPermissions.RESTRICTED.compose(
+                ValidationFunctions.class.getPackageName() + ".*");
+        // Bean property reads go through cached method handles
+        this.jexlEngine = new JexlBuilder()
+                .uberspect(new PayloadUberspect(permissions))
+                .create();
     }
     
     @Override
     public boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException {
+        ReusableContext<Map<String, Object>> reusable = contextVariables.get();
+        // Re-entrant evaluation on the same thread gets a throwaway variable map
+        Map<String, Object> variables = reusable.acquire() ? reusable.context() : new HashMap<>();
         try {
             logger.debug("Evaluating JEXL expression: {}", expression);
             
-            // Create JEXL context
-            JexlContext jexlContext = new MapContext();
+            // Wrap the reused variable map in a JEXL context
+            JexlContext jexlContext = new MapContext(variables);
             
             // Set payload
             jexlContext.set("payload", context.payload());
@@ -52,38 +76,11 @@ public class JEXLExpressionEvaluator extends AbstractExpressionEvaluator {
                 jexlContext.set("tenantId", context.contextAttributes().get("tenantId"));
             }
             
-            // Try to create and evaluate as script first (for multi-statement expressions),
-            // then fall back to expression if it fails
-            Object result;
-            // Check if expression contains multiple statements (semicolons or control structures)
-            // JEXL scripts can have: for loops (with ':' or 'in'), foreach, if statements, semicolons
-            boolean isScript = expression.contains(";") || 
-                              expression.contains("for ") || 
-                              expression.contains("foreach ") || 
-                              expression.contains("if ") ||
-                              expression.contains(" while ");
+            // Shared function library
+            jexlContext.set(ValidationFunctions.VARIABLE_NAME, ValidationFunctions.getInstance());
             
-            if (isScript) {
-                // Try to create and evaluate as script
-                try {
-                    JexlScript jexlScript = jexlEngine.createScript(expression);
-                    result = jexlScript.execute(jexlContext);
-                } catch (Exception scriptException) {
-                    logger.debug("Failed to create JEXL script, trying as expression: {}", scriptException.getMessage());
-                    // If script creation fails, try as expression (for backward compatibility)
-                    try {
-                        JexlExpression jexlExpression = jexlEngine.createExpression(expression);
-                        result = jexlExpression.evaluate(jexlContext);
-                    } catch (Exception exprException) {
-                        // Re-throw the original script exception as it's more informative
-                        throw scriptException;
-                    }
-                }
-            } else {
-                // Create and evaluate as expression
-                JexlExpression jexlExpression = jexlEngine.createExpression(expression);
-                result = jexlExpression.evaluate(jexlContext);
-            }
+            // Compile (once) and evaluate the expression
+            Object result = compile(expression).evaluate(jexlContext);
             
             // Convert to boolean
             if (result instanceof Boolean bool) {
@@ -100,6 +97,63 @@ public class JEXLExpressionEvaluator extends AbstractExpressionEvaluator {
             throw new ExpressionEvaluationException(
                     "Failed to evaluate JEXL expression: " + expression, e
             );
+        } finally {
+            // Drop request-scoped variables (including script locals) before the next call
+            variables.clear();
+            if (variables == reusable.context()) {
+                reusable.release();
+            }
+        }
+    }
+    
+    @Override
+    public void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+        try {
+            compile(expression);
+        } catch (Exception e) {
+            throw new ExpressionEvaluationException("Failed to compile JEXL expression: " + expression, e);
+        }
+    }
+    
+    /**
+     * Returns the compiled form of an expression, compiling and caching it on first use.
+     * 
+     * Multi-statement expressions (semicolons or control structures such as {@code for},
+     * {@code foreach}, {@code if}, {@code while}) are compiled as scripts, falling back to a
+     * plain expression if script compilation fails.
+     */
+    private Compiled compile(String expression) {
+        return compiledExpressions.get(expression, source -> {
+            boolean isScript = source.contains(";") || 
+                              source.contains("for ") || 
+                              source.contains("foreach ") || 
+                              source.contains("if ") ||
+                              source.contains(" while ");
+            if (!isScript) {
+                return new Compiled(null, jexlEngine.createExpression(source));
+            }
+            try {
+                return new Compiled(jexlEngine.createScript(source), null);
+            } catch (RuntimeException scriptException) {
+                logger.debug("Failed to create JEXL script, trying as expression: {}", scriptException.getMessage());
+                // If script creation fails, try as expression (for backward compatibility)
+                try {
+                    return new Compiled(null, jexlEngine.createExpression(source));
+                } catch (RuntimeException exprException) {
+                    // Re-throw the original script exception as it's more informative
+                    throw scriptException;
+                }
+            }
+        });
+    }
+    
+    /**
+     * A compiled JEXL script or expression; both are thread-safe.
+     */
+    private record Compiled(JexlScript script, JexlExpression expression) {
+        
+        Object evaluate(JexlContext context) {
+            return script != null ? script.execute(context) : expression.evaluate(context);
         }
     }
     
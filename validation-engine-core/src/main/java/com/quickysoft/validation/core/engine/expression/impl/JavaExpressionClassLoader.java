@@ -0,0 +1,25 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+/**
+ * Class loader holding the compiled JAVA expressions of a single tenant.
+ * 
+ * Giving every tenant its own loader keeps tenants' generated classes apart and lets all of a
+ * tenant's classes be unloaded at once by dropping the loader.
+ */
+final class JavaExpressionClassLoader extends ClassLoader {
+    
+    private final String tenantId;
+    
+    JavaExpressionClassLoader(String tenantId, ClassLoader parent) {
+        super("java-expressions-" + tenantId, parent);
+        this.tenantId = tenantId;
+    }
+    
+    Class<?> define(String className, byte[] bytes) {
+        return defineClass(className, bytes, 0, bytes.length);
+    }
+    
+    String getTenantId() {
+        return tenantId;
+    }
+}
@@ -0,0 +1,294 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.model.ValidationContext;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles Java boolean expressions into {@code Predicate<ValidationContext<?>>} classes in memory
+ * using the JDK compiler ({@code javax.tools}).
+ * 
+ * The expression body sees three locals: {@code payload}, {@code context} (the context attribute
+ * map) and {@code tenantId}. The payload is an {@code Object} unless the expression declares its
+ * type lambda-style, e.g. {@code (com.acme.Order payload) -> payload.total().signum() > 0}.
+ * 
+ * Application classes are resolved through a class loader rather than {@code java.class.path},
+ * which inside a Spring Boot fat jar only holds the launcher: the compiler lists and reads class
+ * files as resources of that loader (directories and jars, nested jars included).
+ */
+final class JavaExpressionCompiler {
+    
+    static final String GENERATED_PACKAGE = "com.quickysoft.validation.generated";
+    
+    private static final Pattern TYPED_EXPRESSION =
+            Pattern.compile("^\\s*\\(\\s*([\\w.$]+(?:<[\\w.$<>?,\\s]*>)?)\\s+payload\\s*\\)\\s*->(.*)$", Pattern.DOTALL);
+    
+    private final JavaCompiler compiler;
+    private final ClassLoader classPathLoader;
+    private final List<String> options = List.of("-proc:none");
+    
+    /**
+     * @param classPathLoader the loader whose classes expressions can reference
+     */
+    JavaExpressionCompiler(ClassLoader classPathLoader) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.classPathLoader = classPathLoader;
+    }
+    
+    /**
+     * Compiles an expression and defines the resulting class in the given class loader.
+     * 
+     * @param expression the Java expression
+     * @param className simple name of the generated class
+     * @param classLoader the loader that defines the generated class
+     * @return a new predicate instance
+     * @throws ExpressionEvaluationException if no compiler is available or the expression does not compile
+     */
+    Predicate<ValidationContext<?>> compile(String expression, String className,
+                                            JavaExpressionClassLoader classLoader) throws ExpressionEvaluationException {
+        if (compiler == null) {
+            throw new ExpressionEvaluationException(
+                    "JAVA expressions require a JDK; no system Java compiler is available");
+        }
+        String qualifiedName = GENERATED_PACKAGE + "." + className;
+        SourceFile source = new SourceFile(qualifiedName, generateSource(expression, className));
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        
+        try (InMemoryFileManager fileManager = new InMemoryFileManager(
+                compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8), classPathLoader)) {
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, List.of(source)).call();
+            if (!success) {
+                throw new ExpressionEvaluationException(
+                        "Failed to compile JAVA expression: " + expression + "\n" + format(diagnostics));
+            }
+            Class<?> compiledClass = null;
+            for (Map.Entry<String, ClassFile> entry : fileManager.classFiles.entrySet()) {
+                Class<?> defined = classLoader.define(entry.getKey(), entry.getValue().bytes());
+                if (entry.getKey().equals(qualifiedName)) {
+                    compiledClass = defined;
+                }
+            }
+            @SuppressWarnings("unchecked")
+            Predicate<ValidationContext<?>> predicate = (Predicate<ValidationContext<?>>)
+                    compiledClass.getDeclaredConstructor().newInstance();
+            return predicate;
+        } catch (ExpressionEvaluationException e) {
+            throw e;
+        } catch (IOException | ReflectiveOperationException | LinkageError e) {
+            throw new ExpressionEvaluationException("Failed to load compiled JAVA expression: " + expression, e);
+        }
+    }
+    
+    /**
+     * Generates the predicate source for an expression.
+     */
+    static String generateSource(String expression, String className) {
+        String payloadType = "Object";
+        String body = expression;
+        Matcher typed = TYPED_EXPRESSION.matcher(expression);
+        if (typed.matches()) {
+            payloadType = typed.group(1);
+            body = typed.group(2);
+        }
+        return "package " + GENERATED_PACKAGE + ";\n"
+                + "\n"
+                + "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n"
+                + "public final class " + className
+                + " implements java.util.function.Predicate<" + ValidationContext.class.getName() + "<?>> {\n"
+                + "    @Override\n"
+                + "    public boolean test(" + ValidationContext.class.getName() + "<?> validationContext) {\n"
+                + "        final " + payloadType + " payload = (" + payloadType + ") validationContext.payload();\n"
+                + "        final java.util.Map<String, Object> context = validationContext.contextAttributes();\n"
+                + "        final Object tenantId = context.get(\"tenantId\");\n"
+                + "        return (\n" + body + "\n        );\n"
+                + "    }\n"
+                + "}\n";
+    }
+    
+    private static String format(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n"));
+    }
+    
+    /**
+     * Source held in memory.
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+        
+        private final String code;
+        
+        SourceFile(String qualifiedName, String code) {
+            super(URI.create("string:///" + qualifiedName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+        
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+    
+    /**
+     * Class file output held in memory.
+     */
+    private static final class ClassFile extends SimpleJavaFileObject {
+        
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        ClassFile(String qualifiedName) {
+            super(URI.create("bytes:///" + qualifiedName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+        
+        @Override
+        public OutputStream openOutputStream() {
+            return output;
+        }
+        
+        byte[] bytes() {
+            return output.toByteArray();
+        }
+    }
+    
+    /**
+     * Class file read through a class loader.
+     */
+    private static final class ClassPathFile extends SimpleJavaFileObject {
+        
+        private final String binaryName;
+        private final URL url;
+        
+        ClassPathFile(String binaryName, URL url) {
+            super(URI.create("classpath:///" + binaryName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.binaryName = binaryName;
+            this.url = url;
+        }
+        
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return url.openStream();
+        }
+    }
+    
+    /**
+     * File manager that captures generated class files instead of writing them to disk, and
+     * serves the class path from a class loader.
+     */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        
+        private final Map<String, ClassFile> classFiles = new HashMap<>();
+        private final ClassLoader classPathLoader;
+        
+        InMemoryFileManager(StandardJavaFileManager fileManager, ClassLoader classPathLoader) {
+            super(fileManager);
+            this.classPathLoader = classPathLoader;
+        }
+        
+        @Override
+        public Iterable<JavaFileObject> list(JavaFileManager.Location location, String packageName,
+                                             Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
+            if (location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+                return super.list(location, packageName, kinds, recurse);
+            }
+            String packagePath = packageName.replace('.', '/');
+            List<JavaFileObject> files = new ArrayList<>();
+            Enumeration<URL> roots = classPathLoader.getResources(packagePath);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("file".equals(root.getProtocol())) {
+                    listDirectory(Path.of(URI.create(root.toString())), packagePath, recurse, files);
+                } else if (root.openConnection() instanceof JarURLConnection jar) {
+                    jar.setUseCaches(false);
+                    try (JarFile jarFile = jar.getJarFile()) {
+                        listJar(jarFile, packagePath, recurse, files);
+                    }
+                }
+            }
+            return files;
+        }
+        
+        @Override
+        public String inferBinaryName(JavaFileManager.Location location, JavaFileObject file) {
+            return file instanceof ClassPathFile classPathFile
+                    ? classPathFile.binaryName
+                    : super.inferBinaryName(location, file);
+        }
+        
+        private void listDirectory(Path directory, String packagePath, boolean recurse,
+                                   List<JavaFileObject> files) throws IOException {
+            try (Stream<Path> paths = recurse ? Files.walk(directory) : Files.list(directory)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    String name = directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+                    addClass(packagePath.isEmpty() ? name : packagePath + "/" + name, files);
+                }
+            }
+        }
+        
+        private void listJar(JarFile jarFile, String packagePath, boolean recurse,
+                             List<JavaFileObject> files) {
+            String prefix = packagePath.isEmpty() ? "" : packagePath + "/";
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(prefix) && (recurse || name.indexOf('/', prefix.length()) < 0)) {
+                    addClass(name, files);
+                }
+            }
+        }
+        
+        private void addClass(String resourceName, List<JavaFileObject> files) {
+            if (!resourceName.endsWith(JavaFileObject.Kind.CLASS.extension)) {
+                return;
+            }
+            URL url = classPathLoader.getResource(resourceName);
+            if (url != null) {
+                String binaryName = resourceName.substring(0, resourceName.length() - JavaFileObject.Kind.CLASS.extension.length())
+                        .replace('/', '.');
+                files.add(new ClassPathFile(binaryName, url));
+            }
+        }
+        
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ClassFile classFile = new ClassFile(className);
+            classFiles.put(className, classFile);
+            return classFile;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.model.ValidationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Java implementation of ExpressionEvaluator.
+ * 
+ * Expressions are plain Java boolean expressions compiled in-process by the JDK compiler into
+ * {@code Predicate<ValidationContext<?>>} classes, so evaluation is a direct (JIT-inlinable) call
+ * with no interpreter involved. Compiled predicates are cached per tenant by expression text (the
+ * SHA-256 of the expression only names the generated class), and each tenant's classes live in
+ * their own {@link JavaExpressionClassLoader}.
+ * 
+ * Compilation is expensive (tens of milliseconds), so expressions should be compiled when the
+ * rule set is loaded via {@link #prepare(String, String)} rather than on the first request.
+ * 
+ * Edited rules leave their old classes behind, so each tenant holds at most
+ * {@link #setMaxExpressionsPerTenant(int) a bounded number} of compiled expressions. When a tenant
+ * reaches the bound its loader is retired and a new one started; the retired classes are unloaded
+ * and expressions still in use are recompiled into the new loader on their next evaluation.
+ */
+public class JavaExpressionEvaluator extends AbstractExpressionEvaluator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JavaExpressionEvaluator.class);
+    
+    private static final String DEFAULT_TENANT = "default";
+    
+    static final int DEFAULT_MAX_EXPRESSIONS_PER_TENANT = 1_000;
+    
+    private final JavaExpressionCompiler compiler;
+    private final ClassLoader parentClassLoader;
+    private final Map<String, TenantExpressions> tenants = new ConcurrentHashMap<>();
+    private volatile int maxExpressionsPerTenant = DEFAULT_MAX_EXPRESSIONS_PER_TENANT;
+    
+    JavaExpressionEvaluator() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        this.parentClassLoader = contextClassLoader != null ? contextClassLoader : getClass().getClassLoader();
+        this.compiler = new JavaExpressionCompiler(parentClassLoader);
+    }
+    
+    @Override
+    public boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException {
+        Object tenantId = context.contextAttributes().get("tenantId");
+        return evaluate(expression, tenantId != null ? tenantId.toString() : null, context);
+    }
+    
+    @Override
+    public boolean evaluate(String expression, String tenantId, ValidationContext<?> context)
+            throws ExpressionEvaluationException {
+        Predicate<ValidationContext<?>> predicate = compile(expression, tenantId);
+        try {
+            logger.debug("Evaluating JAVA expression: {}", expression);
+            return predicate.test(context);
+        } catch (Exception e) {
+            logger.error("Error evaluating JAVA expression: {}", expression, e);
+            throw new ExpressionEvaluationException(
+                    "Failed to evaluate JAVA expression: " + expression, e
+            );
+        }
+    }
+    
+    @Override
+    public void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+        compile(expression, tenantId);
+    }
+    
+    @Override
+    public String getName() {
+        return "JAVA";
+    }
+    
+    /**
+     * Sets how many compiled expressions a tenant's class loader holds before it is replaced.
+     */
+    public void setMaxExpressionsPerTenant(int maxExpressionsPerTenant) {
+        if (maxExpressionsPerTenant < 1) {
+            throw new IllegalArgumentException("maxExpressionsPerTenant must be positive");
+        }
+        this.maxExpressionsPerTenant = maxExpressionsPerTenant;
+    }
+    
+    /**
+     * Drops all compiled expressions of a tenant, allowing its class loader to be unloaded.
+     */
+    public void evictTenant(String tenantId) {
+        tenants.remove(tenantId != null ? tenantId : DEFAULT_TENANT);
+    }
+    
+    /**
+     * Returns the compiled predicate for an expression, compiling it on first use.
+     */
+    Predicate<ValidationContext<?>> compile(String expression, String tenantId) throws ExpressionEvaluationException {
+        String tenantKey = tenantId != null ? tenantId : DEFAULT_TENANT;
+        while (true) {
+            TenantExpressions expressions = tenants.computeIfAbsent(tenantKey, this::newTenantExpressions);
+            Predicate<ValidationContext<?>> predicate = expressions.predicates().get(expression);
+            if (predicate != null) {
+                return predicate;
+            }
+            // One compilation at a time per tenant; concurrent callers wait and reuse the result
+            synchronized (expressions) {
+                if (tenants.get(tenantKey) != expressions) {
+                    // Retired or evicted while waiting
+                    continue;
+                }
+                predicate = expressions.predicates().get(expression);
+                if (predicate != null) {
+                    return predicate;
+                }
+                if (expressions.predicates().size() >= maxExpressionsPerTenant) {
+                    tenants.replace(tenantKey, expressions, newTenantExpressions(tenantKey));
+                    logger.info("Tenant {} reached {} compiled JAVA expressions; starting a new class loader",
+                            tenantKey, maxExpressionsPerTenant);
+                    continue;
+                }
+                long start = System.nanoTime();
+                predicate = compiler.compile(expression, "JavaExpression_" + hash(expression), expressions.classLoader());
+                expressions.predicates().put(expression, predicate);
+                logger.debug("Compiled JAVA expression for tenant {} in {} ms", tenantKey,
+                        (System.nanoTime() - start) / 1_000_000);
+                return predicate;
+            }
+        }
+    }
+    
+    private TenantExpressions newTenantExpressions(String tenantKey) {
+        return new TenantExpressions(new JavaExpressionClassLoader(tenantKey, parentClassLoader));
+    }
+    
+    private static String hash(String expression) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(expression.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Compiled predicates of one tenant and the class loader that defines them.
+     */
+    private record TenantExpressions(JavaExpressionClassLoader classLoader,
+                                     Map<String, Predicate<ValidationContext<?>>> predicates) {
+        
+        TenantExpressions(JavaExpressionClassLoader classLoader) {
+            this(classLoader, new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -2,10 +2,10 @@ package com.quickysoft.validation.core.engine.expression.impl;
 
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.functions.ValidationFunctions;
 import com.quickysoft.validation.core.model.ValidationContext;
 import org.mvel2.MVEL;
-import org.mvel2.compiler.CompiledExpression;
-import org.mvel2.compiler.ExecutableAccessor;
+import org.mvel2.integration.impl.MapVariableResolverFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,20 +15,34 @@ import java.util.Map;
 
 /**
  * MVEL (MVFLEX Expression Language) implementation of ExpressionEvaluator.
+ * 
+ * Each thread reuses one {@link MapVariableResolverFactory} over a plain map instead of
+ * allocating a new map and factory per evaluation; variables are swapped in per call.
  */
 public class MVELExpressionEvaluator extends AbstractExpressionEvaluator {
     
     private static final Logger logger = LoggerFactory.getLogger(MVELExpressionEvaluator.class);
 
+    /**
+     * Compiled expressions, keyed by source.
+     */
+    private final CompiledExpressionCache<String, Serializable> compiledExpressions = new CompiledExpressionCache<>();
+
+    private final ThreadLocal<ReusableContext<VariableScope>> variableScopes =
+            ThreadLocal.withInitial(() -> new ReusableContext<>(new VariableScope()));
+
     MVELExpressionEvaluator() {}
     
     @Override
     public boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException {
+        ReusableContext<VariableScope> reusable = variableScopes.get();
+        // Re-entrant evaluation on the same thread gets a throwaway scope
+        VariableScope scope = reusable.acquire() ? reusable.context() : new VariableScope();
+        Map<String, Object> variables = scope.variables();
         try {
             logger.debug("Evaluating MVEL expression: {}", expression);
 
-            // Create variable map
-            Map<String, Object> variables = new HashMap<>();
+            // Populate the reused variable map
             variables.put("payload", context.payload());
             // Build and set nested context for hierarchical attributes
             Map<String, Object> nestedContext = buildNestedContext(context.contextAttributes());
@@ -38,13 +52,15 @@ public class MVELExpressionEvaluator extends AbstractExpressionEvaluator {
             if (context.contextAttributes().containsKey("tenantId")) {
                 variables.put("tenantId", context.contextAttributes().get("tenantId"));
             }
+            // Shared function library
+            variables.put(ValidationFunctions.VARIABLE_NAME, ValidationFunctions.getInstance());
 
-            // Compile and evaluate the expression
-            Object compiled = MVEL.compileExpression(expression);
+            // Compile (once) and evaluate the expression
+            Serializable compiled = compiledExpressions.get(expression, MVEL::compileExpression);
 
             // Evaluate expression
-            Object result = MVEL.executeExpression(compiled, variables);
-            
+            Object result = MVEL.executeExpression(compiled, scope.factory());
+
             // Convert to boolean
             if (result instanceof Boolean bool) {
                 return bool;
@@ -52,7 +68,7 @@ public class MVELExpressionEvaluator extends AbstractExpressionEvaluator {
             if (result == null) {
                 return false;
             }
-            
+
             // Try to convert
             return Boolean.TRUE.equals(result);
         } catch (Exception e) {
@@ -60,12 +76,41 @@ public class MVELExpressionEvaluator extends AbstractExpressionEvaluator {
             throw new ExpressionEvaluationException(
                     "Failed to evaluate MVEL expression: " + expression, e
             );
+        } finally {
+            // Drop request-scoped variables and their resolvers (including script locals)
+            scope.factory().clear();
+            if (scope == reusable.context()) {
+                reusable.release();
+            }
         }
     }
     
+    @Override
+    public void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+        try {
+            compiledExpressions.get(expression, MVEL::compileExpression);
+        } catch (Exception e) {
+            throw new ExpressionEvaluationException("Failed to compile MVEL expression: " + expression, e);
+        }
+    }
+
     @Override
     public String getName() {
         return "MVEL";
     }
+    
+    /**
+     * Variable map and the resolver factory bound to it.
+     */
+    private record VariableScope(Map<String, Object> variables, MapVariableResolverFactory factory) {
+        
+        VariableScope(Map<String, Object> variables) {
+            this(variables, new MapVariableResolverFactory(variables));
+        }
+        
+        VariableScope() {
+            this(new HashMap<>());
+        }
+    }
 }
 
@@ -0,0 +1,70 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.engine.expression.dsl.CompiledDslExpression;
+import com.quickysoft.validation.core.engine.expression.dsl.DslCompiler;
+import com.quickysoft.validation.core.engine.expression.dsl.DslSyntaxException;
+import com.quickysoft.validation.core.model.ValidationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validation DSL implementation of ExpressionEvaluator.
+ * 
+ * Expressions are compiled once by {@link DslCompiler} and cached by source text. Each compiled
+ * expression runs as a generated class specialized for the payload class it sees, so repeated
+ * evaluations skip parsing entirely and call payload getters directly instead of going through a
+ * generic reflective interpreter.
+ */
+public class NativeExpressionEvaluator extends AbstractExpressionEvaluator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NativeExpressionEvaluator.class);
+    
+    private final CompiledExpressionCache<String, CompiledDslExpression> compiledExpressions =
+            new CompiledExpressionCache<>();
+    
+    NativeExpressionEvaluator() {}
+    
+    @Override
+    public boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException {
+        CompiledDslExpression compiled = compile(expression);
+        try {
+            logger.debug("Evaluating DSL expression: {}", expression);
+            return compiled.test(context);
+        } catch (Exception e) {
+            logger.error("Error evaluating DSL expression: {}", expression, e);
+            throw new ExpressionEvaluationException(
+                    "Failed to evaluate DSL expression: " + expression, e
+            );
+        }
+    }
+    
+    @Override
+    public void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+        compile(expression);
+    }
+    
+    @Override
+    public String getName() {
+        return "NATIVE";
+    }
+    
+    /**
+     * Returns the compiled form of an expression, compiling and caching it on first use.
+     */
+    CompiledDslExpression compile(String expression) throws ExpressionEvaluationException {
+        try {
+            return compiledExpressions.get(expression, source -> {
+                try {
+                    return DslCompiler.compile(source);
+                } catch (DslSyntaxException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            throw new ExpressionEvaluationException(
+                    "Failed to compile DSL expression: " + expression, e.getCause()
+            );
+        }
+    }
+}
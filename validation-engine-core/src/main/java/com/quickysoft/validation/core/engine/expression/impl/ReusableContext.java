@@ -0,0 +1,45 @@
+package com.quickysoft.validation.core.engine.expression.impl;
+
+/**
+ * Thread-confined holder for an evaluation context that is reused across evaluations.
+ * 
+ * Evaluators keep one instance per thread (via {@link ThreadLocal}) so that engine-side
+ * caches attached to the context survive between calls. The in-use flag guards against
+ * re-entrant evaluation on the same thread, in which case the caller falls back to a
+ * fresh context instead of clobbering the one already in use.
+ *
+ * @param <C> the evaluation context type
+ */
+final class ReusableContext<C> {
+    
+    private final C context;
+    private boolean inUse;
+    
+    ReusableContext(C context) {
+        this.context = context;
+    }
+    
+    /**
+     * Marks the context as in use.
+     * 
+     * @return true if the context was free and is now owned by the caller
+     */
+    boolean acquire() {
+        if (inUse) {
+            return false;
+        }
+        inUse = true;
+        return true;
+    }
+    
+    /**
+     * Releases the context for the next evaluation on this thread.
+     */
+    void release() {
+        inUse = false;
+    }
+    
+    C context() {
+        return context;
+    }
+}
@@ -2,11 +2,12 @@ package com.quickysoft.validation.core.engine.expression.impl;
 
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.accessor.PayloadPropertyAccessor;
+import com.quickysoft.validation.core.engine.expression.functions.ValidationFunctions;
 import com.quickysoft.validation.core.model.ValidationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -16,26 +17,36 @@ import java.util.Map;
 
 /**
  * SpEL (Spring Expression Language) implementation of ExpressionEvaluator.
+ * 
+ * Each thread keeps its own {@link StandardEvaluationContext} (with its property accessors),
+ * so the reflective accessor caches built up by SpEL survive across evaluations. Only the
+ * request-scoped variables are swapped in and out on every call.
  */
 public class SpELExpressionEvaluator extends AbstractExpressionEvaluator {
     
     private static final Logger logger = LoggerFactory.getLogger(SpELExpressionEvaluator.class);
     
     private final ExpressionParser parser = new SpelExpressionParser();
+    
+    /**
+     * Parsed expressions, keyed by source; SpEL expressions are thread-safe once parsed.
+     */
+    private final CompiledExpressionCache<String, Expression> expressions = new CompiledExpressionCache<>();
+    
+    private final ThreadLocal<ReusableContext<StandardEvaluationContext>> evaluationContexts =
+            ThreadLocal.withInitial(() -> new ReusableContext<>(createEvaluationContext()));
 
     SpELExpressionEvaluator() {}
     
     @Override
     public boolean evaluate(String expression, ValidationContext<?> context) throws ExpressionEvaluationException {
+        ReusableContext<StandardEvaluationContext> reusable = evaluationContexts.get();
+        // Re-entrant evaluation on the same thread gets a throwaway context
+        StandardEvaluationContext evalContext = reusable.acquire() ? reusable.context() : createEvaluationContext();
         try {
             logger.debug("Evaluating SpEL expression: {}", expression);
             
-            // Create evaluation context
-            StandardEvaluationContext evalContext = new StandardEvaluationContext();
-            // Enable dot notation access for Maps
-            evalContext.addPropertyAccessor(new MapAccessor());
-            
-            // Set root object (payload)
+            // Set request-scoped variables
             evalContext.setVariable("payload", context.payload());
 
             // Build and set nested context for hierarchical attributes
@@ -46,7 +57,7 @@ public class SpELExpressionEvaluator extends AbstractExpressionEvaluator {
             evalContext.setVariable("tenantId", context.contextAttributes().get("tenantId"));
             
             // Parse and evaluate expression
-            Expression expr = parser.parseExpression(expression);
+            Expression expr = expressions.get(expression, parser::parseExpression);
             Object result = expr.getValue(evalContext);
             
             // Convert to boolean
@@ -64,6 +75,23 @@ public class SpELExpressionEvaluator extends AbstractExpressionEvaluator {
             throw new ExpressionEvaluationException(
                     "Failed to evaluate SpEL expression: " + expression, e
             );
+        } finally {
+            // Drop request-scoped variables so the pooled context does not retain payloads
+            evalContext.setVariable("payload", null);
+            evalContext.setVariable("context", null);
+            evalContext.setVariable("tenantId", null);
+            if (evalContext == reusable.context()) {
+                reusable.release();
+            }
+        }
+    }
+    
+    @Override
+    public void prepare(String expression, String tenantId) throws ExpressionEvaluationException {
+        try {
+            expressions.get(expression, parser::parseExpression);
+        } catch (Exception e) {
+            throw new ExpressionEvaluationException("Failed to parse SpEL expression: " + expression, e);
         }
     }
     
@@ -71,5 +99,18 @@ public class SpELExpressionEvaluator extends AbstractExpressionEvaluator {
     public String getName() {
         return "SPEL";
     }
+    
+    /**
+     * Creates an evaluation context with the property accessors used by validation expressions.
+     */
+    private StandardEvaluationContext createEvaluationContext() {
+        StandardEvaluationContext evalContext = new StandardEvaluationContext();
+        // Enable dot notation access for Maps
+        evalContext.addPropertyAccessor(new MapAccessor());
+        // Bean properties through cached method handles, ahead of the reflective default
+        evalContext.addPropertyAccessor(new PayloadPropertyAccessor());
+        // Shared function library, available as #fn
+        evalContext.setVariable(ValidationFunctions.VARIABLE_NAME, ValidationFunctions.getInstance());
+        return evalContext;
+    }
 }
-
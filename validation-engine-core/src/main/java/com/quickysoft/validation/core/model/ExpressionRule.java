@@ -1,5 +1,7 @@
 package com.quickysoft.validation.core.model;
 
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Set;
@@ -7,6 +9,9 @@ import java.util.UUID;
 
 /**
  * Expression-based rule that evaluates a boolean expression (e.g., SpEL).
+ * 
+ * The optional {@code evaluatorType} selects the expression language for this rule;
+ * when null, the engine's configured default evaluator is used.
  */
 public record ExpressionRule(
         UUID id,
@@ -21,6 +26,7 @@ public record ExpressionRule(
         Map<String, String> metadata,
         String failureMessageTemplate,
         String expression,
+        ExpressionEvaluatorType evaluatorType,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
         ) implements Rule {
@@ -84,6 +90,7 @@ public record ExpressionRule(
         private Map<String, String> metadata = Map.of();
         private String failureMessageTemplate;
         private String expression;
+        private ExpressionEvaluatorType evaluatorType;
         
         public Builder id(UUID id) {
             this.id = id;
@@ -145,13 +152,19 @@ public record ExpressionRule(
             return this;
         }
         
+        public Builder evaluatorType(ExpressionEvaluatorType evaluatorType) {
+            this.evaluatorType = evaluatorType;
+            return this;
+        }
+        
         public ExpressionRule build() {
             if (id == null) {
                 id = UUID.randomUUID();
             }
             return new ExpressionRule(
                     id, tenantId, ruleCode, name, description, priority, enabled,
-                    severity, applicableContexts, metadata, failureMessageTemplate, expression, null, null
+                    severity, applicableContexts, metadata, failureMessageTemplate, expression,
+                    evaluatorType, null, null
             );
         }
     }
@@ -7,6 +7,9 @@ import java.util.UUID;
 
 /**
  * Groovy script-based rule that executes an external script.
+ * 
+ * The optional {@code compilationMode} selects dynamic, type-checked or static compilation
+ * for this rule's script; when null, the engine's configured default mode is used.
  */
 public record GroovyScriptRule(
         UUID id,
@@ -22,6 +25,7 @@ public record GroovyScriptRule(
         String failureMessageTemplate,
         ScriptLocationType scriptLocationType,
         String scriptReference,
+        ScriptCompilationMode compilationMode,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
 ) implements Rule {
@@ -89,6 +93,7 @@ public record GroovyScriptRule(
         private String failureMessageTemplate;
         private ScriptLocationType scriptLocationType;
         private String scriptReference;
+        private ScriptCompilationMode compilationMode;
         
         public Builder id(UUID id) {
             this.id = id;
@@ -155,6 +160,11 @@ public record GroovyScriptRule(
             return this;
         }
         
+        public Builder compilationMode(ScriptCompilationMode compilationMode) {
+            this.compilationMode = compilationMode;
+            return this;
+        }
+        
         public GroovyScriptRule build() {
             if (id == null) {
                 id = UUID.randomUUID();
@@ -162,7 +172,7 @@ public record GroovyScriptRule(
             return new GroovyScriptRule(
                     id, tenantId, ruleCode, name, description, priority, enabled,
                     severity, applicableContexts, metadata, failureMessageTemplate,
-                    scriptLocationType, scriptReference, null, null
+                    scriptLocationType, scriptReference, compilationMode, null, null
             );
         }
     }
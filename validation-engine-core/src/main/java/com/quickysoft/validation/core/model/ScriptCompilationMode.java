@@ -0,0 +1,22 @@
+package com.quickysoft.validation.core.model;
+
+/**
+ * How Groovy script rules are compiled.
+ */
+public enum ScriptCompilationMode {
+    /**
+     * Plain dynamic Groovy; variables are resolved through the script binding.
+     */
+    DYNAMIC,
+    
+    /**
+     * Dynamic dispatch, but the script must pass static type checking ({@code @TypeChecked}).
+     */
+    TYPE_CHECKED,
+    
+    /**
+     * Statically compiled ({@code @CompileStatic}); calls are bound at compile time and run
+     * without metaclass lookups.
+     */
+    STATIC
+}
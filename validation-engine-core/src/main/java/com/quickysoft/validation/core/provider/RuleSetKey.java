@@ -0,0 +1,20 @@
+package com.quickysoft.validation.core.provider;
+
+import com.quickysoft.validation.core.model.RuleSet;
+
+/**
+ * Identifies a rule set version of a tenant.
+ *
+ * @param tenantId the tenant identifier
+ * @param ruleSetCode the rule set code
+ * @param version the version
+ */
+public record RuleSetKey(String tenantId, String ruleSetCode, String version) {
+    
+    /**
+     * Returns the key of a rule set.
+     */
+    public static RuleSetKey of(RuleSet ruleSet) {
+        return new RuleSetKey(ruleSet.tenantId(), ruleSet.code(), ruleSet.version());
+    }
+}
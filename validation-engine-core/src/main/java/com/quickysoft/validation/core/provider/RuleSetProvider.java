@@ -2,6 +2,12 @@ package com.quickysoft.validation.core.provider;
 
 import com.quickysoft.validation.core.model.RuleSet;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Provider interface for retrieving rule sets.
  * 
@@ -21,6 +27,24 @@ public interface RuleSetProvider {
      */
     RuleSet getRuleSet(String tenantId, String ruleSetCode, String version);
     
+    /**
+     * Retrieves several rule sets at once. The default implementation looks them up one by one;
+     * providers should override it to batch cache and persistence round-trips.
+     *
+     * @param keys the rule sets to retrieve
+     * @return the rule sets found, by key (keys that do not exist are absent)
+     */
+    default Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, RuleSet> ruleSets = new LinkedHashMap<>();
+        for (RuleSetKey key : keys) {
+            RuleSet ruleSet = getRuleSet(key.tenantId(), key.ruleSetCode(), key.version());
+            if (ruleSet != null) {
+                ruleSets.put(key, ruleSet);
+            }
+        }
+        return ruleSets;
+    }
+    
     /**
      * Evicts a rule set from cache.
      *
@@ -36,5 +60,21 @@ public interface RuleSetProvider {
      * @param ruleSet the rule set to cache
      */
     void cacheRuleSet(RuleSet ruleSet);
+    
+    /**
+     * Gets the version stamp (last-modified time) of a rule set, used by prepared rule set
+     * handles to detect changes without loading the full rule set on every request.
+     * 
+     * The default implementation loads the rule set; providers should override it with a
+     * cheaper lookup.
+     *
+     * @param tenantId the tenant identifier
+     * @param ruleSetCode the rule set code
+     * @param version the version
+     * @return the stamp, or empty if the rule set does not exist or has no stamp
+     */
+    default Optional<Instant> getVersionStamp(String tenantId, String ruleSetCode, String version) {
+        RuleSet ruleSet = getRuleSet(tenantId, ruleSetCode, version);
+        return ruleSet != null ? Optional.ofNullable(ruleSet.updatedAt()) : Optional.empty();
+    }
 }
-
@@ -0,0 +1,123 @@
+package com.quickysoft.validation.core.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CompositeScriptLoader.
+ */
+class CompositeScriptLoaderTest {
+    
+    @Test
+    void testFailedLoadIsCachedBriefly() throws Exception {
+        FailingLoader source = new FailingLoader(true);
+        CompositeScriptLoader loader = new CompositeScriptLoader();
+        loader.addLoader(source);
+        
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/missing.groovy"))
+                    .isInstanceOf(ScriptLoadException.class)
+                    .hasMessageContaining("not found")
+                    .matches(e -> ((ScriptLoadException) e).isNotFound());
+        }
+        assertThat(source.attempts).hasValue(1);
+        
+        loader.evictFailure("tenant-a", "scripts/missing.groovy");
+        assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/missing.groovy"))
+                .isInstanceOf(ScriptLoadException.class);
+        assertThat(source.attempts).hasValue(2);
+    }
+    
+    @Test
+    void testCircuitOpensAfterConsecutiveSourceFailures() throws Exception {
+        FailingLoader source = new FailingLoader(false);
+        CompositeScriptLoader loader = new CompositeScriptLoader();
+        loader.addLoader(source);
+        loader.setNegativeCacheTtl(Duration.ZERO);
+        loader.setCircuitBreaker(2, Duration.ofMillis(200));
+        
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/a.groovy"))
+                    .hasMessageContaining("connection refused");
+        }
+        // Open: other scripts of the same source fail without touching it
+        assertThatThrownBy(() -> loader.loadScript("tenant-b", "scripts/b.groovy"))
+                .isInstanceOf(ScriptLoadException.class)
+                .hasMessageContaining("circuit open");
+        assertThat(source.attempts).hasValue(2);
+        
+        // After the open period a successful trial closes the circuit
+        source.available = true;
+        Thread.sleep(250);
+        assertThat(loader.loadScript("tenant-b", "scripts/b.groovy")).isEqualTo("return true");
+        assertThat(loader.loadScript("tenant-a", "scripts/a.groovy")).isEqualTo("return true");
+        assertThat(source.attempts).hasValue(4);
+    }
+    
+    @Test
+    void testUncheckedFailuresCountAndEndTheTrial() throws Exception {
+        FailingLoader source = new FailingLoader(false);
+        source.unchecked = true;
+        CompositeScriptLoader loader = new CompositeScriptLoader();
+        loader.addLoader(source);
+        loader.setCircuitBreaker(2, Duration.ofMillis(100));
+        
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/a.groovy"))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/a.groovy"))
+                .isInstanceOf(ScriptLoadException.class)
+                .hasMessageContaining("circuit open")
+                .matches(e -> ((ScriptLoadException) e).isRepeated());
+        
+        // A trial that throws keeps the circuit open, but lets the next trial through
+        Thread.sleep(150);
+        assertThatThrownBy(() -> loader.loadScript("tenant-a", "scripts/a.groovy"))
+                .isInstanceOf(IllegalStateException.class);
+        source.available = true;
+        Thread.sleep(150);
+        assertThat(loader.loadScript("tenant-a", "scripts/a.groovy")).isEqualTo("return true");
+        assertThat(source.attempts).hasValue(4);
+    }
+    
+    /**
+     * Loader whose scripts are missing, or whose source is down until made available.
+     */
+    private static final class FailingLoader implements ScriptLoader {
+        
+        private final boolean missing;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile boolean available;
+        private volatile boolean unchecked;
+        
+        FailingLoader(boolean missing) {
+            this.missing = missing;
+        }
+        
+        @Override
+        public String loadScript(String tenantId, String location) throws ScriptLoadException {
+            attempts.incrementAndGet();
+            if (available) {
+                return "return true";
+            }
+            if (unchecked) {
+                throw new IllegalStateException("Unexpected response for " + location);
+            }
+            if (missing) {
+                throw new ScriptLoadException("Script not found: " + location, null, true);
+            }
+            throw new ScriptLoadException("Failed to load " + location + ": connection refused");
+        }
+        
+        @Override
+        public boolean supports(String location) {
+            return true;
+        }
+    }
+}
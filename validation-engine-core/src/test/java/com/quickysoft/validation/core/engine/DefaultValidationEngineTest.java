@@ -0,0 +1,278 @@
+package com.quickysoft.validation.core.engine;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorRegistry;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.engine.expression.ExpressionRuleExecutor;
+import com.quickysoft.validation.core.model.ExpressionRule;
+import com.quickysoft.validation.core.model.GroovyScriptRule;
+import com.quickysoft.validation.core.model.Rule;
+import com.quickysoft.validation.core.model.RuleResult;
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.model.RuleSetResult;
+import com.quickysoft.validation.core.model.RuleSetStatus;
+import com.quickysoft.validation.core.model.ScriptLocationType;
+import com.quickysoft.validation.core.model.Severity;
+import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validation.core.provider.RuleSetProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for eager rule set preparation and prepared rule set handles in DefaultValidationEngine.
+ */
+class DefaultValidationEngineTest {
+    
+    private final GroovyScriptCache scriptCache = new GroovyScriptCache();
+    
+    private final DefaultValidationEngine engine = new DefaultValidationEngine(null, List.of(
+            new ExpressionRuleExecutor(ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL)),
+            new GroovyScriptRuleExecutor(null, scriptCache)), null);
+    
+    @Test
+    void testPrepareCompilesEveryRuleAndReportsFailures() {
+        RuleSet ruleSet = ruleSet(
+                expressionRule("spel-ok", "#payload > 10", null),
+                expressionRule("mvel-ok", "payload > 10", ExpressionEvaluatorType.MVEL),
+                expressionRule("jexl-broken", "payload >", ExpressionEvaluatorType.JEXL),
+                groovyRule("groovy-ok", "return payload > 10"),
+                groovyRule("groovy-broken", "return payload >"));
+        
+        PreparationReport report = engine.prepare(ruleSet, 42, Map.of(), 3);
+        
+        assertThat(report.preparedRules()).isEqualTo(3);
+        assertThat(report.failures()).containsOnlyKeys("jexl-broken", "groovy-broken");
+        assertThat(report.isSuccessful()).isFalse();
+        assertThat(scriptCache.getCacheSize()).isEqualTo(1);
+        assertThatThrownBy(report::throwIfFailed)
+                .isInstanceOf(RuleExecutionException.class)
+                .hasMessageContaining("groovy-broken");
+    }
+    
+    @Test
+    void testPreparedRuleSetSkipsLookupsAndRefreshesOnStampChange() throws RuleExecutionException {
+        AtomicReference<RuleSet> stored = new AtomicReference<>(ruleSet(Instant.parse("2024-01-01T00:00:00Z"),
+                expressionRule("limit", "#payload > 10", null)));
+        AtomicInteger lookups = new AtomicInteger();
+        RuleSetProvider provider = new RuleSetProvider() {
+            @Override
+            public RuleSet getRuleSet(String tenantId, String ruleSetCode, String version) {
+                lookups.incrementAndGet();
+                return stored.get();
+            }
+            
+            @Override
+            public Optional<Instant> getVersionStamp(String tenantId, String ruleSetCode, String version) {
+                return Optional.ofNullable(stored.get().updatedAt());
+            }
+            
+            @Override
+            public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
+            }
+            
+            @Override
+            public void cacheRuleSet(RuleSet ruleSet) {
+            }
+        };
+        DefaultValidationEngine engine = new DefaultValidationEngine(provider, List.of(
+                new ExpressionRuleExecutor(ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL))),
+                null);
+        engine.setPreparedRefreshInterval(Duration.ZERO);
+        
+        PreparedRuleSet prepared = engine.prepare("T1", "ORDER", "1");
+        assertThat(prepared.evaluate(42, Map.of()).overallStatus()).isEqualTo(RuleSetStatus.PASS);
+        assertThat(prepared.evaluate(42, Map.of()).overallStatus()).isEqualTo(RuleSetStatus.PASS);
+        assertThat(lookups).hasValue(1);
+        
+        stored.set(ruleSet(Instant.parse("2024-01-02T00:00:00Z"), expressionRule("limit", "#payload > 100", null)));
+        assertThat(prepared.evaluate(42, Map.of()).overallStatus()).isEqualTo(RuleSetStatus.FAIL);
+        assertThat(lookups).hasValue(2);
+    }
+    
+    @Test
+    void testWarmUpEvaluatesSamplePayload() {
+        CountingExecutor executor = new CountingExecutor(null);
+        DefaultValidationEngine engine = new DefaultValidationEngine(null, List.of(executor), null);
+        
+        PreparationReport report = engine.prepare(ruleSet(expressionRule("limit", "#payload > 10", null)),
+                42, Map.of("channel", "web"), 5);
+        
+        assertThat(report.isSuccessful()).isTrue();
+        assertThat(executor.prepared).hasValue(1);
+        assertThat(executor.executed).hasValue(5);
+        assertThat(executor.lastPayload.get()).isEqualTo(42);
+    }
+    
+    @Test
+    void testConcurrentFirstRequestsShareOnePreparation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingExecutor executor = new CountingExecutor(release);
+        RuleSet ruleSet = ruleSet(Instant.parse("2024-01-01T00:00:00Z"), expressionRule("limit", "#payload > 10", null));
+        RuleSetProvider provider = new RuleSetProvider() {
+            @Override
+            public RuleSet getRuleSet(String tenantId, String ruleSetCode, String version) {
+                return ruleSet;
+            }
+            
+            @Override
+            public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
+            }
+            
+            @Override
+            public void cacheRuleSet(RuleSet ruleSet) {
+            }
+        };
+        DefaultValidationEngine engine = new DefaultValidationEngine(provider, List.of(executor), null);
+        
+        ExecutorService requestThreads = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<RuleSetStatus>> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return engine.evaluate("T1", "ORDER", "1", 42, Map.of()).overallStatus();
+                } catch (RuleExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, requestThreads));
+        }
+        // Let every request reach the preparation before it completes
+        assertThat(executor.preparing.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        release.countDown();
+        
+        for (CompletableFuture<RuleSetStatus> request : requests) {
+            assertThat(request.get(5, TimeUnit.SECONDS)).isEqualTo(RuleSetStatus.PASS);
+        }
+        requestThreads.shutdown();
+        assertThat(executor.prepared).hasValue(1);
+        assertThat(executor.executed).hasValue(4);
+    }
+    
+    @Test
+    void testEnginesImplementingOnlyEvaluationGetDefaultPreparation() {
+        AtomicInteger evaluations = new AtomicInteger();
+        ValidationEngine minimal = new ValidationEngine() {
+            @Override
+            public <T> RuleSetResult evaluate(String tenantId, String ruleSetCode, T payload,
+                    Map<String, Object> contextAttributes) {
+                throw new UnsupportedOperationException();
+            }
+            
+            @Override
+            public <T> RuleSetResult evaluate(String tenantId, String ruleSetCode, String version, T payload,
+                    Map<String, Object> contextAttributes) {
+                throw new UnsupportedOperationException();
+            }
+            
+            @Override
+            public <T> RuleSetResult evaluate(RuleSet ruleSet, T payload, Map<String, Object> contextAttributes) {
+                evaluations.incrementAndGet();
+                return null;
+            }
+        };
+        
+        PreparationReport report = minimal.prepare(ruleSet(expressionRule("limit", "#payload > 10", null)),
+                42, Map.of(), 3);
+        
+        assertThat(report.isSuccessful()).isTrue();
+        assertThat(report.preparedRules()).isZero();
+        assertThat(evaluations).hasValue(3);
+        assertThatThrownBy(() -> minimal.prepare("T1", "ORDER", "1"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+    
+    private static RuleSet ruleSet(Rule... rules) {
+        return ruleSet(null, rules);
+    }
+    
+    private static RuleSet ruleSet(Instant updatedAt, Rule... rules) {
+        return RuleSet.builder()
+                .id(UUID.randomUUID())
+                .tenantId("T1")
+                .code("ORDER")
+                .name("Order checks")
+                .version("1")
+                .rules(List.of(rules))
+                .updatedAt(updatedAt)
+                .build();
+    }
+    
+    private static ExpressionRule expressionRule(String code, String expression, ExpressionEvaluatorType type) {
+        return ExpressionRule.builder()
+                .tenantId("T1")
+                .ruleCode(code)
+                .name(code)
+                .severity(Severity.ERROR)
+                .expression(expression)
+                .evaluatorType(type)
+                .build();
+    }
+    
+    private static GroovyScriptRule groovyRule(String code, String script) {
+        return GroovyScriptRule.builder()
+                .id(UUID.randomUUID())
+                .tenantId("T1")
+                .ruleCode(code)
+                .name(code)
+                .scriptLocationType(ScriptLocationType.INLINE)
+                .scriptReference(script)
+                .build();
+    }
+    
+    /**
+     * Executor that passes every rule and counts preparations and executions.
+     */
+    private static final class CountingExecutor implements RuleExecutor {
+        
+        private final CountDownLatch release;
+        private final CountDownLatch preparing = new CountDownLatch(1);
+        private final AtomicInteger prepared = new AtomicInteger();
+        private final AtomicInteger executed = new AtomicInteger();
+        private final AtomicReference<Object> lastPayload = new AtomicReference<>();
+        
+        CountingExecutor(CountDownLatch release) {
+            this.release = release;
+        }
+        
+        @Override
+        public RuleResult execute(Rule rule, ValidationContext<?> context) {
+            executed.incrementAndGet();
+            lastPayload.set(context.payload());
+            return RuleResult.passed(rule.id(), rule.tenantId(), rule.ruleCode(), rule.name(), rule.severity());
+        }
+        
+        @Override
+        public boolean supports(Rule rule) {
+            return true;
+        }
+        
+        @Override
+        public void prepare(Rule rule) {
+            prepared.incrementAndGet();
+            preparing.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
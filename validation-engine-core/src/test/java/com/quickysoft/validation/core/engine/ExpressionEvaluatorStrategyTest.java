@@ -104,6 +104,26 @@ class ExpressionEvaluatorStrategyTest {
         assertThat(evaluator.getName()).isEqualTo("JEXL");
     }
     
+    @Test
+    void testReusedContextDoesNotLeakVariables() throws ExpressionEvaluationException {
+        ExpressionEvaluator evaluator =
+                ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.MVEL);
+        
+        Customer customer = new Customer("John", 25, "john@example.com");
+        ValidationContext<Customer> withTenant = new ValidationContext<>(customer, Map.of("tenantId", "T1"));
+        ValidationContext<Customer> withoutTenant = new ValidationContext<>(customer, Map.of());
+        
+        // Script locals and tenantId from the first call must not be visible to the next one
+        assertThat(evaluator.evaluate("x = 1; tenantId == 'T1'", withTenant)).isTrue();
+        assertThat(evaluator.evaluate("isdef x", withoutTenant)).isFalse();
+        assertThat(evaluator.evaluate("isdef tenantId", withoutTenant)).isFalse();
+        
+        ExpressionEvaluator spel =
+                ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.SPEL);
+        assertThat(spel.evaluate("#tenantId == 'T1'", withTenant)).isTrue();
+        assertThat(spel.evaluate("#tenantId == null", withoutTenant)).isTrue();
+    }
+    
     @Test
     void testEvaluatorFailure() {
         ExpressionEvaluator evaluator = ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.SPEL);
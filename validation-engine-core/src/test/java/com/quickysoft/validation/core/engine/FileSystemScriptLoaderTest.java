@@ -0,0 +1,66 @@
+package com.quickysoft.validation.core.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FileSystemScriptLoader.
+ */
+class FileSystemScriptLoaderTest {
+    
+    @Test
+    void testChangedFileIsReloadedByModificationTime(@TempDir Path directory) throws Exception {
+        Path script = Files.writeString(directory.resolve("check.groovy"), "return true");
+        FileSystemScriptLoader loader = new FileSystemScriptLoader();
+        
+        String first = loader.loadScript("tenant-a", script.toString());
+        assertThat(loader.loadScript("tenant-a", script.toString())).isSameAs(first);
+        
+        Files.writeString(script, "return false");
+        Files.setLastModifiedTime(script, FileTime.from(Instant.now().plusSeconds(10)));
+        
+        assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return false");
+    }
+    
+    @Test
+    void testWatcherEvictsChangedFile(@TempDir Path directory) throws Exception {
+        Path script = Files.writeString(directory.resolve("check.groovy"), "return true");
+        try (FileSystemScriptLoader loader = new FileSystemScriptLoader(true)) {
+            assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return true");
+            
+            Files.writeString(script, "return false");
+            
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (loader.loadScript("tenant-a", script.toString()).equals("return true")
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return false");
+        }
+    }
+    
+    @Test
+    void testBackstopCatchesChangesTheWatcherMissed(@TempDir Path directory) throws Exception {
+        Path script = Files.writeString(directory.resolve("check.groovy"), "return true");
+        try (FileSystemScriptLoader loader = new FileSystemScriptLoader(true)) {
+            assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return true");
+            // Stop event delivery, as if the watch service lost the change
+            loader.close();
+            
+            Files.writeString(script, "return false");
+            Files.setLastModifiedTime(script, FileTime.from(Instant.now().plusSeconds(10)));
+            assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return true");
+            
+            loader.setWatchBackstopInterval(Duration.ZERO);
+            assertThat(loader.loadScript("tenant-a", script.toString())).isEqualTo("return false");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.quickysoft.validation.core.engine;
+
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
+import groovy.lang.Script;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for GroovyScriptCache.
+ */
+class GroovyScriptCacheTest {
+    
+    @Test
+    void testCacheIsBoundedAndEvictsLeastRecentlyUsed() throws RuleExecutionException {
+        GroovyScriptCache cache = new GroovyScriptCache(ScriptCompilationMode.DYNAMIC, 10);
+        Class<? extends Script> first = cache.getOrCompile("tenant-a", "script-0", "return 0");
+        
+        for (int i = 1; i <= 10; i++) {
+            // Keep the first script recently used
+            assertThat(cache.getOrCompile("tenant-a", "script-0", "return 0")).isSameAs(first);
+            cache.getOrCompile("tenant-a", "script-" + i, "return " + i);
+        }
+        
+        assertThat(cache.getCacheSize()).isLessThanOrEqualTo(10);
+        assertThat(cache.getOrCompile("tenant-a", "script-0", "return 0")).isSameAs(first);
+    }
+    
+    @Test
+    void testIdenticalScriptsShareOneClassAcrossTenants() throws RuleExecutionException {
+        GroovyScriptCache cache = new GroovyScriptCache();
+        Class<? extends Script> a = cache.getOrCompile("tenant-a", "check", "return payload != null");
+        Class<? extends Script> b = cache.getOrCompile("tenant-b", "other/check", "return payload != null");
+        
+        assertThat(a).isSameAs(b);
+        assertThat(cache.getCacheSize()).isEqualTo(1);
+        assertThat(cache.getTenantStats().get("tenant-a").bytecodeBytes()).isPositive();
+        
+        // Evicting one tenant keeps the class the other still uses
+        cache.evictTenant("tenant-a");
+        
+        assertThat(cache.getTenantStats()).containsOnlyKeys("tenant-b");
+        assertThat(cache.getCacheSize()).isEqualTo(1);
+    }
+    
+    @Test
+    void testChangedContentIsRecompiled() throws RuleExecutionException {
+        GroovyScriptCache cache = new GroovyScriptCache();
+        Class<? extends Script> original = cache.getOrCompile("tenant-a", "check", "return true");
+        Class<? extends Script> updated = cache.getOrCompile("tenant-a", "check", "return false");
+        
+        assertThat(updated).isNotSameAs(original);
+        // The old class is no longer referenced by any tenant
+        assertThat(cache.getCacheSize()).isEqualTo(1);
+    }
+    
+    @Test
+    void testConcurrentCallersShareOneCompilation() throws RuleExecutionException {
+        GroovyScriptCache cache = new GroovyScriptCache();
+        List<Runnable> queued = new ArrayList<>();
+        
+        CompletableFuture<Class<? extends Script>> first = cache.compileAsync("tenant-a", "check", "return true", null, queued::add);
+        CompletableFuture<Class<? extends Script>> second = cache.compileAsync("tenant-b", "check", "return true", null, queued::add);
+        
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        assertThat(queued).hasSize(1);
+        
+        queued.get(0).run();
+        
+        assertThat(first.join()).isSameAs(second.join());
+        assertThat(cache.getOrCompile("tenant-a", "check", "return true")).isSameAs(first.join());
+    }
+    
+    @Test
+    void testEvictedScriptWithClosuresCanBeUnloaded() throws Exception {
+        GroovyScriptCache cache = new GroovyScriptCache();
+        WeakReference<ClassLoader> loader = new WeakReference<>(cache.getOrCompile(
+                "tenant-a", "check", "return [1, 2, 3].every { it > 0 }").getClassLoader());
+        assertThat(cache.getTenantStats().get("tenant-a").loadedClasses()).isEqualTo(2);
+        
+        cache.evict("tenant-a", "check");
+        
+        // Nothing may hold the closure class either, or it keeps the script's loader alive
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertThat(loader.get()).isNull();
+    }
+    
+    @Test
+    void testCompiledBytecodeIsReusedAcrossRestarts(@TempDir Path directory) throws Exception {
+        String script = "return [1, 2, 3].every { it > 0 } && payload == 'ok'";
+        GroovyScriptCache first = new GroovyScriptCache();
+        first.setCompiledScriptStore(new CompiledScriptStore(directory));
+        first.getOrCompile("tenant-a", "check", script);
+        
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".classes"))).hasSize(1);
+        }
+        
+        // A new cache (as after a restart) defines the stored classes, closures included
+        GroovyScriptCache restarted = new GroovyScriptCache();
+        restarted.setCompiledScriptStore(new CompiledScriptStore(directory));
+        Class<? extends Script> loaded = restarted.getOrCompile("tenant-a", "check", script);
+        ValidationScript validationScript = (ValidationScript) loaded.getDeclaredConstructor().newInstance();
+        RuleExecutionContext executionContext = new RuleExecutionContext(null, "tenant-a", null, "check", "Check", Map.of());
+        
+        assertThat(validationScript.validate("ok", Map.of(), executionContext)).isEqualTo(true);
+        assertThat(restarted.getTenantStats().get("tenant-a").loadedClasses()).isEqualTo(2);
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for GroovyScriptRuleExecutor.
@@ -53,6 +54,25 @@ class GroovyScriptRuleExecutorTest {
                         return payload.age() >= minAge
                         """;
                 }
+                if ("inline-script-static".equals(location)) {
+                    return """
+                        import com.quickysoft.validation.core.engine.GroovyScriptRuleExecutorTest.Customer
+                        Customer customer = (Customer) payload
+                        return customer.age() >= 18 && tenantId == 'tenant-123'
+                        """;
+                }
+                if ("inline-script-binding".equals(location)) {
+                    return """
+                        if (binding.hasVariable('seen')) {
+                            return false
+                        }
+                        seen = true
+                        return payload.age() >= 18
+                        """;
+                }
+                if ("inline-script-static-invalid".equals(location)) {
+                    return "return payload.age() >= 18";
+                }
                 if ("s3-script-404".equals(location)) {
                     throw new ScriptLoadException("Script not found in S3: " + location);
                 }
@@ -208,6 +228,64 @@ class GroovyScriptRuleExecutorTest {
         assertThat(result.error()).isNotNull();
     }
     
+    @Test
+    void testStaticallyCompiledScript() throws RuleExecutionException {
+        GroovyScriptRule rule = GroovyScriptRule.builder()
+                .id(UUID.randomUUID())
+                .tenantId("tenant-123")
+                .ruleCode("age-check-static")
+                .name("Static Age Validation")
+                .severity(Severity.ERROR)
+                .scriptLocationType(ScriptLocationType.LOCAL_FILE)
+                .scriptReference("inline-script-static")
+                .compilationMode(ScriptCompilationMode.STATIC)
+                .build();
+        
+        executor.prepare(rule);
+        
+        RuleResult passed = executor.execute(rule, new ValidationContext<>(new Customer("customer-1", 25), Map.of()), "test-ruleset");
+        RuleResult failed = executor.execute(rule, new ValidationContext<>(new Customer("customer-2", 16), Map.of()), "test-ruleset");
+        
+        assertThat(passed.status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(failed.status()).isEqualTo(RuleStatus.FAILED);
+    }
+    
+    @Test
+    void testStaticCheckFailureRejectedOnPrepare() {
+        // payload is declared as Object, so calling age() on it does not type check
+        GroovyScriptRule rule = GroovyScriptRule.builder()
+                .id(UUID.randomUUID())
+                .tenantId("tenant-123")
+                .ruleCode("age-check-untyped")
+                .name("Untyped Age Validation")
+                .severity(Severity.ERROR)
+                .scriptLocationType(ScriptLocationType.LOCAL_FILE)
+                .scriptReference("inline-script-static-invalid")
+                .compilationMode(ScriptCompilationMode.TYPE_CHECKED)
+                .build();
+        
+        assertThatThrownBy(() -> executor.prepare(rule)).isInstanceOf(RuleExecutionException.class);
+    }
+    
+    @Test
+    void testReusedScriptInstanceStartsWithCleanBinding() throws RuleExecutionException {
+        GroovyScriptRule rule = GroovyScriptRule.builder()
+                .id(UUID.randomUUID())
+                .tenantId("tenant-123")
+                .ruleCode("age-check-binding")
+                .name("Binding Age Validation")
+                .severity(Severity.ERROR)
+                .scriptLocationType(ScriptLocationType.LOCAL_FILE)
+                .scriptReference("inline-script-binding")
+                .build();
+        
+        ValidationContext<Customer> context = new ValidationContext<>(new Customer("customer-1", 25), Map.of());
+        
+        // The second run reuses the instance but must not see variables assigned by the first
+        assertThat(executor.execute(rule, context, "test-ruleset").status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(executor.execute(rule, context, "test-ruleset").status()).isEqualTo(RuleStatus.PASSED);
+    }
+    
     @Test
     void testSupports() {
         GroovyScriptRule rule = GroovyScriptRule.builder()
@@ -235,7 +313,7 @@ class GroovyScriptRuleExecutorTest {
     }
     
     // Helper class for testing
-    private record Customer(String id, Integer age) {
+    public record Customer(String id, Integer age) {
     }
 }
 
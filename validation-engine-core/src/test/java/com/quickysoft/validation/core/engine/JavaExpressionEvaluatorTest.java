@@ -0,0 +1,134 @@
+package com.quickysoft.validation.core.engine;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorRegistry;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
+import com.quickysoft.validation.core.engine.expression.impl.JavaExpressionEvaluator;
+import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validationengine.model.Product;
+import com.quickysoft.validationengine.model.ProductCategory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the in-process compiled Java expression evaluator.
+ */
+class JavaExpressionEvaluatorTest {
+    
+    private final ExpressionEvaluator evaluator =
+            ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JAVA);
+    
+    private final ValidationContext<Product> context = new ValidationContext<>(
+            new Product("P001", "Laptop", ProductCategory.ELECTRONICS, new BigDecimal("999.99")),
+            Map.of("tenantId", "T1", "maxPrice", new BigDecimal("1000")));
+    
+    @Test
+    void testTypedPayloadExpression() throws ExpressionEvaluationException {
+        String expression = "(com.quickysoft.validationengine.model.Product payload) -> "
+                + "payload.getPrice().compareTo((java.math.BigDecimal) context.get(\"maxPrice\")) < 0 "
+                + "&& \"T1\".equals(tenantId)";
+        
+        evaluator.prepare(expression, "T1");
+        
+        assertThat(evaluator.evaluate(expression, context)).isTrue();
+    }
+    
+    @Test
+    void testUntypedPayloadExpression() throws ExpressionEvaluationException {
+        assertThat(evaluator.evaluate("payload instanceof Product p && p.getCategory().name().equals(\"FOOD\")"
+                .replace("Product", Product.class.getName()), context)).isFalse();
+    }
+    
+    @Test
+    void testRuleTenantSelectsPreparedClasses() throws ExpressionEvaluationException {
+        // Evaluated inside the generated predicate, so getClass() is the compiled expression class
+        String expression = "getClass().getClassLoader().getName().equals(\"java-expressions-T2\")";
+        ValidationContext<Product> withoutTenant = new ValidationContext<>(context.payload(), Map.of());
+        
+        evaluator.prepare(expression, "T2");
+        
+        assertThat(evaluator.evaluate(expression, "T2", withoutTenant)).isTrue();
+    }
+    
+    @Test
+    void testPayloadClassesResolvedThroughContextClassLoader(@TempDir Path tempDir) throws Exception {
+        // Payload class packaged in a jar that is not on java.class.path, as in a Spring Boot fat jar
+        Path sources = Files.createDirectories(tempDir.resolve("src/com/acme"));
+        Files.writeString(sources.resolve("Order.java"),
+                "package com.acme; public record Order(int quantity) {}");
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-d", classes.toString(), sources.resolve("Order.java").toString())).isZero();
+        Path jar = tempDir.resolve("app.jar");
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+            output.putNextEntry(new JarEntry("com/"));
+            output.putNextEntry(new JarEntry("com/acme/"));
+            output.putNextEntry(new JarEntry("com/acme/Order.class"));
+            output.write(Files.readAllBytes(classes.resolve("com/acme/Order.class")));
+            output.closeEntry();
+        }
+        
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader appLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, previous)) {
+            thread.setContextClassLoader(appLoader);
+            ExpressionEvaluator appEvaluator =
+                    ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JAVA);
+            Object order = appLoader.loadClass("com.acme.Order").getConstructor(int.class).newInstance(3);
+            
+            assertThat(appEvaluator.evaluate("(com.acme.Order payload) -> payload.quantity() > 2",
+                    "T1", new ValidationContext<>(order, Map.of()))).isTrue();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+    
+    @Test
+    void testTenantLoaderIsReplacedWhenItReachesTheBound() throws ExpressionEvaluationException {
+        JavaExpressionEvaluator bounded = (JavaExpressionEvaluator)
+                ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JAVA);
+        bounded.setMaxExpressionsPerTenant(2);
+        Map<String, Object> loaders = new HashMap<>();
+        ValidationContext<Product> recording = new ValidationContext<>(context.payload(), loaders);
+        
+        for (String key : List.of("first", "second", "third")) {
+            assertThat(bounded.evaluate("context.put(\"" + key + "\", getClass().getClassLoader()) != this",
+                    "T1", recording)).isTrue();
+        }
+        
+        assertThat(loaders.get("second")).isSameAs(loaders.get("first"));
+        assertThat(loaders.get("third")).isNotSameAs(loaders.get("first"));
+    }
+    
+    @Test
+    void testBuiltInRegistryOnlyIncludesJavaWhenItIsTheDefault() {
+        assertThat(ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL).getRegisteredTypes())
+                .doesNotContain(ExpressionEvaluatorType.JAVA);
+        assertThat(ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.JAVA).getRegisteredTypes())
+                .contains(ExpressionEvaluatorType.JAVA);
+    }
+    
+    @Test
+    void testCompileErrorsSurfaceWhenPrepared() {
+        assertThatThrownBy(() -> evaluator.prepare("payload.noSuchMethod()", "T1"))
+                .isInstanceOf(ExpressionEvaluationException.class)
+                .hasMessageContaining("Failed to compile JAVA expression");
+    }
+}
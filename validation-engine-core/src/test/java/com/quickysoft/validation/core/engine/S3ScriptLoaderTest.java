@@ -1,7 +1,31 @@
 package com.quickysoft.validation.core.engine;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -13,11 +37,34 @@ class S3ScriptLoaderTest {
     
     private S3ScriptLoader loader;
     
+    // Shared so closing a loader (and its client) does not wait for an event loop shutdown
+    private static final SdkAsyncHttpClient httpClient = NettyNioAsyncHttpClient.create();
+    
+    private HttpServer s3Stub;
+    
+    // Stub bucket contents, keyed by "/bucket/key"
+    private final Map<String, String> objects = new ConcurrentHashMap<>();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger listRequests = new AtomicInteger();
+    
     @BeforeEach
     void setUp() {
         loader = new S3ScriptLoader("test-bucket", "scripts/", true);
     }
     
+    @AfterAll
+    static void closeHttpClient() {
+        httpClient.close();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (s3Stub != null) {
+            s3Stub.stop(0);
+        }
+    }
+    
     @Test
     void testSupports() {
         assertThat(loader.supports("s3://bucket/key")).isTrue();
@@ -62,5 +109,179 @@ class S3ScriptLoaderTest {
                 .isInstanceOf(ScriptLoadException.class)
                 .hasMessageContaining("S3 bucket name not configured");
     }
+    
+    @Test
+    void testStaleScriptIsRevalidatedWithConditionalGet() throws Exception {
+        objects.put("/test-bucket/scripts/tenant-123/rule.groovy", "return true");
+        try (S3ScriptLoader s3Loader = new S3ScriptLoader(stubClient(), "test-bucket", "scripts/", true)) {
+            s3Loader.setRevalidateAfter(Duration.ZERO);
+            
+            assertThat(s3Loader.loadScript("tenant-123", "rule.groovy")).isEqualTo("return true");
+            assertThat(fullResponses).hasValue(1);
+            
+            // Stale: served from memory while S3 answers 304
+            assertThat(s3Loader.loadScript("tenant-123", "rule.groovy")).isEqualTo("return true");
+            awaitRequests(2);
+            assertThat(notModifiedResponses).hasValue(1);
+            
+            // Changed object: the next revalidation picks up the new content
+            objects.put("/test-bucket/scripts/tenant-123/rule.groovy", "return false");
+            s3Loader.loadScript("tenant-123", "rule.groovy");
+            awaitRequests(3);
+            assertThat(fullResponses).hasValue(2);
+            assertThat(s3Loader.loadScript("tenant-123", "rule.groovy")).isEqualTo("return false");
+        }
+    }
+    
+    @Test
+    void testDiskTierServesScriptsAfterRestart(@TempDir Path directory) throws Exception {
+        objects.put("/test-bucket/rule.groovy", "return true");
+        S3AsyncClient client = stubClient();
+        try (S3ScriptLoader first = new S3ScriptLoader(client, "test-bucket", "", false)) {
+            first.setDiskCacheDirectory(directory);
+            assertThat(first.loadScript("tenant-123", "rule.groovy")).isEqualTo("return true");
+        }
+        
+        try (S3ScriptLoader second = new S3ScriptLoader(stubClient(), "test-bucket", "", false)) {
+            second.setDiskCacheDirectory(directory);
+            assertThat(second.loadScript("tenant-123", "rule.groovy")).isEqualTo("return true");
+            // Only the background revalidation reached S3
+            awaitRequests(2);
+            assertThat(fullResponses).hasValue(1);
+            assertThat(notModifiedResponses).hasValue(1);
+        }
+    }
+    
+    @Test
+    void testPrefetchDownloadsTenantScriptsUpFront() throws Exception {
+        objects.put("/test-bucket/scripts/tenant-123/a.groovy", "return 'a'");
+        objects.put("/test-bucket/scripts/tenant-123/b.groovy", "return 'b'");
+        objects.put("/test-bucket/scripts/tenant-123/c.groovy", "return 'c'");
+        objects.put("/test-bucket/scripts/tenant-456/a.groovy", "return 'other'");
+        try (S3ScriptLoader s3Loader = new S3ScriptLoader(stubClient(), "test-bucket", "scripts/", true)) {
+            s3Loader.setMaxConcurrentFetches(2);
+            s3Loader.prefetch("tenant-123", List.of("a.groovy", "b.groovy", "c.groovy", "missing.groovy"));
+            
+            // One listing, one GET per existing script, nothing for the missing key
+            assertThat(listRequests).hasValue(1);
+            assertThat(fullResponses).hasValue(3);
+            
+            assertThat(s3Loader.loadScript("tenant-123", "a.groovy")).isEqualTo("return 'a'");
+            assertThat(s3Loader.loadScript("tenant-123", "c.groovy")).isEqualTo("return 'c'");
+            assertThat(fullResponses).hasValue(3);
+        }
+    }
+    
+    @Test
+    void testPrefetchWithSharedPrefixFetchesOnlyReferencedScripts() throws Exception {
+        objects.put("/test-bucket/scripts/a.groovy", "return 'a'");
+        objects.put("/test-bucket/scripts/b.groovy", "return 'b'");
+        objects.put("/test-bucket/scripts/unrelated.groovy", "return 'unrelated'");
+        try (S3ScriptLoader s3Loader = new S3ScriptLoader(stubClient(), "test-bucket", "scripts/", false)) {
+            s3Loader.prefetch("tenant-123", List.of("a.groovy", "b.groovy"));
+            
+            // The base prefix holds every rule set's scripts, so it is not listed
+            assertThat(listRequests).hasValue(0);
+            assertThat(fullResponses).hasValue(2);
+            assertThat(s3Loader.loadScript("tenant-123", "b.groovy")).isEqualTo("return 'b'");
+            assertThat(fullResponses).hasValue(2);
+        }
+    }
+    
+    @Test
+    void testMissingObjectFails() throws Exception {
+        try (S3ScriptLoader s3Loader = new S3ScriptLoader(stubClient(), "test-bucket", "", false)) {
+            assertThatThrownBy(() -> s3Loader.loadScript("tenant-123", "missing.groovy"))
+                    .isInstanceOf(ScriptLoadException.class)
+                    .hasMessageContaining("Script not found in S3");
+        }
+    }
+    
+    /**
+     * Starts a path-style S3 stub that honours If-None-Match, and returns a client for it.
+     */
+    private S3AsyncClient stubClient() throws Exception {
+        if (s3Stub == null) {
+            s3Stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            s3Stub.createContext("/", exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                if (query != null && query.contains("list-type=2")) {
+                    listRequests.incrementAndGet();
+                    byte[] listing = listBucket(query).getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/xml");
+                    exchange.sendResponseHeaders(200, listing.length);
+                    exchange.getResponseBody().write(listing);
+                    exchange.close();
+                    return;
+                }
+                String content = objects.get(exchange.getRequestURI().getPath());
+                if (content == null) {
+                    byte[] error = ("<Error><Code>NoSuchKey</Code><Message>Not found</Message></Error>")
+                            .getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/xml");
+                    exchange.sendResponseHeaders(404, error.length);
+                    exchange.getResponseBody().write(error);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = content.getBytes(StandardCharsets.UTF_8);
+                String etag = "\"" + md5(body) + "\"";
+                exchange.getResponseHeaders().add("ETag", etag);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedResponses.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    fullResponses.incrementAndGet();
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            });
+            s3Stub.start();
+        }
+        return S3AsyncClient.builder()
+                .httpClient(httpClient)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .endpointOverride(URI.create("http://127.0.0.1:" + s3Stub.getAddress().getPort()))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+    }
+    
+    private String listBucket(String query) {
+        String prefix = "";
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("prefix=")) {
+                prefix = URLDecoder.decode(parameter.substring(7), StandardCharsets.UTF_8);
+            }
+        }
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>test-bucket</Name><IsTruncated>false</IsTruncated>");
+        for (Map.Entry<String, String> object : objects.entrySet()) {
+            String key = object.getKey().substring("/test-bucket/".length());
+            if (key.startsWith(prefix)) {
+                byte[] body = object.getValue().getBytes(StandardCharsets.UTF_8);
+                xml.append("<Contents><Key>").append(key).append("</Key><ETag>&quot;").append(md5(body))
+                        .append("&quot;</ETag><Size>").append(body.length).append("</Size></Contents>");
+            }
+        }
+        return xml.append("</ListBucketResult>").toString();
+    }
+    
+    private void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (fullResponses.get() + notModifiedResponses.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Let the revalidation callback update the cache
+        Thread.sleep(50);
+    }
+    
+    private static String md5(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
-
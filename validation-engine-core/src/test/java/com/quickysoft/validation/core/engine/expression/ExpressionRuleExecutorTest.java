@@ -0,0 +1,147 @@
+package com.quickysoft.validation.core.engine.expression;
+
+import com.quickysoft.validation.core.engine.RuleExecutionException;
+import com.quickysoft.validation.core.engine.expression.dsl.FastPathExpression;
+import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
+import com.quickysoft.validation.core.model.ExpressionRule;
+import com.quickysoft.validation.core.model.RuleResult;
+import com.quickysoft.validation.core.model.RuleStatus;
+import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validationengine.model.Product;
+import com.quickysoft.validationengine.model.ProductCategory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for per-rule evaluator selection and the fast path in ExpressionRuleExecutor.
+ */
+class ExpressionRuleExecutorTest {
+    
+    private final ValidationContext<String> context =
+            new ValidationContext<>("payload", Map.of("channel", "WEB"));
+    
+    @Test
+    void testRulesInOneRuleSetUseTheirOwnLanguage() throws RuleExecutionException {
+        ExpressionRuleExecutor executor = new ExpressionRuleExecutor(
+                ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL));
+        
+        // SpEL syntax via the default evaluator
+        RuleResult spel = executor.execute(rule("#context.channel == 'WEB'", null), context);
+        // MVEL and JEXL syntax selected per rule
+        RuleResult mvel = executor.execute(rule("context.channel == 'WEB'", ExpressionEvaluatorType.MVEL), context);
+        RuleResult jexl = executor.execute(rule("context.channel == 'WEB'", ExpressionEvaluatorType.JEXL), context);
+        
+        assertThat(spel.status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(mvel.status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(jexl.status()).isEqualTo(RuleStatus.PASSED);
+    }
+    
+    @Test
+    void testUnregisteredEvaluatorTypeReturnsError() throws RuleExecutionException {
+        ExpressionRuleExecutor executor = new ExpressionRuleExecutor(
+                ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.SPEL));
+        
+        RuleResult result = executor.execute(rule("context.channel == 'WEB'", ExpressionEvaluatorType.MVEL), context);
+        
+        assertThat(result.status()).isEqualTo(RuleStatus.ERROR);
+        assertThat(result.message()).contains("No expression evaluator registered for type: MVEL");
+    }
+    
+    @Test
+    void testFastPathMatchesConfiguredEngines() throws RuleExecutionException {
+        Product product = new Product("P001", null, ProductCategory.ELECTRONICS, new BigDecimal("99.50"));
+        ValidationContext<Product> productContext = new ValidationContext<>(product,
+                Map.of("tenantId", "T1", "channel", "WEB", "order.currency", "USD", "limit", 100));
+        List<String> expressions = List.of(
+                "payload.price < 100",
+                "payload.price > 100.00 || context.channel == 'WEB'",
+                "(payload.price <= context.limit && context.order.currency == 'USD') || payload.productId == 'X'",
+                "payload.productId == 'P001' && tenantId != 'T2'",
+                "payload.category == 'ELECTRONICS'",
+                "payload.description == 'Laptop'",
+                "payload.price >= 18 && payload.productId.length() == 4");
+        
+        for (ExpressionEvaluatorType type : List.of(
+                ExpressionEvaluatorType.SPEL, ExpressionEvaluatorType.MVEL, ExpressionEvaluatorType.JEXL)) {
+            ExpressionRuleExecutor fast = new ExpressionRuleExecutor(ExpressionEvaluatorRegistry.withBuiltInEvaluators(type));
+            ExpressionRuleExecutor full = new ExpressionRuleExecutor(ExpressionEvaluatorRegistry.withBuiltInEvaluators(type));
+            full.setFastPathEnabled(false);
+            for (String expression : expressions) {
+                String source = type == ExpressionEvaluatorType.SPEL
+                        ? expression.replaceAll("\\b(payload|context|tenantId)\\b", "#$1")
+                        : expression;
+                assertThat(fast.execute(rule(source, null), productContext).status())
+                        .as("%s: %s", type, source)
+                        .isEqualTo(full.execute(rule(source, null), productContext).status());
+            }
+            
+            // Simple comparisons are answered by the fast path, the rest is left to the engine
+            String simple = type == ExpressionEvaluatorType.SPEL
+                    ? "#context.limit >= 100 && #context.channel == 'WEB'"
+                    : "context.limit >= 100 && context.channel == 'WEB'";
+            assertThat(FastPathExpression.classify(simple, type).evaluate(productContext)).isTrue();
+            assertThat(FastPathExpression.classify("payload.productId.length() == 4", type)).isNull();
+        }
+    }
+    
+    @Test
+    void testPrepareReportsExpressionsTheEngineRejectsEvenOnTheFastPath() {
+        ExpressionRuleExecutor executor = new ExpressionRuleExecutor(
+                ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL));
+        // The fast path reads the literal as a long; SpEL only accepts it with an 'L' suffix
+        String expression = "#context.amount < 99999999999";
+        assertThat(FastPathExpression.classify(expression, ExpressionEvaluatorType.SPEL)).isNotNull();
+        
+        assertThatThrownBy(() -> executor.prepare(rule(expression, null)))
+                .isInstanceOf(RuleExecutionException.class)
+                .hasMessageContaining("Failed to prepare expression rule R1");
+    }
+    
+    @Test
+    void testRulesArePartiallyEvaluatedAgainstTenantConstants() throws RuleExecutionException {
+        ExpressionRuleExecutor executor = new ExpressionRuleExecutor(
+                ExpressionEvaluatorRegistry.withBuiltInEvaluators(ExpressionEvaluatorType.SPEL));
+        TenantConstants constants = new TenantConstants();
+        constants.declare("T1", Map.of("tier", "premium"));
+        executor.setTenantConstants(constants);
+        
+        String expression = "#context.tier == 'basic' || #context.amount < 10000";
+        ExpressionRule rule = rule(expression, null);
+        executor.prepare(rule);
+        
+        // Residual after folding the constant branch: #context.amount < 10000
+        FastPathExpression residual = FastPathExpression.classify(
+                expression, ExpressionEvaluatorType.SPEL, constants.get("T1"));
+        assertThat(residual.getFoldedAttributes()).containsExactly("tier");
+        assertThat(FastPathExpression.classify("#context.tier == 'premium'",
+                ExpressionEvaluatorType.SPEL, constants.get("T1")).isConstant()).isTrue();
+        
+        RuleResult premium = executor.execute(rule,
+                new ValidationContext<>("payload", Map.of("tier", "premium", "amount", 500)));
+        // A context that does not carry the declared value is evaluated in full
+        RuleResult basic = executor.execute(rule,
+                new ValidationContext<>("payload", Map.of("tier", "basic", "amount", 50000)));
+        RuleResult tooLarge = executor.execute(rule,
+                new ValidationContext<>("payload", Map.of("tier", "premium", "amount", 50000)));
+        
+        assertThat(premium.status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(basic.status()).isEqualTo(RuleStatus.PASSED);
+        assertThat(tooLarge.status()).isEqualTo(RuleStatus.FAILED);
+    }
+    
+    private ExpressionRule rule(String expression, ExpressionEvaluatorType evaluatorType) {
+        return ExpressionRule.builder()
+                .tenantId("T1")
+                .ruleCode("R1")
+                .name("R1")
+                .expression(expression)
+                .evaluatorType(evaluatorType)
+                .build();
+    }
+}
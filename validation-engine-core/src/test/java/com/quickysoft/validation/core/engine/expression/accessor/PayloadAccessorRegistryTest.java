@@ -0,0 +1,99 @@
+package com.quickysoft.validation.core.engine.expression.accessor;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
+import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validationengine.model.LineItem;
+import com.quickysoft.validationengine.model.Product;
+import com.quickysoft.validationengine.model.ProductCategory;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.junit.jupiter.api.Test;
+import org.mvel2.integration.PropertyHandlerFactory;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the shared payload accessors and their engine adapters.
+ */
+class PayloadAccessorRegistryTest {
+    
+    private final LineItem lineItem = new LineItem("L1",
+            new Product("P1", "Laptop", ProductCategory.ELECTRONICS, new BigDecimal("10.50")), 2, null);
+    
+    private final ValidationContext<LineItem> context = new ValidationContext<>(lineItem, Map.of("tenantId", "T1"));
+    
+    @Test
+    void testGettersAreResolvedOnceAndCached() {
+        PayloadAccessorRegistry registry = PayloadAccessorRegistry.getInstance();
+        
+        assertThat(registry.beanGetter(LineItem.class, "product"))
+                .isNotNull()
+                .isSameAs(registry.beanGetter(LineItem.class, "product"));
+        assertThat(registry.beanGetter(LineItem.class, "missing")).isNull();
+    }
+    
+    @Test
+    void testSpelAndMvelReadNestedBeanProperties() throws ExpressionEvaluationException {
+        ExpressionEvaluatorFactory factory = ExpressionEvaluatorFactory.getInstance();
+        
+        assertThat(factory.getEvaluator(ExpressionEvaluatorType.SPEL).evaluate(
+                "#payload.product.price.compareTo(new java.math.BigDecimal('10.50')) == 0 && #payload.quantity == 2",
+                context)).isTrue();
+        for (int i = 0; i < 2; i++) {
+            assertThat(factory.getEvaluator(ExpressionEvaluatorType.MVEL).evaluate(
+                    "payload.product.price == 10.50 && payload.product.category.name() == 'ELECTRONICS'",
+                    context)).isTrue();
+        }
+        // MVEL's JVM-wide handler registry is left untouched
+        assertThat(PropertyHandlerFactory.hasPropertyHandler(LineItem.class)).isFalse();
+        assertThat(PropertyHandlerFactory.hasPropertyHandler(Product.class)).isFalse();
+    }
+    
+    @Test
+    void testMvelAssignmentCoercesThroughBeanSetters() throws ExpressionEvaluationException {
+        LineItem target = new LineItem("L2", lineItem.getProduct(), 1, null);
+        ValidationContext<LineItem> writable = new ValidationContext<>(target, Map.of());
+        
+        for (int i = 0; i < 2; i++) {
+            assertThat(ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.MVEL)
+                    .evaluate("payload.quantity = '" + (i + 5) + "'; payload.appliedDiscount = 0.5; "
+                            + "payload.quantity > 4", writable)).isTrue();
+        }
+        
+        assertThat(target.getQuantity()).isEqualTo(6);
+        assertThat(target.getAppliedDiscount()).isEqualByComparingTo("0.5");
+    }
+    
+    @Test
+    void testJexlUberspectKeepsPermissionsAndServesAllowedProperties() {
+        JexlEngine unrestricted = new JexlBuilder()
+                .uberspect(new PayloadUberspect(JexlPermissions.UNRESTRICTED)).create();
+        JexlEngine restricted = new JexlBuilder()
+                .uberspect(new PayloadUberspect(JexlPermissions.RESTRICTED)).strict(false).create();
+        MapContext jexlContext = new MapContext(Map.of("payload", lineItem));
+        
+        assertThat(unrestricted.createExpression("payload.product.price").evaluate(jexlContext))
+                .isEqualTo(new BigDecimal("10.50"));
+        assertThat(restricted.createExpression("payload.product").evaluate(jexlContext)).isNull();
+    }
+    
+    @Test
+    void testProductionJexlEvaluatorOnlyReadsPermittedTypes() throws ExpressionEvaluationException {
+        ExpressionEvaluator jexl = ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JEXL);
+        Map<String, Object> mapPayload = Map.of("product", Map.of("price", new BigDecimal("10.50")));
+        
+        assertThat(jexl.evaluate("payload.product.price == 10.50", new ValidationContext<>(mapPayload, Map.of())))
+                .isTrue();
+        assertThatThrownBy(() -> jexl.evaluate("payload.product.price == 10.50", context))
+                .isInstanceOf(ExpressionEvaluationException.class);
+    }
+}
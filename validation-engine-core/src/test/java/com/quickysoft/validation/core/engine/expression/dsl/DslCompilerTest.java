@@ -0,0 +1,139 @@
+package com.quickysoft.validation.core.engine.expression.dsl;
+
+import com.quickysoft.validation.core.model.Severity;
+import com.quickysoft.validation.core.model.ValidationContext;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the built-in validation DSL compiler.
+ */
+class DslCompilerTest {
+    
+    record Product(String sku, BigDecimal price) {
+    }
+    
+    record LineItem(Product product, int quantity) {
+    }
+    
+    record Order(String customer, Integer age, Severity severity, List<LineItem> lineItems) {
+    }
+    
+    private final Order order = new Order("alice", 30, Severity.ERROR, List.of(
+            new LineItem(new Product("P1", new BigDecimal("10.50")), 2),
+            new LineItem(new Product("P2", new BigDecimal("4.00")), 3)));
+    
+    private final ValidationContext<Order> context = new ValidationContext<>(order, Map.of(
+            "tenantId", "T1",
+            "channel", "WEB",
+            "limits.maxTotal", new BigDecimal("100"),
+            "cartTotal", new BigDecimal("33.00")));
+    
+    @Test
+    void testPropertyNavigationAndComparisons() throws DslSyntaxException {
+        assertThat(test("payload.age >= 18 && payload.customer == 'alice'")).isTrue();
+        assertThat(test("#payload.age > 30 or #tenantId == 'T1'")).isTrue();
+        assertThat(test("payload.severity == 'ERROR' and not (payload.age < 18)")).isTrue();
+        assertThatThrownBy(() -> test("payload.missing == 1"))
+                .hasMessageContaining("Unknown property 'missing'");
+    }
+    
+    @Test
+    void testContextAttributesResolveDottedKeys() throws DslSyntaxException {
+        assertThat(test("context.channel == 'WEB'")).isTrue();
+        assertThat(test("context.limits.maxTotal == 100")).isTrue();
+        assertThat(test("context.unknown?.value == null")).isTrue();
+        assertThat(test("context.unknown > 1")).isFalse();
+    }
+    
+    @Test
+    void testCollectionFunctionsUseExactDecimalArithmetic() throws DslSyntaxException {
+        assertThat(test("context.cartTotal == sum(payload.lineItems, li -> li.product.price * li.quantity)")).isTrue();
+        assertThat(test("all(payload.lineItems, li -> li.quantity > 0)")).isTrue();
+        assertThat(test("any(payload.lineItems, li -> li.product.sku == 'P3')")).isFalse();
+        assertThat(test("count(payload.lineItems) == 2 && max(payload.lineItems, li -> li.quantity) == 3")).isTrue();
+    }
+    
+    @Test
+    void testConstantSubExpressionsAreFolded() throws DslSyntaxException {
+        assertThat(DslCompiler.compile("1 + 2 * 3 == 7").isConstant()).isTrue();
+        assertThat(DslCompiler.compile("payload.age > 1 + 2").isConstant()).isFalse();
+    }
+    
+    @Test
+    void testTenantConstantsArePartiallyEvaluated() throws DslSyntaxException {
+        Map<String, Object> constants = Map.of("tenantId", "T1", "limits.maxTotal", new BigDecimal("100"));
+        
+        CompiledDslExpression folded = DslCompiler.compile("tenantId == 'T1' || context.limits.maxTotal > 50", constants);
+        CompiledDslExpression residual = DslCompiler.compile(
+                "tenantId == 'T2' || (context.limits.maxTotal >= 100 && payload.age > 18)", constants);
+        
+        assertThat(folded.isConstant()).isTrue();
+        assertThat(residual.isConstant()).isFalse();
+        assertThat(residual.getFoldedAttributes()).containsExactlyInAnyOrder("tenantId", "limits.maxTotal");
+        assertThat(residual.test(context)).isTrue();
+    }
+    
+    @Test
+    void testExpressionsRunAsGeneratedClassesBoundToThePayloadClass() throws DslSyntaxException {
+        CompiledDslExpression compiled = DslCompiler.compile(
+                "payload.age >= 18 && count(payload.lineItems, li -> li.quantity > 2) == 1");
+        
+        assertThat(compiled.test(context)).isTrue();
+        DslNode program = compiled.program(order);
+        assertThat(program.getClass().isHidden()).isTrue();
+        assertThat(compiled.program(order)).isSameAs(program);
+        
+        // Another payload class gets its own program; map payloads are read by key
+        Map<String, Object> mapPayload = Map.of("age", 17L, "lineItems", List.of());
+        assertThat(compiled.test(new ValidationContext<>(mapPayload, Map.of()))).isFalse();
+        assertThat(compiled.program(mapPayload)).isNotSameAs(program);
+        assertThat(compiled.program(mapPayload).getClass().isHidden()).isTrue();
+    }
+    
+    @Test
+    void testGeneratedCodeMatchesTheExpressionTree() throws DslSyntaxException {
+        LineItem item = new LineItem(null, 3);
+        ValidationContext<LineItem> itemContext = new ValidationContext<>(item, Map.of("tenantId", "T1"));
+        for (String expression : List.of(
+                "payload.quantity >= 3 && 2 < payload.quantity && payload.quantity != 4",
+                "payload.product.price > 1 || payload.product?.sku == null",
+                "payload.quantity * 2 == 6.0 and not (payload.quantity % 2 == 0)",
+                "tenantId == 'T1' && -payload.quantity < 0")) {
+            CompiledDslExpression compiled = DslCompiler.compile(expression);
+            assertThat(compiled.program(item).getClass().isHidden()).isTrue();
+            assertThat(compiled.evaluate(itemContext)).isEqualTo(Boolean.TRUE);
+        }
+        
+        assertThat(DslCompiler.compile("sum(payload.lineItems, li -> li.product.price * li.quantity)")
+                .evaluate(context)).isEqualTo(new BigDecimal("33.00"));
+        assertThat(DslCompiler.compile("distinctCount(payload.lineItems, li -> li.product.price.scale)")
+                .evaluate(context)).isEqualTo(1L);
+        assertThat(DslCompiler.compile("min(payload.lineItems, li -> li.quantity)").evaluate(context)).isEqualTo(2);
+        assertThat(DslCompiler.compile(
+                "all(payload.lineItems, li -> any(payload.lineItems, other -> other.quantity > li.quantity))")
+                .evaluate(context)).isEqualTo(Boolean.FALSE);
+    }
+    
+    @Test
+    void testInvalidExpressionsFailAtCompileTime() {
+        assertThatThrownBy(() -> DslCompiler.compile("payload.age >"))
+                .isInstanceOf(DslSyntaxException.class);
+        assertThatThrownBy(() -> DslCompiler.compile("unknown.value == 1"))
+                .isInstanceOf(DslSyntaxException.class)
+                .hasMessageContaining("Unknown variable 'unknown'");
+        assertThatThrownBy(() -> DslCompiler.compile("median(payload.lineItems)"))
+                .isInstanceOf(DslSyntaxException.class)
+                .hasMessageContaining("Unknown function 'median'");
+    }
+    
+    private boolean test(String expression) throws DslSyntaxException {
+        return DslCompiler.compile(expression).test(context);
+    }
+}
@@ -0,0 +1,68 @@
+package com.quickysoft.validation.core.engine.expression.functions;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluationException;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
+import com.quickysoft.validation.core.model.ValidationContext;
+import com.quickysoft.validationengine.model.LineItem;
+import com.quickysoft.validationengine.model.Product;
+import com.quickysoft.validationengine.model.ProductCategory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the function library shared by the SpEL, MVEL and JEXL evaluators.
+ */
+class ValidationFunctionsTest {
+    
+    private final List<LineItem> lineItems = List.of(
+            new LineItem("L1", new Product("P1", "Laptop", ProductCategory.ELECTRONICS, new BigDecimal("10.50")), 2, null),
+            new LineItem("L2", new Product("P2", "Phone", ProductCategory.ELECTRONICS, new BigDecimal("4.00")), 3, null),
+            new LineItem("L3", new Product("P1", "Laptop", ProductCategory.ELECTRONICS, new BigDecimal("10.50")), 1, null));
+    
+    private final ValidationContext<List<LineItem>> context =
+            new ValidationContext<>(lineItems, Map.of("tenantId", "T1", "cartTotal", new BigDecimal("43.50")));
+    
+    private final ValidationFunctions fn = ValidationFunctions.getInstance();
+    
+    @Test
+    void testAggregatesOverPropertyPaths() {
+        assertThat(fn.sum(lineItems, "quantity")).isEqualByComparingTo("6");
+        assertThat(fn.sumProduct(lineItems, "product.price", "quantity")).isEqualByComparingTo("43.50");
+        assertThat(fn.count(lineItems)).isEqualTo(3);
+        assertThat(fn.count(lineItems, "product.productId", "P1")).isEqualTo(2);
+        assertThat(fn.distinctCount(lineItems, "product.productId")).isEqualTo(2);
+        assertThat(fn.anyMatch(lineItems, "quantity", 3)).isTrue();
+        assertThat(fn.allMatch(lineItems, "product.category", ProductCategory.ELECTRONICS)).isTrue();
+        assertThat(fn.min(lineItems, "product.price")).isEqualTo(new BigDecimal("4.00"));
+        assertThat(fn.max(lineItems, "quantity")).isEqualTo(3);
+        assertThat(fn.sum(null, "quantity")).isEqualByComparingTo("0");
+        assertThat(fn.eq(new BigDecimal("1.0"), 1)).isTrue();
+        assertThat(fn.divide(1, 4)).isEqualByComparingTo("0.25");
+    }
+    
+    @Test
+    void testLibraryIsAvailableIdenticallyInEveryEvaluator() throws ExpressionEvaluationException {
+        String expression = "fn.eq(fn.sumProduct(payload, 'product.price', 'quantity'), context.cartTotal)"
+                + " && fn.distinctCount(payload, 'product.productId') == 2"
+                + " && fn.anyMatch(payload, 'quantity', 3)"
+                + " && fn.compare(fn.max(payload, 'product.price'), 10) > 0";
+        // SpEL addresses variables with '#'
+        String spel = expression.replaceAll("\\b(fn|payload|context)\\b", "#$1");
+        
+        assertThat(evaluate(ExpressionEvaluatorType.SPEL, spel)).isTrue();
+        assertThat(evaluate(ExpressionEvaluatorType.MVEL, expression)).isTrue();
+        assertThat(evaluate(ExpressionEvaluatorType.JEXL, expression)).isTrue();
+    }
+    
+    private boolean evaluate(ExpressionEvaluatorType type, String expression) throws ExpressionEvaluationException {
+        ExpressionEvaluator evaluator = ExpressionEvaluatorFactory.getInstance().getEvaluator(type);
+        return evaluator.evaluate(expression, context);
+    }
+}
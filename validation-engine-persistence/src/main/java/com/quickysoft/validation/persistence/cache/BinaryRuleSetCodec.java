@@ -0,0 +1,265 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.model.ExpressionRule;
+import com.quickysoft.validation.core.model.GroovyScriptRule;
+import com.quickysoft.validation.core.model.Rule;
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
+import com.quickysoft.validation.core.model.ScriptLocationType;
+import com.quickysoft.validation.core.model.Severity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary rule set codec.
+ * 
+ * Layout: a format version byte, a flags byte ({@link #FLAG_DEFLATED}), then the rule set fields
+ * in declaration order. Each rule is prefixed with a type tag. Strings are length-prefixed UTF-8
+ * (-1 for null), so embedded script sources of any size are supported; enums are stored by name.
+ * With compression enabled, bodies above {@value #COMPRESSION_THRESHOLD} bytes are deflated.
+ * 
+ * A new field means a new format version; data in an unknown version fails to decode and is
+ * treated as a cache miss.
+ */
+public class BinaryRuleSetCodec implements RuleSetCodec {
+    
+    static final byte FORMAT_VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+    
+    private static final int COMPRESSION_THRESHOLD = 512;
+    
+    private static final byte EXPRESSION_RULE = 1;
+    private static final byte GROOVY_SCRIPT_RULE = 2;
+    
+    private final boolean compress;
+    
+    /**
+     * @param compress whether to deflate large rule sets
+     */
+    public BinaryRuleSetCodec(boolean compress) {
+        this.compress = compress;
+    }
+    
+    @Override
+    public byte[] encode(RuleSet ruleSet) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            writeRuleSet(out, ruleSet);
+        }
+        boolean deflate = compress && body.size() > COMPRESSION_THRESHOLD;
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(deflate ? body.size() / 4 + 16 : body.size() + 2);
+        encoded.write(FORMAT_VERSION);
+        encoded.write(deflate ? FLAG_DEFLATED : 0);
+        if (deflate) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (OutputStream out = new DeflaterOutputStream(encoded, deflater)) {
+                body.writeTo(out);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            body.writeTo(encoded);
+        }
+        return encoded.toByteArray();
+    }
+    
+    @Override
+    public RuleSet decode(byte[] data) throws IOException {
+        if (data.length < 2 || data[0] != FORMAT_VERSION) {
+            throw new IOException("Unsupported rule set encoding (version byte " + (data.length > 0 ? data[0] : -1) + ")");
+        }
+        InputStream body = new ByteArrayInputStream(data, 2, data.length - 2);
+        if ((data[1] & FLAG_DEFLATED) != 0) {
+            body = new InflaterInputStream(body);
+        }
+        try (DataInputStream in = new DataInputStream(body)) {
+            return readRuleSet(in);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid encoded rule set: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void writeRuleSet(DataOutputStream out, RuleSet ruleSet) throws IOException {
+        writeUuid(out, ruleSet.id());
+        writeString(out, ruleSet.tenantId());
+        writeString(out, ruleSet.code());
+        writeString(out, ruleSet.name());
+        writeString(out, ruleSet.description());
+        writeString(out, ruleSet.version());
+        out.writeBoolean(ruleSet.active());
+        out.writeInt(ruleSet.rules().size());
+        for (Rule rule : ruleSet.rules()) {
+            writeRule(out, rule);
+        }
+        writeInstant(out, ruleSet.createdAt());
+        writeInstant(out, ruleSet.updatedAt());
+        writeString(out, ruleSet.createdBy());
+        writeString(out, ruleSet.updatedBy());
+    }
+    
+    private static RuleSet readRuleSet(DataInputStream in) throws IOException {
+        UUID id = readUuid(in);
+        String tenantId = readString(in);
+        String code = readString(in);
+        String name = readString(in);
+        String description = readString(in);
+        String version = readString(in);
+        boolean active = in.readBoolean();
+        int ruleCount = in.readInt();
+        List<Rule> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(readRule(in));
+        }
+        return new RuleSet(id, tenantId, code, name, description, version, active, Collections.unmodifiableList(rules),
+                readInstant(in), readInstant(in), readString(in), readString(in));
+    }
+    
+    private static void writeRule(DataOutputStream out, Rule rule) throws IOException {
+        out.writeByte(rule instanceof ExpressionRule ? EXPRESSION_RULE : GROOVY_SCRIPT_RULE);
+        writeUuid(out, rule.id());
+        writeString(out, rule.tenantId());
+        writeString(out, rule.ruleCode());
+        writeString(out, rule.name());
+        writeString(out, rule.description());
+        out.writeInt(rule.priority());
+        out.writeBoolean(rule.enabled());
+        writeEnum(out, rule.severity());
+        out.writeInt(rule.applicableContexts().size());
+        for (String context : rule.applicableContexts()) {
+            writeString(out, context);
+        }
+        out.writeInt(rule.metadata().size());
+        for (Map.Entry<String, String> entry : rule.metadata().entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+        writeString(out, rule.failureMessageTemplate());
+        if (rule instanceof ExpressionRule expressionRule) {
+            writeString(out, expressionRule.expression());
+            writeEnum(out, expressionRule.evaluatorType());
+        } else if (rule instanceof GroovyScriptRule groovyRule) {
+            writeEnum(out, groovyRule.scriptLocationType());
+            writeString(out, groovyRule.scriptReference());
+            writeEnum(out, groovyRule.compilationMode());
+        }
+        writeDateTime(out, rule.createdAt());
+        writeDateTime(out, rule.updatedAt());
+    }
+    
+    private static Rule readRule(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        UUID id = readUuid(in);
+        String tenantId = readString(in);
+        String ruleCode = readString(in);
+        String name = readString(in);
+        String description = readString(in);
+        int priority = in.readInt();
+        boolean enabled = in.readBoolean();
+        Severity severity = readEnum(in, Severity.class);
+        int contextCount = in.readInt();
+        Set<String> applicableContexts = new LinkedHashSet<>();
+        for (int i = 0; i < contextCount; i++) {
+            applicableContexts.add(readString(in));
+        }
+        int metadataCount = in.readInt();
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(readString(in), readString(in));
+        }
+        String failureMessageTemplate = readString(in);
+        return switch (type) {
+            case EXPRESSION_RULE -> new ExpressionRule(id, tenantId, ruleCode, name, description, priority, enabled,
+                    severity, Collections.unmodifiableSet(applicableContexts), Collections.unmodifiableMap(metadata),
+                    failureMessageTemplate, readString(in), readEnum(in, ExpressionEvaluatorType.class),
+                    readDateTime(in), readDateTime(in));
+            case GROOVY_SCRIPT_RULE -> new GroovyScriptRule(id, tenantId, ruleCode, name, description, priority,
+                    enabled, severity, Collections.unmodifiableSet(applicableContexts),
+                    Collections.unmodifiableMap(metadata), failureMessageTemplate,
+                    readEnum(in, ScriptLocationType.class), readString(in), readEnum(in, ScriptCompilationMode.class),
+                    readDateTime(in), readDateTime(in));
+            default -> throw new IOException("Unknown rule type tag: " + type);
+        };
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+    
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+    
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+    
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+    
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+    
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+    
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+    
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeInstant(out, value != null ? value.toInstant(ZoneOffset.UTC) : null);
+    }
+    
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        Instant instant = readInstant(in);
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
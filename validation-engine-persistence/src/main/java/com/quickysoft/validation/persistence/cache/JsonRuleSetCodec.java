@@ -0,0 +1,48 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quickysoft.validation.core.model.ExpressionRule;
+import com.quickysoft.validation.core.model.GroovyScriptRule;
+import com.quickysoft.validation.core.model.Rule;
+import com.quickysoft.validation.core.model.RuleSet;
+
+import java.io.IOException;
+
+/**
+ * JSON rule set codec.
+ * 
+ * Works on a copy of the given object mapper that records each rule's type in a {@code ruleType}
+ * property, so rules decode to the right {@link Rule} implementation, and that handles the
+ * {@code java.time} fields.
+ */
+public class JsonRuleSetCodec implements RuleSetCodec {
+    
+    private final ObjectMapper objectMapper;
+    
+    public JsonRuleSetCodec(ObjectMapper objectMapper) {
+        this.objectMapper = (objectMapper != null ? objectMapper.copy() : new ObjectMapper())
+                .addMixIn(Rule.class, PolymorphicRule.class)
+                .registerModule(new JavaTimeModule());
+    }
+    
+    @Override
+    public byte[] encode(RuleSet ruleSet) throws IOException {
+        return objectMapper.writeValueAsBytes(ruleSet);
+    }
+    
+    @Override
+    public RuleSet decode(byte[] data) throws IOException {
+        return objectMapper.readValue(data, RuleSet.class);
+    }
+    
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "ruleType")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = ExpressionRule.class, name = "EXPRESSION"),
+            @JsonSubTypes.Type(value = GroovyScriptRule.class, name = "GROOVY")
+    })
+    private interface PolymorphicRule {
+    }
+}
@@ -0,0 +1,263 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-process (L1) tier in front of a shared rule set cache such as {@link RedisRuleSetCache}.
+ * 
+ * Holds deserialized rule sets, so a hit costs neither a network round-trip nor decoding.
+ * The tier is bounded; least recently used entries are evicted when it is full.
+ * 
+ * Evictions are broadcast on the {@value #INVALIDATION_CHANNEL} Redis channel, and every
+ * node drops its own copy when it receives one ({@link #onMessage}). As a safety net against
+ * lost messages, an entry older than the stamp check interval is compared against the version
+ * stamp in the shared cache before it is served again. Inside a transaction the broadcast is
+ * deferred until the transaction commits, so other nodes do not reload the old version from
+ * the database before the change is visible.
+ */
+public class NearRuleSetCache implements RuleSetCache, MessageListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NearRuleSetCache.class);
+    
+    /**
+     * Redis pub/sub channel carrying the keys of invalidated rule sets.
+     */
+    public static final String INVALIDATION_CHANNEL = "ruleset-invalidation";
+    
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+    
+    private final RuleSetCache delegate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxEntries;
+    private final long stampCheckNanos;
+    
+    // tenantId:ruleSetCode:version -> cached rule set
+    private final Map<String, NearEntry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a near cache.
+     *
+     * @param delegate the shared cache
+     * @param redisTemplate the template used to publish invalidations, or null to not publish
+     * @param maxEntries the maximum number of rule sets held in memory
+     * @param stampCheckInterval how long an entry is served before its version stamp is checked
+     */
+    public NearRuleSetCache(
+            RuleSetCache delegate,
+            RedisTemplate<String, String> redisTemplate,
+            int maxEntries,
+            Duration stampCheckInterval
+    ) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.maxEntries = maxEntries;
+        this.stampCheckNanos = stampCheckInterval.toNanos();
+    }
+    
+    @Override
+    public RuleSet getRuleSet(String tenantId, String ruleSetCode, String version) {
+        String key = generateKey(tenantId, ruleSetCode, version);
+        NearEntry entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (now - entry.checkedAt < stampCheckNanos || isCurrent(entry)) {
+                entry.lastAccess = now;
+                return entry.ruleSet;
+            }
+            logger.debug("Near-cached rule set is outdated: {}", key);
+            entries.remove(key, entry);
+        }
+        
+        RuleSet ruleSet = delegate.getRuleSet(tenantId, ruleSetCode, version);
+        if (ruleSet != null) {
+            store(key, ruleSet);
+        }
+        return ruleSet;
+    }
+    
+    /**
+     * Serves what it can from memory and fetches the rest from the shared cache in one batch.
+     */
+    @Override
+    public Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, RuleSet> ruleSets = new LinkedHashMap<>();
+        List<RuleSetKey> misses = new ArrayList<>();
+        long now = System.nanoTime();
+        for (RuleSetKey key : keys) {
+            NearEntry entry = entries.get(generateKey(key.tenantId(), key.ruleSetCode(), key.version()));
+            if (entry != null && now - entry.checkedAt < stampCheckNanos) {
+                entry.lastAccess = now;
+                ruleSets.put(key, entry.ruleSet);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            delegate.getRuleSets(misses).forEach((key, ruleSet) -> {
+                store(generateKey(key.tenantId(), key.ruleSetCode(), key.version()), ruleSet);
+                ruleSets.put(key, ruleSet);
+            });
+        }
+        return ruleSets;
+    }
+    
+    @Override
+    public void putRuleSet(RuleSet ruleSet) {
+        delegate.putRuleSet(ruleSet);
+        store(generateKey(ruleSet.tenantId(), ruleSet.code(), ruleSet.version()), ruleSet);
+    }
+    
+    /**
+     * Evicts the rule set here and in the shared cache, and tells the other nodes to drop it
+     * once the current transaction, if any, has committed. If the transaction rolls back, the
+     * rule set is evicted again, since it may have been written through in the meantime.
+     */
+    @Override
+    public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
+        String key = generateKey(tenantId, ruleSetCode, version);
+        delegate.evictRuleSet(tenantId, ruleSetCode, version);
+        entries.remove(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishInvalidation(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishInvalidation(key);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    delegate.evictRuleSet(tenantId, ruleSetCode, version);
+                    entries.remove(key);
+                    publishInvalidation(key);
+                }
+            }
+        });
+    }
+    
+    private void publishInvalidation(String key) {
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+            } catch (Exception e) {
+                // Other nodes fall back to the version stamp check
+                logger.warn("Failed to publish rule set invalidation for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public Instant getVersionStamp(String tenantId, String ruleSetCode, String version) {
+        return delegate.getVersionStamp(tenantId, ruleSetCode, version);
+    }
+    
+    @Override
+    public void setReloader(Function<RuleSetKey, RuleSet> reloader) {
+        delegate.setReloader(reloader);
+    }
+    
+    /**
+     * Drops the rule set named by an invalidation message.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (entries.remove(key) != null) {
+            logger.debug("Dropped near-cached rule set on invalidation: {}", key);
+        }
+    }
+    
+    /**
+     * Drops all rule sets held in memory.
+     */
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * Returns the number of rule sets held in memory.
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Compares an entry with the shared version stamp, renewing its check time if it matches.
+     */
+    private boolean isCurrent(NearEntry entry) {
+        RuleSet ruleSet = entry.ruleSet;
+        Instant stamp = delegate.getVersionStamp(ruleSet.tenantId(), ruleSet.code(), ruleSet.version());
+        if (!Objects.equals(stamp, ruleSet.updatedAt())) {
+            return false;
+        }
+        entry.checkedAt = System.nanoTime();
+        return true;
+    }
+    
+    private void store(String key, RuleSet ruleSet) {
+        entries.put(key, new NearEntry(ruleSet, System.nanoTime()));
+        if (entries.size() > maxEntries) {
+            evictLeastRecentlyUsed();
+        }
+    }
+    
+    /**
+     * Evicts the least recently used entries down to 90% of the limit.
+     */
+    private synchronized void evictLeastRecentlyUsed() {
+        int excess = entries.size() - (int) (maxEntries * 0.9);
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+    
+    private String generateKey(String tenantId, String ruleSetCode, String version) {
+        return tenantId + ":" + ruleSetCode + ":" + version;
+    }
+    
+    /**
+     * A rule set held in memory, with when its stamp was last checked and when it was last read.
+     */
+    private static final class NearEntry {
+        
+        private final RuleSet ruleSet;
+        private volatile long checkedAt;
+        private volatile long lastAccess;
+        
+        NearEntry(RuleSet ruleSet, long now) {
+            this.ruleSet = ruleSet;
+            this.checkedAt = now;
+            this.lastAccess = now;
+        }
+    }
+}
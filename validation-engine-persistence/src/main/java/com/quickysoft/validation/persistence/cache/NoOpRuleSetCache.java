@@ -1,9 +1,13 @@
 package com.quickysoft.validation.persistence.cache;
 
 import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * No-op implementation of RuleSetCache.
  * 
@@ -20,6 +24,11 @@ public class NoOpRuleSetCache implements RuleSetCache {
         return null;
     }
     
+    @Override
+    public Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        return Map.of();
+    }
+    
     @Override
     public void putRuleSet(RuleSet ruleSet) {
         logger.debug("NoOp cache: putRuleSet({}, {}, {}) - no-op", 
@@ -1,35 +1,144 @@
 package com.quickysoft.validation.persistence.cache;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * Redis/ElastiCache-based implementation of RuleSetCache.
  * 
- * Uses JSON serialization for rule sets.
+ * Rule sets are encoded by a {@link RuleSetCodec} (JSON by default) and stored as raw bytes.
  * Cache key pattern: ruleset:{tenantId}:{ruleSetCode}:{version}
+ * Version stamp key pattern: ruleset-stamp:{tenantId}:{ruleSetCode}:{version} (updatedAt, ISO-8601 at full precision)
+ * 
+ * Each entry lives for the TTL shortened by a random jitter (so rule sets cached together do
+ * not expire together), plus a stale-while-revalidate window. Single reads fetch the entry's
+ * remaining time in the same pipeline; once an entry is past the refresh-ahead fraction of its
+ * TTL, or is being served stale, it is reloaded in the background through the registered
+ * {@linkplain #setReloader reloader} while the cached copy is returned. A reload is written back
+ * only if the entry's version stamp is still the one it was started for, so a slow reload never
+ * overwrites a newer write or resurrects an evicted entry.
  */
 @Component
 public class RedisRuleSetCache implements RuleSetCache {
     
     private static final Logger logger = LoggerFactory.getLogger(RedisRuleSetCache.class);
     private static final String CACHE_KEY_PREFIX = "ruleset";
+    private static final String STAMP_KEY_PREFIX = "ruleset-stamp";
     private static final Duration DEFAULT_TTL = Duration.ofHours(24);
     
+    /**
+     * Writes (or, without data, deletes) an entry and its stamp if the stamp key still holds the
+     * expected value; an empty expected stamp means the entry must exist without a stamp.
+     * KEYS: stamp key, cache key. ARGV: expected stamp, data, new stamp, expiry in milliseconds.
+     */
+    private static final byte[] WRITE_IF_UNCHANGED_SCRIPT = ("""
+            local stamp = redis.call('GET', KEYS[1])
+            if ARGV[1] == '' then
+              if stamp or redis.call('EXISTS', KEYS[2]) == 0 then return 0 end
+            elseif stamp ~= ARGV[1] then
+              return 0
+            end
+            if ARGV[2] == '' then
+              redis.call('DEL', KEYS[1], KEYS[2])
+              return 1
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[4])
+            if ARGV[3] == '' then
+              redis.call('DEL', KEYS[1])
+            else
+              redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[4])
+            end
+            return 1
+            """).getBytes(StandardCharsets.UTF_8);
+    
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RuleSetCodec codec;
+    
+    // Cache keys with a background reload in progress
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    
+    private volatile Duration ttl = DEFAULT_TTL;
+    private volatile double ttlJitter = 0.1;
+    private volatile double refreshAhead = 0.8;
+    private volatile Duration staleWhileRevalidate = Duration.ofHours(1);
+    private volatile Function<RuleSetKey, RuleSet> reloader;
+    private volatile Executor refreshExecutor = ForkJoinPool.commonPool();
     
     public RedisRuleSetCache(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+        this(redisTemplate, new JsonRuleSetCodec(objectMapper));
+    }
+    
+    public RedisRuleSetCache(RedisTemplate<String, String> redisTemplate, RuleSetCodec codec) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper != null ? objectMapper : new ObjectMapper();
+        this.codec = codec;
+    }
+    
+    /**
+     * Sets how long a cached rule set is fresh (default 24h).
+     */
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+    
+    /**
+     * Sets the largest fraction by which each entry's TTL is randomly shortened (default 0.1).
+     */
+    public void setTtlJitter(double ttlJitter) {
+        this.ttlJitter = Math.max(0, Math.min(ttlJitter, 1));
+    }
+    
+    /**
+     * Sets the fraction of the TTL after which a read triggers a background reload (default 0.8);
+     * 1 or more reloads only entries that are already stale.
+     */
+    public void setRefreshAhead(double refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+    
+    /**
+     * Sets how long an entry is still served after its TTL while it is reloaded (default 1h);
+     * zero lets entries expire as soon as their TTL ends.
+     */
+    public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+    
+    /**
+     * Sets the executor that runs background reloads (default: the common fork-join pool).
+     * Reloads block on the rule set source, so a small dedicated pool is preferable; reloads it
+     * rejects are skipped and retried on a later read.
+     */
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+    
+    @Override
+    public void setReloader(Function<RuleSetKey, RuleSet> reloader) {
+        this.reloader = reloader;
     }
     
     @Override
@@ -37,27 +146,85 @@ public class RedisRuleSetCache implements RuleSetCache {
         String key = generateCacheKey(tenantId, ruleSetCode, version);
         
         try {
-            String json = redisTemplate.opsForValue().get(key);
-            if (json == null) {
+            List<Object> results = getWithRemainingTtl(key);
+            byte[] data = (byte[]) results.get(0);
+            if (data == null) {
                 logger.debug("Rule set not found in Redis cache: {}", key);
                 return null;
             }
             
             logger.debug("Rule set found in Redis cache: {}", key);
-            return objectMapper.readValue(json, RuleSet.class);
+            RuleSet ruleSet = codec.decode(data);
+            refreshIfDue(key, new RuleSetKey(tenantId, ruleSetCode, version), (Long) results.get(1),
+                    ruleSet.updatedAt() != null ? ruleSet.updatedAt().toString() : "");
+            return ruleSet;
         } catch (Exception e) {
             logger.error("Error deserializing rule set from Redis: {}", key, e);
             return null;
         }
     }
     
+    /**
+     * Reads all rule sets with a single MGET.
+     * 
+     * Unlike single reads, batch reads do not trigger refresh-ahead: MGET returns no remaining TTLs,
+     * and batches are read at startup, when entries are rarely near expiry. Entries read this way
+     * are refreshed by later single reads or version stamp checks.
+     */
+    @Override
+    public Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, RuleSet> ruleSets = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return ruleSets;
+        }
+        List<RuleSetKey> keyList = List.copyOf(keys);
+        byte[][] rawKeys = keyList.stream()
+                .map(key -> generateCacheKey(key.tenantId(), key.ruleSetCode(), key.version())
+                        .getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        List<byte[]> values;
+        try {
+            values = redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        } catch (Exception e) {
+            logger.error("Error reading {} rule set(s) from Redis", keyList.size(), e);
+            return ruleSets;
+        }
+        for (int i = 0; values != null && i < keyList.size(); i++) {
+            byte[] data = values.get(i);
+            if (data == null) {
+                continue;
+            }
+            try {
+                ruleSets.put(keyList.get(i), codec.decode(data));
+            } catch (Exception e) {
+                logger.error("Error deserializing rule set from Redis: {}", new String(rawKeys[i], StandardCharsets.UTF_8), e);
+            }
+        }
+        logger.debug("Found {} of {} rule set(s) in Redis cache", ruleSets.size(), keyList.size());
+        return ruleSets;
+    }
+    
+    /**
+     * Caches a rule set with the configured TTL, shortened by a random jitter.
+     */
     @Override
     public void putRuleSet(RuleSet ruleSet) {
-        putRuleSet(ruleSet, DEFAULT_TTL);
+        putRuleSet(ruleSet, jitteredTtl());
+    }
+    
+    private Duration jitteredTtl() {
+        Duration ttl = this.ttl;
+        double jitter = ttlJitter;
+        if (jitter > 0) {
+            ttl = Duration.ofMillis((long) (ttl.toMillis() * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+        }
+        return ttl;
     }
     
     /**
-     * Caches a rule set with a custom TTL.
+     * Caches a rule set with a custom TTL; the entry is kept for the stale-while-revalidate
+     * window beyond it.
      */
     public void putRuleSet(RuleSet ruleSet, Duration ttl) {
         String key = generateCacheKey(
@@ -67,8 +234,18 @@ public class RedisRuleSetCache implements RuleSetCache {
         );
         
         try {
-            String json = objectMapper.writeValueAsString(ruleSet);
-            redisTemplate.opsForValue().set(key, json, ttl);
+            byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+            byte[] data = codec.encode(ruleSet);
+            Duration expiry = ttl.plus(staleWhileRevalidate);
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(rawKey, data, Expiration.from(expiry), RedisStringCommands.SetOption.upsert()));
+            if (ruleSet.updatedAt() != null) {
+                redisTemplate.opsForValue().set(
+                        generateStampKey(ruleSet.tenantId(), ruleSet.code(), ruleSet.version()),
+                        ruleSet.updatedAt().toString(),
+                        expiry
+                );
+            }
             logger.debug("Cached rule set in Redis: {} (TTL: {})", key, ttl);
         } catch (Exception e) {
             logger.error("Error serializing rule set to Redis: {}", key, e);
@@ -79,14 +256,126 @@ public class RedisRuleSetCache implements RuleSetCache {
     public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
         String key = generateCacheKey(tenantId, ruleSetCode, version);
         redisTemplate.delete(key);
+        redisTemplate.delete(generateStampKey(tenantId, ruleSetCode, version));
         logger.debug("Evicted rule set from Redis cache: {}", key);
     }
     
+    /**
+     * Reads the version stamp; the stamp key expires with its entry, so this also triggers
+     * refresh-ahead for callers (such as the near cache) that only check stamps.
+     */
+    @Override
+    public Instant getVersionStamp(String tenantId, String ruleSetCode, String version) {
+        String key = generateStampKey(tenantId, ruleSetCode, version);
+        try {
+            List<Object> results = getWithRemainingTtl(key);
+            byte[] stamp = (byte[]) results.get(0);
+            if (stamp == null) {
+                return null;
+            }
+            String value = new String(stamp, StandardCharsets.UTF_8);
+            refreshIfDue(generateCacheKey(tenantId, ruleSetCode, version),
+                    new RuleSetKey(tenantId, ruleSetCode, version), (Long) results.get(1), value);
+            return parseStamp(value);
+        } catch (Exception e) {
+            logger.error("Error reading rule set version stamp from Redis: {}", key, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Parses a version stamp. Stamps must keep the full precision of {@code updatedAt} so that
+     * they compare equal to it; epoch millis written by earlier versions are still accepted.
+     */
+    private static Instant parseStamp(String stamp) {
+        return stamp.indexOf('T') >= 0 ? Instant.parse(stamp) : Instant.ofEpochMilli(Long.parseLong(stamp));
+    }
+    
+    /**
+     * Reads a key and its remaining time to live (PTTL, in milliseconds) in one round-trip.
+     */
+    private List<Object> getWithRemainingTtl(String key) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        return redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.stringCommands().get(rawKey);
+            connection.keyCommands().pTtl(rawKey);
+            return connection.closePipeline();
+        });
+    }
+    
+    /**
+     * Starts a background reload if the entry is past the refresh-ahead point of its TTL or
+     * already stale, unless one is running for it.
+     * 
+     * @param stamp the entry's version stamp as stored, or empty if it has none
+     */
+    private void refreshIfDue(String key, RuleSetKey ruleSetKey, Long remainingMillis, String stamp) {
+        Function<RuleSetKey, RuleSet> reloader = this.reloader;
+        if (reloader == null || remainingMillis == null || remainingMillis < 0) {
+            return;
+        }
+        long freshMillis = remainingMillis - staleWhileRevalidate.toMillis();
+        if (freshMillis > ttl.toMillis() * (1 - refreshAhead) || !refreshing.add(key)) {
+            return;
+        }
+        logger.debug("Refreshing {} rule set in the background: {}", freshMillis > 0 ? "expiring" : "stale", key);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    RuleSet ruleSet = reloader.apply(ruleSetKey);
+                    if (!writeIfUnchanged(ruleSetKey, stamp, ruleSet)) {
+                        logger.debug("Rule set changed during background refresh, discarding reload: {}", key);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Background refresh failed, keeping cached rule set: {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            logger.debug("Refresh executor busy, skipping background refresh: {}", key);
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            logger.warn("Could not schedule background refresh: {}", key, e);
+        }
+    }
+    
+    /**
+     * Replaces an entry with a reloaded rule set, or deletes it if the rule set no longer exists,
+     * unless its stamp changed since {@code expectedStamp} was read.
+     * 
+     * @return whether the entry was written
+     */
+    private boolean writeIfUnchanged(RuleSetKey ruleSetKey, String expectedStamp, RuleSet ruleSet) throws Exception {
+        byte[] stampKey = generateStampKey(ruleSetKey.tenantId(), ruleSetKey.ruleSetCode(), ruleSetKey.version())
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] cacheKey = generateCacheKey(ruleSetKey.tenantId(), ruleSetKey.ruleSetCode(), ruleSetKey.version())
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] data = ruleSet != null ? codec.encode(ruleSet) : new byte[0];
+        String newStamp = ruleSet != null && ruleSet.updatedAt() != null ? ruleSet.updatedAt().toString() : "";
+        long expiryMillis = jitteredTtl().plus(staleWhileRevalidate).toMillis();
+        Long written = redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                .eval(WRITE_IF_UNCHANGED_SCRIPT, ReturnType.INTEGER, 2, stampKey, cacheKey,
+                        expectedStamp.getBytes(StandardCharsets.UTF_8), data,
+                        newStamp.getBytes(StandardCharsets.UTF_8),
+                        Long.toString(expiryMillis).getBytes(StandardCharsets.UTF_8)));
+        return written != null && written == 1L;
+    }
+    
     /**
      * Generates a cache key for a rule set.
      */
     private String generateCacheKey(String tenantId, String ruleSetCode, String version) {
         return String.format("%s:%s:%s:%s", CACHE_KEY_PREFIX, tenantId, ruleSetCode, version);
     }
+    
+    /**
+     * Generates the key holding a rule set's version stamp.
+     */
+    private String generateStampKey(String tenantId, String ruleSetCode, String version) {
+        return String.format("%s:%s:%s:%s", STAMP_KEY_PREFIX, tenantId, ruleSetCode, version);
+    }
 }
 
@@ -1,6 +1,13 @@
 package com.quickysoft.validation.persistence.cache;
 
 import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Cache interface for rule sets.
@@ -19,6 +26,23 @@ public interface RuleSetCache {
      */
     RuleSet getRuleSet(String tenantId, String ruleSetCode, String version);
     
+    /**
+     * Retrieves several rule sets from cache. The default implementation looks them up one by one.
+     *
+     * @param keys the rule sets to retrieve
+     * @return the cached rule sets, by key (misses are absent)
+     */
+    default Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, RuleSet> ruleSets = new LinkedHashMap<>();
+        for (RuleSetKey key : keys) {
+            RuleSet ruleSet = getRuleSet(key.tenantId(), key.ruleSetCode(), key.version());
+            if (ruleSet != null) {
+                ruleSets.put(key, ruleSet);
+            }
+        }
+        return ruleSets;
+    }
+    
     /**
      * Caches a rule set.
      *
@@ -34,5 +58,27 @@ public interface RuleSetCache {
      * @param version the version
      */
     void evictRuleSet(String tenantId, String ruleSetCode, String version);
+    
+    /**
+     * Retrieves the version stamp (last-modified time) of a cached rule set without loading it.
+     * The default implementation does not track stamps.
+     *
+     * @param tenantId the tenant identifier
+     * @param ruleSetCode the rule set code
+     * @param version the version
+     * @return the stamp, or null if unknown
+     */
+    default Instant getVersionStamp(String tenantId, String ruleSetCode, String version) {
+        return null;
+    }
+    
+    /**
+     * Registers the function that reloads a rule set from its source (returning null if it no
+     * longer exists), so caches can refresh entries before they expire. The default
+     * implementation ignores it.
+     *
+     * @param reloader loads the current rule set for a key
+     */
+    default void setReloader(Function<RuleSetKey, RuleSet> reloader) {
+    }
 }
-
@@ -0,0 +1,31 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.quickysoft.validation.core.model.RuleSet;
+
+import java.io.IOException;
+
+/**
+ * Encodes rule sets for storage in a shared cache.
+ * 
+ * Implementations must round-trip every {@link com.quickysoft.validation.core.model.Rule} type.
+ */
+public interface RuleSetCodec {
+    
+    /**
+     * Encodes a rule set.
+     *
+     * @param ruleSet the rule set
+     * @return the encoded bytes
+     * @throws IOException if the rule set cannot be encoded
+     */
+    byte[] encode(RuleSet ruleSet) throws IOException;
+    
+    /**
+     * Decodes a rule set.
+     *
+     * @param data bytes produced by {@link #encode}
+     * @return the rule set
+     * @throws IOException if the bytes are not in this codec's format
+     */
+    RuleSet decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.quickysoft.validation.persistence.cache;
+
+/**
+ * Encodings available for cached rule sets.
+ */
+public enum RuleSetCodecType {
+    /**
+     * JSON text ({@link JsonRuleSetCodec}).
+     */
+    JSON,
+    
+    /**
+     * Compact versioned binary encoding ({@link BinaryRuleSetCodec}).
+     */
+    BINARY
+}
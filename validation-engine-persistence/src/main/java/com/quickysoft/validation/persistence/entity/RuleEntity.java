@@ -1,5 +1,7 @@
 package com.quickysoft.validation.persistence.entity;
 
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
 import com.quickysoft.validation.core.model.ScriptLocationType;
 import com.quickysoft.validation.core.model.Severity;
 import jakarta.persistence.*;
@@ -60,6 +62,14 @@ public class RuleEntity {
     @Column(name = "expression", columnDefinition = "TEXT")
     private String expression;
     
+    /**
+     * Expression language for this rule (SPEL, MVEL, JEXL, NATIVE, JAVA).
+     * Null means the engine's configured default evaluator is used.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "evaluator_type", length = 20)
+    private ExpressionEvaluatorType evaluatorType;
+    
     // Groovy script rule fields
     @Enumerated(EnumType.STRING)
     @Column(name = "script_location_type", length = 20)
@@ -68,6 +78,14 @@ public class RuleEntity {
     @Column(name = "script_reference", length = 500)
     private String scriptReference;
     
+    /**
+     * Compilation mode for this rule's script (DYNAMIC, TYPE_CHECKED, STATIC).
+     * Null means the engine's configured default mode is used.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "script_compilation_mode", length = 20)
+    private ScriptCompilationMode scriptCompilationMode;
+    
     /**
      * Script version identifier (e.g., "1.0", "v2.3", git commit hash).
      * Used for tracking script changes and validation.
@@ -213,6 +231,14 @@ public class RuleEntity {
         this.expression = expression;
     }
     
+    public ExpressionEvaluatorType getEvaluatorType() {
+        return evaluatorType;
+    }
+    
+    public void setEvaluatorType(ExpressionEvaluatorType evaluatorType) {
+        this.evaluatorType = evaluatorType;
+    }
+    
     public ScriptLocationType getScriptLocationType() {
         return scriptLocationType;
     }
@@ -229,6 +255,14 @@ public class RuleEntity {
         this.scriptReference = scriptReference;
     }
     
+    public ScriptCompilationMode getScriptCompilationMode() {
+        return scriptCompilationMode;
+    }
+    
+    public void setScriptCompilationMode(ScriptCompilationMode scriptCompilationMode) {
+        this.scriptCompilationMode = scriptCompilationMode;
+    }
+    
     public String getScriptVersion() {
         return scriptVersion;
     }
@@ -2,6 +2,7 @@ package com.quickysoft.validation.persistence.entity;
 
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -61,12 +62,27 @@ public class RuleSetEntity {
             id = UUID.randomUUID();
         }
         createdAt = Instant.now();
-        updatedAt = Instant.now();
+        updatedAt = now();
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = now();
+    }
+    
+    /**
+     * Bumps the version stamp, for changes that do not dirty the rule set row itself (e.g. to its rules).
+     */
+    public void touch() {
+        updatedAt = now();
+    }
+    
+    /**
+     * The current time at the precision the database keeps, so a reloaded entity has the same
+     * {@code updatedAt} (version stamp) as the instance that was saved.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
     
     // Getters and setters
@@ -76,6 +76,7 @@ public class RuleSetMapper {
                     .metadata(metadata)
                     .failureMessageTemplate(entity.getFailureMessageTemplate())
                     .expression(entity.getExpression())
+                    .evaluatorType(entity.getEvaluatorType())
                     .build();
         } else if (entity.getRuleType() == RuleType.GROOVY) {
             return GroovyScriptRule.builder()
@@ -92,6 +93,7 @@ public class RuleSetMapper {
                     .failureMessageTemplate(entity.getFailureMessageTemplate())
                     .scriptLocationType(entity.getScriptLocationType())
                     .scriptReference(entity.getScriptReference())
+                    .compilationMode(entity.getScriptCompilationMode())
                     .build();
         } else {
             throw new IllegalArgumentException("Unknown rule type: " + entity.getRuleType());
@@ -154,10 +156,12 @@ public class RuleSetMapper {
         if (domain instanceof ExpressionRule expressionRule) {
             entity.setRuleType(RuleType.EXPRESSION);
             entity.setExpression(expressionRule.expression());
+            entity.setEvaluatorType(expressionRule.evaluatorType());
         } else if (domain instanceof GroovyScriptRule groovyRule) {
             entity.setRuleType(RuleType.GROOVY);
             entity.setScriptLocationType(groovyRule.scriptLocationType());
             entity.setScriptReference(groovyRule.scriptReference());
+            entity.setScriptCompilationMode(groovyRule.compilationMode());
         } else {
             throw new IllegalArgumentException("Unknown rule type: " + domain.getClass().getSimpleName());
         }
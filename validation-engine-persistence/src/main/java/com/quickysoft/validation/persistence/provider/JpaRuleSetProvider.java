@@ -1,6 +1,7 @@
 package com.quickysoft.validation.persistence.provider;
 
 import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
 import com.quickysoft.validation.core.provider.RuleSetProvider;
 import com.quickysoft.validation.persistence.cache.RuleSetCache;
 import com.quickysoft.validation.persistence.entity.RuleSetEntity;
@@ -10,21 +11,49 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * JPA-based implementation of RuleSetProvider with Redis-first caching strategy.
  * 
  * Uses write-through caching: checks Redis first, falls back to JPA if not found,
  * then caches the result in Redis.
+ * 
+ * Concurrent misses for the same rule set share one JPA load (so a cache flush does not send
+ * a burst of identical queries to the database), and rule sets that do not exist are
+ * remembered as missing for a short time. The provider registers itself as the cache's
+ * reloader, so caches that refresh entries ahead of expiry reload them from JPA.
  */
 @Component
 public class JpaRuleSetProvider implements RuleSetProvider {
     
     private static final Logger logger = LoggerFactory.getLogger(JpaRuleSetProvider.class);
     
+    private static final int NOT_FOUND_PURGE_SIZE = 10_000;
+    
     private final RuleSetCache cache;
     private final RuleSetRepository repository;
     private final RuleSetMapper mapper;
     
+    private final Map<RuleSetKey, CompletableFuture<RuleSet>> inFlight = new ConcurrentHashMap<>();
+    
+    // Rule sets that do not exist -> when that was found (System.nanoTime)
+    private final Map<RuleSetKey, Long> notFound = new ConcurrentHashMap<>();
+    
+    private volatile long notFoundTtlNanos = Duration.ofSeconds(5).toNanos();
+    
     public JpaRuleSetProvider(
             RuleSetCache cache,
             RuleSetRepository repository,
@@ -33,6 +62,15 @@ public class JpaRuleSetProvider implements RuleSetProvider {
         this.cache = cache;
         this.repository = repository;
         this.mapper = mapper;
+        cache.setReloader(this::reload);
+    }
+    
+    /**
+     * Sets how long a rule set that does not exist is remembered as missing (default 5s);
+     * zero disables negative caching.
+     */
+    public void setNotFoundTtl(Duration notFoundTtl) {
+        this.notFoundTtlNanos = notFoundTtl.toNanos();
     }
     
     @Override
@@ -45,16 +83,55 @@ public class JpaRuleSetProvider implements RuleSetProvider {
             return cached;
         }
         
+        RuleSetKey key = new RuleSetKey(tenantId, ruleSetCode, version);
+        if (isKnownMissing(key)) {
+            return null;
+        }
+        
+        // One caller loads from JPA; concurrent callers for the same rule set wait for its result
+        CompletableFuture<RuleSet> load = new CompletableFuture<>();
+        CompletableFuture<RuleSet> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            logger.debug("Waiting for in-flight load: tenantId={}, code={}, version={}", tenantId, ruleSetCode, version);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            RuleSet ruleSet = load(key);
+            load.complete(ruleSet);
+            return ruleSet;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+    
+    /**
+     * Loads a rule set from JPA and caches it, or remembers that it does not exist.
+     */
+    private RuleSet load(RuleSetKey key) {
+        // A previous loader may have filled the cache while this caller was checking it
+        RuleSet cached = cache.getRuleSet(key.tenantId(), key.ruleSetCode(), key.version());
+        if (cached != null) {
+            return cached;
+        }
+        
         // Fallback to JPA
         logger.debug("Rule set not in cache, querying JPA: tenantId={}, code={}, version={}", 
-                tenantId, ruleSetCode, version);
+                key.tenantId(), key.ruleSetCode(), key.version());
         
-        RuleSetEntity entity = repository.findByTenantIdAndCodeAndVersion(tenantId, ruleSetCode, version)
+        RuleSetEntity entity = repository.findByTenantIdAndCodeAndVersion(key.tenantId(), key.ruleSetCode(), key.version())
                 .orElse(null);
         
         if (entity == null) {
             logger.debug("Rule set not found in JPA: tenantId={}, code={}, version={}", 
-                    tenantId, ruleSetCode, version);
+                    key.tenantId(), key.ruleSetCode(), key.version());
+            rememberMissing(key);
             return null;
         }
         
@@ -67,11 +144,98 @@ public class JpaRuleSetProvider implements RuleSetProvider {
         return ruleSet;
     }
     
+    /**
+     * Reloads a rule set from JPA for a background cache refresh; the cache stores the result.
+     */
+    private RuleSet reload(RuleSetKey key) {
+        logger.debug("Reloading rule set for cache refresh: tenantId={}, code={}, version={}",
+                key.tenantId(), key.ruleSetCode(), key.version());
+        Optional<RuleSetEntity> entity = repository.findByTenantIdAndCodeAndVersion(
+                key.tenantId(), key.ruleSetCode(), key.version());
+        if (entity.isEmpty()) {
+            rememberMissing(key);
+            return null;
+        }
+        return mapper.toDomain(entity.get());
+    }
+    
+    private boolean isKnownMissing(RuleSetKey key) {
+        Long missingSince = notFound.get(key);
+        if (missingSince == null) {
+            return false;
+        }
+        if (System.nanoTime() - missingSince < notFoundTtlNanos) {
+            return true;
+        }
+        notFound.remove(key, missingSince);
+        return false;
+    }
+    
+    private void rememberMissing(RuleSetKey key) {
+        if (notFoundTtlNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (notFound.size() >= NOT_FOUND_PURGE_SIZE) {
+            notFound.values().removeIf(missingSince -> now - missingSince >= notFoundTtlNanos);
+        }
+        notFound.put(key, now);
+    }
+    
+    /**
+     * Reads all rule sets from the cache in one round-trip, then loads the misses with one JPA
+     * query per tenant and caches them.
+     */
+    @Override
+    public Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+        Map<RuleSetKey, RuleSet> ruleSets = new LinkedHashMap<>(cache.getRuleSets(keys));
+        Map<String, List<RuleSetKey>> missesByTenant = new LinkedHashMap<>();
+        for (RuleSetKey key : keys) {
+            if (!ruleSets.containsKey(key) && !isKnownMissing(key)) {
+                missesByTenant.computeIfAbsent(key.tenantId(), tenantId -> new ArrayList<>()).add(key);
+            }
+        }
+        logger.debug("Found {} of {} rule set(s) in cache", ruleSets.size(), keys.size());
+        
+        missesByTenant.forEach((tenantId, misses) -> {
+            Set<String> codes = new HashSet<>();
+            Set<String> versions = new HashSet<>();
+            for (RuleSetKey key : misses) {
+                codes.add(key.ruleSetCode());
+                versions.add(key.version());
+            }
+            Set<RuleSetKey> wanted = new HashSet<>(misses);
+            for (RuleSetEntity entity : repository.findByTenantIdAndCodeInAndVersionIn(tenantId, codes, versions)) {
+                RuleSetKey key = new RuleSetKey(entity.getTenantId(), entity.getCode(), entity.getVersion());
+                if (wanted.remove(key)) {
+                    RuleSet ruleSet = mapper.toDomain(entity);
+                    cache.putRuleSet(ruleSet);
+                    ruleSets.put(key, ruleSet);
+                }
+            }
+            wanted.forEach(this::rememberMissing);
+        });
+        return ruleSets;
+    }
+    
+    /**
+     * Reads the version stamp from the cache, falling back to a single-column JPA query.
+     */
+    @Override
+    public Optional<Instant> getVersionStamp(String tenantId, String ruleSetCode, String version) {
+        Instant cached = cache.getVersionStamp(tenantId, ruleSetCode, version);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return repository.findUpdatedAtByTenantIdAndCodeAndVersion(tenantId, ruleSetCode, version);
+    }
+    
     @Override
     public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
         logger.debug("Evicting rule set from cache: tenantId={}, code={}, version={}", 
                 tenantId, ruleSetCode, version);
         cache.evictRuleSet(tenantId, ruleSetCode, version);
+        notFound.remove(new RuleSetKey(tenantId, ruleSetCode, version));
     }
     
     @Override
@@ -79,6 +243,7 @@ public class JpaRuleSetProvider implements RuleSetProvider {
         logger.debug("Caching rule set: tenantId={}, code={}, version={}", 
                 ruleSet.tenantId(), ruleSet.code(), ruleSet.version());
         cache.putRuleSet(ruleSet);
+        notFound.remove(RuleSetKey.of(ruleSet));
     }
 }
 
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +34,34 @@ public interface RuleSetRepository extends JpaRepository<RuleSetEntity, UUID> {
             @Param("version") String version
     );
     
+    /**
+     * Finds a tenant's rule sets with any of the given codes and versions, with their rules,
+     * in one query. Callers filter the result down to the exact code and version pairs.
+     */
+    @Query("SELECT DISTINCT rs FROM RuleSetEntity rs " +
+           "LEFT JOIN FETCH rs.rules " +
+           "WHERE rs.tenantId = :tenantId " +
+           "AND rs.code IN :codes " +
+           "AND rs.version IN :versions")
+    List<RuleSetEntity> findByTenantIdAndCodeInAndVersionIn(
+            @Param("tenantId") String tenantId,
+            @Param("codes") Collection<String> codes,
+            @Param("versions") Collection<String> versions
+    );
+    
+    /**
+     * Finds the last-modified time of a rule set without loading it (or its rules).
+     */
+    @Query("SELECT rs.updatedAt FROM RuleSetEntity rs " +
+           "WHERE rs.tenantId = :tenantId " +
+           "AND rs.code = :code " +
+           "AND rs.version = :version")
+    Optional<Instant> findUpdatedAtByTenantIdAndCodeAndVersion(
+            @Param("tenantId") String tenantId,
+            @Param("code") String code,
+            @Param("version") String version
+    );
+    
     /**
      * Finds an active rule set by tenant, code, and version.
      */
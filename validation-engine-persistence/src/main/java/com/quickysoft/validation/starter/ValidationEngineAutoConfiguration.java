@@ -3,16 +3,22 @@ package com.quickysoft.validation.starter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickysoft.validation.core.engine.*;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluator;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorRegistry;
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
 import com.quickysoft.validation.core.engine.expression.ExpressionRuleExecutor;
+import com.quickysoft.validation.core.engine.expression.TenantConstants;
 import com.quickysoft.validation.core.engine.expression.impl.ExpressionEvaluatorFactory;
 import com.quickysoft.validation.core.engine.expression.impl.JEXLExpressionEvaluator;
 import com.quickysoft.validation.core.engine.expression.impl.MVELExpressionEvaluator;
 import com.quickysoft.validation.core.engine.expression.impl.SpELExpressionEvaluator;
 import com.quickysoft.validation.core.provider.RuleSetProvider;
+import com.quickysoft.validation.persistence.cache.BinaryRuleSetCodec;
+import com.quickysoft.validation.persistence.cache.JsonRuleSetCodec;
+import com.quickysoft.validation.persistence.cache.NearRuleSetCache;
 import com.quickysoft.validation.persistence.cache.NoOpRuleSetCache;
 import com.quickysoft.validation.persistence.cache.RuleSetCache;
 import com.quickysoft.validation.persistence.cache.RedisRuleSetCache;
+import com.quickysoft.validation.persistence.cache.RuleSetCodec;
 import com.quickysoft.validation.persistence.mapper.RuleSetMapper;
 import com.quickysoft.validation.persistence.provider.JpaRuleSetProvider;
 import com.quickysoft.validation.persistence.repository.RuleSetRepository;
@@ -27,10 +33,24 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Auto-configuration for Validation Engine.
@@ -45,6 +65,8 @@ public class ValidationEngineAutoConfiguration {
     
     private static final Logger logger = LoggerFactory.getLogger(ValidationEngineAutoConfiguration.class);
     
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+    
     /**
      * Redis template for rule set caching (if Redis is available).
      */
@@ -81,6 +103,18 @@ public class ValidationEngineAutoConfiguration {
         return new RuleSetMapper();
     }
     
+    /**
+     * Codec for rule sets stored in Redis, selected by {@code quickysoft.validation.cache.codec}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RuleSetCodec ruleSetCodec(ValidationEngineProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.getCache().getCodec()) {
+            case JSON -> new JsonRuleSetCodec(objectMapper);
+            case BINARY -> new BinaryRuleSetCodec(properties.getCache().isCompress());
+        };
+    }
+    
     /**
      * Redis-based rule set cache (if Redis is available).
      */
@@ -90,10 +124,60 @@ public class ValidationEngineAutoConfiguration {
     @ConditionalOnProperty(name = "quickysoft.validation.cache.enabled", havingValue = "true", matchIfMissing = true)
     public RuleSetCache redisRuleSetCache(
             RedisTemplate<String, String> ruleSetRedisTemplate,
-            ObjectMapper objectMapper
+            RuleSetCodec ruleSetCodec,
+            ValidationEngineProperties properties
     ) {
-        logger.info("Using Redis-based rule set cache");
-        return new RedisRuleSetCache(ruleSetRedisTemplate, objectMapper);
+        RedisRuleSetCache redisCache = new RedisRuleSetCache(ruleSetRedisTemplate, ruleSetCodec);
+        ValidationEngineProperties.Cache cache = properties.getCache();
+        redisCache.setTtl(Duration.ofHours(cache.getTtlHours()));
+        redisCache.setTtlJitter(cache.getTtlJitter());
+        redisCache.setRefreshAhead(cache.getRefreshAhead());
+        redisCache.setStaleWhileRevalidate(Duration.ofMinutes(cache.getStaleWhileRevalidateMinutes()));
+        redisCache.setRefreshExecutor(ruleSetRefreshExecutor(cache.getRefreshThreads()));
+        if (cache.getNearCacheMaxEntries() <= 0) {
+            logger.info("Using Redis-based rule set cache");
+            return redisCache;
+        }
+        logger.info("Using Redis-based rule set cache with a near cache of {} entries", cache.getNearCacheMaxEntries());
+        return new NearRuleSetCache(redisCache, ruleSetRedisTemplate, cache.getNearCacheMaxEntries(),
+                Duration.ofMillis(cache.getNearCacheStampCheckMillis()));
+    }
+    
+    /**
+     * Bounded pool for background rule set reloads, which block on JPA queries and so must not
+     * run on the common fork-join pool. Its daemon threads exit when idle, so it needs no
+     * shutdown; it is not an {@code Executor} bean, which would make Spring Boot back off its
+     * application task executor.
+     */
+    private static ThreadPoolExecutor ruleSetRefreshExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(Math.max(threads, 1), Math.max(threads, 1),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "ruleset-refresh-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    /**
+     * Subscribes the near cache (if any) to rule set invalidations published by other nodes.
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "ruleSetInvalidationListenerContainer")
+    @ConditionalOnClass(RedisConnectionFactory.class)
+    @ConditionalOnProperty(name = "quickysoft.validation.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer ruleSetInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RuleSetCache ruleSetCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (ruleSetCache instanceof NearRuleSetCache nearCache) {
+            container.addMessageListener(nearCache, new ChannelTopic(NearRuleSetCache.INVALIDATION_CHANNEL));
+        }
+        return container;
     }
     
     /**
@@ -114,9 +198,12 @@ public class ValidationEngineAutoConfiguration {
     public JpaRuleSetProvider jpaRuleSetProvider(
             RuleSetCache ruleSetCache,
             RuleSetRepository ruleSetRepository,
-            RuleSetMapper ruleSetMapper
+            RuleSetMapper ruleSetMapper,
+            ValidationEngineProperties properties
     ) {
-        return new JpaRuleSetProvider(ruleSetCache, ruleSetRepository, ruleSetMapper);
+        JpaRuleSetProvider provider = new JpaRuleSetProvider(ruleSetCache, ruleSetRepository, ruleSetMapper);
+        provider.setNotFoundTtl(Duration.ofMillis(properties.getCache().getNotFoundTtlMillis()));
+        return provider;
     }
     
     /**
@@ -126,16 +213,31 @@ public class ValidationEngineAutoConfiguration {
     @ConditionalOnMissingBean
     public ScriptLoader scriptLoader(ValidationEngineProperties properties) {
         CompositeScriptLoader loader = new CompositeScriptLoader();
+        loader.setNegativeCacheTtl(Duration.ofSeconds(properties.getScript().getNegativeCacheSeconds()));
+        loader.setCircuitBreaker(properties.getScript().getCircuitBreakerThreshold(),
+                Duration.ofSeconds(properties.getScript().getCircuitBreakerOpenSeconds()));
         
         // Add file system loader
-        loader.addLoader(new FileSystemScriptLoader());
+        FileSystemScriptLoader fileSystemLoader = new FileSystemScriptLoader(properties.getScript().isWatchFiles());
+        fileSystemLoader.setWatchBackstopInterval(Duration.ofSeconds(properties.getScript().getWatchBackstopSeconds()));
+        loader.addLoader(fileSystemLoader);
         
         // Add S3 loader if configured
-        if (properties.getScript().getS3() != null && properties.getScript().getS3().isEnabled()) {
-            S3ScriptLoader s3Loader = new S3ScriptLoader();
-            // TODO: Configure S3 client with properties
+        ValidationEngineProperties.S3 s3 = properties.getScript().getS3();
+        if (s3 != null && s3.isEnabled()) {
+            S3AsyncClientBuilder client = S3AsyncClient.builder().region(Region.of(s3.getRegion()));
+            if (s3.getEndpoint() != null) {
+                client.endpointOverride(URI.create(s3.getEndpoint()))
+                        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+            }
+            S3ScriptLoader s3Loader = new S3ScriptLoader(client.build(), s3.getBucket(), s3.getKeyPrefix(), true);
+            s3Loader.setMaxConcurrentFetches(s3.getMaxConcurrentFetches());
+            s3Loader.setRevalidateAfter(Duration.ofSeconds(s3.getRevalidateSeconds()));
+            if (s3.getDiskCacheDirectory() != null) {
+                s3Loader.setDiskCacheDirectory(Path.of(s3.getDiskCacheDirectory()));
+            }
             loader.addLoader(s3Loader);
-            logger.info("S3 script loader enabled (bucket: {})", properties.getScript().getS3().getBucket());
+            logger.info("S3 script loader enabled (bucket: {})", s3.getBucket());
         }
         
         return loader;
@@ -146,8 +248,16 @@ public class ValidationEngineAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public GroovyScriptCache groovyScriptCache() {
-        return new GroovyScriptCache();
+    public GroovyScriptCache groovyScriptCache(ValidationEngineProperties properties) {
+        GroovyScriptCache scriptCache = new GroovyScriptCache(
+                properties.getScript().getCompilationMode(),
+                properties.getScript().getMaxCachedScripts()
+        );
+        String compiledCacheDirectory = properties.getScript().getCompiledCacheDirectory();
+        if (compiledCacheDirectory != null && !compiledCacheDirectory.isBlank()) {
+            scriptCache.setCompiledScriptStore(new CompiledScriptStore(Path.of(compiledCacheDirectory)));
+        }
+        return scriptCache;
     }
     
     /**
@@ -183,6 +293,31 @@ public class ValidationEngineAutoConfiguration {
         return ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JEXL);
     }
     
+    /**
+     * Built-in validation DSL evaluator bean.
+     */
+    @Bean(name = "nativeExpressionEvaluator")
+    @ConditionalOnMissingBean(name = "nativeExpressionEvaluator")
+    public ExpressionEvaluator nativeExpressionEvaluator() {
+        logger.debug("Creating built-in DSL expression evaluator bean");
+        return ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.NATIVE);
+    }
+    
+    /**
+     * Java expression evaluator bean (expressions are compiled with the JDK compiler).
+     * 
+     * JAVA expressions run arbitrary code in-process, so the evaluator is opt-in via
+     * {@code quickysoft.validation.expression.java-enabled}.
+     */
+    @Bean(name = "javaExpressionEvaluator")
+    @ConditionalOnMissingBean(name = "javaExpressionEvaluator")
+    @ConditionalOnClass(name = "javax.tools.ToolProvider")
+    @ConditionalOnProperty(name = "quickysoft.validation.expression.java-enabled", havingValue = "true")
+    public ExpressionEvaluator javaExpressionEvaluator() {
+        logger.debug("Creating Java expression evaluator bean");
+        return ExpressionEvaluatorFactory.getInstance().getEvaluator(ExpressionEvaluatorType.JAVA);
+    }
+    
     /**
      * Primary expression evaluator - selected based on configuration.
      * 
@@ -198,6 +333,10 @@ public class ValidationEngineAutoConfiguration {
     ) {
         ExpressionEvaluatorType configuredType = properties.getExpression().getEvaluatorType();
         String configuredTypeName = configuredType.name();
+        if (configuredType == ExpressionEvaluatorType.JAVA && !properties.getExpression().isJavaEnabled()) {
+            throw new IllegalStateException("Expression evaluator type JAVA requires "
+                    + "quickysoft.validation.expression.java-enabled=true");
+        }
         
         logger.info("Selecting expression evaluator based on configuration: {}", configuredTypeName);
         logger.debug("Available evaluators: {}", availableEvaluators.stream()
@@ -227,13 +366,44 @@ public class ValidationEngineAutoConfiguration {
         return selected;
     }
     
+    /**
+     * Registry of shared evaluators for per-rule expression language selection.
+     * 
+     * The primary evaluator serves rules without an explicit evaluator type; every other
+     * available evaluator can be selected per rule via {@code ExpressionRule.evaluatorType}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ExpressionEvaluatorRegistry expressionEvaluatorRegistry(
+            ExpressionEvaluator expressionEvaluator,
+            List<ExpressionEvaluator> availableEvaluators
+    ) {
+        return new ExpressionEvaluatorRegistry(expressionEvaluator, availableEvaluators);
+    }
+    
+    /**
+     * Declared tenant-scoped constants used for partial evaluation of expression rules.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TenantConstants tenantConstants(ValidationEngineProperties properties) {
+        TenantConstants tenantConstants = new TenantConstants();
+        properties.getExpression().getTenantConstants().forEach(tenantConstants::declare);
+        return tenantConstants;
+    }
+    
     /**
      * Expression rule executor.
      */
     @Bean
     @ConditionalOnMissingBean
-    public ExpressionRuleExecutor expressionRuleExecutor(ExpressionEvaluator expressionEvaluator) {
-        return new ExpressionRuleExecutor(expressionEvaluator);
+    public ExpressionRuleExecutor expressionRuleExecutor(
+            ExpressionEvaluatorRegistry expressionEvaluatorRegistry,
+            TenantConstants tenantConstants
+    ) {
+        ExpressionRuleExecutor executor = new ExpressionRuleExecutor(expressionEvaluatorRegistry);
+        executor.setTenantConstants(tenantConstants);
+        return executor;
     }
     
     /**
@@ -243,9 +413,14 @@ public class ValidationEngineAutoConfiguration {
     @ConditionalOnMissingBean
     public GroovyScriptRuleExecutor groovyScriptRuleExecutor(
             ScriptLoader scriptLoader,
-            GroovyScriptCache scriptCache
+            GroovyScriptCache scriptCache,
+            ValidationEngineProperties properties
     ) {
-        return new GroovyScriptRuleExecutor(scriptLoader, scriptCache);
+        GroovyScriptRuleExecutor executor = new GroovyScriptRuleExecutor(scriptLoader, scriptCache);
+        if (properties.getScript().isAsyncCompilation()) {
+            executor.setAsyncCompilation(ForkJoinPool.commonPool());
+        }
+        return executor;
     }
     
     /**
@@ -266,7 +441,8 @@ public class ValidationEngineAutoConfiguration {
             RuleSetProvider ruleSetProvider,
             ExpressionRuleExecutor expressionRuleExecutor,
             GroovyScriptRuleExecutor groovyScriptRuleExecutor,
-            RuleSetResultCalculator resultCalculator
+            RuleSetResultCalculator resultCalculator,
+            ValidationEngineProperties properties
     ) {
         List<RuleExecutor> executors = new ArrayList<>();
         executors.add(expressionRuleExecutor);
@@ -274,7 +450,9 @@ public class ValidationEngineAutoConfiguration {
         
         logger.info("Auto-configured ValidationEngine with {} rule executors (expression evaluator: {})", 
                 executors.size(), expressionRuleExecutor.getClass().getSimpleName());
-        return new DefaultValidationEngine(ruleSetProvider, executors, resultCalculator);
+        DefaultValidationEngine engine = new DefaultValidationEngine(ruleSetProvider, executors, resultCalculator);
+        engine.setPreparedRefreshInterval(Duration.ofMillis(properties.getCache().getPreparedRefreshMillis()));
+        return engine;
     }
 }
 
@@ -1,8 +1,13 @@
 package com.quickysoft.validation.starter;
 
 import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
+import com.quickysoft.validation.persistence.cache.RuleSetCodecType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration properties for Validation Engine.
  */
@@ -62,6 +67,56 @@ public class ValidationEngineProperties {
          */
         private int ttlHours = 24;
         
+        /**
+         * Largest fraction by which each entry's TTL is randomly shortened, so entries cached together do not expire together.
+         */
+        private double ttlJitter = 0.1;
+        
+        /**
+         * Fraction of the TTL after which reading an entry reloads it in the background (1 reloads only stale entries).
+         */
+        private double refreshAhead = 0.8;
+        
+        /**
+         * How long an entry is still served after its TTL while it is reloaded, in minutes (0 disables).
+         */
+        private long staleWhileRevalidateMinutes = 60;
+        
+        /**
+         * Threads reloading rule sets from the database in the background; reloads beyond a small queue are skipped until the next read.
+         */
+        private int refreshThreads = 2;
+        
+        /**
+         * How often prepared rule set handles check whether their rule set changed, in milliseconds.
+         */
+        private long preparedRefreshMillis = 1000;
+        
+        /**
+         * Maximum number of deserialized rule sets held in memory in front of Redis (0 disables the near cache).
+         */
+        private int nearCacheMaxEntries = 1000;
+        
+        /**
+         * How long a near-cached rule set is served before it is checked against its Redis version stamp, in milliseconds.
+         */
+        private long nearCacheStampCheckMillis = 5000;
+        
+        /**
+         * Encoding of rule sets stored in Redis (JSON or BINARY).
+         */
+        private RuleSetCodecType codec = RuleSetCodecType.JSON;
+        
+        /**
+         * Whether the binary codec deflates large rule sets.
+         */
+        private boolean compress = true;
+        
+        /**
+         * How long a rule set that does not exist is remembered as missing, in milliseconds (0 disables).
+         */
+        private long notFoundTtlMillis = 5000;
+        
         public boolean isEnabled() {
             return enabled;
         }
@@ -77,6 +132,86 @@ public class ValidationEngineProperties {
         public void setTtlHours(int ttlHours) {
             this.ttlHours = ttlHours;
         }
+        
+        public double getTtlJitter() {
+            return ttlJitter;
+        }
+        
+        public void setTtlJitter(double ttlJitter) {
+            this.ttlJitter = ttlJitter;
+        }
+        
+        public double getRefreshAhead() {
+            return refreshAhead;
+        }
+        
+        public void setRefreshAhead(double refreshAhead) {
+            this.refreshAhead = refreshAhead;
+        }
+        
+        public long getStaleWhileRevalidateMinutes() {
+            return staleWhileRevalidateMinutes;
+        }
+        
+        public void setStaleWhileRevalidateMinutes(long staleWhileRevalidateMinutes) {
+            this.staleWhileRevalidateMinutes = staleWhileRevalidateMinutes;
+        }
+        
+        public int getRefreshThreads() {
+            return refreshThreads;
+        }
+        
+        public void setRefreshThreads(int refreshThreads) {
+            this.refreshThreads = refreshThreads;
+        }
+        
+        public long getPreparedRefreshMillis() {
+            return preparedRefreshMillis;
+        }
+        
+        public void setPreparedRefreshMillis(long preparedRefreshMillis) {
+            this.preparedRefreshMillis = preparedRefreshMillis;
+        }
+        
+        public int getNearCacheMaxEntries() {
+            return nearCacheMaxEntries;
+        }
+        
+        public void setNearCacheMaxEntries(int nearCacheMaxEntries) {
+            this.nearCacheMaxEntries = nearCacheMaxEntries;
+        }
+        
+        public long getNearCacheStampCheckMillis() {
+            return nearCacheStampCheckMillis;
+        }
+        
+        public void setNearCacheStampCheckMillis(long nearCacheStampCheckMillis) {
+            this.nearCacheStampCheckMillis = nearCacheStampCheckMillis;
+        }
+        
+        public RuleSetCodecType getCodec() {
+            return codec;
+        }
+        
+        public void setCodec(RuleSetCodecType codec) {
+            this.codec = codec != null ? codec : RuleSetCodecType.JSON;
+        }
+        
+        public boolean isCompress() {
+            return compress;
+        }
+        
+        public void setCompress(boolean compress) {
+            this.compress = compress;
+        }
+        
+        public long getNotFoundTtlMillis() {
+            return notFoundTtlMillis;
+        }
+        
+        public void setNotFoundTtlMillis(long notFoundTtlMillis) {
+            this.notFoundTtlMillis = notFoundTtlMillis;
+        }
     }
     
     /**
@@ -93,6 +228,52 @@ public class ValidationEngineProperties {
          */
         private String localBasePath = "/scripts";
         
+        /**
+         * Whether to watch local script files and evict changed ones from the content cache.
+         */
+        private boolean watchFiles = true;
+        
+        /**
+         * How often watched script files are still checked by modification time, in case the
+         * watch service missed a change.
+         */
+        private int watchBackstopSeconds = 30;
+        
+        /**
+         * Compilation mode for Groovy rules that do not specify one.
+         */
+        private ScriptCompilationMode compilationMode = ScriptCompilationMode.DYNAMIC;
+        
+        /**
+         * Maximum number of compiled scripts kept across all tenants.
+         */
+        private int maxCachedScripts = 10_000;
+        
+        /**
+         * Whether to compile uncached scripts in the background, skipping their rules meanwhile.
+         */
+        private boolean asyncCompilation = false;
+        
+        /**
+         * Directory for compiled script bytecode reused across restarts (disabled if not set).
+         */
+        private String compiledCacheDirectory;
+        
+        /**
+         * Seconds a failed script load is remembered before the source is asked again (0 disables).
+         */
+        private long negativeCacheSeconds = 5;
+        
+        /**
+         * Consecutive failures of a script source that open its circuit breaker (0 disables).
+         */
+        private int circuitBreakerThreshold = 5;
+        
+        /**
+         * Seconds an open circuit fails fast before a trial load is let through.
+         */
+        private long circuitBreakerOpenSeconds = 30;
+        
         public S3 getS3() {
             return s3;
         }
@@ -108,6 +289,78 @@ public class ValidationEngineProperties {
         public void setLocalBasePath(String localBasePath) {
             this.localBasePath = localBasePath;
         }
+        
+        public boolean isWatchFiles() {
+            return watchFiles;
+        }
+        
+        public void setWatchFiles(boolean watchFiles) {
+            this.watchFiles = watchFiles;
+        }
+        
+        public int getWatchBackstopSeconds() {
+            return watchBackstopSeconds;
+        }
+        
+        public void setWatchBackstopSeconds(int watchBackstopSeconds) {
+            this.watchBackstopSeconds = watchBackstopSeconds;
+        }
+        
+        public ScriptCompilationMode getCompilationMode() {
+            return compilationMode;
+        }
+        
+        public void setCompilationMode(ScriptCompilationMode compilationMode) {
+            this.compilationMode = compilationMode;
+        }
+        
+        public int getMaxCachedScripts() {
+            return maxCachedScripts;
+        }
+        
+        public void setMaxCachedScripts(int maxCachedScripts) {
+            this.maxCachedScripts = maxCachedScripts;
+        }
+        
+        public boolean isAsyncCompilation() {
+            return asyncCompilation;
+        }
+        
+        public void setAsyncCompilation(boolean asyncCompilation) {
+            this.asyncCompilation = asyncCompilation;
+        }
+        
+        public String getCompiledCacheDirectory() {
+            return compiledCacheDirectory;
+        }
+        
+        public void setCompiledCacheDirectory(String compiledCacheDirectory) {
+            this.compiledCacheDirectory = compiledCacheDirectory;
+        }
+        
+        public long getNegativeCacheSeconds() {
+            return negativeCacheSeconds;
+        }
+        
+        public void setNegativeCacheSeconds(long negativeCacheSeconds) {
+            this.negativeCacheSeconds = negativeCacheSeconds;
+        }
+        
+        public int getCircuitBreakerThreshold() {
+            return circuitBreakerThreshold;
+        }
+        
+        public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+            this.circuitBreakerThreshold = circuitBreakerThreshold;
+        }
+        
+        public long getCircuitBreakerOpenSeconds() {
+            return circuitBreakerOpenSeconds;
+        }
+        
+        public void setCircuitBreakerOpenSeconds(long circuitBreakerOpenSeconds) {
+            this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds;
+        }
     }
     
     /**
@@ -134,6 +387,26 @@ public class ValidationEngineProperties {
          */
         private String keyPrefix = "scripts/";
         
+        /**
+         * Endpoint override for S3-compatible stores (uses path-style access).
+         */
+        private String endpoint;
+        
+        /**
+         * Local directory caching downloaded scripts across restarts; disabled when not set.
+         */
+        private String diskCacheDirectory;
+        
+        /**
+         * Maximum number of concurrent S3 requests.
+         */
+        private int maxConcurrentFetches = 16;
+        
+        /**
+         * Seconds a cached script is served before it is revalidated with a conditional GET.
+         */
+        private long revalidateSeconds = 60;
+        
         public boolean isEnabled() {
             return enabled;
         }
@@ -165,6 +438,38 @@ public class ValidationEngineProperties {
         public void setKeyPrefix(String keyPrefix) {
             this.keyPrefix = keyPrefix;
         }
+        
+        public String getEndpoint() {
+            return endpoint;
+        }
+        
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+        
+        public String getDiskCacheDirectory() {
+            return diskCacheDirectory;
+        }
+        
+        public void setDiskCacheDirectory(String diskCacheDirectory) {
+            this.diskCacheDirectory = diskCacheDirectory;
+        }
+        
+        public int getMaxConcurrentFetches() {
+            return maxConcurrentFetches;
+        }
+        
+        public void setMaxConcurrentFetches(int maxConcurrentFetches) {
+            this.maxConcurrentFetches = maxConcurrentFetches;
+        }
+        
+        public long getRevalidateSeconds() {
+            return revalidateSeconds;
+        }
+        
+        public void setRevalidateSeconds(long revalidateSeconds) {
+            this.revalidateSeconds = revalidateSeconds;
+        }
     }
     
     /**
@@ -172,11 +477,25 @@ public class ValidationEngineProperties {
      */
     public static class Expression {
         /**
-         * Type of expression evaluator to use (SPEL, MVEL, JEXL).
+         * Type of expression evaluator to use (SPEL, MVEL, JEXL, NATIVE, JAVA).
          * Default: SPEL
          */
         private ExpressionEvaluatorType evaluatorType = ExpressionEvaluatorType.SPEL;
         
+        /**
+         * Whether JAVA expressions may be used. They are compiled and run in-process with the
+         * application's privileges, so the evaluator is only registered when this is set.
+         * Default: false
+         */
+        private boolean javaEnabled = false;
+        
+        /**
+         * Tenant-scoped constant context attributes, keyed by tenant ID
+         * (e.g. tenant-constants.acme.tier=premium). Expression rules are partially
+         * evaluated against these when a rule set is loaded.
+         */
+        private Map<String, Map<String, Object>> tenantConstants = new HashMap<>();
+        
         public ExpressionEvaluatorType getEvaluatorType() {
             return evaluatorType;
         }
@@ -184,6 +503,22 @@ public class ValidationEngineProperties {
         public void setEvaluatorType(ExpressionEvaluatorType evaluatorType) {
             this.evaluatorType = evaluatorType != null ? evaluatorType : ExpressionEvaluatorType.SPEL;
         }
+        
+        public boolean isJavaEnabled() {
+            return javaEnabled;
+        }
+        
+        public void setJavaEnabled(boolean javaEnabled) {
+            this.javaEnabled = javaEnabled;
+        }
+        
+        public Map<String, Map<String, Object>> getTenantConstants() {
+            return tenantConstants;
+        }
+        
+        public void setTenantConstants(Map<String, Map<String, Object>> tenantConstants) {
+            this.tenantConstants = tenantConstants != null ? tenantConstants : new HashMap<>();
+        }
     }
 }
 
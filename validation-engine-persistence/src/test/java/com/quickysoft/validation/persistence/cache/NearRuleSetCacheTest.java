@@ -0,0 +1,268 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for NearRuleSetCache, with two nodes sharing an in-memory stand-in for Redis.
+ */
+class NearRuleSetCacheTest {
+    
+    private final SharedCache shared = new SharedCache();
+    private final List<NearRuleSetCache> subscribers = new CopyOnWriteArrayList<>();
+    private RedisTemplate<String, String> redisTemplate;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Pub/sub stand-in: deliver every published message to all nodes
+        redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.convertAndSend(anyString(), any())).thenAnswer(invocation -> {
+            String channel = invocation.getArgument(0);
+            String body = invocation.getArgument(1);
+            DefaultMessage message = new DefaultMessage(
+                    channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+            subscribers.forEach(node -> node.onMessage(message, null));
+            return (long) subscribers.size();
+        });
+    }
+    
+    @Test
+    void testHitIsServedFromMemory() {
+        NearRuleSetCache node = node(Duration.ofMinutes(1));
+        shared.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        
+        RuleSet first = node.getRuleSet("tenant-a", "onboarding", "1.0");
+        RuleSet second = node.getRuleSet("tenant-a", "onboarding", "1.0");
+        
+        assertThat(second).isSameAs(first);
+        assertThat(shared.reads).hasValue(1);
+    }
+    
+    @Test
+    void testEvictionIsBroadcastToOtherNodes() {
+        NearRuleSetCache nodeA = node(Duration.ofMinutes(1));
+        NearRuleSetCache nodeB = node(Duration.ofMinutes(1));
+        nodeA.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        assertThat(nodeB.getRuleSet("tenant-a", "onboarding", "1.0")).isNotNull();
+        
+        // Admin update on node A: evict, then write through the new version
+        nodeA.evictRuleSet("tenant-a", "onboarding", "1.0");
+        nodeA.putRuleSet(ruleSet(Instant.ofEpochMilli(2000)));
+        
+        assertThat(nodeB.getRuleSet("tenant-a", "onboarding", "1.0").updatedAt())
+                .isEqualTo(Instant.ofEpochMilli(2000));
+    }
+    
+    @Test
+    void testVersionStampCatchesMissedInvalidation() {
+        NearRuleSetCache node = node(Duration.ZERO);
+        shared.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        assertThat(node.getRuleSet("tenant-a", "onboarding", "1.0")).isNotNull();
+        
+        // Changed behind the node's back, without a message
+        shared.putRuleSet(ruleSet(Instant.ofEpochMilli(2000)));
+        
+        assertThat(node.getRuleSet("tenant-a", "onboarding", "1.0").updatedAt())
+                .isEqualTo(Instant.ofEpochMilli(2000));
+    }
+    
+    @Test
+    void testInvalidationIsPublishedAfterCommit() {
+        NearRuleSetCache nodeA = node(Duration.ofMinutes(1));
+        NearRuleSetCache nodeB = node(Duration.ofMinutes(1));
+        shared.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        assertThat(nodeB.getRuleSet("tenant-a", "onboarding", "1.0")).isNotNull();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nodeA.evictRuleSet("tenant-a", "onboarding", "1.0");
+            
+            // Not committed yet: node B must not reload the old version from the database
+            verify(redisTemplate, never()).convertAndSend(anyString(), any());
+            assertThat(nodeB.size()).isEqualTo(1);
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(nodeB.size()).isZero();
+    }
+    
+    @Test
+    void testSubMillisecondStampMatchesRedisEncoding() {
+        Map<String, byte[]> redis = new ConcurrentHashMap<>();
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        RedisRuleSetCache redisCache = new RedisRuleSetCache(redisBackedBy(redis, stringCommands), new ObjectMapper());
+        NearRuleSetCache node = new NearRuleSetCache(redisCache, redisTemplate, 100, Duration.ZERO);
+        RuleSet ruleSet = ruleSet(Instant.parse("2024-01-01T10:15:30.123456Z"));
+        node.putRuleSet(ruleSet);
+        
+        // Every read checks the stamp; a matching stamp serves the copy in memory
+        assertThat(node.getRuleSet("tenant-a", "onboarding", "1.0")).isSameAs(ruleSet);
+        assertThat(node.getRuleSet("tenant-a", "onboarding", "1.0")).isSameAs(ruleSet);
+        verify(stringCommands, never()).get("ruleset:tenant-a:onboarding:1.0".getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void testBulkLookupFetchesMissesInOneBatch() {
+        NearRuleSetCache node = node(Duration.ofMinutes(1));
+        shared.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        shared.putRuleSet(RuleSet.builder()
+                .id(UUID.randomUUID()).tenantId("tenant-a").code("payments").name("Payments").version("2.0")
+                .build());
+        node.getRuleSet("tenant-a", "onboarding", "1.0");
+        
+        Map<RuleSetKey, RuleSet> ruleSets = node.getRuleSets(List.of(
+                new RuleSetKey("tenant-a", "onboarding", "1.0"),
+                new RuleSetKey("tenant-a", "payments", "2.0"),
+                new RuleSetKey("tenant-a", "missing", "1.0")));
+        
+        assertThat(ruleSets).containsOnlyKeys(
+                new RuleSetKey("tenant-a", "onboarding", "1.0"), new RuleSetKey("tenant-a", "payments", "2.0"));
+        assertThat(shared.batches).hasValue(1);
+        assertThat(shared.batchedKeys).hasValue(2);
+    }
+    
+    @Test
+    void testSizeIsBounded() {
+        NearRuleSetCache node = new NearRuleSetCache(shared, redisTemplate, 10, Duration.ofMinutes(1));
+        for (int i = 0; i < 25; i++) {
+            node.putRuleSet(RuleSet.builder()
+                    .id(UUID.randomUUID()).tenantId("tenant-a").code("set-" + i).name("Set " + i).version("1.0")
+                    .build());
+        }
+        assertThat(node.size()).isLessThanOrEqualTo(10);
+    }
+    
+    private NearRuleSetCache node(Duration stampCheckInterval) {
+        NearRuleSetCache node = new NearRuleSetCache(shared, redisTemplate, 100, stampCheckInterval);
+        subscribers.add(node);
+        return node;
+    }
+    
+    /**
+     * Template over a map, handling the commands RedisRuleSetCache uses to write and stamp rule sets.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, String> redisBackedBy(Map<String, byte[]> redis, RedisStringCommands stringCommands) {
+        AtomicReference<String> pipelined = new AtomicReference<>();
+        when(stringCommands.set(any(byte[].class), any(byte[].class), any(), any())).thenAnswer(invocation -> {
+            redis.put(new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8), invocation.getArgument(1));
+            return true;
+        });
+        when(stringCommands.get(any(byte[].class))).thenAnswer(invocation -> {
+            pipelined.set(new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8));
+            return null;
+        });
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.keyCommands()).thenReturn(mock(RedisKeyCommands.class));
+        when(connection.closePipeline()).thenAnswer(invocation ->
+                Arrays.asList(redis.get(pipelined.get()), Duration.ofHours(1).toMillis()));
+        
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        doAnswer(invocation -> redis.put(invocation.getArgument(0),
+                invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        RedisTemplate<String, String> template = mock(RedisTemplate.class);
+        when(template.opsForValue()).thenReturn(values);
+        when(template.execute(any(RedisCallback.class))).thenAnswer(
+                invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        return template;
+    }
+    
+    private static RuleSet ruleSet(Instant updatedAt) {
+        return RuleSet.builder()
+                .id(UUID.randomUUID())
+                .tenantId("tenant-a")
+                .code("onboarding")
+                .name("Onboarding")
+                .version("1.0")
+                .updatedAt(updatedAt)
+                .build();
+    }
+    
+    /**
+     * In-memory shared cache with version stamps, standing in for Redis.
+     */
+    private static final class SharedCache implements RuleSetCache {
+        
+        private final Map<String, RuleSet> ruleSets = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger batchedKeys = new AtomicInteger();
+        
+        @Override
+        public RuleSet getRuleSet(String tenantId, String ruleSetCode, String version) {
+            reads.incrementAndGet();
+            return ruleSets.get(tenantId + ":" + ruleSetCode + ":" + version);
+        }
+        
+        @Override
+        public Map<RuleSetKey, RuleSet> getRuleSets(Collection<RuleSetKey> keys) {
+            batches.incrementAndGet();
+            batchedKeys.addAndGet(keys.size());
+            Map<RuleSetKey, RuleSet> found = new HashMap<>();
+            for (RuleSetKey key : keys) {
+                RuleSet ruleSet = ruleSets.get(key.tenantId() + ":" + key.ruleSetCode() + ":" + key.version());
+                if (ruleSet != null) {
+                    found.put(key, ruleSet);
+                }
+            }
+            return found;
+        }
+        
+        @Override
+        public void putRuleSet(RuleSet ruleSet) {
+            ruleSets.put(ruleSet.tenantId() + ":" + ruleSet.code() + ":" + ruleSet.version(), ruleSet);
+        }
+        
+        @Override
+        public void evictRuleSet(String tenantId, String ruleSetCode, String version) {
+            ruleSets.remove(tenantId + ":" + ruleSetCode + ":" + version);
+        }
+        
+        @Override
+        public Instant getVersionStamp(String tenantId, String ruleSetCode, String version) {
+            RuleSet ruleSet = ruleSets.get(tenantId + ":" + ruleSetCode + ":" + version);
+            return ruleSet != null ? ruleSet.updatedAt() : null;
+        }
+    }
+}
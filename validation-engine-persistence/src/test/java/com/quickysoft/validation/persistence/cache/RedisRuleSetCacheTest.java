@@ -0,0 +1,229 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.provider.RuleSetKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RedisRuleSetCache TTL jitter, refresh-ahead and stale-while-revalidate.
+ */
+class RedisRuleSetCacheTest {
+    
+    private static final Duration TTL = Duration.ofHours(10);
+    private static final Duration STALE_WINDOW = Duration.ofHours(1);
+    
+    private final JsonRuleSetCodec codec = new JsonRuleSetCodec(new ObjectMapper());
+    private final List<RuleSetKey> reloads = new CopyOnWriteArrayList<>();
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisConnection connection;
+    private RedisRuleSetCache cache;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+        redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(
+                invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        
+        cache = new RedisRuleSetCache(redisTemplate, codec);
+        cache.setTtl(TTL);
+        cache.setStaleWhileRevalidate(STALE_WINDOW);
+        cache.setRefreshAhead(0.8);
+        cache.setRefreshExecutor(Runnable::run);
+    }
+    
+    @Test
+    void testTtlIsJitteredAndExtendedByStaleWindow() {
+        cache.setTtlJitter(0.1);
+        for (int i = 0; i < 20; i++) {
+            cache.putRuleSet(ruleSet(Instant.ofEpochMilli(1000)));
+        }
+        
+        ArgumentCaptor<Expiration> expirations = ArgumentCaptor.forClass(Expiration.class);
+        verify(connection.stringCommands(), atLeastOnce()).set(
+                any(byte[].class), any(byte[].class), expirations.capture(), any(RedisStringCommands.SetOption.class));
+        List<Long> millis = expirations.getAllValues().stream()
+                .map(Expiration::getExpirationTimeInMilliseconds)
+                .toList();
+        assertThat(millis).hasSize(20).allSatisfy(expiry -> assertThat(expiry)
+                .isBetween(TTL.multipliedBy(9).dividedBy(10).plus(STALE_WINDOW).toMillis(),
+                        TTL.plus(STALE_WINDOW).toMillis()));
+        assertThat(millis.stream().distinct().count()).isGreaterThan(1);
+    }
+    
+    @Test
+    void testFreshEntryIsNotReloaded() throws Exception {
+        cache.setReloader(this::reload);
+        stubEntry(STALE_WINDOW.plus(Duration.ofHours(5)));
+        
+        assertThat(cache.getRuleSet("tenant-a", "onboarding", "1.0")).isNotNull();
+        
+        assertThat(reloads).isEmpty();
+    }
+    
+    @Test
+    void testEntryPastRefreshAheadIsReloadedInBackground() throws Exception {
+        cache.setReloader(this::reload);
+        stubEntry(STALE_WINDOW.plus(Duration.ofHours(1)));
+        
+        RuleSet ruleSet = cache.getRuleSet("tenant-a", "onboarding", "1.0");
+        
+        // The cached copy is returned; the reloaded one is written back if the stamp is unchanged
+        assertThat(ruleSet.updatedAt()).isEqualTo(Instant.ofEpochMilli(1000));
+        assertThat(reloads).containsExactly(new RuleSetKey("tenant-a", "onboarding", "1.0"));
+        List<String> args = conditionalWriteArguments();
+        assertThat(args.subList(0, 3)).containsExactly("ruleset-stamp:tenant-a:onboarding:1.0",
+                "ruleset:tenant-a:onboarding:1.0", Instant.ofEpochMilli(1000).toString());
+        assertThat(codec.decode(args.get(3).getBytes(StandardCharsets.UTF_8)).updatedAt())
+                .isEqualTo(Instant.ofEpochMilli(2000));
+        assertThat(args.get(4)).isEqualTo(Instant.ofEpochMilli(2000).toString());
+        verify(redisTemplate.opsForValue(), never()).set(anyString(), any(String.class), any(Duration.class));
+    }
+    
+    @Test
+    void testReloadStartedFromAStampCheckExpectsThatStamp() {
+        cache.setReloader(this::reload);
+        when(connection.closePipeline()).thenReturn(Arrays.asList(
+                "2024-01-01T00:00:00.000001Z".getBytes(StandardCharsets.UTF_8), Duration.ofMinutes(10).toMillis()));
+        
+        cache.getVersionStamp("tenant-a", "onboarding", "1.0");
+        
+        // A newer admin write or an eviction changes the stamp key, and the reload is then discarded
+        assertThat(conditionalWriteArguments().get(2)).isEqualTo("2024-01-01T00:00:00.000001Z");
+    }
+    
+    @Test
+    void testStaleEntryIsServedAndEvictedWhenDeleted() throws Exception {
+        cache.setReloader(key -> {
+            reloads.add(key);
+            return null;
+        });
+        stubEntry(Duration.ofMinutes(10));
+        
+        assertThat(cache.getRuleSet("tenant-a", "onboarding", "1.0")).isNotNull();
+        
+        assertThat(reloads).hasSize(1);
+        // Deleted conditionally, with no data to write
+        assertThat(conditionalWriteArguments().get(3)).isEmpty();
+        verify(redisTemplate, never()).delete(anyString());
+        verify(redisTemplate.opsForValue(), never()).set(anyString(), any(String.class), any(Duration.class));
+    }
+    
+    @Test
+    void testRejectedRefreshIsRetriedOnNextRead() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        cache.setRefreshExecutor(task -> {
+            if (rejected.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("queue full");
+            }
+            task.run();
+        });
+        cache.setReloader(this::reload);
+        stubEntry(STALE_WINDOW.plus(Duration.ofHours(1)));
+        
+        cache.getRuleSet("tenant-a", "onboarding", "1.0");
+        assertThat(reloads).isEmpty();
+        
+        cache.getRuleSet("tenant-a", "onboarding", "1.0");
+        assertThat(reloads).hasSize(1);
+    }
+    
+    @Test
+    void testVersionStampKeepsSubMillisecondPrecision() {
+        Instant updatedAt = Instant.parse("2024-01-01T10:15:30.123456789Z");
+        cache.putRuleSet(ruleSet(updatedAt));
+        ArgumentCaptor<String> stamp = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate.opsForValue()).set(
+                eq("ruleset-stamp:tenant-a:onboarding:1.0"), stamp.capture(), any(Duration.class));
+        when(connection.closePipeline()).thenReturn(Arrays.asList(
+                stamp.getValue().getBytes(StandardCharsets.UTF_8), TTL.toMillis()));
+        
+        // Prepared handles and the near cache compare the stamp with updatedAt by equality
+        assertThat(cache.getVersionStamp("tenant-a", "onboarding", "1.0")).isEqualTo(updatedAt);
+    }
+    
+    @Test
+    void testBatchReadUsesOneMgetAndSkipsMissingAndCorruptEntries() throws Exception {
+        cache.setReloader(this::reload);
+        RuleSetKey cached = new RuleSetKey("tenant-a", "onboarding", "1.0");
+        RuleSetKey absent = new RuleSetKey("tenant-a", "kyc", "1.0");
+        RuleSetKey corrupt = new RuleSetKey("tenant-a", "aml", "1.0");
+        when(connection.stringCommands().mGet(any(byte[][].class))).thenReturn(Arrays.asList(
+                codec.encode(ruleSet(Instant.ofEpochMilli(1000))), null, "{".getBytes(StandardCharsets.UTF_8)));
+        
+        Map<RuleSetKey, RuleSet> ruleSets = cache.getRuleSets(List.of(cached, absent, corrupt));
+        
+        assertThat(ruleSets).containsOnlyKeys(cached);
+        ArgumentCaptor<byte[][]> keys = ArgumentCaptor.forClass(byte[][].class);
+        verify(connection.stringCommands()).mGet(keys.capture());
+        assertThat(Arrays.stream(keys.getValue()).map(key -> new String(key, StandardCharsets.UTF_8)))
+                .containsExactly("ruleset:tenant-a:onboarding:1.0", "ruleset:tenant-a:kyc:1.0",
+                        "ruleset:tenant-a:aml:1.0");
+        // MGET returns no TTLs, so batch reads never trigger refresh-ahead
+        assertThat(reloads).isEmpty();
+    }
+    
+    private List<String> conditionalWriteArguments() {
+        ArgumentCaptor<byte[][]> arguments = ArgumentCaptor.forClass(byte[][].class);
+        verify(connection.scriptingCommands()).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                arguments.capture());
+        return Arrays.stream(arguments.getValue())
+                .map(argument -> new String(argument, StandardCharsets.UTF_8))
+                .toList();
+    }
+    
+    private void stubEntry(Duration remaining) throws Exception {
+        byte[] data = codec.encode(ruleSet(Instant.ofEpochMilli(1000)));
+        when(connection.closePipeline()).thenReturn(Arrays.asList(data, remaining.toMillis()));
+    }
+    
+    private RuleSet reload(RuleSetKey key) {
+        reloads.add(key);
+        return ruleSet(Instant.ofEpochMilli(2000));
+    }
+    
+    private static RuleSet ruleSet(Instant updatedAt) {
+        return RuleSet.builder()
+                .id(UUID.randomUUID())
+                .tenantId("tenant-a")
+                .code("onboarding")
+                .name("Onboarding")
+                .version("1.0")
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
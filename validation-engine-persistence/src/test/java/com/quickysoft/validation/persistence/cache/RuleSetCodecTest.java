@@ -0,0 +1,70 @@
+package com.quickysoft.validation.persistence.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickysoft.validation.core.engine.expression.ExpressionEvaluatorType;
+import com.quickysoft.validation.core.model.ExpressionRule;
+import com.quickysoft.validation.core.model.GroovyScriptRule;
+import com.quickysoft.validation.core.model.RuleSet;
+import com.quickysoft.validation.core.model.ScriptCompilationMode;
+import com.quickysoft.validation.core.model.ScriptLocationType;
+import com.quickysoft.validation.core.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the rule set codecs.
+ */
+class RuleSetCodecTest {
+    
+    @Test
+    void testJsonCodecRoundTripsRuleTypes() throws Exception {
+        RuleSetCodec codec = new JsonRuleSetCodec(new ObjectMapper());
+        RuleSet ruleSet = ruleSet("return payload != null");
+        
+        assertThat(codec.decode(codec.encode(ruleSet))).isEqualTo(ruleSet);
+    }
+    
+    @Test
+    void testBinaryCodecRoundTripsAndCompresses() throws Exception {
+        String script = "def total = 0\n".repeat(5_000) + "return total == 0";
+        RuleSet ruleSet = ruleSet(script);
+        
+        byte[] plain = new BinaryRuleSetCodec(false).encode(ruleSet);
+        byte[] compressed = new BinaryRuleSetCodec(true).encode(ruleSet);
+        
+        assertThat(new BinaryRuleSetCodec(true).decode(plain)).isEqualTo(ruleSet);
+        assertThat(new BinaryRuleSetCodec(false).decode(compressed)).isEqualTo(ruleSet);
+        assertThat(compressed.length).isLessThan(plain.length / 10);
+        assertThat(plain.length).isLessThan(new JsonRuleSetCodec(new ObjectMapper()).encode(ruleSet).length);
+    }
+    
+    @Test
+    void testBinaryCodecRejectsOtherFormats() throws Exception {
+        byte[] json = new JsonRuleSetCodec(new ObjectMapper()).encode(ruleSet("return true"));
+        
+        assertThatThrownBy(() -> new BinaryRuleSetCodec(true).decode(json))
+                .isInstanceOf(IOException.class);
+    }
+    
+    private static RuleSet ruleSet(String script) {
+        ExpressionRule expressionRule = new ExpressionRule(UUID.randomUUID(), "tenant-a", "age-check", "Age check",
+                null, 1, true, Severity.WARN, Set.of("onboarding"), Map.of("owner", "risk"), "Too young",
+                "#payload.age >= 18", ExpressionEvaluatorType.SPEL, LocalDateTime.of(2024, 1, 2, 3, 4, 5), null);
+        GroovyScriptRule groovyRule = new GroovyScriptRule(UUID.randomUUID(), "tenant-a", "script-check",
+                "Script check", "Inline script", 2, false, Severity.ERROR, Set.of(), Map.of(), null,
+                ScriptLocationType.INLINE, script, ScriptCompilationMode.STATIC, null, LocalDateTime.now());
+        return new RuleSet(UUID.randomUUID(), "tenant-a", "onboarding", "Onboarding", null, "1.0", true,
+                List.of(expressionRule, groovyRule), Instant.parse("2024-01-01T00:00:00Z"), Instant.now(),
+                "admin", null);
+    }
+}